@@ -20,57 +20,84 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Range;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.net.Socket;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
+import io.github.sparky983.diorite.io.DecodeLimits;
 import io.github.sparky983.diorite.io.RuntimeIOException;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.io.compression.Compression;
+import io.github.sparky983.diorite.io.encryption.Encryption;
+import io.github.sparky983.diorite.io.encryption.EncryptionStage;
 import io.github.sparky983.diorite.net.Channel;
 import io.github.sparky983.diorite.net.ChannelState;
 import io.github.sparky983.diorite.net.annotations.Port;
-import io.github.sparky983.diorite.net.packet.Packet;
+import io.github.sparky983.diorite.net.packet.PacketHandler;
 import io.github.sparky983.diorite.net.packet.PacketRegistries;
 import io.github.sparky983.diorite.net.packet.PacketRegistry;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.format.PacketFormat;
+import io.github.sparky983.diorite.net.packet.format.PreEncodedPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.util.Preconditions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
 
 final class ClientChannel implements Channel<ClientBoundPacket, ServerBoundPacket> {
 
+    private static final int BUFFER_SIZE = 8192;
+
     private final String host;
     private final int port;
     private final Socket client;
+    private final EncryptionStage encryptionStage;
+    private final BufferedOutputStream bufferedOutputStream;
     private final StreamOut outputStream;
     private final StreamIn inputStream;
 
     private final PacketListener packetListener;
+    private final KeepAliveResponder keepAliveResponder;
+    private final DecodeStatisticsImpl decodeStatistics = new DecodeStatisticsImpl();
 
     private final ExecutorService executor;
+    private final Compression compression;
+    private final DecodeLimits decodeLimits;
 
-    private final Sinks.Many<Packet> packets;
+    private final PacketDispatcher dispatcher = new PacketDispatcher();
 
-    private ChannelState state = ChannelState.HANDSHAKING;
-    private PacketFormat packetFormat = PacketFormat.uncompressed(this);
+    // set by the listener thread on login success, read by the caller
+    private volatile ChannelState state = ChannelState.HANDSHAKING;
+    private volatile PacketFormat packetFormat;
+    private volatile boolean compressed = false;
+    private volatile int compressionThreshold = 0;
 
-    private PacketRegistry packetRegistry = PacketRegistry.EMPTY;
+    private volatile PacketRegistry packetRegistry = PacketRegistry.EMPTY;
 
     public ClientChannel(final @NotNull String host,
             final @Port int port,
             final @NotNull ExecutorService executor,
-            final Sinks.@NotNull Many<Packet> packets) {
+            final @NotNull PacketHandler packetHandler,
+            final @NotNull Executor decodeExecutor,
+            final @NotNull Compression compression,
+            final @NotNull DecodeLimits decodeLimits) {
 
         try {
             client = new Socket(host, port);
-            outputStream = StreamOut.from(client.getOutputStream());
-            inputStream = StreamIn.from(client.getInputStream());
+            // buffers sit above the encryption stage so the ciphers work on whole buffers
+            encryptionStage = EncryptionStage.of(client.getInputStream(), client.getOutputStream());
+            bufferedOutputStream = new BufferedOutputStream(
+                    encryptionStage.getOutputStream(),
+                    BUFFER_SIZE
+            );
+            outputStream = StreamOut.from(bufferedOutputStream);
+            inputStream = StreamIn.from(
+                    new BufferedInputStream(encryptionStage.getInputStream(), BUFFER_SIZE));
         } catch (final IOException e) {
             throw new RuntimeIOException(e);
         }
@@ -78,21 +105,62 @@ final class ClientChannel implements Channel<ClientBoundPacket, ServerBoundPacke
         this.host = host;
         this.port = port;
         this.executor = executor;
-        this.packets = packets;
-        this.packetListener = new PacketListener(packets, this, inputStream, packetFormat);
+        this.compression = compression;
+        // every frame the connection receives counts against the same connection budget
+        this.decodeLimits = decodeLimits.forConnection();
+        this.packetFormat = PacketFormat.uncompressed(this, this.decodeLimits);
+        this.keepAliveResponder = new KeepAliveResponder(this, packetHandler, decodeStatistics);
+        this.packetListener = new PacketListener(
+                dispatcher,
+                this,
+                inputStream,
+                packetFormat,
+                keepAliveResponder,
+                decodeStatistics,
+                decodeExecutor,
+                // the connection's own threads, so a blocking subscriber doesn't hold up others
+                executor
+        );
         executor.submit(this.packetListener);
     }
 
     @Override
     public @Range(from = 0, to = Integer.MAX_VALUE) int getCompressionThreshold() {
 
-        return 0;
+        return compressionThreshold;
     }
 
     @Override
     public void setCompression(final @Range(from = 0, to = Integer.MAX_VALUE) int threshold) {
 
-        setPacketFormat(PacketFormat.compressed(this, threshold, Compression.zlib()));
+        setPacketFormat(PacketFormat.compressed(this, threshold, compression, decodeLimits));
+        compressionThreshold = threshold;
+        compressed = true;
+    }
+
+    /**
+     * Returns whether the compressed packet format is in use.
+     */
+    boolean isCompressed() {
+
+        return compressed;
+    }
+
+    @Override
+    public boolean isEncrypted() {
+
+        return encryptionStage.isEnabled();
+    }
+
+    @Override
+    public void setEncryption(final @NotNull Encryption encryption) {
+
+        Preconditions.requireNotNull(encryption, "encryption");
+
+        synchronized (bufferedOutputStream) {
+            flush();
+            encryptionStage.enable(encryption);
+        }
     }
 
     @Override
@@ -113,9 +181,7 @@ final class ClientChannel implements Channel<ClientBoundPacket, ServerBoundPacke
     @Override
     public <T extends ClientBoundPacket> @NotNull Flux<T> on(final @NotNull Class<T> packetType) {
 
-        return packetListener.getPackets()
-                .asFlux()
-                .ofType(packetType);
+        return dispatcher.on(packetType);
     }
 
     @Override
@@ -123,12 +189,78 @@ final class ClientChannel implements Channel<ClientBoundPacket, ServerBoundPacke
 
         return Mono.fromFuture(
                 CompletableFuture.runAsync(
-                        () -> packetFormat.encode(packet, outputStream),
+                        () -> sendPacketNow(packet),
                         executor
                 )
         );
     }
 
+    @Override
+    public @NotNull Mono<Void> sendPacket(
+            final @NotNull PreEncodedPacket<? extends ServerBoundPacket> packet) {
+
+        Preconditions.requireNotNull(packet, "packet");
+
+        return Mono.fromFuture(
+                CompletableFuture.runAsync(
+                        () -> {
+                            synchronized (bufferedOutputStream) {
+                                packetFormat.encode(packet, outputStream);
+                                flush();
+                            }
+                        },
+                        executor
+                )
+        );
+    }
+
+    /**
+     * Encodes and flushes the packet on the calling thread.
+     */
+    void sendPacketNow(final @NotNull ServerBoundPacket packet) {
+
+        synchronized (bufferedOutputStream) {
+            packetFormat.encode(packet, outputStream);
+            flush();
+        }
+    }
+
+    /**
+     * Writes and flushes an already encoded frame.
+     */
+    void writeFrame(final byte @NotNull [] frame, final int length) {
+
+        synchronized (bufferedOutputStream) {
+            try {
+                bufferedOutputStream.write(frame, 0, length);
+            } catch (final IOException e) {
+                throw new RuntimeIOException(e);
+            }
+            flush();
+        }
+    }
+
+    @Contract(pure = true)
+    @NotNull KeepAliveStatistics getKeepAliveStatistics() {
+
+        return keepAliveResponder;
+    }
+
+    @Contract(pure = true)
+    @NotNull DecodeStatistics getDecodeStatistics() {
+
+        return decodeStatistics;
+    }
+
+    private void flush() {
+
+        try {
+            bufferedOutputStream.flush();
+        } catch (final IOException e) {
+            throw new RuntimeIOException(e);
+        }
+    }
+
     @Override
     public @NotNull ChannelState getState() {
 
@@ -158,6 +290,8 @@ final class ClientChannel implements Channel<ClientBoundPacket, ServerBoundPacke
                 break;
         }
         this.state = state;
+        // packet ids are only unique within a state
+        dispatcher.invalidate();
     }
 
     @Override
@@ -171,7 +305,7 @@ final class ClientChannel implements Channel<ClientBoundPacket, ServerBoundPacke
 
         try {
             setState(ChannelState.DISCONNECTED);
-            packets.emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+            dispatcher.complete();
             client.close();
         } catch (final IOException e) {
             throw new RuntimeIOException(e);
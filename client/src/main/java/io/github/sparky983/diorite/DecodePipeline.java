@@ -0,0 +1,203 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import io.github.sparky983.diorite.net.packet.Packet;
+import io.github.sparky983.diorite.net.packet.PacketHandler;
+import io.github.sparky983.diorite.net.packet.format.EncodedPacket;
+
+/**
+ * Decodes a connection's packets on a worker pool while the listener thread carries on reading,
+ * delivering them in the order they were received.
+ * <p>
+ * Each packet the listener reads is queued in a slot, in order, and decoded by a worker. Whichever
+ * thread completes the slot at the head of the queue schedules a delivery on the connection's own
+ * executor, which delivers every completed slot from the head onwards, so a slow packet holds back
+ * the ones after it without stopping them from being decoded. Only one delivery runs at a time,
+ * which keeps dispatching serial, as it was on the listener thread, and a subscriber that blocks
+ * only holds up its own connection.
+ * <p>
+ * Packets with a {@link PacketHandler} callback, and packets too large to be read into memory, are
+ * decoded by the listener as they're read. Their callbacks aren't held up behind the packets in
+ * the queue, and the packets they decode to are queued already decoded.
+ */
+final class DecodePipeline {
+
+    /**
+     * The pool connections decode on unless they're given an executor.
+     */
+    static final Executor SHARED_EXECUTOR = new ForkJoinPool(
+            Runtime.getRuntime().availableProcessors(),
+            ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+            null,
+            true
+    );
+
+    /**
+     * The number of bytes that can be read ahead of the packet being delivered, so a stalled
+     * subscriber stops the connection from being read rather than filling the heap.
+     */
+    static final int MAX_BYTES_IN_FLIGHT = 8 * 1024 * 1024;
+
+    private final Executor executor;
+    private final Executor deliveryExecutor;
+    private final PacketDispatcher dispatcher;
+    private final PacketHandler handler;
+    private final Consumer<Exception> errorHandler;
+
+    private final Queue<Slot> slots = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean delivering = new AtomicBoolean(false);
+    private final Semaphore bytesInFlight = new Semaphore(MAX_BYTES_IN_FLIGHT);
+    private final Runnable delivery = this::deliver;
+
+    DecodePipeline(final @NotNull Executor executor,
+            final @NotNull Executor deliveryExecutor,
+            final @NotNull PacketDispatcher dispatcher,
+            final @NotNull PacketHandler handler,
+            final @NotNull Consumer<Exception> errorHandler) {
+
+        this.executor = executor;
+        this.deliveryExecutor = deliveryExecutor;
+        this.dispatcher = dispatcher;
+        this.handler = handler;
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Queues the packet to be decoded and delivered. Only called by the listener thread, which
+     * blocks while too many bytes are in flight.
+     */
+    void submit(final @NotNull EncodedPacket encodedPacket) throws InterruptedException {
+
+        // a packet larger than the limit only has to wait for the pipeline to empty
+        final int permits = Math.min(Math.max(encodedPacket.getLength(), 1), MAX_BYTES_IN_FLIGHT);
+        try {
+            bytesInFlight.acquire(permits);
+        } catch (final InterruptedException e) {
+            encodedPacket.release();
+            throw e;
+        }
+
+        final Slot slot = new Slot(encodedPacket, permits);
+        slots.add(slot);
+
+        executor.execute(() -> {
+            try {
+                // the listener decodes the packets with callbacks, so the handler isn't needed
+                slot.packet = encodedPacket.decode(PacketHandler.NONE);
+            } catch (final RuntimeException e) {
+                slot.error = e;
+            }
+            slot.done = true;
+            scheduleDelivery();
+        });
+    }
+
+    /**
+     * Queues a packet the listener has already decoded to be delivered after the packets before
+     * it. Only called by the listener thread, which blocks while too many bytes are in flight.
+     */
+    void submitDecoded(final @NotNull Packet packet) {
+
+        // its bytes have already been released, but it still holds a place in the queue
+        bytesInFlight.acquireUninterruptibly();
+
+        final Slot slot = new Slot(null, 1);
+        slot.packet = packet;
+        slot.done = true;
+        slots.add(slot);
+        scheduleDelivery();
+    }
+
+    private void scheduleDelivery() {
+
+        if (delivering.compareAndSet(false, true)) {
+            deliveryExecutor.execute(delivery);
+        }
+    }
+
+    private void deliver() {
+
+        do {
+            try {
+                Slot slot;
+                while ((slot = slots.peek()) != null && slot.done) {
+                    slots.poll();
+                    deliver(slot);
+                }
+            } finally {
+                delivering.set(false);
+            }
+
+            // the head may have been completed after it was checked, but before delivering was
+            // cleared, in which case the thread that completed it didn't schedule a delivery
+            final Slot head = slots.peek();
+            if (head == null || !head.done) {
+                return;
+            }
+        } while (delivering.compareAndSet(false, true));
+    }
+
+    private void deliver(final @NotNull Slot slot) {
+
+        try {
+            if (slot.error != null) {
+                throw slot.error;
+            }
+
+            final Packet packet = slot.packet;
+            if (packet == null) {
+                // only encoded packets can be skipped
+                handler.onSkipped(slot.encodedPacket.getId());
+            } else {
+                dispatcher.dispatch(packet);
+            }
+        } catch (final Exception e) {
+            errorHandler.accept(e);
+        } finally {
+            bytesInFlight.release(slot.permits);
+        }
+    }
+
+    private static final class Slot {
+
+        private final EncodedPacket encodedPacket;
+        private final int permits;
+
+        // written before done, read after it
+        private Packet packet;
+        private RuntimeException error;
+        private volatile boolean done = false;
+
+        private Slot(final @Nullable EncodedPacket encodedPacket, final int permits) {
+
+            this.encodedPacket = encodedPacket;
+            this.permits = permits;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * Statistics about the packets a client has received but not emitted.
+ * <p>
+ * Skipped packets and ignorable decode errors don't affect the connection, so they are counted
+ * here instead of being logged every time.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface DecodeStatistics {
+
+    /**
+     * Returns the number of packets skipped because no decoder is registered for their id.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    long getSkippedPackets();
+
+    /**
+     * Returns the id of the last skipped packet, or {@code -1} if none have been skipped.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int getLastSkippedPacketId();
+
+    /**
+     * Returns the number of packets that failed to decode with an ignorable error.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    long getIgnoredErrors();
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Written to by the listener thread and the thread delivering decoded packets.
+ */
+final class DecodeStatisticsImpl implements DecodeStatistics {
+
+    private final AtomicLong skippedPackets = new AtomicLong();
+    private volatile int lastSkippedPacketId = -1;
+    private final AtomicLong ignoredErrors = new AtomicLong();
+
+    void recordSkipped(final int packetId) {
+
+        skippedPackets.incrementAndGet();
+        lastSkippedPacketId = packetId;
+    }
+
+    /**
+     * Records an ignorable error.
+     *
+     * @return Whether it was the first.
+     */
+    boolean recordIgnoredError() {
+
+        return ignoredErrors.getAndIncrement() == 0;
+    }
+
+    @Override
+    public long getSkippedPackets() {
+
+        return skippedPackets.get();
+    }
+
+    @Override
+    public int getLastSkippedPacketId() {
+
+        return lastSkippedPacketId;
+    }
+
+    @Override
+    public long getIgnoredErrors() {
+
+        return ignoredErrors.get();
+    }
+}
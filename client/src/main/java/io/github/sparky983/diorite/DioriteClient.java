@@ -22,8 +22,13 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Range;
 
+import java.util.concurrent.Executor;
+
+import io.github.sparky983.diorite.io.DecodeLimits;
+import io.github.sparky983.diorite.io.compression.Compression;
 import io.github.sparky983.diorite.net.ChannelState;
 import io.github.sparky983.diorite.net.annotations.Port;
+import io.github.sparky983.diorite.net.packet.PacketHandler;
 import reactor.core.publisher.Mono;
 
 /**
@@ -97,6 +102,24 @@ public interface DioriteClient extends AutoCloseable {
      */
     @Range(from = 0, to = Integer.MAX_VALUE) int getProtocolVersion();
 
+    /**
+     * Returns statistics about the keep-alives and pings the client has answered.
+     * <p>
+     * Keep-alives and pings are answered automatically.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @NotNull KeepAliveStatistics getKeepAliveStatistics();
+
+    /**
+     * Returns statistics about the packets the client has skipped or failed to decode.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @NotNull DecodeStatistics getDecodeStatistics();
+
     /**
      * Sends the specified chat message.
      *
@@ -169,6 +192,72 @@ public interface DioriteClient extends AutoCloseable {
         @Contract(value = "_ -> this")
         @NotNull Builder name(@NotNull String name);
 
+        /**
+         * Sets the handler that the most frequently sent packets are passed to as they are
+         * decoded.
+         * <p>
+         * Packets that the handler handles are never created, so they aren't emitted to packet
+         * subscribers. Keep-alives and pings are answered before the handler is called.
+         *
+         * @param packetHandler The packet handler.
+         * @return The builder instance (for chaining).
+         * @throws NullPointerException if the specified packet handler is {@code null}.
+         * @since 1.0.0
+         */
+        @Contract(value = "_ -> this")
+        @NotNull Builder packetHandler(@NotNull PacketHandler packetHandler);
+
+        /**
+         * Sets the executor that packets received in the play state are decoded on.
+         * <p>
+         * The connection's thread only reads packets, so a large packet doesn't hold up reading the
+         * ones after it. Packets are still emitted to subscribers in the order they were received,
+         * one at a time, but on a thread of the connection's own. Packets with a packet handler
+         * callback, and packets too large to be read into memory, are decoded by the connection's
+         * thread as they're read. By default, every client shares a pool with a thread per
+         * processor.
+         *
+         * @param decodeExecutor The executor.
+         * @return The builder instance (for chaining).
+         * @throws NullPointerException if the specified executor is {@code null}.
+         * @since 1.0.0
+         */
+        @Contract(value = "_ -> this")
+        @NotNull Builder decodeExecutor(@NotNull Executor decodeExecutor);
+
+        /**
+         * Sets the compression that packets are compressed and decompressed with once the server
+         * enables compression. Defaults to {@link Compression#zlib()}.
+         * <p>
+         * An {@link io.github.sparky983.diorite.io.compression.AdaptiveCompression} spends less
+         * time compressing packets that don't shrink, and reports how much time and bandwidth that
+         * trades.
+         *
+         * @param compression The compression.
+         * @return The builder instance (for chaining).
+         * @throws NullPointerException if the specified compression is {@code null}.
+         * @since 1.0.0
+         */
+        @Contract(value = "_ -> this")
+        @NotNull Builder compression(@NotNull Compression compression);
+
+        /**
+         * Sets the limits every received frame is decoded within. Defaults to
+         * {@link DecodeLimits#defaults()}, which accepts every packet the protocol allows.
+         * <p>
+         * Lower limits stop a misbehaving server from making the client allocate more memory for
+         * a packet than its frame could possibly need. The connection gets its own
+         * {@link DecodeLimits#forConnection() connection budget}, so the max connection allocation
+         * rate applies to all of its frames together.
+         *
+         * @param decodeLimits The limits.
+         * @return The builder instance (for chaining).
+         * @throws NullPointerException if the specified limits are {@code null}.
+         * @since 1.0.0
+         */
+        @Contract(value = "_ -> this")
+        @NotNull Builder decodeLimits(@NotNull DecodeLimits decodeLimits);
+
         /**
          * Sets the protocol version.
          * <p>
@@ -186,6 +275,10 @@ public interface DioriteClient extends AutoCloseable {
 
         /**
          * Connects the client to the server.
+         * <p>
+         * If the server requests encryption, the connection is encrypted with a new random shared
+         * secret. The client doesn't authenticate with the session server, so servers in online
+         * mode will disconnect it after the encryption response.
          *
          * @return The client.
          * @since 1.0.0
@@ -20,22 +20,29 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Range;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import javax.crypto.SecretKey;
+
+import io.github.sparky983.diorite.io.DecodeLimits;
+import io.github.sparky983.diorite.io.compression.Compression;
+import io.github.sparky983.diorite.io.encryption.Encryption;
 import io.github.sparky983.diorite.net.ChannelState;
 import io.github.sparky983.diorite.net.Networking;
 import io.github.sparky983.diorite.net.annotations.Port;
+import io.github.sparky983.diorite.net.packet.PacketHandler;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.login.EncryptionRequestPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.login.LoginSuccessPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.login.SetCompressionPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.handshaking.HandshakePacket;
+import io.github.sparky983.diorite.net.packet.serverbound.login.EncryptionResponsePacket;
 import io.github.sparky983.diorite.net.packet.serverbound.login.LoginStartPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.play.ChatMessagePacket;
-import io.github.sparky983.diorite.net.packet.serverbound.play.KeepAlivePacket;
 import io.github.sparky983.diorite.util.Preconditions;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
 
 final class DioriteClientImpl implements DioriteClient {
 
@@ -87,6 +94,18 @@ final class DioriteClientImpl implements DioriteClient {
         return clientChannel.getState();
     }
 
+    @Override
+    public @NotNull KeepAliveStatistics getKeepAliveStatistics() {
+
+        return clientChannel.getKeepAliveStatistics();
+    }
+
+    @Override
+    public @NotNull DecodeStatistics getDecodeStatistics() {
+
+        return clientChannel.getDecodeStatistics();
+    }
+
     @Override
     public @NotNull Mono<Void> chat(final @NotNull String message) {
 
@@ -146,6 +165,10 @@ final class DioriteClientImpl implements DioriteClient {
         private String host = DEFAULT_HOST;
         private int port = DEFAULT_PORT;
         private int protocolVersion = 758;
+        private PacketHandler packetHandler = PacketHandler.NONE;
+        private Executor decodeExecutor = DecodePipeline.SHARED_EXECUTOR;
+        private Compression compression = Compression.zlib();
+        private DecodeLimits decodeLimits = DecodeLimits.defaults();
         private volatile ClientChannel clientChannel;
 
         @Override
@@ -172,6 +195,38 @@ final class DioriteClientImpl implements DioriteClient {
             return this;
         }
 
+        @Override
+        public @NotNull Builder packetHandler(final @NotNull PacketHandler packetHandler) {
+
+            Preconditions.requireNotNull(packetHandler, "packetHandler");
+            this.packetHandler = packetHandler;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder decodeExecutor(final @NotNull Executor decodeExecutor) {
+
+            Preconditions.requireNotNull(decodeExecutor, "decodeExecutor");
+            this.decodeExecutor = decodeExecutor;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder compression(final @NotNull Compression compression) {
+
+            Preconditions.requireNotNull(compression, "compression");
+            this.compression = compression;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder decodeLimits(final @NotNull DecodeLimits decodeLimits) {
+
+            Preconditions.requireNotNull(decodeLimits, "decodeLimits");
+            this.decodeLimits = decodeLimits;
+            return this;
+        }
+
         @Override
         public @NotNull Builder unsafe_ProtocolVersion(
                 final @Range(from = 0, to = Integer.MAX_VALUE) int protocolVersion) {
@@ -192,7 +247,10 @@ final class DioriteClientImpl implements DioriteClient {
                     host,
                     port,
                     executor,
-                    Sinks.many().replay().all()
+                    packetHandler,
+                    decodeExecutor,
+                    compression,
+                    decodeLimits
             );
 
             clientChannel.sendPacket(
@@ -204,22 +262,18 @@ final class DioriteClientImpl implements DioriteClient {
 
             handshake(executor, ChannelState.LOGIN);
 
-            clientChannel.sendPacket(new LoginStartPacket(name)).block();
+            // Subscribed before login start is sent so the callbacks run on the listener thread
+            // before it reads the next packet, which will already be encrypted or compressed.
+            clientChannel.on(EncryptionRequestPacket.class)
+                    .subscribe(this::enableEncryption);
 
             clientChannel.on(SetCompressionPacket.class)
                     .subscribe((packet) -> clientChannel.setCompression(packet.getThreshold()));
 
-            final LoginSuccessPacket loginSuccess = clientChannel.on(LoginSuccessPacket.class)
-                    .blockFirst();
-
-            clientChannel.setState(ChannelState.PLAY);
+            clientChannel.sendPacket(new LoginStartPacket(name)).block();
 
-            clientChannel.on(
-                            io.github.sparky983.diorite.net.packet.clientbound.play.KeepAlivePacket.class)
-                    .subscribe((packet) ->
-                            clientChannel.sendPacket(new KeepAlivePacket(packet.getKeepAliveId()))
-                                    .subscribe()
-                    );
+            // the listener switches to the play state before it dispatches login success
+            clientChannel.on(LoginSuccessPacket.class).blockFirst();
 
             return new DioriteClientImpl(
                     clientChannel,
@@ -229,6 +283,15 @@ final class DioriteClientImpl implements DioriteClient {
             );
         }
 
+        private void enableEncryption(final @NotNull EncryptionRequestPacket packet) {
+
+            final SecretKey sharedSecret = Encryption.generateSharedSecret();
+
+            clientChannel.sendPacket(EncryptionResponsePacket.respondTo(packet, sharedSecret))
+                    .block();
+            clientChannel.setEncryption(Encryption.aes(sharedSecret));
+        }
+
         // TODO(Sparky983): Make connect (blocking) wait for connectAsync, not the other way around
 
         @Override
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import org.jetbrains.annotations.NotNull;
+
+import io.github.sparky983.diorite.net.packet.PacketHandler;
+import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
+import io.github.sparky983.diorite.net.packet.serverbound.play.PongPacket;
+
+/**
+ * Answers keep-alives and pings straight from the decode loop.
+ * <p>
+ * Responses are encoded into preallocated frames by patching the id in place, then written to the
+ * socket under the channel's write lock, so answering doesn't allocate or hop threads. Only used
+ * by one thread at a time, the listener thread or the thread delivering decoded packets.
+ * <p>
+ * Every callback is passed on to the user's handler once answered, which decides whether the
+ * packet is still emitted to subscribers. Being the handler the listener decodes with, skipped
+ * packets are also counted here.
+ */
+final class KeepAliveResponder implements PacketHandler, KeepAliveStatistics {
+
+    // length + data length + packet id + long
+    private static final int MAX_FRAME_LENGTH = 3 + Long.BYTES;
+
+    private final ClientChannel channel;
+    private final PacketHandler handler;
+    private final DecodeStatisticsImpl decodeStatistics;
+
+    private final byte[] frame = new byte[MAX_FRAME_LENGTH];
+
+    private volatile long keepAlivesAnswered = 0;
+    private volatile long pingsAnswered = 0;
+    private volatile long lastTurnaroundNanos = -1;
+    private volatile long maxTurnaroundNanos = -1;
+    private volatile long lastKeepAliveIntervalNanos = -1;
+    private long lastKeepAliveNanos = -1;
+
+    KeepAliveResponder(final @NotNull ClientChannel channel,
+            final @NotNull PacketHandler handler,
+            final @NotNull DecodeStatisticsImpl decodeStatistics) {
+
+        this.channel = channel;
+        this.handler = handler;
+        this.decodeStatistics = decodeStatistics;
+    }
+
+    @Override
+    public boolean onKeepAlive(final long keepAliveId) {
+
+        respondToKeepAlive(keepAliveId, System.nanoTime());
+        return handler.onKeepAlive(keepAliveId);
+    }
+
+    @Override
+    public boolean onPing(final int pingId) {
+
+        respondToPing(pingId, System.nanoTime());
+        return handler.onPing(pingId);
+    }
+
+    @Override
+    public boolean onEntityPosition(final int entityId,
+            final short dx,
+            final short dy,
+            final short dz,
+            final boolean isOnGround) {
+
+        return handler.onEntityPosition(entityId, dx, dy, dz, isOnGround);
+    }
+
+    @Override
+    public boolean onEntityPositionAndRotation(final int entityId,
+            final short dx,
+            final short dy,
+            final short dz,
+            final byte pitch,
+            final byte yaw,
+            final boolean isOnGround) {
+
+        return handler.onEntityPositionAndRotation(entityId, dx, dy, dz, pitch, yaw, isOnGround);
+    }
+
+    @Override
+    public boolean onEntityRotation(final int entityId,
+            final byte pitch,
+            final byte yaw,
+            final boolean isOnGround) {
+
+        return handler.onEntityRotation(entityId, pitch, yaw, isOnGround);
+    }
+
+    @Override
+    public boolean onEntityTeleport(final int entityId,
+            final double x,
+            final double y,
+            final double z,
+            final byte pitch,
+            final byte yaw,
+            final boolean isOnGround) {
+
+        return handler.onEntityTeleport(entityId, x, y, z, pitch, yaw, isOnGround);
+    }
+
+    @Override
+    public boolean onEntityVelocity(final int entityId,
+            final short x,
+            final short y,
+            final short z) {
+
+        return handler.onEntityVelocity(entityId, x, y, z);
+    }
+
+    @Override
+    public boolean onBlockChange(final int x, final int y, final int z, final int blockId) {
+
+        return handler.onBlockChange(x, y, z, blockId);
+    }
+
+    @Override
+    public void onSkipped(final int packetId) {
+
+        decodeStatistics.recordSkipped(packetId);
+        handler.onSkipped(packetId);
+    }
+
+    private void respondToKeepAlive(final long keepAliveId, final long decodedAt) {
+
+        if (lastKeepAliveNanos != -1) {
+            lastKeepAliveIntervalNanos = decodedAt - lastKeepAliveNanos;
+        }
+        lastKeepAliveNanos = decodedAt;
+
+        if (!writeFrame(ServerBoundPacketId.Play.KEEP_ALIVE, keepAliveId, Long.BYTES)) {
+            channel.sendPacketNow(
+                    new io.github.sparky983.diorite.net.packet.serverbound.play.KeepAlivePacket(
+                            keepAliveId));
+        }
+        keepAlivesAnswered++;
+        recordTurnaround(decodedAt);
+    }
+
+    private void respondToPing(final int pingId, final long decodedAt) {
+
+        if (!writeFrame(ServerBoundPacketId.Play.PONG, pingId, Integer.BYTES)) {
+            channel.sendPacketNow(new PongPacket(pingId));
+        }
+        pingsAnswered++;
+        recordTurnaround(decodedAt);
+    }
+
+    /**
+     * Writes a frame with a single byte id and a big endian payload.
+     *
+     * @return {@code false} if the payload has to be compressed, which isn't worth special casing.
+     */
+    private boolean writeFrame(final int id, final long payload, final int payloadLength) {
+
+        final int threshold = channel.getCompressionThreshold();
+        final boolean compressed = channel.isCompressed();
+        final int dataLength = 1 + payloadLength;
+
+        if (compressed && dataLength >= threshold) {
+            return false;
+        }
+
+        int position = 0;
+        if (compressed) {
+            // packet length, then a data length of 0 to mark the packet as uncompressed
+            frame[position++] = (byte) (dataLength + 1);
+            frame[position++] = 0;
+        } else {
+            frame[position++] = (byte) dataLength;
+        }
+        frame[position++] = (byte) id;
+        for (int shift = (payloadLength - 1) * Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            frame[position++] = (byte) (payload >>> shift);
+        }
+
+        channel.writeFrame(frame, position);
+        return true;
+    }
+
+    private void recordTurnaround(final long decodedAt) {
+
+        final long turnaround = System.nanoTime() - decodedAt;
+        lastTurnaroundNanos = turnaround;
+        if (turnaround > maxTurnaroundNanos) {
+            maxTurnaroundNanos = turnaround;
+        }
+    }
+
+    @Override
+    public long getKeepAlivesAnswered() {
+
+        return keepAlivesAnswered;
+    }
+
+    @Override
+    public long getPingsAnswered() {
+
+        return pingsAnswered;
+    }
+
+    @Override
+    public long getLastTurnaroundNanos() {
+
+        return lastTurnaroundNanos;
+    }
+
+    @Override
+    public long getMaxTurnaroundNanos() {
+
+        return maxTurnaroundNanos;
+    }
+
+    @Override
+    public long getLastKeepAliveIntervalNanos() {
+
+        return lastKeepAliveIntervalNanos;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * Statistics about the keep-alives and pings a client has answered.
+ * <p>
+ * The server initiates both exchanges and its ids carry no timestamp the client can interpret, so
+ * the full round-trip time is only observable server-side (it is reported back in the player list).
+ * What the client can measure is its own share of it: the time between a request being decoded
+ * and the response being flushed to the socket.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface KeepAliveStatistics {
+
+    /**
+     * Returns the number of keep-alives answered.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    long getKeepAlivesAnswered();
+
+    /**
+     * Returns the number of pings answered.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    long getPingsAnswered();
+
+    /**
+     * Returns the time in nanoseconds between the last keep-alive or ping being decoded and its
+     * response being flushed, or {@code -1} if none have been answered.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    long getLastTurnaroundNanos();
+
+    /**
+     * Returns the longest time in nanoseconds between a keep-alive or ping being decoded and its
+     * response being flushed, or {@code -1} if none have been answered.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    long getMaxTurnaroundNanos();
+
+    /**
+     * Returns the time in nanoseconds between the last two keep-alives, or {@code -1} if fewer
+     * than two have been received.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    long getLastKeepAliveIntervalNanos();
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.github.sparky983.diorite.net.packet.Packet;
+import io.github.sparky983.diorite.util.Preconditions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Routes each decoded packet straight to the subscribers of its type.
+ * <p>
+ * Routes are cached in an array indexed by packet id, which is only meaningful within a single
+ * {@link io.github.sparky983.diorite.net.ChannelState}, so the cache is dropped whenever the state
+ * or the set of subscribers changes. A cached route is checked against the packet's concrete class
+ * before use, so dispatching costs one uncontended lock, one array load, one class comparison
+ * and one signal per matching subscriber.
+ * <p>
+ * Every dispatched packet is kept, and replayed to subscribers that subscribe after it was
+ * dispatched, so a subscriber sees every packet of its type whenever it subscribes.
+ * <p>
+ * Packets are dispatched by one thread at a time, in the order they were received, subscribers may
+ * come and go from any thread.
+ */
+final class PacketDispatcher {
+
+    // large enough for the ids of every state
+    private static final int MAX_CACHED_ID = 0x80;
+
+    private final Object lock = new Object();
+
+    // guarded by lock
+    private final List<Packet> history = new ArrayList<>();
+
+    private volatile Subscriber[] subscribers = new Subscriber[0];
+    private volatile Route[] routes = new Route[MAX_CACHED_ID];
+    private volatile boolean completed = false;
+
+    /**
+     * Returns a flux of every packet that is an instance of the specified type, starting with the
+     * ones dispatched before subscription.
+     */
+    <T extends Packet> @NotNull Flux<T> on(final @NotNull Class<T> packetType) {
+
+        Preconditions.requireNotNull(packetType, "packetType");
+
+        return Flux.create((sink) -> {
+            final Subscriber subscriber = new Subscriber(packetType, sink);
+
+            synchronized (lock) {
+                // replayed while holding the lock, so the subscriber isn't dispatched a packet until
+                // it has been sent every packet before it
+                for (final Packet packet : history) {
+                    if (packetType.isInstance(packet)) {
+                        sink.next(packetType.cast(packet));
+                    }
+                }
+
+                if (completed) {
+                    sink.complete();
+                    return;
+                }
+                final Subscriber[] subscribers = Arrays.copyOf(
+                        this.subscribers,
+                        this.subscribers.length + 1
+                );
+                subscribers[subscribers.length - 1] = subscriber;
+                this.subscribers = subscribers;
+                invalidate();
+            }
+
+            sink.onDispose(() -> unsubscribe(subscriber));
+        });
+    }
+
+    private void unsubscribe(final @NotNull Subscriber subscriber) {
+
+        synchronized (lock) {
+            final List<Subscriber> subscribers = new ArrayList<>(Arrays.asList(this.subscribers));
+            if (subscribers.remove(subscriber)) {
+                this.subscribers = subscribers.toArray(new Subscriber[0]);
+                invalidate();
+            }
+        }
+    }
+
+    /**
+     * Drops the cached routes. Must be called when the channel's state changes.
+     */
+    void invalidate() {
+
+        // new array rather than clearing, a concurrent dispatch may still be writing to the old one
+        routes = new Route[MAX_CACHED_ID];
+    }
+
+    void dispatch(final @NotNull Packet packet) {
+
+        final Class<?> type = packet.getClass();
+        final int id = packet.getId();
+
+        // the route is looked up while holding the lock, so a subscriber is either sent the packet
+        // here or replayed it, never both
+        Route route;
+        synchronized (lock) {
+            history.add(packet);
+
+            final Route[] routes = this.routes;
+            final boolean cacheable = id >= 0 && id < routes.length;
+
+            route = cacheable ? routes[id] : null;
+            if (route == null || route.type != type) {
+                route = createRoute(type);
+                if (cacheable) {
+                    routes[id] = route;
+                }
+            }
+        }
+
+        // sent outside the lock, so a slow subscriber doesn't hold up subscribing
+        for (final FluxSink<Packet> sink : route.sinks) {
+            sink.next(packet);
+        }
+    }
+
+    private @NotNull Route createRoute(final @NotNull Class<?> type) {
+
+        final List<FluxSink<Packet>> sinks = new ArrayList<>();
+        for (final Subscriber subscriber : subscribers) {
+            if (subscriber.type.isAssignableFrom(type)) {
+                sinks.add(subscriber.sink);
+            }
+        }
+
+        @SuppressWarnings("unchecked") final FluxSink<Packet>[] sinkArray =
+                sinks.toArray(new FluxSink[0]);
+        return new Route(type, sinkArray);
+    }
+
+    /**
+     * Completes every current and future subscriber. Future subscribers are still replayed every
+     * packet dispatched before.
+     */
+    void complete() {
+
+        final Subscriber[] subscribers;
+        synchronized (lock) {
+            completed = true;
+            subscribers = this.subscribers;
+            this.subscribers = new Subscriber[0];
+            invalidate();
+        }
+
+        for (final Subscriber subscriber : subscribers) {
+            subscriber.sink.complete();
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final Class<?> type;
+        private final FluxSink<Packet> sink;
+
+        @SuppressWarnings("unchecked")
+        Subscriber(final @NotNull Class<?> type, final @NotNull FluxSink<?> sink) {
+
+            this.type = type;
+            // only packets of type are ever emitted to the sink
+            this.sink = (FluxSink<Packet>) sink;
+        }
+    }
+
+    private static final class Route {
+
+        private final Class<?> type;
+        private final FluxSink<Packet>[] sinks;
+
+        Route(final @NotNull Class<?> type, final FluxSink<Packet> @NotNull [] sinks) {
+
+            this.type = type;
+            this.sinks = sinks;
+        }
+    }
+}
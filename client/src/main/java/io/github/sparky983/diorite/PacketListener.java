@@ -21,34 +21,67 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
 import io.github.sparky983.diorite.io.DecodeException;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.net.ChannelState;
 import io.github.sparky983.diorite.net.Stateful;
 import io.github.sparky983.diorite.net.packet.Packet;
+import io.github.sparky983.diorite.net.packet.PacketHandler;
+import io.github.sparky983.diorite.net.packet.clientbound.login.LoginSuccessPacket;
+import io.github.sparky983.diorite.net.packet.format.EncodedPacket;
 import io.github.sparky983.diorite.net.packet.format.PacketFormat;
 import io.github.sparky983.diorite.util.Preconditions;
-import reactor.core.publisher.Sinks;
 
+/**
+ * Reads packets from the connection until it is closed.
+ * <p>
+ * Packets received in the play state are handed to a {@link DecodePipeline}, so the listener only
+ * frames and decompresses them, apart from packets with a {@link PacketHandler} callback and
+ * packets too large to be read into memory, which it decodes as it reads them. Packets in earlier
+ * states are decoded and dispatched before the
+ * next frame is read, because their subscribers change the connection's packet format. The
+ * listener switches to the play state itself when it receives login success.
+ */
 final class PacketListener implements Runnable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PacketListener.class);
 
-    private final Sinks.Many<Packet> packets;
+    private final PacketDispatcher dispatcher;
     private final Stateful stateful;
     private final StreamIn inputStream;
-    private PacketFormat packetFormat;
+    private final PacketHandler packetHandler;
+    private final DecodeStatisticsImpl decodeStatistics;
+    private final DecodePipeline decodePipeline;
+    private final Consumer<Packet> decodedPackets;
+    private volatile PacketFormat packetFormat;
 
     @Contract(pure = true)
-    public PacketListener(final Sinks.@NotNull Many<Packet> packets,
+    public PacketListener(final @NotNull PacketDispatcher dispatcher,
             final @NotNull Stateful stateful,
             final @NotNull StreamIn inputStream,
-            final @NotNull PacketFormat initialPacketFormat) {
+            final @NotNull PacketFormat initialPacketFormat,
+            final @NotNull PacketHandler packetHandler,
+            final @NotNull DecodeStatisticsImpl decodeStatistics,
+            final @NotNull Executor decodeExecutor,
+            final @NotNull Executor deliveryExecutor) {
 
-        this.packets = packets;
+        this.dispatcher = dispatcher;
         this.stateful = stateful;
         this.inputStream = inputStream;
         this.packetFormat = initialPacketFormat;
+        this.packetHandler = packetHandler;
+        this.decodeStatistics = decodeStatistics;
+        this.decodePipeline = new DecodePipeline(
+                decodeExecutor,
+                deliveryExecutor,
+                dispatcher,
+                packetHandler,
+                this::handleError
+        );
+        this.decodedPackets = decodePipeline::submitDecoded;
     }
 
     @Contract(mutates = "this")
@@ -59,31 +92,58 @@ final class PacketListener implements Runnable {
         this.packetFormat = packetFormat;
     }
 
-    @Contract(pure = true)
-    public Sinks.@NotNull Many<Packet> getPackets() {
-
-        return packets;
-    }
-
     @Override
     public void run() {
 
         while (stateful.getState() != ChannelState.DISCONNECTED) {
             try {
-                final Packet packet = packetFormat.decode(inputStream);
-                packets.emitNext(packet, Sinks.EmitFailureHandler.FAIL_FAST);
-            } catch (final DecodeException e) {
-                if (!e.isIgnorable()) {
-                    e.printStackTrace();
-                    stateful.close();
-                    break;
+                if (stateful.getState() == ChannelState.PLAY) {
+                    final EncodedPacket encodedPacket =
+                            packetFormat.read(inputStream, packetHandler, decodedPackets);
+                    if (encodedPacket != null) {
+                        decodePipeline.submit(encodedPacket);
+                    }
+                    continue;
+                }
+
+                // keep-alives are answered by the handler, before subscribers that might block
+                final Packet packet = packetFormat.decode(inputStream, packetHandler);
+                if (packet instanceof LoginSuccessPacket) {
+                    // the next frame is a play packet, so the state has to change before it's read
+                    stateful.setState(ChannelState.PLAY);
+                }
+                if (packet != null) {
+                    dispatcher.dispatch(packet);
                 }
-                LOGGER.warn("Ignorable error: {}", e.getMessage());
             } catch (final Exception e) {
-                e.printStackTrace();
-                stateful.close();
-                break;
+                if (!handleError(e)) {
+                    break;
+                }
             }
         }
     }
+
+    /**
+     * Handles an exception thrown while reading or decoding a packet, closing the channel unless
+     * it is an ignorable {@link DecodeException}. Called by the listener thread and the thread
+     * delivering decoded packets.
+     *
+     * @return Whether the channel is still open.
+     */
+    private boolean handleError(final @NotNull Exception e) {
+
+        if (!(e instanceof DecodeException) || !((DecodeException) e).isIgnorable()) {
+            e.printStackTrace();
+            stateful.close();
+            return false;
+        }
+
+        // counted rather than logged every time, a single bad packet type could flood the log
+        if (decodeStatistics.recordIgnoredError()) {
+            LOGGER.warn("Ignorable error, further ones are logged at debug level", e);
+        } else {
+            LOGGER.debug("Ignorable error: {}", e.getMessage());
+        }
+        return true;
+    }
 }
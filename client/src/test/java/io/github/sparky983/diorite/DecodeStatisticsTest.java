@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.github.sparky983.diorite.io.DecodeLimits;
+import io.github.sparky983.diorite.io.compression.Compression;
+import io.github.sparky983.diorite.net.ChannelState;
+import io.github.sparky983.diorite.net.packet.PacketHandler;
+
+class DecodeStatisticsTest {
+
+    private static final int THREADS = 4;
+    private static final int RECORDS_PER_THREAD = 10_000;
+
+    @Test
+    void recordIgnoredError_ReportsFirstErrorOnce_WhenRecordedFromManyThreads()
+            throws Exception {
+
+        final DecodeStatisticsImpl statistics = new DecodeStatisticsImpl();
+
+        final List<Boolean> firsts = runConcurrently(() -> {
+            boolean first = false;
+            for (int i = 0; i < RECORDS_PER_THREAD; i++) {
+                first |= statistics.recordIgnoredError();
+            }
+            return first;
+        });
+
+        assertEquals(1, firsts.stream().filter(Boolean::booleanValue).count());
+        assertEquals(THREADS * RECORDS_PER_THREAD, statistics.getIgnoredErrors());
+    }
+
+    @Test
+    void recordSkipped_CountsEveryPacket_WhenRecordedFromManyThreads() throws Exception {
+
+        final DecodeStatisticsImpl statistics = new DecodeStatisticsImpl();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < RECORDS_PER_THREAD; i++) {
+                statistics.recordSkipped(0x7F);
+            }
+            return true;
+        });
+
+        assertEquals(THREADS * RECORDS_PER_THREAD, statistics.getSkippedPackets());
+        assertEquals(0x7F, statistics.getLastSkippedPacketId());
+    }
+
+    @Test
+    void getDecodeStatistics_CountsSkippedPacket_WhenNoDecoderIsRegistered()
+            throws IOException, InterruptedException {
+
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try (final ServerSocket server = new ServerSocket(0)) {
+            final ClientChannel channel = new ClientChannel("localhost",
+                    server.getLocalPort(),
+                    executor,
+                    PacketHandler.NONE,
+                    Runnable::run,
+                    Compression.zlib(),
+                    DecodeLimits.defaults());
+            try (final Socket socket = server.accept()) {
+                // no packets are registered before the handshake, so the frame is skipped
+                socket.getOutputStream().write(new byte[]{2, 0x7F, 0});
+                socket.getOutputStream().flush();
+
+                final DecodeStatistics statistics = channel.getDecodeStatistics();
+                final long deadline = System.nanoTime() + 5_000_000_000L;
+                while (statistics.getSkippedPackets() == 0 && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+
+                assertEquals(1, statistics.getSkippedPackets());
+                assertEquals(0x7F, statistics.getLastSkippedPacketId());
+                assertEquals(0, statistics.getIgnoredErrors());
+                assertEquals(ChannelState.HANDSHAKING, channel.getState());
+            } finally {
+                channel.close();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> List<T> runConcurrently(final Callable<T> task) throws Exception {
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            final List<T> results = new ArrayList<>();
+            for (final Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import io.github.sparky983.diorite.io.DecodeLimits;
+import io.github.sparky983.diorite.io.compression.Compression;
+import io.github.sparky983.diorite.net.packet.PacketHandler;
+import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
+
+class KeepAliveResponderTest {
+
+    private static final long KEEP_ALIVE_ID = 0x0102030405060708L;
+    private static final int PING_ID = 0x0A0B0C0D;
+
+    // the id and the payload of a keep-alive response
+    private static final byte[] KEEP_ALIVE = {
+            ServerBoundPacketId.Play.KEEP_ALIVE, 1, 2, 3, 4, 5, 6, 7, 8
+    };
+    private static final byte[] PONG = {ServerBoundPacketId.Play.PONG, 0x0A, 0x0B, 0x0C, 0x0D};
+
+    /**
+     * Connects a channel to a local server and runs the exchange with a responder writing to the
+     * channel and a stream of what the server receives.
+     */
+    private static void connect(final Exchange exchange) throws Exception {
+
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try (final ServerSocket server = new ServerSocket(0)) {
+            final ClientChannel channel = new ClientChannel("localhost",
+                    server.getLocalPort(),
+                    executor,
+                    PacketHandler.NONE,
+                    Runnable::run,
+                    Compression.zlib(),
+                    DecodeLimits.defaults());
+            try (final Socket socket = server.accept()) {
+                socket.setSoTimeout(5_000);
+                final KeepAliveResponder responder = new KeepAliveResponder(channel,
+                        PacketHandler.NONE, new DecodeStatisticsImpl());
+                exchange.run(channel, responder, new DataInputStream(socket.getInputStream()));
+            } finally {
+                channel.close();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] readBytes(final DataInputStream inputStream, final int length)
+            throws IOException {
+
+        final byte[] bytes = new byte[length];
+        inputStream.readFully(bytes);
+        return bytes;
+    }
+
+    private static int readVarInt(final DataInputStream inputStream) throws IOException {
+
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = inputStream.readByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Reads a frame in the compressed format whose data is compressed, returning the inflated
+     * data.
+     */
+    private static byte[] readCompressedFrame(final DataInputStream inputStream)
+            throws IOException, DataFormatException {
+
+        final int packetLength = readVarInt(inputStream);
+        final int dataLength = readVarInt(inputStream);
+        final byte[] compressed = readBytes(inputStream,
+                packetLength - varIntSize(dataLength));
+
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            final byte[] inflated = new byte[dataLength];
+            assertEquals(dataLength, inflater.inflate(inflated));
+            assertTrue(inflater.finished());
+            return inflated;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int varIntSize(final int value) {
+
+        return value >>> 7 == 0 ? 1 : value >>> 14 == 0 ? 2 : 3;
+    }
+
+    @Test
+    void onKeepAlive_WritesPatchedFrame_WhenUncompressed() throws Exception {
+
+        connect((channel, responder, inputStream) -> {
+            responder.onKeepAlive(KEEP_ALIVE_ID);
+            responder.onKeepAlive(KEEP_ALIVE_ID);
+
+            // the preallocated frame is reused for the second response
+            for (int i = 0; i < 2; i++) {
+                assertEquals(KEEP_ALIVE.length, inputStream.readByte());
+                assertArrayEquals(KEEP_ALIVE, readBytes(inputStream, KEEP_ALIVE.length));
+            }
+            assertEquals(2, responder.getKeepAlivesAnswered());
+        });
+    }
+
+    @Test
+    void onPing_WritesPatchedFrame_WhenUncompressed() throws Exception {
+
+        connect((channel, responder, inputStream) -> {
+            responder.onPing(PING_ID);
+
+            assertEquals(PONG.length, inputStream.readByte());
+            assertArrayEquals(PONG, readBytes(inputStream, PONG.length));
+            assertEquals(1, responder.getPingsAnswered());
+        });
+    }
+
+    @Test
+    void onKeepAlive_WritesUncompressedFrame_WhenBelowThreshold() throws Exception {
+
+        connect((channel, responder, inputStream) -> {
+            channel.setCompression(256);
+
+            responder.onKeepAlive(KEEP_ALIVE_ID);
+
+            assertEquals(KEEP_ALIVE.length + 1, inputStream.readByte());
+            assertEquals(0, inputStream.readByte()); // a data length of 0 marks it uncompressed
+            assertArrayEquals(KEEP_ALIVE, readBytes(inputStream, KEEP_ALIVE.length));
+            assertEquals(1, responder.getKeepAlivesAnswered());
+        });
+    }
+
+    @Test
+    void onKeepAlive_FallsBackToCompressedPacket_WhenAtThreshold() throws Exception {
+
+        connect((channel, responder, inputStream) -> {
+            channel.setCompression(KEEP_ALIVE.length);
+
+            responder.onKeepAlive(KEEP_ALIVE_ID);
+
+            assertArrayEquals(KEEP_ALIVE, readCompressedFrame(inputStream));
+            assertEquals(1, responder.getKeepAlivesAnswered());
+        });
+    }
+
+    @Test
+    void onPing_FallsBackToCompressedPacket_WhenAboveThreshold() throws Exception {
+
+        connect((channel, responder, inputStream) -> {
+            channel.setCompression(0);
+
+            responder.onPing(PING_ID);
+            responder.onPing(PING_ID);
+
+            assertArrayEquals(PONG, readCompressedFrame(inputStream));
+            assertArrayEquals(PONG, readCompressedFrame(inputStream));
+            assertEquals(2, responder.getPingsAnswered());
+        });
+    }
+
+    @FunctionalInterface
+    private interface Exchange {
+
+        void run(ClientChannel channel, KeepAliveResponder responder, DataInputStream inputStream)
+                throws Exception;
+    }
+}
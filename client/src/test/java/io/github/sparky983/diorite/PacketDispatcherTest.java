@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.sparky983.diorite.net.packet.Packet;
+import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.KeepAlivePacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.TimeUpdatePacket;
+import reactor.core.Disposable;
+
+class PacketDispatcherTest {
+
+    private static final Packet KEEP_ALIVE_1 = new KeepAlivePacket(1);
+    private static final Packet KEEP_ALIVE_2 = new KeepAlivePacket(2);
+    private static final Packet TIME_UPDATE = new TimeUpdatePacket(3, 4);
+
+    @Test
+    void dispatch_SendsPacketsInOrder_ToSubscribersOfTheirType() {
+
+        final PacketDispatcher dispatcher = new PacketDispatcher();
+        final List<Packet> keepAlives = new ArrayList<>();
+        final List<Packet> packets = new ArrayList<>();
+        dispatcher.on(KeepAlivePacket.class).subscribe(keepAlives::add);
+        dispatcher.on(ClientBoundPacket.class).subscribe(packets::add);
+
+        dispatcher.dispatch(KEEP_ALIVE_1);
+        dispatcher.dispatch(TIME_UPDATE);
+        dispatcher.dispatch(KEEP_ALIVE_2);
+
+        assertEquals(List.of(KEEP_ALIVE_1, KEEP_ALIVE_2), keepAlives);
+        assertEquals(List.of(KEEP_ALIVE_1, TIME_UPDATE, KEEP_ALIVE_2), packets);
+    }
+
+    @Test
+    void on_ReplaysEarlierPackets_WhenSubscribingLate() {
+
+        final PacketDispatcher dispatcher = new PacketDispatcher();
+        final List<Packet> keepAlives = new ArrayList<>();
+        dispatcher.dispatch(KEEP_ALIVE_1);
+        dispatcher.dispatch(TIME_UPDATE);
+
+        dispatcher.on(KeepAlivePacket.class).subscribe(keepAlives::add);
+        dispatcher.dispatch(KEEP_ALIVE_2);
+
+        assertEquals(List.of(KEEP_ALIVE_1, KEEP_ALIVE_2), keepAlives);
+    }
+
+    @Test
+    void on_ReplaysEarlierPackets_WhenSubscribingAfterTheRouteIsCached() {
+
+        final PacketDispatcher dispatcher = new PacketDispatcher();
+        final List<Packet> first = new ArrayList<>();
+        final List<Packet> second = new ArrayList<>();
+        dispatcher.on(KeepAlivePacket.class).subscribe(first::add);
+        dispatcher.dispatch(KEEP_ALIVE_1);
+
+        dispatcher.on(KeepAlivePacket.class).subscribe(second::add);
+        dispatcher.dispatch(KEEP_ALIVE_2);
+
+        assertEquals(List.of(KEEP_ALIVE_1, KEEP_ALIVE_2), first);
+        assertEquals(List.of(KEEP_ALIVE_1, KEEP_ALIVE_2), second);
+    }
+
+    @Test
+    void dispatch_DoesNotSendPackets_WhenDisposed() {
+
+        final PacketDispatcher dispatcher = new PacketDispatcher();
+        final List<Packet> keepAlives = new ArrayList<>();
+        final Disposable disposable = dispatcher.on(KeepAlivePacket.class)
+                .subscribe(keepAlives::add);
+        dispatcher.dispatch(KEEP_ALIVE_1);
+
+        disposable.dispose();
+        dispatcher.dispatch(KEEP_ALIVE_2);
+
+        assertEquals(List.of(KEEP_ALIVE_1), keepAlives);
+    }
+
+    @Test
+    void on_ReplaysEarlierPacketsAndCompletes_WhenCompleted() {
+
+        final PacketDispatcher dispatcher = new PacketDispatcher();
+        final List<Packet> keepAlives = new ArrayList<>();
+        final List<Boolean> completed = new ArrayList<>();
+        dispatcher.dispatch(KEEP_ALIVE_1);
+        dispatcher.complete();
+
+        dispatcher.on(KeepAlivePacket.class)
+                .subscribe(keepAlives::add, (e) -> { }, () -> completed.add(true));
+
+        assertEquals(List.of(KEEP_ALIVE_1), keepAlives);
+        assertTrue(completed.contains(true));
+    }
+}
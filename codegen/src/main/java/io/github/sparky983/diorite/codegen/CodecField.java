@@ -0,0 +1,63 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.sparky983.diorite.codegen;
+
+import io.github.sparky983.diorite.codec.FieldType;
+
+final class CodecField {
+
+    final String name;
+    final FieldType type;
+    final String accessor;
+    /**
+     * The source name of the field's type.
+     */
+    final String typeName;
+    /**
+     * The source name of the field's type, or its element type if the field is a list, without
+     * type arguments.
+     */
+    final String elementTypeName;
+    final boolean isNullable;
+    final boolean isList;
+
+    CodecField(final String name,
+            final FieldType type,
+            final String accessor,
+            final String typeName,
+            final String elementTypeName,
+            final boolean isNullable,
+            final boolean isList) {
+
+        this.name = name;
+        this.type = type;
+        this.accessor = accessor;
+        this.typeName = typeName;
+        this.elementTypeName = elementTypeName;
+        this.isNullable = isNullable;
+        this.isList = isList;
+    }
+
+    /**
+     * Returns whether the field is encoded by a single call and sized by a single expression.
+     */
+    boolean isSimple() {
+
+        return !isNullable && !isList;
+    }
+}
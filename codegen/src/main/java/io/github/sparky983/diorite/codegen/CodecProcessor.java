@@ -0,0 +1,389 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.sparky983.diorite.codegen;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import io.github.sparky983.diorite.codec.FieldType;
+
+/**
+ * Generates a codec for each packet annotated with {@code GenerateCodec}.
+ * <p>
+ * Codecs are straight-line: every field is read and written by a direct call to the matching
+ * {@code StreamIn} or {@code StreamOut} method, and the encoded size is the sum of the fixed size
+ * fields folded into a single constant plus the size of each variable length field. Nullable fields
+ * are written behind a presence flag and lists behind their length, both without lambdas, and
+ * lists are read through {@code StreamIn#readList} with a non-capturing reader so that the stream's
+ * decode budget still applies. Each field also gets a static reader, which the packet's stream
+ * constructor calls so that it doesn't decode a whole packet just to copy its fields. An index of
+ * every generated codec is also generated so that they can all be tested.
+ */
+public final class CodecProcessor extends AbstractProcessor {
+
+    static final String CODEC_PACKAGE = "io.github.sparky983.diorite.net.packet.codec";
+    private static final String GENERATE_CODEC = CODEC_PACKAGE + ".GenerateCodec";
+    private static final String FIELD = CODEC_PACKAGE + ".Field";
+    private static final String LIST = "java.util.List";
+    private static final String INDEX = "GeneratedPacketCodecs";
+
+    private final List<String> codecs = new ArrayList<>();
+    private boolean indexWritten = false;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+
+        return Set.of(GENERATE_CODEC);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations,
+            final RoundEnvironment roundEnvironment) {
+
+        final TypeElement generateCodec = processingEnv.getElementUtils()
+                .getTypeElement(GENERATE_CODEC);
+        if (generateCodec == null) {
+            return false;
+        }
+
+        for (final Element element : roundEnvironment.getElementsAnnotatedWith(generateCodec)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@GenerateCodec can only be used on classes");
+                continue;
+            }
+            final String codec = generate((TypeElement) element);
+            if (codec != null) {
+                codecs.add(codec);
+            }
+        }
+
+        // every packet is a source file, so they're all processed in the first round
+        if (!codecs.isEmpty() && !indexWritten) {
+            writeIndex();
+            indexWritten = true;
+        }
+        return true;
+    }
+
+    /**
+     * Generates the packet's codec.
+     *
+     * @return The qualified name of the codec, or {@code null} if the packet is invalid.
+     */
+    private String generate(final TypeElement packet) {
+
+        final List<CodecField> fields = new ArrayList<>();
+        final List<VariableElement> fieldElements = new ArrayList<>();
+        for (final VariableElement field : ElementFilter.fieldsIn(packet.getEnclosedElements())) {
+            final AnnotationMirror annotation = getFieldAnnotation(field);
+            if (annotation == null) {
+                continue;
+            }
+            final FieldType type = FieldType.valueOf(
+                    ((VariableElement) getValue(annotation, "value")).getSimpleName().toString());
+            final boolean isNullable = Boolean.TRUE.equals(getValue(annotation, "nullable"));
+            final boolean isList = Boolean.TRUE.equals(getValue(annotation, "list"));
+
+            final TypeMirror elementType = isList ? getListElementType(field.asType())
+                    : field.asType();
+            if (elementType == null) {
+                error(field, "Field(list = true) can only be used on " + LIST + " fields");
+                return null;
+            }
+            if (!isValidType(type, elementType, isList)) {
+                error(field, FieldType.class.getSimpleName() + "." + type + " can only be used on "
+                        + type.getJavaTypeName() + (isList ? " list" : "") + " fields");
+                return null;
+            }
+            if (isNullable && !isList && elementType.getKind().isPrimitive()) {
+                error(field, "Field(nullable = true) can't be used on primitive fields");
+                return null;
+            }
+            final String accessor = findAccessor(packet, field);
+            if (accessor == null) {
+                error(field, "No accessor for " + field.getSimpleName());
+                return null;
+            }
+            fields.add(new CodecField(field.getSimpleName().toString(),
+                    type,
+                    accessor,
+                    getTypeName(field.asType()),
+                    getTypeName(processingEnv.getTypeUtils().erasure(elementType)),
+                    isNullable,
+                    isList));
+            fieldElements.add(field);
+        }
+
+        if (!hasConstructor(packet, fieldElements)) {
+            error(packet, "No constructor taking the encoded fields in declaration order");
+            return null;
+        }
+
+        final String packageName = ((PackageElement) getPackage(packet)).getQualifiedName()
+                .toString();
+        final String codecName = getCodecName(packet);
+        final String qualifiedName = packageName.isEmpty()
+                ? codecName
+                : packageName + "." + codecName;
+
+        try (final PrintWriter writer = new PrintWriter(processingEnv.getFiler()
+                .createSourceFile(qualifiedName, packet)
+                .openWriter())) {
+            new CodecWriter(writer, packageName, codecName,
+                    packet.getQualifiedName().toString(), fields).write();
+        } catch (final IOException e) {
+            error(packet, "Unable to write " + qualifiedName + ": " + e.getMessage());
+            return null;
+        }
+        return qualifiedName;
+    }
+
+    private AnnotationMirror getFieldAnnotation(final VariableElement field) {
+
+        for (final AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            final Element annotationType = annotation.getAnnotationType().asElement();
+            if (((TypeElement) annotationType).getQualifiedName().contentEquals(FIELD)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    // defaults aren't in the element values, so a missing value is the default
+    private static Object getValue(final AnnotationMirror annotation, final String name) {
+
+        for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : annotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private TypeMirror getListElementType(final TypeMirror type) {
+
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        final DeclaredType declaredType = (DeclaredType) type;
+        if (!((TypeElement) declaredType.asElement()).getQualifiedName().contentEquals(LIST)
+                || declaredType.getTypeArguments().size() != 1) {
+            return null;
+        }
+        return declaredType.getTypeArguments().get(0);
+    }
+
+    private boolean isValidType(final FieldType type,
+            final TypeMirror elementType,
+            final boolean isList) {
+
+        if (type.isEnum()) {
+            return elementType.getKind() == TypeKind.DECLARED
+                    && ((DeclaredType) elementType).asElement().getKind() == ElementKind.ENUM;
+        }
+        TypeMirror javaType = getJavaType(type);
+        if (isList && javaType.getKind().isPrimitive()) {
+            // lists hold the boxed type
+            javaType = processingEnv.getTypeUtils()
+                    .boxedClass((PrimitiveType) javaType)
+                    .asType();
+        }
+        return processingEnv.getTypeUtils().isSameType(elementType, javaType);
+    }
+
+    private TypeMirror getJavaType(final FieldType type) {
+
+        final String name = type.getJavaTypeName();
+        if (name.endsWith("[]")) {
+            return processingEnv.getTypeUtils().getArrayType(getPrimitiveType(
+                    name.substring(0, name.length() - 2)));
+        }
+        if (!name.contains(".")) {
+            return getPrimitiveType(name);
+        }
+        return processingEnv.getElementUtils().getTypeElement(name).asType();
+    }
+
+    private TypeMirror getPrimitiveType(final String name) {
+
+        return processingEnv.getTypeUtils().getPrimitiveType(
+                TypeKind.valueOf(name.toUpperCase(Locale.ROOT)));
+    }
+
+    // the source name of the type, without any type annotations
+    private static String getTypeName(final TypeMirror type) {
+
+        if (type.getKind().isPrimitive()) {
+            return type.getKind().name().toLowerCase(Locale.ROOT);
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            return getTypeName(((ArrayType) type).getComponentType()) + "[]";
+        }
+        final DeclaredType declaredType = (DeclaredType) type;
+        final StringBuilder name = new StringBuilder(
+                ((TypeElement) declaredType.asElement()).getQualifiedName());
+        if (!declaredType.getTypeArguments().isEmpty()) {
+            name.append('<');
+            for (int i = 0; i < declaredType.getTypeArguments().size(); i++) {
+                name.append(i == 0 ? "" : ", ")
+                        .append(getTypeName(declaredType.getTypeArguments().get(i)));
+            }
+            name.append('>');
+        }
+        return name.toString();
+    }
+
+    private String findAccessor(final TypeElement packet, final VariableElement field) {
+
+        final String name = field.getSimpleName().toString();
+        final String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        final Set<String> candidates = Set.of(name, "get" + capitalized, "is" + capitalized);
+
+        for (final ExecutableElement method : ElementFilter.methodsIn(
+                processingEnv.getElementUtils().getAllMembers(packet))) {
+            if (method.getParameters().isEmpty()
+                    && !method.getModifiers().contains(Modifier.PRIVATE)
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && candidates.contains(method.getSimpleName().toString())
+                    && processingEnv.getTypeUtils().isSameType(method.getReturnType(),
+                    field.asType())) {
+                return method.getSimpleName().toString();
+            }
+        }
+        return null;
+    }
+
+    private boolean hasConstructor(final TypeElement packet, final List<VariableElement> fields) {
+
+        constructors:
+        for (final ExecutableElement constructor : ElementFilter.constructorsIn(
+                packet.getEnclosedElements())) {
+            if (constructor.getModifiers().contains(Modifier.PRIVATE)
+                    || constructor.getParameters().size() != fields.size()) {
+                continue;
+            }
+            for (int i = 0; i < fields.size(); i++) {
+                final TypeMirror parameterType = constructor.getParameters().get(i).asType();
+                if (!processingEnv.getTypeUtils().isSameType(parameterType,
+                        fields.get(i).asType())) {
+                    continue constructors;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static Element getPackage(Element element) {
+
+        while (element.getKind() != ElementKind.PACKAGE) {
+            element = element.getEnclosingElement();
+        }
+        return element;
+    }
+
+    // nested packets are named after each enclosing class, EntityMovementPacket.Position becomes
+    // EntityMovementPacketPositionCodec
+    private static String getCodecName(final TypeElement packet) {
+
+        final StringBuilder name = new StringBuilder("Codec");
+        Element element = packet;
+        while (element.getKind() != ElementKind.PACKAGE) {
+            name.insert(0, element.getSimpleName());
+            element = element.getEnclosingElement();
+        }
+        return name.toString();
+    }
+
+    private void writeIndex() {
+
+        final String qualifiedName = CODEC_PACKAGE + "." + INDEX;
+        try (final PrintWriter writer = new PrintWriter(processingEnv.getFiler()
+                .createSourceFile(qualifiedName)
+                .openWriter())) {
+            writer.println("package " + CODEC_PACKAGE + ";");
+            writer.println();
+            writer.println("import java.util.List;");
+            writer.println();
+            writer.println("import javax.annotation.processing.Generated;");
+            writer.println();
+            writer.println("/**");
+            writer.println(" * Every generated packet codec.");
+            writer.println(" */");
+            writer.println("@Generated(\"" + CodecProcessor.class.getName() + "\")");
+            writer.println("public final class " + INDEX + " {");
+            writer.println();
+            writer.println("    private static final List<PacketCodec<?>> CODECS = List.of(");
+            for (int i = 0; i < codecs.size(); i++) {
+                writer.println("            " + codecs.get(i) + ".INSTANCE"
+                        + (i == codecs.size() - 1 ? "" : ","));
+            }
+            writer.println("    );");
+            writer.println();
+            writer.println("    private " + INDEX + "() {");
+            writer.println();
+            writer.println("    }");
+            writer.println();
+            writer.println("    public static List<PacketCodec<?>> all() {");
+            writer.println();
+            writer.println("        return CODECS;");
+            writer.println("    }");
+            writer.println("}");
+        } catch (final IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    private void error(final Element element, final String message) {
+
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.sparky983.diorite.codegen;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the source of a single codec.
+ */
+final class CodecWriter {
+
+    private final PrintWriter writer;
+    private final String packageName;
+    private final String codecName;
+    private final String packetName;
+    private final List<CodecField> fields;
+
+    CodecWriter(final PrintWriter writer,
+            final String packageName,
+            final String codecName,
+            final String packetName,
+            final List<CodecField> fields) {
+
+        this.writer = writer;
+        this.packageName = packageName;
+        this.codecName = codecName;
+        this.packetName = packetName;
+        this.fields = fields;
+    }
+
+    void write() {
+
+        if (!packageName.isEmpty()) {
+            writer.println("package " + packageName + ";");
+            writer.println();
+        }
+        writer.println("import javax.annotation.processing.Generated;");
+        writer.println();
+        writer.println("import io.github.sparky983.diorite.io.StreamIn;");
+        writer.println("import io.github.sparky983.diorite.io.StreamOut;");
+        writer.println("import " + CodecProcessor.CODEC_PACKAGE + ".Codecs;");
+        writer.println("import " + CodecProcessor.CODEC_PACKAGE + ".PacketCodec;");
+        writer.println("import io.github.sparky983.diorite.util.Preconditions;");
+        writer.println();
+        writer.println("/**");
+        writer.println(" * The codec of {@link " + packetName + "}.");
+        writer.println(" */");
+        writer.println("@Generated(\"" + CodecProcessor.class.getName() + "\")");
+        writer.println("public final class " + codecName + " implements PacketCodec<"
+                + packetName + "> {");
+        writer.println();
+        writer.println("    public static final " + codecName + " INSTANCE = new " + codecName
+                + "();");
+        writer.println();
+        writer.println("    private " + codecName + "() {");
+        writer.println();
+        writer.println("    }");
+        writer.println();
+        writeGetPacketType();
+        writer.println();
+        writeDecode();
+        writer.println();
+        writeReaders();
+        writeEncode();
+        writer.println();
+        writeSize();
+        writer.println("}");
+    }
+
+    private void writeGetPacketType() {
+
+        writer.println("    @Override");
+        writer.println("    public Class<" + packetName + "> getPacketType() {");
+        writer.println();
+        writer.println("        return " + packetName + ".class;");
+        writer.println("    }");
+    }
+
+    private void writeDecode() {
+
+        writer.println("    @Override");
+        writer.println("    public " + packetName + " decode(final StreamIn inputStream) {");
+        writer.println();
+        writer.println("        Preconditions.requireNotNull(inputStream, \"inputStream\");");
+        writer.println();
+        for (final CodecField field : fields) {
+            writer.println("        final " + field.typeName + " " + field.name + " = "
+                    + getReaderName(field) + "(inputStream);");
+        }
+        if (!fields.isEmpty()) {
+            writer.println();
+        }
+        writer.print("        return new " + packetName + "(");
+        for (int i = 0; i < fields.size(); i++) {
+            writer.print((i == 0 ? "" : ", ") + fields.get(i).name);
+        }
+        writer.println(");");
+        writer.println("    }");
+    }
+
+    /*
+     * Writes a reader for each field, so that the packet's stream constructor can read its fields
+     * straight into its own constructor instead of copying them out of a decoded packet.
+     */
+    private void writeReaders() {
+
+        for (final CodecField field : fields) {
+            writer.println("    /**");
+            writer.println("     * Reads the {@code " + field.name + "} field of {@link "
+                    + packetName + "}.");
+            writer.println("     */");
+            writer.println("    public static " + field.typeName + " " + getReaderName(field)
+                    + "(final StreamIn inputStream) {");
+            writer.println();
+            writer.println("        Preconditions.requireNotNull(inputStream, \"inputStream\");");
+            writer.println();
+            writer.println("        return " + getReadExpression(field) + ";");
+            writer.println("    }");
+            writer.println();
+        }
+    }
+
+    private static String getReaderName(final CodecField field) {
+
+        return "read" + Character.toUpperCase(field.name.charAt(0)) + field.name.substring(1);
+    }
+
+    private static String getReadExpression(final CodecField field) {
+
+        final String value;
+        if (field.isList) {
+            // neither reader captures anything, so the same instance is used for every call
+            value = "inputStream.readList(" + (field.type.isEnum()
+                    ? "(in) -> " + getReadCall(field, "in")
+                    : "StreamIn::" + field.type.getReadMethod()) + ")";
+        } else {
+            value = getReadCall(field, "inputStream");
+        }
+        return field.isNullable
+                ? "inputStream.readBoolean() ? " + value + " : null"
+                : value;
+    }
+
+    private static String getReadCall(final CodecField field, final String inputStream) {
+
+        return inputStream + "." + field.type.getReadMethod()
+                + (field.type.isEnum() ? "(" + field.elementTypeName + ".class)" : "()");
+    }
+
+    private void writeEncode() {
+
+        writer.println("    @Override");
+        writer.println("    public void encode(final " + packetName
+                + " packet, final StreamOut outputStream) {");
+        writer.println();
+        for (final CodecField field : fields) {
+            if (field.isSimple()) {
+                writer.println("        outputStream." + field.type.getWriteMethod() + "(packet."
+                        + field.accessor + "());");
+                continue;
+            }
+            writer.println("        final " + field.typeName + " " + field.name + " = packet."
+                    + field.accessor + "();");
+            String indent = "        ";
+            if (field.isNullable) {
+                writer.println(indent + "outputStream.writeBoolean(" + field.name + " != null);");
+                writer.println(indent + "if (" + field.name + " != null) {");
+                indent += "    ";
+            }
+            if (field.isList) {
+                writer.println(indent + "outputStream.writeVarInt(" + field.name + ".size());");
+                writer.println(indent + "for (int i = 0; i < " + field.name + ".size(); i++) {");
+                writer.println(indent + "    outputStream." + field.type.getWriteMethod() + "("
+                        + field.name + ".get(i));");
+                writer.println(indent + "}");
+            } else {
+                writer.println(indent + "outputStream." + field.type.getWriteMethod() + "("
+                        + field.name + ");");
+            }
+            if (field.isNullable) {
+                writer.println("        }");
+            }
+        }
+        writer.println("    }");
+    }
+
+    private void writeSize() {
+
+        int fixedSize = 0;
+        final StringBuilder expression = new StringBuilder();
+        final List<CodecField> complexFields = new ArrayList<>();
+        for (final CodecField field : fields) {
+            if (!field.isSimple()) {
+                if (field.isNullable) {
+                    // the presence flag
+                    fixedSize += 1;
+                }
+                complexFields.add(field);
+            } else if (field.type.isFixedSize()) {
+                fixedSize += field.type.getFixedSize();
+            } else {
+                expression.append(" + Codecs.")
+                        .append(field.type.getSizeMethod())
+                        .append("(packet.")
+                        .append(field.accessor)
+                        .append("())");
+            }
+        }
+
+        writer.println("    @Override");
+        writer.println("    public int size(final " + packetName + " packet) {");
+        writer.println();
+        if (complexFields.isEmpty()) {
+            writer.println("        return " + fixedSize + expression + ";");
+            writer.println("    }");
+            return;
+        }
+
+        writer.println("        int size = " + fixedSize + expression + ";");
+        for (final CodecField field : complexFields) {
+            writer.println("        final " + field.typeName + " " + field.name + " = packet."
+                    + field.accessor + "();");
+            String indent = "        ";
+            if (field.isNullable) {
+                writer.println(indent + "if (" + field.name + " != null) {");
+                indent += "    ";
+            }
+            if (!field.isList) {
+                writer.println(indent + "size += " + getSizeExpression(field, field.name) + ";");
+            } else if (field.type.isFixedSize()) {
+                writer.println(indent + "size += Codecs.varIntSize(" + field.name + ".size()) + "
+                        + field.name + ".size() * " + field.type.getFixedSize() + ";");
+            } else {
+                writer.println(indent + "size += Codecs.varIntSize(" + field.name + ".size());");
+                writer.println(indent + "for (int i = 0; i < " + field.name + ".size(); i++) {");
+                writer.println(indent + "    size += "
+                        + getSizeExpression(field, field.name + ".get(i)") + ";");
+                writer.println(indent + "}");
+            }
+            if (field.isNullable) {
+                writer.println("        }");
+            }
+        }
+        writer.println("        return size;");
+        writer.println("    }");
+    }
+
+    private static String getSizeExpression(final CodecField field, final String value) {
+
+        return field.type.isFixedSize()
+                ? String.valueOf(field.type.getFixedSize())
+                : "Codecs." + field.type.getSizeMethod() + "(" + value + ")";
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.codec;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * How a packet field is encoded. Each type is read and written by the {@code StreamIn} and
+ * {@code StreamOut} methods of the same name and is only valid on fields of the listed Java type.
+ * <p>
+ * The protocol's codec generator reads the encoding of each type from here, so the generated
+ * codecs and the annotations they're generated from can't disagree.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public enum FieldType {
+
+    /**
+     * A {@code boolean}, encoded in 1 byte.
+     *
+     * @since 1.0.0
+     */
+    BOOLEAN("boolean", "Boolean", 1),
+
+    /**
+     * A {@code byte}.
+     *
+     * @since 1.0.0
+     */
+    BYTE("byte", "Byte", 1),
+
+    /**
+     * An {@code int} from {@code 0} to {@code 255}, encoded in 1 byte.
+     *
+     * @since 1.0.0
+     */
+    UNSIGNED_BYTE("int", "UnsignedByte", 1),
+
+    /**
+     * A {@code short}.
+     *
+     * @since 1.0.0
+     */
+    SHORT("short", "Short", 2),
+
+    /**
+     * An {@code int} from {@code 0} to {@code 65535}, encoded in 2 bytes.
+     *
+     * @since 1.0.0
+     */
+    UNSIGNED_SHORT("int", "UnsignedShort", 2),
+
+    /**
+     * An {@code int}, encoded in 4 bytes.
+     *
+     * @since 1.0.0
+     */
+    INT("int", "Int", 4),
+
+    /**
+     * A {@code long}, encoded in 8 bytes.
+     *
+     * @since 1.0.0
+     */
+    LONG("long", "Long", 8),
+
+    /**
+     * A {@code float}.
+     *
+     * @since 1.0.0
+     */
+    FLOAT("float", "Float", 4),
+
+    /**
+     * A {@code double}.
+     *
+     * @since 1.0.0
+     */
+    DOUBLE("double", "Double", 8),
+
+    /**
+     * An {@code int}, encoded in 1 to 5 bytes.
+     *
+     * @since 1.0.0
+     */
+    VAR_INT("int", "VarInt", "varIntSize"),
+
+    /**
+     * A {@code long}, encoded in 1 to 10 bytes.
+     *
+     * @since 1.0.0
+     */
+    VAR_LONG("long", "VarLong", "varLongSize"),
+
+    /**
+     * A {@link String}, encoded as UTF-8 prefixed by its length in bytes.
+     *
+     * @since 1.0.0
+     */
+    STRING("java.lang.String", "String", "stringSize"),
+
+    /**
+     * An {@code io.github.sparky983.diorite.world.Identifier}, encoded as a string.
+     *
+     * @since 1.0.0
+     */
+    IDENTIFIER("io.github.sparky983.diorite.world.Identifier", "Identifier", "identifierSize"),
+
+    /**
+     * A {@link java.util.UUID}, encoded in 16 bytes.
+     *
+     * @since 1.0.0
+     */
+    UUID("java.util.UUID", "Uuid", 16),
+
+    /**
+     * A {@code io.github.sparky983.diorite.world.Position}, encoded as 3 doubles.
+     *
+     * @since 1.0.0
+     */
+    POSITION("io.github.sparky983.diorite.world.Position", "Position", 3 * 8),
+
+    /**
+     * A {@code io.github.sparky983.diorite.world.BlockPosition}, packed into a long.
+     *
+     * @since 1.0.0
+     */
+    BLOCK_POSITION("io.github.sparky983.diorite.world.BlockPosition", "BlockPosition", 8),
+
+    /**
+     * A {@code io.github.sparky983.diorite.world.Direction}, encoded as 2 angle bytes.
+     *
+     * @since 1.0.0
+     */
+    DIRECTION("io.github.sparky983.diorite.world.Direction", "Direction", 2),
+
+    /**
+     * A {@code io.github.sparky983.diorite.world.Velocity}, encoded as 3 shorts.
+     *
+     * @since 1.0.0
+     */
+    VELOCITY("io.github.sparky983.diorite.world.Velocity", "Velocity", 3 * 2),
+
+    /**
+     * An {@code int[]}, encoded as var ints prefixed by the number of elements.
+     *
+     * @since 1.0.0
+     */
+    VAR_INT_ARRAY("int[]", "VarIntList", "varIntListSize"),
+
+    /**
+     * A {@code long[]}, encoded as longs prefixed by the number of elements.
+     *
+     * @since 1.0.0
+     */
+    LONG_ARRAY("long[]", "LongList", "longListSize"),
+
+    /**
+     * An {@link Enum}, encoded as its ordinal in a var int.
+     *
+     * @since 1.0.0
+     */
+    VAR_INT_ENUM("java.lang.Enum", "VarIntEnum", "varIntEnumSize");
+
+    private final String javaTypeName;
+    private final String methodSuffix;
+    private final int fixedSize;
+    private final String sizeMethod;
+
+    FieldType(final String javaTypeName, final String methodSuffix, final int fixedSize) {
+
+        this(javaTypeName, methodSuffix, fixedSize, null);
+    }
+
+    FieldType(final String javaTypeName, final String methodSuffix, final String sizeMethod) {
+
+        this(javaTypeName, methodSuffix, -1, sizeMethod);
+    }
+
+    FieldType(final String javaTypeName,
+            final String methodSuffix,
+            final int fixedSize,
+            final String sizeMethod) {
+
+        this.javaTypeName = javaTypeName;
+        this.methodSuffix = methodSuffix;
+        this.fixedSize = fixedSize;
+        this.sizeMethod = sizeMethod;
+    }
+
+    /**
+     * Returns the Java type of fields of this type, either a primitive type name such as
+     * {@code int}, an array of a primitive type such as {@code int[]}, or a qualified class name.
+     * {@link #VAR_INT_ENUM} returns {@code java.lang.Enum}, it's valid on any enum.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public @NotNull String getJavaTypeName() {
+
+        return javaTypeName;
+    }
+
+    /**
+     * Returns whether fields of this type may be any enum.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public boolean isEnum() {
+
+        return this == VAR_INT_ENUM;
+    }
+
+    /**
+     * Returns the name of the {@code StreamIn} method that reads fields of this type.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public @NotNull String getReadMethod() {
+
+        return "read" + methodSuffix;
+    }
+
+    /**
+     * Returns the name of the {@code StreamOut} method that writes fields of this type.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public @NotNull String getWriteMethod() {
+
+        return "write" + methodSuffix;
+    }
+
+    /**
+     * Returns whether every field of this type is encoded in the same number of bytes.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public boolean isFixedSize() {
+
+        return fixedSize != -1;
+    }
+
+    /**
+     * Returns the number of bytes fields of this type are encoded in, or {@code -1} if it depends
+     * on the value.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public int getFixedSize() {
+
+        return fixedSize;
+    }
+
+    /**
+     * Returns the name of the {@code Codecs} method that sizes fields of this type, or
+     * {@code null} if the type is fixed size.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public @Nullable String getSizeMethod() {
+
+        return sizeMethod;
+    }
+}
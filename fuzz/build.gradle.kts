@@ -0,0 +1,31 @@
+plugins {
+    java
+    id("diorite.base-conventions")
+}
+
+description = "Coverage-guided fuzzing of the packet decoders, run with JAZZER_FUZZ=1"
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    implementation(project(":common"))
+    implementation(project(":protocol"))
+
+    compileOnly("org.jetbrains:annotations:23.0.0")
+
+    testImplementation(platform("org.junit:junit-bom:5.9.0"))
+    testImplementation("org.junit.jupiter:junit-jupiter-api")
+    testImplementation("com.code-intelligence:jazzer-junit:0.22.1")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine")
+}
+
+tasks.getByName<Test>("test") {
+    useJUnitPlatform()
+    // the budgets are checked per input, so a fixed heap keeps them comparable between machines
+    maxHeapSize = "1g"
+    listOf("diorite.fuzz.maxMillis", "diorite.fuzz.maxAllocation", "diorite.fuzz.maxAmplification")
+            .forEach { name -> System.getProperty(name)?.let { systemProperty(name, it) } }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.fuzz;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Thrown when decoding an input takes more time or memory than its {@link FuzzBudget} allows.
+ * <p>
+ * Unlike the exceptions a decoder is expected to throw for malformed input, the fuzzer reports
+ * this as a finding.
+ */
+final class BudgetExceededException extends RuntimeException {
+
+    @Contract(pure = true)
+    BudgetExceededException(final @NotNull String message) {
+
+        super(message);
+    }
+}
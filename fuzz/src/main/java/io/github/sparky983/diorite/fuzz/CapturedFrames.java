@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.fuzz;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.github.sparky983.diorite.io.StreamIn;
+
+/**
+ * Turns a capture of uncompressed frames into fuzzer seeds.
+ * <p>
+ * The capture is the raw bytes a connection received while compression was off, every frame
+ * being its length, the packet id and the packet's data. Each frame of a packet the registry knows
+ * is written to the output directory as a {@link DecodeHarness} input, so the fuzzer starts from
+ * real packets rather than from nothing.
+ * <p>
+ * Usage: {@code CapturedFrames <registry> <capture file> <output directory>}, where the registry
+ * is named like {@code Client.PLAY}.
+ */
+final class CapturedFrames {
+
+    private CapturedFrames() {
+
+    }
+
+    public static void main(final String[] args) throws IOException {
+
+        if (args.length != 3) {
+            System.err.println("Usage: CapturedFrames <registry> <capture file> <output directory>");
+            System.exit(1);
+            return;
+        }
+
+        final String registryName = args[0];
+        final byte[] capture = Files.readAllBytes(Path.of(args[1]));
+        final Path outputDirectory = Files.createDirectories(Path.of(args[2]));
+
+        final DecodeHarness harness = new DecodeHarness(FuzzBudget.fromSystemProperties());
+        final ByteArrayInputStream captureInputStream = new ByteArrayInputStream(capture);
+        final StreamIn inputStream = StreamIn.from(captureInputStream);
+
+        int frames = 0;
+        int seeds = 0;
+        while (captureInputStream.available() > 0) {
+            final int length = inputStream.readVarInt();
+            final byte[] frame = inputStream.readBytes(length);
+            frames++;
+
+            final ByteArrayInputStream frameInputStream = new ByteArrayInputStream(frame);
+            final int packetId = StreamIn.from(frameInputStream).readVarInt();
+            final byte[] data = frameInputStream.readAllBytes();
+
+            final byte[] input = harness.toInput(registryName, packetId, data);
+            if (input != null) {
+                Files.write(outputDirectory.resolve(registryName + "-" + frames), input);
+                seeds++;
+            }
+        }
+        System.out.println("Wrote " + seeds + " seeds from " + frames + " frames");
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.fuzz;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import io.github.sparky983.diorite.io.ByteArrayStreamOut;
+import io.github.sparky983.diorite.io.DecodeException;
+import io.github.sparky983.diorite.io.DecodeLimits;
+import io.github.sparky983.diorite.io.RuntimeIOException;
+import io.github.sparky983.diorite.io.StreamIn;
+import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.io.compression.Compression;
+import io.github.sparky983.diorite.net.ChannelState;
+import io.github.sparky983.diorite.net.Stateful;
+import io.github.sparky983.diorite.net.packet.Packet;
+import io.github.sparky983.diorite.net.packet.PacketHandler;
+import io.github.sparky983.diorite.net.packet.PacketRegistries;
+import io.github.sparky983.diorite.net.packet.PacketRegistry;
+import io.github.sparky983.diorite.net.packet.format.EncodedPacket;
+import io.github.sparky983.diorite.net.packet.format.PacketFormat;
+import io.github.sparky983.diorite.util.Preconditions;
+
+/**
+ * Runs a fuzzed input through one of the registered packet decoders.
+ * <p>
+ * The first byte of an input picks a registry, the second picks a packet in it and the rest is
+ * the packet's data. Picking by index rather than by id means almost every input reaches a
+ * decoder. Every registry declared in {@link PacketRegistries} is fuzzed, so new registries are
+ * picked up without changing the harness.
+ * <p>
+ * The data is framed and read through the uncompressed packet format with the default
+ * {@link DecodeLimits}, the same way the client reads packets in the play state. Packets with a
+ * direct decoder are also decoded with their plain decoder straight from an input stream.
+ * <p>
+ * {@link #decodeCompressed(byte[])} reads frames through the compressed packet format instead, to
+ * reach the inflate paths and the data length checks.
+ * <p>
+ * Malformed data is expected to throw a {@link DecodeException}, or a {@link RuntimeIOException}
+ * if it ends early. Anything else escapes to the fuzzer, as does a {@link BudgetExceededException}
+ * if a decode was too slow or allocated too much.
+ */
+final class DecodeHarness {
+
+    private static final DecodeLimits LIMITS = DecodeLimits.defaults();
+    /**
+     * Large enough for packets that are inflated as they're decoded, rather than into a buffer.
+     * Compressed inputs are budgeted as if they were this long, as any of them may inflate to it.
+     */
+    private static final int MAX_INFLATED_SIZE = 256 * 1024;
+    private static final DecodeLimits COMPRESSED_LIMITS = DecodeLimits.builder()
+            .maxInflatedSize(MAX_INFLATED_SIZE)
+            .build();
+    private static final Compression COMPRESSION = Compression.zlib();
+    private static final Consumer<Packet> IGNORED = (packet) -> {
+    };
+
+    private final FuzzBudget budget;
+    private final List<Target> targets;
+
+    @Contract(pure = true)
+    DecodeHarness(final @NotNull FuzzBudget budget) {
+
+        Preconditions.requireNotNull(budget, "budget");
+
+        this.budget = budget;
+        this.targets = findTargets();
+    }
+
+    /**
+     * Finds every packet of every registry declared in {@link PacketRegistries}.
+     */
+    private static @Unmodifiable @NotNull List<Target> findTargets() {
+
+        final List<Target> targets = new ArrayList<>();
+
+        for (final Class<?> side : PacketRegistries.class.getClasses()) {
+            for (final Field field : side.getFields()) {
+                if (!Modifier.isStatic(field.getModifiers())
+                        || field.getType() != PacketRegistry.class) {
+                    continue;
+                }
+
+                final PacketRegistry registry;
+                try {
+                    registry = (PacketRegistry) field.get(null);
+                } catch (final IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+
+                final int[] packetIds = registry.getPacketIds()
+                        .stream()
+                        .mapToInt(Integer::intValue)
+                        .sorted()
+                        .toArray();
+                if (packetIds.length > 0) {
+                    final String name = side.getSimpleName() + "." + field.getName();
+                    targets.add(new Target(name, registry, packetIds));
+                }
+            }
+        }
+        // getClasses and getFields don't guarantee an order, and inputs must mean the same thing
+        // every run
+        targets.sort((a, b) -> a.name.compareTo(b.name));
+        return List.copyOf(targets);
+    }
+
+    /**
+     * Decodes the input.
+     *
+     * @param input The input.
+     * @throws BudgetExceededException if a decode took too long or allocated too much.
+     */
+    void decode(final byte @NotNull [] input) {
+
+        Preconditions.requireNotNull(input, "input");
+
+        if (input.length < 2) {
+            return;
+        }
+
+        final Target target = targets.get(Byte.toUnsignedInt(input[0]) % targets.size());
+        final int packetId =
+                target.packetIds[Byte.toUnsignedInt(input[1]) % target.packetIds.length];
+        final byte[] data = Arrays.copyOfRange(input, 2, input.length);
+        final String description = target.name + " 0x" + Integer.toHexString(packetId);
+
+        final byte[] frame = frame(packet(packetId, data));
+        final PacketFormat packetFormat = PacketFormat.uncompressed(target, LIMITS);
+        budget.run(description, data.length, () -> expectMalformed(() ->
+                read(packetFormat, frame)));
+
+        if (target.registry.getDirectPacketDecoder(packetId) != null) {
+            final StreamIn inputStream =
+                    StreamIn.from(new ByteArrayInputStream(data), LIMITS.newBudget());
+            budget.run(description + " (plain decoder)", data.length, () -> expectMalformed(() ->
+                    target.registry.getPacketDecoder(packetId).orElseThrow().decode(inputStream)));
+        }
+    }
+
+    /**
+     * Decodes the input as a compressed frame.
+     * <p>
+     * The first byte of an input picks a registry. If the second byte is even, the rest is the
+     * frame's body, a data length followed by the packet, which must be compressed unless the
+     * data length is 0. Otherwise, the rest is a packet id and its data, which are compressed with
+     * a matching data length, so the packet always inflates.
+     *
+     * @param input The input.
+     * @throws BudgetExceededException if a decode took too long or allocated too much.
+     */
+    void decodeCompressed(final byte @NotNull [] input) {
+
+        Preconditions.requireNotNull(input, "input");
+
+        if (input.length < 2) {
+            return;
+        }
+
+        final Target target = targets.get(Byte.toUnsignedInt(input[0]) % targets.size());
+        final boolean raw = (input[1] & 1) == 0;
+        final byte[] data = Arrays.copyOfRange(input, 2, input.length);
+        final String description = target.name + (raw ? " compressed frame" : " compressed packet");
+
+        final byte[] frame = frame(raw ? data : compress(data));
+        final PacketFormat packetFormat =
+                PacketFormat.compressed(target, 256, COMPRESSION, COMPRESSED_LIMITS);
+        budget.run(description, data.length + MAX_INFLATED_SIZE, () -> expectMalformed(() ->
+                read(packetFormat, frame)));
+    }
+
+    /**
+     * Returns the input that decodes the specified packet data with the specified registry, so
+     * that captured packets can be used as seeds.
+     *
+     * @param registryName The registry's name, for example {@code Client.PLAY}.
+     * @param packetId The packet's id.
+     * @param data The packet's data.
+     * @return The input, or {@code null} if there is no such registry or it has no such packet.
+     */
+    byte @Nullable [] toInput(final @NotNull String registryName,
+            final int packetId,
+            final byte @NotNull [] data) {
+
+        Preconditions.requireNotNull(registryName, "registryName");
+        Preconditions.requireNotNull(data, "data");
+
+        for (int i = 0; i < targets.size(); i++) {
+            final Target target = targets.get(i);
+            if (!target.name.equals(registryName)) {
+                continue;
+            }
+
+            final int packetIndex = Arrays.binarySearch(target.packetIds, packetId);
+            if (packetIndex < 0 || i > 0xFF || packetIndex > 0xFF) {
+                return null;
+            }
+
+            final byte[] input = new byte[data.length + 2];
+            input[0] = (byte) i;
+            input[1] = (byte) packetIndex;
+            System.arraycopy(data, 0, input, 2, data.length);
+            return input;
+        }
+        return null;
+    }
+
+    /**
+     * Reads the frame the way the client does, decoding the packet if it's read to be decoded
+     * later.
+     */
+    private static void read(final @NotNull PacketFormat packetFormat,
+            final byte @NotNull [] frame) {
+
+        final EncodedPacket encodedPacket = packetFormat.read(
+                StreamIn.createByteArrayStream(frame),
+                PacketHandler.NONE,
+                IGNORED
+        );
+        if (encodedPacket != null) {
+            encodedPacket.decode(PacketHandler.NONE);
+        }
+    }
+
+    private static byte @NotNull [] packet(final int packetId, final byte @NotNull [] data) {
+
+        try (final ByteArrayStreamOut packetOutputStream = StreamOut.ofByteArray()) {
+            packetOutputStream.writeVarInt(packetId)
+                    .writeBytes(data);
+            return packetOutputStream.toByteArray();
+        }
+    }
+
+    private static byte @NotNull [] compress(final byte @NotNull [] packet) {
+
+        try (final ByteArrayStreamOut bodyOutputStream = StreamOut.ofByteArray()) {
+            bodyOutputStream.writeVarInt(packet.length);
+            try (final StreamOut compressedOutputStream =
+                         COMPRESSION.compressed(bodyOutputStream)) {
+                compressedOutputStream.writeBytes(packet);
+            }
+            return bodyOutputStream.toByteArray();
+        }
+    }
+
+    private static byte @NotNull [] frame(final byte @NotNull [] body) {
+
+        try (final ByteArrayStreamOut frameOutputStream = StreamOut.ofByteArray()) {
+            frameOutputStream.writeVarInt(body.length)
+                    .writeBytes(body);
+            return frameOutputStream.toByteArray();
+        }
+    }
+
+    private static void expectMalformed(final @NotNull Runnable decode) {
+
+        try {
+            decode.run();
+        } catch (final DecodeException | RuntimeIOException e) {
+            // the decoder rejected the data, which is what it should do with malformed input
+        }
+    }
+
+    /**
+     * A registry and the ids of its packets, which also serves as the format's state.
+     */
+    private static final class Target implements Stateful {
+
+        private final String name;
+        private final PacketRegistry registry;
+        private final int[] packetIds;
+
+        private Target(final @NotNull String name,
+                final @NotNull PacketRegistry registry,
+                final int @NotNull [] packetIds) {
+
+            this.name = name;
+            this.registry = registry;
+            this.packetIds = packetIds;
+        }
+
+        @Override
+        public @NotNull ChannelState getState() {
+
+            // the format only needs the registry
+            return ChannelState.PLAY;
+        }
+
+        @Override
+        public void setState(final @NotNull ChannelState state) {
+
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public @NotNull PacketRegistry getPacketRegistry() {
+
+            return registry;
+        }
+
+        @Override
+        public void close() {
+
+        }
+    }
+}
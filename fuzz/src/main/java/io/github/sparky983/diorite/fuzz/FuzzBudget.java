@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.fuzz;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+/**
+ * How much time and memory decoding a single fuzzed input may take.
+ * <p>
+ * Allocation is measured with the thread's allocation counter, so it counts everything the decoder
+ * allocated, not only what is still reachable afterwards. The allocation budget grows with the
+ * input, because a large packet legitimately decodes into large objects. What it catches is
+ * amplification, a few bytes that claim a huge collection or make a decoder loop.
+ */
+final class FuzzBudget {
+
+    /**
+     * The default time budget. Generous, because the first inputs run before the decoders are
+     * compiled.
+     */
+    static final long DEFAULT_MAX_MILLIS = 250;
+    /**
+     * The default allocation any input may make regardless of its size.
+     */
+    static final long DEFAULT_MAX_ALLOCATION = 1024 * 1024;
+    /**
+     * The default number of bytes each input byte may allocate on top of that.
+     */
+    static final long DEFAULT_MAX_AMPLIFICATION = 64;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final long maxNanos;
+    private final long maxAllocation;
+    private final long maxAmplification;
+
+    @Contract(pure = true)
+    FuzzBudget(final long maxMillis, final long maxAllocation, final long maxAmplification) {
+
+        Preconditions.requireRange(maxMillis, 1, Long.MAX_VALUE / 1_000_000, "maxMillis");
+        Preconditions.requireRange(maxAllocation, 0, Long.MAX_VALUE, "maxAllocation");
+        Preconditions.requireRange(maxAmplification, 0, Long.MAX_VALUE, "maxAmplification");
+
+        this.maxNanos = maxMillis * 1_000_000;
+        this.maxAllocation = maxAllocation;
+        this.maxAmplification = maxAmplification;
+    }
+
+    /**
+     * Returns the budget set by the {@code diorite.fuzz.maxMillis},
+     * {@code diorite.fuzz.maxAllocation} and {@code diorite.fuzz.maxAmplification} system
+     * properties, or the defaults.
+     */
+    static @NotNull FuzzBudget fromSystemProperties() {
+
+        return new FuzzBudget(
+                Long.getLong("diorite.fuzz.maxMillis", DEFAULT_MAX_MILLIS),
+                Long.getLong("diorite.fuzz.maxAllocation", DEFAULT_MAX_ALLOCATION),
+                Long.getLong("diorite.fuzz.maxAmplification", DEFAULT_MAX_AMPLIFICATION)
+        );
+    }
+
+    /**
+     * Runs the decode and checks it against the budget.
+     *
+     * @param description What is being decoded, for the failure message.
+     * @param inputLength The length of the input being decoded.
+     * @param decode The decode.
+     * @throws BudgetExceededException if the decode took too long or allocated too much.
+     */
+    void run(final @NotNull String description,
+            final int inputLength,
+            final @NotNull Runnable decode) {
+
+        final long threadId = Thread.currentThread().getId();
+        final long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        final long start = System.nanoTime();
+
+        decode.run();
+
+        final long elapsed = System.nanoTime() - start;
+        final long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        if (elapsed > maxNanos) {
+            throw new BudgetExceededException(description + " took " + elapsed / 1_000_000
+                    + " ms, more than the budget of " + maxNanos / 1_000_000 + " ms");
+        }
+
+        final long maxAllocated = maxAllocation + maxAmplification * inputLength;
+        if (allocated > maxAllocated) {
+            throw new BudgetExceededException(description + " allocated " + allocated
+                    + " bytes from " + inputLength + " bytes of input, more than the budget of "
+                    + maxAllocated + " bytes");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.fuzz;
+
+import com.code_intelligence.jazzer.junit.FuzzTest;
+
+/**
+ * Fuzzes every registered packet decoder.
+ * <p>
+ * Run normally, this replays the seeds in {@code PacketDecoderFuzzTestInputs} and any crashes
+ * found before. Run with {@code JAZZER_FUZZ=1 ./gradlew :fuzz:test}, it fuzzes until it finds a
+ * crash or an input over the budget.
+ */
+class PacketDecoderFuzzTest {
+
+    private static final DecodeHarness HARNESS =
+            new DecodeHarness(FuzzBudget.fromSystemProperties());
+
+    @FuzzTest(maxDuration = "10m")
+    void decode(final byte[] input) {
+
+        HARNESS.decode(input);
+    }
+
+    @FuzzTest(maxDuration = "10m")
+    void decodeCompressed(final byte[] input) {
+
+        HARNESS.decodeCompressed(input);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * A pool of byte arrays.
+ * <p>
+ * Arrays are grouped into power of two size classes and cached per thread, falling back to a
+ * shared cache when a thread's cache is empty or full, so buffers may be released on a different
+ * thread to the one that acquired them. Requests larger than the largest size class are allocated
+ * normally and simply dropped on release.
+ * <p>
+ * Setting the {@value #LEAK_DETECTION_PROPERTY} system property to {@code true} logs an error with
+ * the acquisition site of every buffer that is garbage collected without being released.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface BufferPool {
+
+    /**
+     * The system property that enables leak detection.
+     *
+     * @since 1.0.0
+     */
+    String LEAK_DETECTION_PROPERTY = "diorite.bufferPool.leakDetection";
+
+    /**
+     * Returns the pool shared by the packet formats and streams.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    static @NotNull BufferPool shared() {
+
+        return BufferPoolImpl.SHARED;
+    }
+
+    /**
+     * Acquires a buffer of at least the specified capacity. The buffer's reference count starts at
+     * 1.
+     *
+     * @param minCapacity The minimum capacity.
+     * @return The buffer.
+     * @throws IllegalArgumentException if minCapacity is less than 0.
+     * @since 1.0.0
+     */
+    @NotNull PooledBuffer acquire(@Range(from = 0, to = Integer.MAX_VALUE) int minCapacity);
+}
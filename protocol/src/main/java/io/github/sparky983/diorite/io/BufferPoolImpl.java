@@ -0,0 +1,153 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class BufferPoolImpl implements BufferPool {
+
+    static final BufferPool SHARED = new BufferPoolImpl(Boolean.getBoolean(LEAK_DETECTION_PROPERTY));
+
+    /**
+     * The shift of the smallest size class (256 bytes).
+     */
+    static final int MIN_SHIFT = 8;
+
+    /**
+     * The shift of the largest size class (2 MiB, enough for any frame).
+     */
+    static final int MAX_SHIFT = 21;
+
+    private static final int SIZE_CLASSES = MAX_SHIFT - MIN_SHIFT + 1;
+
+    private static final int THREAD_CACHE_BYTES = 512 * 1024;
+    private static final int SHARED_CACHE_BYTES = 8 * 1024 * 1024;
+    private static final int MAX_CACHED_PER_CLASS = 32;
+
+    private final boolean leakDetection;
+
+    @SuppressWarnings("unchecked")
+    private final ArrayBlockingQueue<byte[]>[] sharedCaches = new ArrayBlockingQueue[SIZE_CLASSES];
+
+    private final ThreadLocal<ThreadCache> threadCaches = ThreadLocal.withInitial(ThreadCache::new);
+
+    BufferPoolImpl(final boolean leakDetection) {
+
+        this.leakDetection = leakDetection;
+
+        for (int i = 0; i < SIZE_CLASSES; i++) {
+            sharedCaches[i] = new ArrayBlockingQueue<>(maxCached(i, SHARED_CACHE_BYTES));
+        }
+    }
+
+    private static int maxCached(final int sizeClass, final int bytes) {
+
+        return Math.max(1, Math.min(MAX_CACHED_PER_CLASS, bytes >> (sizeClass + MIN_SHIFT)));
+    }
+
+    /**
+     * Returns the size class of the specified capacity, or {@code -1} if it is too large to pool.
+     */
+    static int sizeClass(final int capacity) {
+
+        if (capacity <= 1 << MIN_SHIFT) {
+            return 0;
+        }
+
+        final int shift = Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1);
+        return shift > MAX_SHIFT ? -1 : shift - MIN_SHIFT;
+    }
+
+    @Override
+    public @NotNull PooledBuffer acquire(
+            final @Range(from = 0, to = Integer.MAX_VALUE) int minCapacity) {
+
+        Preconditions.requireRange(minCapacity, 0, Integer.MAX_VALUE, "minCapacity");
+
+        final int sizeClass = sizeClass(minCapacity);
+
+        if (sizeClass == -1) {
+            return new PooledBufferImpl(this, new byte[minCapacity], -1, leakDetection);
+        }
+
+        byte[] array = threadCaches.get().poll(sizeClass);
+        if (array == null) {
+            array = sharedCaches[sizeClass].poll();
+        }
+        if (array == null) {
+            array = new byte[1 << (sizeClass + MIN_SHIFT)];
+        }
+        return new PooledBufferImpl(this, array, sizeClass, leakDetection);
+    }
+
+    void recycle(final byte @NotNull [] array, final int sizeClass) {
+
+        if (sizeClass == -1) {
+            return;
+        }
+
+        if (!threadCaches.get().offer(sizeClass, array)) {
+            // dropped if the shared cache is full as well
+            sharedCaches[sizeClass].offer(array);
+        }
+    }
+
+    private static final class ThreadCache {
+
+        private final byte[][][] stacks = new byte[SIZE_CLASSES][][];
+        private final int[] sizes = new int[SIZE_CLASSES];
+
+        ThreadCache() {
+
+            for (int i = 0; i < SIZE_CLASSES; i++) {
+                stacks[i] = new byte[maxCached(i, THREAD_CACHE_BYTES)][];
+            }
+        }
+
+        byte[] poll(final int sizeClass) {
+
+            final int size = sizes[sizeClass];
+            if (size == 0) {
+                return null;
+            }
+
+            final byte[][] stack = stacks[sizeClass];
+            final byte[] array = stack[size - 1];
+            stack[size - 1] = null;
+            sizes[sizeClass] = size - 1;
+            return array;
+        }
+
+        boolean offer(final int sizeClass, final byte @NotNull [] array) {
+
+            final int size = sizes[sizeClass];
+            final byte[][] stack = stacks[sizeClass];
+            if (size == stack.length) {
+                return false;
+            }
+
+            stack[size] = array;
+            sizes[sizeClass] = size + 1;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+/**
+ * A utility class for the read-only byte buffers packets use to hold payloads they don't parse.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public final class Buffers {
+
+    private Buffers() {
+
+    }
+
+    /**
+     * Returns a read-only view of the specified array, without copying it.
+     *
+     * @param data The array.
+     * @return The read-only view.
+     * @throws NullPointerException if data is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    public static @NotNull ByteBuffer readOnly(final byte @NotNull [] data) {
+
+        Preconditions.requireNotNull(data, "data");
+
+        return ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a read-only view of the remaining bytes of the specified buffer, without copying
+     * them. The view has its own position and limit.
+     *
+     * @param data The buffer.
+     * @return The read-only view.
+     * @throws NullPointerException if data is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    public static @NotNull ByteBuffer readOnly(final @NotNull ByteBuffer data) {
+
+        Preconditions.requireNotNull(data, "data");
+
+        return data.asReadOnlyBuffer().slice();
+    }
+
+    /**
+     * Copies the remaining bytes of the specified buffer into a new array, without changing its
+     * position.
+     *
+     * @param data The buffer.
+     * @return The copy.
+     * @throws NullPointerException if data is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    public static byte @NotNull [] toByteArray(final @NotNull ByteBuffer data) {
+
+        Preconditions.requireNotNull(data, "data");
+
+        final byte[] copy = new byte[data.remaining()];
+        data.duplicate().get(copy);
+        return copy;
+    }
+}
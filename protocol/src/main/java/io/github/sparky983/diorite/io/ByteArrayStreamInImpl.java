@@ -21,10 +21,16 @@ import net.kyori.adventure.text.Component;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -41,16 +47,37 @@ import io.github.sparky983.diorite.world.Velocity;
 
 final class ByteArrayStreamInImpl implements ByteArrayStreamIn {
 
-    private final ByteArrayInputStream byteArrayInputStream;
+    private final SliceableByteArrayInputStream byteArrayInputStream;
+    private final PooledBuffer buffer;
+    private final DecodeBudget budget;
     private final StreamIn delegate;
 
     @Contract(pure = true)
-    ByteArrayStreamInImpl(final @NotNull ByteArrayInputStream byteArrayInputStream) {
+    ByteArrayStreamInImpl(final @NotNull SliceableByteArrayInputStream byteArrayInputStream,
+            final @Nullable PooledBuffer buffer,
+            final @NotNull DecodeBudget budget) {
 
         Preconditions.requireNotNull(byteArrayInputStream, "byteArrayInputStream");
+        Preconditions.requireNotNull(budget, "budget");
 
         this.byteArrayInputStream = byteArrayInputStream;
-        this.delegate = StreamIn.from(byteArrayInputStream);
+        this.buffer = buffer;
+        this.budget = budget;
+        this.delegate = new StreamInImpl(new DataInputStream(byteArrayInputStream), budget);
+    }
+
+    private @NotNull ByteBuffer slice(final int length) {
+
+        detach();
+        return byteArrayInputStream.slice(length);
+    }
+
+    private void detach() {
+
+        if (buffer != null) {
+            // the slice outlives the frame, so the array can't go back to the pool
+            buffer.detach();
+        }
     }
 
     @Override
@@ -138,6 +165,12 @@ final class ByteArrayStreamInImpl implements ByteArrayStreamIn {
         return delegate.readComponent();
     }
 
+    @Override
+    public @NotNull LazyComponent readLazyComponent() {
+
+        return delegate.readLazyComponent();
+    }
+
     @Override
     public @NotNull Identifier readIdentifier() {
 
@@ -159,7 +192,31 @@ final class ByteArrayStreamInImpl implements ByteArrayStreamIn {
     @Override
     public @NotNull CompoundBinaryTag readCompoundTag() {
 
-        return delegate.readCompoundTag();
+        // the tag is scanned before it's read, so the lengths inside it are known to fit in the
+        // array before the tag reader allocates with them
+        final int start = byteArrayInputStream.position();
+        try {
+            NbtScanner.skipRootTag(new DataInputStream(byteArrayInputStream));
+        } catch (final IOException e) {
+            throw new RuntimeIOException(e);
+        }
+
+        // the view doesn't outlive this call, so there's no need to detach the buffer
+        return new LazyCompoundTagImpl(byteArrayInputStream.sliceFrom(start)).toCompoundTag();
+    }
+
+    @Override
+    public @NotNull LazyCompoundTag readLazyCompoundTag() {
+
+        final int start = byteArrayInputStream.position();
+        try {
+            NbtScanner.skipRootTag(new DataInputStream(byteArrayInputStream));
+        } catch (final IOException e) {
+            throw new RuntimeIOException(e);
+        }
+
+        detach();
+        return new LazyCompoundTagImpl(byteArrayInputStream.sliceFrom(start));
     }
 
     @Override
@@ -186,6 +243,32 @@ final class ByteArrayStreamInImpl implements ByteArrayStreamIn {
         return delegate.readAllBytes();
     }
 
+    @Override
+    public @NotNull ByteBuffer readBuffer(final @Range(from = 0, to = Integer.MAX_VALUE) int length) {
+
+        Preconditions.requireRange(length, 0, Integer.MAX_VALUE, "length");
+
+        return slice(length);
+    }
+
+    @Override
+    public @NotNull ByteBuffer readBufferList() {
+
+        final int length = readVarInt();
+
+        if (length < 0) {
+            throw new DecodeException("Received byte list length was less than 0");
+        }
+
+        return slice(length);
+    }
+
+    @Override
+    public @NotNull ByteBuffer readRemainingBuffer() {
+
+        return slice(byteArrayInputStream.available());
+    }
+
     @Override
     public byte @NotNull [] readByteList() {
 
@@ -207,7 +290,11 @@ final class ByteArrayStreamInImpl implements ByteArrayStreamIn {
     @Override
     public long @NotNull [] readLongs(final @Range(from = 0, to = Integer.MAX_VALUE) int length) {
 
-        return delegate.readLongs(length);
+        Preconditions.requireRange(length, 0, Integer.MAX_VALUE, "length");
+
+        budget.allocate(length, Long.BYTES);
+
+        return byteArrayInputStream.readLongs(length);
     }
 
     @Override
@@ -251,13 +338,26 @@ final class ByteArrayStreamInImpl implements ByteArrayStreamIn {
     public <T> @NotNull Optional<T> readOptional(
             final @NotNull Function<@NotNull StreamIn, @NotNull T> reader) {
 
-        return delegate.readOptional(reader);
+        Preconditions.requireNotNull(reader, "reader");
+
+        if (!readBoolean()) {
+            return Optional.empty();
+        }
+
+        // the value is read from this stream, not the delegate, so it can still slice the array
+        return Optional.of(reader.apply(this));
     }
 
     @Override
     public <T> @NotNull Optional<T> readOptional(final @NotNull Supplier<@NotNull T> reader) {
 
-        return delegate.readOptional(reader);
+        Preconditions.requireNotNull(reader, "reader");
+
+        if (!readBoolean()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(reader.get());
     }
 
     @Override
@@ -282,14 +382,59 @@ final class ByteArrayStreamInImpl implements ByteArrayStreamIn {
     public <T> @Unmodifiable @NotNull List<@NotNull T> readList(
             final @NotNull Function<@NotNull StreamIn, @NotNull T> reader) {
 
-        return delegate.readList(reader);
+        Preconditions.requireNotNull(reader, "reader");
+
+        final int length = readVarInt();
+        Object[] elements = allocateList(length);
+
+        for (int i = 0; i < length; i++) {
+            if (i == elements.length) {
+                elements = Arrays.copyOf(elements, StreamInImpl.grow(i, length));
+            }
+            // elements are read from this stream, not the delegate, so they can still slice the
+            // array
+            elements[i] = reader.apply(this);
+        }
+        return toList(elements);
     }
 
     @Override
     public <T> @Unmodifiable @NotNull List<@NotNull T> readList(
             final @NotNull Supplier<@NotNull T> reader) {
 
-        return delegate.readList(reader);
+        Preconditions.requireNotNull(reader, "reader");
+
+        final int length = readVarInt();
+        Object[] elements = allocateList(length);
+
+        for (int i = 0; i < length; i++) {
+            if (i == elements.length) {
+                elements = Arrays.copyOf(elements, StreamInImpl.grow(i, length));
+            }
+            elements[i] = reader.get();
+        }
+        return toList(elements);
+    }
+
+    /**
+     * Allocates the backing array of a list of the specified length.
+     * <p>
+     * Elements are almost always at least a byte long, so a valid list fits in as many elements as
+     * there are bytes left and is allocated once. Longer ones grow as their elements are read.
+     */
+    private @NotNull Object @NotNull [] allocateList(final int length) {
+
+        budget.allocate(length, StreamInImpl.REFERENCE_SIZE);
+
+        // at least one, so there's something to grow from
+        return new Object[Math.min(length, Math.max(1, byteArrayInputStream.available()))];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> @Unmodifiable @NotNull List<T> toList(
+            final @NotNull Object @NotNull [] elements) {
+
+        return Collections.unmodifiableList(Arrays.asList((T[]) elements));
     }
 
     @Override
@@ -19,11 +19,13 @@ package io.github.sparky983.diorite.io;
 import net.kyori.adventure.nbt.CompoundBinaryTag;
 import net.kyori.adventure.text.Component;
 
+import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.UUID;
 import java.util.function.BiConsumer;
@@ -96,6 +98,9 @@ public interface ByteArrayStreamOut extends StreamOut {
     @Override
     @NotNull ByteArrayStreamOut writeComponent(@NotNull Component data);
 
+    @Override
+    @NotNull ByteArrayStreamOut writeComponent(@NotNull LazyComponent data);
+
     @Override
     @NotNull ByteArrayStreamOut writeIdentifier(@NotNull Identifier data);
 
@@ -108,6 +113,9 @@ public interface ByteArrayStreamOut extends StreamOut {
     @Override
     @NotNull ByteArrayStreamOut writeCompoundTag(@NotNull CompoundBinaryTag data);
 
+    @Override
+    @NotNull ByteArrayStreamOut writeCompoundTag(@NotNull LazyCompoundTag data);
+
     @Override
     @NotNull ByteArrayStreamOut writeBlockPosition(@NotNull BlockPosition data);
 
@@ -120,6 +128,12 @@ public interface ByteArrayStreamOut extends StreamOut {
     @Override
     @NotNull ByteArrayStreamOut writeByteList(byte @NotNull [] data);
 
+    @Override
+    @NotNull ByteArrayStreamOut writeBuffer(@NotNull ByteBuffer data);
+
+    @Override
+    @NotNull ByteArrayStreamOut writeBufferList(@NotNull ByteBuffer data);
+
     @Override
     @NotNull ByteArrayStreamOut writePosition(@NotNull Position data);
 
@@ -166,4 +180,30 @@ public interface ByteArrayStreamOut extends StreamOut {
      * @since 1.0.0
      */
     byte @NotNull [] toByteArray();
+
+    /**
+     * Returns the number of bytes written.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int size();
+
+    /**
+     * Writes everything written to this output stream to the specified output stream, without
+     * copying it into a new array first.
+     *
+     * @param outputStream The output stream to write to.
+     * @throws NullPointerException if outputStream is {@code null}.
+     * @throws RuntimeIOException if an io exception occurred.
+     * @since 1.0.0
+     */
+    void writeTo(@NotNull StreamOut outputStream);
+
+    /**
+     * Closes the output stream, returning its buffer to the pool if it was created with {@link
+     * StreamOut#ofByteArray(BufferPool)}.
+     */
+    @Override
+    void close();
 }
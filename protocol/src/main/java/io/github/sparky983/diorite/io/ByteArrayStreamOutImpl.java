@@ -24,11 +24,14 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.UUID;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
+import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.BlockPosition;
 import io.github.sparky983.diorite.world.Direction;
 import io.github.sparky983.diorite.world.Identifier;
@@ -46,6 +49,24 @@ final class ByteArrayStreamOutImpl implements ByteArrayStreamOut {
         this.delegate = StreamOut.from(byteArrayOutputStream);
     }
 
+    @Override
+    public int size() {
+
+        return byteArrayOutputStream.size();
+    }
+
+    @Override
+    public void writeTo(final @NotNull StreamOut outputStream) {
+
+        Preconditions.requireNotNull(outputStream, "outputStream");
+
+        try {
+            byteArrayOutputStream.writeTo(outputStream.toOutputStream());
+        } catch (final IOException e) {
+            throw new RuntimeIOException(e);
+        }
+    }
+
     @Override
     public @NotNull ByteArrayOutputStream toOutputStream() {
 
@@ -137,6 +158,13 @@ final class ByteArrayStreamOutImpl implements ByteArrayStreamOut {
         return this;
     }
 
+    @Override
+    public @NotNull ByteArrayStreamOut writeComponent(final @NotNull LazyComponent data) {
+
+        delegate.writeComponent(data);
+        return this;
+    }
+
     @Override
     public @NotNull ByteArrayStreamOut writeIdentifier(final @NotNull Identifier data) {
 
@@ -165,6 +193,13 @@ final class ByteArrayStreamOutImpl implements ByteArrayStreamOut {
         return this;
     }
 
+    @Override
+    public @NotNull ByteArrayStreamOut writeCompoundTag(final @NotNull LazyCompoundTag data) {
+
+        delegate.writeCompoundTag(data);
+        return this;
+    }
+
     @Override
     public @NotNull ByteArrayStreamOut writeBlockPosition(final @NotNull BlockPosition data) {
 
@@ -193,6 +228,29 @@ final class ByteArrayStreamOutImpl implements ByteArrayStreamOut {
         return this;
     }
 
+    @Override
+    public @NotNull ByteArrayStreamOut writeBuffer(final @NotNull ByteBuffer data) {
+
+        Preconditions.requireNotNull(data, "data");
+
+        if (byteArrayOutputStream instanceof PooledByteArrayOutputStream) {
+            // copies straight into the array instead of through a scratch buffer
+            ((PooledByteArrayOutputStream) byteArrayOutputStream).write(data);
+            return this;
+        }
+        delegate.writeBuffer(data);
+        return this;
+    }
+
+    @Override
+    public @NotNull ByteArrayStreamOut writeBufferList(final @NotNull ByteBuffer data) {
+
+        Preconditions.requireNotNull(data, "data");
+
+        writeVarInt(data.remaining());
+        return writeBuffer(data);
+    }
+
     @Override
     public @NotNull StreamOut writeVarInts(final int @NotNull [] data) {
 
@@ -328,5 +386,8 @@ final class ByteArrayStreamOutImpl implements ByteArrayStreamOut {
     public void close() {
 
         delegate.close();
+        if (byteArrayOutputStream instanceof PooledByteArrayOutputStream) {
+            ((PooledByteArrayOutputStream) byteArrayOutputStream).release();
+        }
     }
 }
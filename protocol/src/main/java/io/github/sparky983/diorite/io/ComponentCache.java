@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Caches conversions between components and their JSON.
+ * <p>
+ * Servers send the same text over and over, so recent conversions are kept in both directions.
+ * Components are immutable, so a component and its JSON can always be swapped for one another.
+ * <p>
+ * Both caches are direct-mapped: every key has a single slot, and a new key replaces whatever is
+ * in its slot. The entries are immutable, so the caches are read and written without locking from
+ * any number of connections and decode threads.
+ */
+final class ComponentCache {
+
+    // a power of two, so a hash can be turned into a slot with a mask
+    static final int SIZE = 512;
+
+    // JSON longer than this is rarely repeated, and would hold on to a lot of memory
+    static final int MAX_CACHED_JSON_LENGTH = 4096;
+
+    private static final GsonComponentSerializer SERIALIZER = GsonComponentSerializer.gson();
+
+    private static final AtomicReferenceArray<Entry> DESERIALIZED =
+            new AtomicReferenceArray<>(SIZE);
+    // keyed by the component instance, comparing whole component trees would cost about as much
+    // as serializing them
+    private static final AtomicReferenceArray<Entry> SERIALIZED =
+            new AtomicReferenceArray<>(SIZE);
+
+    private ComponentCache() {
+
+    }
+
+    /**
+     * Deserializes the specified JSON.
+     *
+     * @throws DecodeException if the JSON isn't a valid component.
+     */
+    static @NotNull Component deserialize(final @NotNull String json) {
+
+        final boolean cacheable = json.length() <= MAX_CACHED_JSON_LENGTH;
+        final int slot = cacheable ? slot(json.hashCode()) : -1;
+        if (cacheable) {
+            final Entry entry = DESERIALIZED.get(slot);
+            if (entry != null && entry.json.equals(json)) {
+                return entry.component;
+            }
+        }
+
+        final Component component;
+        try {
+            component = SERIALIZER.deserialize(json);
+        } catch (final Exception e) {
+            throw new DecodeException(e);
+        }
+
+        if (cacheable) {
+            DESERIALIZED.set(slot, new Entry(component, json));
+        }
+        return component;
+    }
+
+    /**
+     * Serializes the specified component, reusing the JSON if the same instance was serialized
+     * recently.
+     */
+    static @NotNull String serialize(final @NotNull Component component) {
+
+        final int slot = slot(System.identityHashCode(component));
+        final Entry entry = SERIALIZED.get(slot);
+        if (entry != null && entry.component == component) {
+            return entry.json;
+        }
+
+        final String json = SERIALIZER.serialize(component);
+        if (json.length() <= MAX_CACHED_JSON_LENGTH) {
+            SERIALIZED.set(slot, new Entry(component, json));
+        }
+        return json;
+    }
+
+    private static int slot(final int hash) {
+
+        return (hash ^ hash >>> 16) & (SIZE - 1);
+    }
+
+    private static final class Entry {
+
+        private final Component component;
+        private final String json;
+
+        Entry(final @NotNull Component component, final @NotNull String json) {
+
+            this.component = component;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Tracks the memory used while decoding a single frame against its {@link DecodeLimits}.
+ * <p>
+ * Stream implementations call {@link #allocate(long, int)} with every length they read from the
+ * wire, before allocating anything with it. Packets that read a length themselves should do the
+ * same, or better, read the collection with one of the {@link StreamIn} list methods.
+ * <p>
+ * Budgets are only used by the thread decoding the frame, so they aren't thread-safe.
+ *
+ * @author Sparky983
+ * @see DecodeLimits#newBudget()
+ * @since 1.0.0
+ */
+public interface DecodeBudget {
+
+    /**
+     * Returns a budget that only rejects negative lengths.
+     *
+     * @return The budget.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    static @NotNull DecodeBudget unlimited() {
+
+        return DecodeLimitsImpl.UNLIMITED_BUDGET;
+    }
+
+    /**
+     * Accounts for an array or list of the specified length read from the frame.
+     *
+     * @param length The number of elements, as read from the wire.
+     * @param elementSize The estimated size of each element in bytes.
+     * @throws DecodeException if length is negative.
+     * @throws DecodeLimitException if length is longer than the max collection length or would
+     *         take the frame or its connection over their max allocation.
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    void allocate(long length, int elementSize);
+
+    /**
+     * Returns the estimated number of bytes allocated so far.
+     *
+     * @return The number of bytes.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    long getAllocated();
+}
@@ -126,6 +126,27 @@ public class DecodeException extends RuntimeException {
         this.canIgnore = canIgnore;
     }
 
+    /**
+     * Constructs a new decode exception with the specified message, cause, whether it is safe to
+     * ignore and whether it records a stack trace.
+     * <p>
+     * Filling in the stack trace is most of the cost of throwing an exception, and for ignorable
+     * exceptions that wrap a cause it carries nothing the cause doesn't already.
+     *
+     * @param message The message.
+     * @param cause The cause.
+     * @param canIgnore whether it is safe to ignore the exception.
+     * @param writableStackTrace whether the stack trace should be recorded.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public DecodeException(final @Nullable String message, final @Nullable Throwable cause,
+            final boolean canIgnore, final boolean writableStackTrace) {
+
+        super(message, cause, true, writableStackTrace);
+        this.canIgnore = canIgnore;
+    }
+
     @Contract(pure = true)
     public boolean isIgnorable() {
 
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link DecodeException} that is thrown when decoding would exceed the {@link DecodeLimits}.
+ * <p>
+ * It is never ignorable, a peer exceeding the limits shouldn't be able to carry on by having its
+ * packets dropped.
+ *
+ * @author Sparky983
+ * @see DecodeBudget
+ * @since 1.0.0
+ */
+public class DecodeLimitException extends DecodeException {
+
+    /**
+     * Constructs a new decode limit exception with the specified message.
+     *
+     * @param message The message.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public DecodeLimitException(final @Nullable String message) {
+
+        super(message, false);
+    }
+}
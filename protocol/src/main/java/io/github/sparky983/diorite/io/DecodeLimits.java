@@ -0,0 +1,246 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import io.github.sparky983.diorite.util.Protocol;
+
+/**
+ * Limits on how much memory decoding a single frame may use.
+ * <p>
+ * Lengths read from the wire can't be trusted, and most of them size an array that is allocated
+ * before any of its elements are read. Without limits, a single malformed packet can allocate
+ * gigabytes. The limits are configured per connection, and each frame gets a fresh
+ * {@link DecodeBudget} that every {@link StreamIn} reading the frame checks its allocations
+ * against.
+ * <p>
+ * A fresh budget per frame doesn't stop a peer sending frames that each stay just under the
+ * limits. Limits returned by {@link #forConnection()} also add every frame's allocations up, and
+ * reject them once they pass the max connection allocation rate.
+ *
+ * @author Sparky983
+ * @see DecodeBudget
+ * @since 1.0.0
+ */
+public interface DecodeLimits {
+
+    /**
+     * The default max collection length. Every element takes at least a byte, so no valid
+     * collection is longer than the largest packet.
+     *
+     * @since 1.0.0
+     */
+    int DEFAULT_MAX_COLLECTION_LENGTH = Protocol.MAX_DATA_LENGTH;
+
+    /**
+     * The default max frame allocation, enough for the largest chunk packets.
+     *
+     * @since 1.0.0
+     */
+    long DEFAULT_MAX_FRAME_ALLOCATION = 64L * 1024 * 1024;
+
+    /**
+     * The default max connection allocation rate, enough for a frame at the max frame allocation
+     * several times a second.
+     *
+     * @since 1.0.0
+     */
+    long DEFAULT_MAX_CONNECTION_ALLOCATION_RATE = 8 * DEFAULT_MAX_FRAME_ALLOCATION;
+
+    /**
+     * Returns the default limits, which accept every packet the protocol allows.
+     *
+     * @return The default limits.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    static @NotNull DecodeLimits defaults() {
+
+        return DecodeLimitsImpl.DEFAULT;
+    }
+
+    /**
+     * Creates a new builder, starting from the default limits.
+     *
+     * @return The builder.
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new", pure = true)
+    static @NotNull Builder builder() {
+
+        return new DecodeLimitsImpl.BuilderImpl();
+    }
+
+    /**
+     * Returns the maximum length of a received frame, before decompression.
+     *
+     * @return The max frame size.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 1, to = Integer.MAX_VALUE) int getMaxFrameSize();
+
+    /**
+     * Returns the maximum length a compressed packet may declare and inflate to.
+     *
+     * @return The max inflated size.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Protocol.MAX_DATA_LENGTH) int getMaxInflatedSize();
+
+    /**
+     * Returns the maximum length of a single array or list read from a frame.
+     *
+     * @return The max collection length.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Integer.MAX_VALUE) int getMaxCollectionLength();
+
+    /**
+     * Returns the maximum number of bytes the arrays and lists read from a single frame may add
+     * up to. This is an estimate, it counts the elements of each array and list sized by the
+     * frame, not the objects created for them.
+     *
+     * @return The max frame allocation.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Long.MAX_VALUE) long getMaxFrameAllocation();
+
+    /**
+     * Returns the maximum number of bytes the arrays and lists read from all of a connection's
+     * frames may add up to each second. Only checked by limits returned by
+     * {@link #forConnection()}.
+     *
+     * @return The max connection allocation rate.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Long.MAX_VALUE) long getMaxConnectionAllocationRate();
+
+    /**
+     * Creates a new budget for decoding a single frame with these limits.
+     *
+     * @return The budget.
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new", pure = true)
+    @NotNull DecodeBudget newBudget();
+
+    /**
+     * Creates limits with the same settings for a single connection. Every budget they create
+     * also counts against a budget shared by the connection's frames, which rejects allocations
+     * once they pass the max connection allocation rate.
+     * <p>
+     * The shared budget is thread-safe, so the connection's frames may be decoded concurrently.
+     *
+     * @return The limits.
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new", pure = true)
+    @NotNull DecodeLimits forConnection();
+
+    /**
+     * A builder for {@link DecodeLimits}.
+     *
+     * @author Sparky983
+     * @since 1.0.0
+     */
+    interface Builder {
+
+        /**
+         * Sets the maximum length of a received frame, before decompression. Defaults to
+         * {@link Protocol#MAX_FRAME_LENGTH}.
+         *
+         * @param maxFrameSize The max frame size.
+         * @return The builder instance (for chaining).
+         * @throws IllegalArgumentException if maxFrameSize is less than 1.
+         * @since 1.0.0
+         */
+        @Contract(value = "_ -> this")
+        @NotNull Builder maxFrameSize(@Range(from = 1, to = Integer.MAX_VALUE) int maxFrameSize);
+
+        /**
+         * Sets the maximum length a compressed packet may declare and inflate to. Defaults to
+         * {@link Protocol#MAX_DATA_LENGTH}.
+         *
+         * @param maxInflatedSize The max inflated size.
+         * @return The builder instance (for chaining).
+         * @throws IllegalArgumentException if maxInflatedSize is less than 0 or greater than
+         *         {@link Protocol#MAX_DATA_LENGTH}.
+         * @since 1.0.0
+         */
+        @Contract(value = "_ -> this")
+        @NotNull Builder maxInflatedSize(
+                @Range(from = 0, to = Protocol.MAX_DATA_LENGTH) int maxInflatedSize);
+
+        /**
+         * Sets the maximum length of a single array or list read from a frame. Defaults to
+         * {@link #DEFAULT_MAX_COLLECTION_LENGTH}.
+         *
+         * @param maxCollectionLength The max collection length.
+         * @return The builder instance (for chaining).
+         * @throws IllegalArgumentException if maxCollectionLength is less than 0.
+         * @since 1.0.0
+         */
+        @Contract(value = "_ -> this")
+        @NotNull Builder maxCollectionLength(
+                @Range(from = 0, to = Integer.MAX_VALUE) int maxCollectionLength);
+
+        /**
+         * Sets the maximum number of bytes the arrays and lists read from a single frame may add
+         * up to. Defaults to {@link #DEFAULT_MAX_FRAME_ALLOCATION}.
+         *
+         * @param maxFrameAllocation The max frame allocation.
+         * @return The builder instance (for chaining).
+         * @throws IllegalArgumentException if maxFrameAllocation is less than 0.
+         * @since 1.0.0
+         */
+        @Contract(value = "_ -> this")
+        @NotNull Builder maxFrameAllocation(
+                @Range(from = 0, to = Long.MAX_VALUE) long maxFrameAllocation);
+
+        /**
+         * Sets the maximum number of bytes the arrays and lists read from all of a connection's
+         * frames may add up to each second. Defaults to
+         * {@link #DEFAULT_MAX_CONNECTION_ALLOCATION_RATE}.
+         *
+         * @param maxConnectionAllocationRate The max connection allocation rate.
+         * @return The builder instance (for chaining).
+         * @throws IllegalArgumentException if maxConnectionAllocationRate is less than 0.
+         * @see DecodeLimits#forConnection()
+         * @since 1.0.0
+         */
+        @Contract(value = "_ -> this")
+        @NotNull Builder maxConnectionAllocationRate(
+                @Range(from = 0, to = Long.MAX_VALUE) long maxConnectionAllocationRate);
+
+        /**
+         * Builds the limits.
+         *
+         * @return The limits.
+         * @since 1.0.0
+         */
+        @Contract(value = "-> new", pure = true)
+        @NotNull DecodeLimits build();
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.sparky983.diorite.util.Preconditions;
+import io.github.sparky983.diorite.util.Protocol;
+
+final class DecodeLimitsImpl implements DecodeLimits {
+
+    static final DecodeLimits DEFAULT = new BuilderImpl().build();
+
+    static final DecodeBudget UNLIMITED_BUDGET = new DecodeBudget() {
+        @Override
+        public void allocate(final long length, final int elementSize) {
+
+            if (length < 0) {
+                throw new DecodeException("Received length " + length + " was less than 0");
+            }
+        }
+
+        @Override
+        public long getAllocated() {
+
+            return 0;
+        }
+    };
+
+    private final int maxFrameSize;
+    private final int maxInflatedSize;
+    private final int maxCollectionLength;
+    private final long maxFrameAllocation;
+    private final long maxConnectionAllocationRate;
+
+    // shared by every frame of the connection, null unless these are a connection's limits
+    private final @Nullable ConnectionBudget connectionBudget;
+
+    @Contract(pure = true)
+    private DecodeLimitsImpl(final @NotNull BuilderImpl builder) {
+
+        this.maxFrameSize = builder.maxFrameSize;
+        this.maxInflatedSize = builder.maxInflatedSize;
+        this.maxCollectionLength = builder.maxCollectionLength;
+        this.maxFrameAllocation = builder.maxFrameAllocation;
+        this.maxConnectionAllocationRate = builder.maxConnectionAllocationRate;
+        this.connectionBudget = null;
+    }
+
+    @Contract(pure = true)
+    private DecodeLimitsImpl(final @NotNull DecodeLimitsImpl limits) {
+
+        this.maxFrameSize = limits.maxFrameSize;
+        this.maxInflatedSize = limits.maxInflatedSize;
+        this.maxCollectionLength = limits.maxCollectionLength;
+        this.maxFrameAllocation = limits.maxFrameAllocation;
+        this.maxConnectionAllocationRate = limits.maxConnectionAllocationRate;
+        this.connectionBudget = new ConnectionBudget(maxConnectionAllocationRate);
+    }
+
+    @Override
+    public @Range(from = 1, to = Integer.MAX_VALUE) int getMaxFrameSize() {
+
+        return maxFrameSize;
+    }
+
+    @Override
+    public @Range(from = 0, to = Protocol.MAX_DATA_LENGTH) int getMaxInflatedSize() {
+
+        return maxInflatedSize;
+    }
+
+    @Override
+    public @Range(from = 0, to = Integer.MAX_VALUE) int getMaxCollectionLength() {
+
+        return maxCollectionLength;
+    }
+
+    @Override
+    public @Range(from = 0, to = Long.MAX_VALUE) long getMaxFrameAllocation() {
+
+        return maxFrameAllocation;
+    }
+
+    @Override
+    public @Range(from = 0, to = Long.MAX_VALUE) long getMaxConnectionAllocationRate() {
+
+        return maxConnectionAllocationRate;
+    }
+
+    @Override
+    public @NotNull DecodeBudget newBudget() {
+
+        return new Budget();
+    }
+
+    @Override
+    public @NotNull DecodeLimits forConnection() {
+
+        return new DecodeLimitsImpl(this);
+    }
+
+    @Override
+    public @NotNull String toString() {
+
+        return "DecodeLimits{"
+                + "maxFrameSize=" + maxFrameSize
+                + ", maxInflatedSize=" + maxInflatedSize
+                + ", maxCollectionLength=" + maxCollectionLength
+                + ", maxFrameAllocation=" + maxFrameAllocation
+                + ", maxConnectionAllocationRate=" + maxConnectionAllocationRate
+                + "}";
+    }
+
+    private final class Budget implements DecodeBudget {
+
+        private long allocated = 0;
+
+        @Override
+        public void allocate(final long length, final int elementSize) {
+
+            if (length < 0) {
+                throw new DecodeException("Received length " + length + " was less than 0");
+            }
+
+            if (length > maxCollectionLength) {
+                throw new DecodeLimitException("Received length " + length
+                        + " exceeds the max collection length of " + maxCollectionLength);
+            }
+
+            // length fits in an int by now, so this can't overflow
+            final long size = length * elementSize;
+
+            if (size > maxFrameAllocation - allocated) {
+                throw new DecodeLimitException("Allocating " + size + " bytes would exceed the max "
+                        + "frame allocation of " + maxFrameAllocation + " bytes");
+            }
+
+            if (connectionBudget != null) {
+                connectionBudget.allocate(size);
+            }
+            allocated += size;
+        }
+
+        @Override
+        public long getAllocated() {
+
+            return allocated;
+        }
+    }
+
+    /**
+     * Adds up the allocations of every frame decoded on a connection over the current second.
+     */
+    private static final class ConnectionBudget {
+
+        private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+        private final long maxAllocationRate;
+
+        private long windowStart = System.nanoTime();
+        private long allocated = 0;
+
+        private ConnectionBudget(final long maxAllocationRate) {
+
+            this.maxAllocationRate = maxAllocationRate;
+        }
+
+        // frames may be decoded on several threads at once
+        private synchronized void allocate(final long size) {
+
+            final long now = System.nanoTime();
+            if (now - windowStart >= WINDOW_NANOS) {
+                windowStart = now;
+                allocated = 0;
+            }
+
+            if (size > maxAllocationRate - allocated) {
+                throw new DecodeLimitException("Allocating " + size + " bytes would exceed the max "
+                        + "connection allocation rate of " + maxAllocationRate
+                        + " bytes per second");
+            }
+
+            allocated += size;
+        }
+    }
+
+    static final class BuilderImpl implements Builder {
+
+        private int maxFrameSize = Protocol.MAX_FRAME_LENGTH;
+        private int maxInflatedSize = Protocol.MAX_DATA_LENGTH;
+        private int maxCollectionLength = DEFAULT_MAX_COLLECTION_LENGTH;
+        private long maxFrameAllocation = DEFAULT_MAX_FRAME_ALLOCATION;
+        private long maxConnectionAllocationRate = DEFAULT_MAX_CONNECTION_ALLOCATION_RATE;
+
+        @Override
+        public @NotNull Builder maxFrameSize(
+                final @Range(from = 1, to = Integer.MAX_VALUE) int maxFrameSize) {
+
+            Preconditions.requireRange(maxFrameSize, 1, Integer.MAX_VALUE, "maxFrameSize");
+
+            this.maxFrameSize = maxFrameSize;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder maxInflatedSize(
+                final @Range(from = 0, to = Protocol.MAX_DATA_LENGTH) int maxInflatedSize) {
+
+            Preconditions.requireRange(maxInflatedSize, 0, Protocol.MAX_DATA_LENGTH,
+                    "maxInflatedSize");
+
+            this.maxInflatedSize = maxInflatedSize;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder maxCollectionLength(
+                final @Range(from = 0, to = Integer.MAX_VALUE) int maxCollectionLength) {
+
+            Preconditions.requireRange(maxCollectionLength, 0, Integer.MAX_VALUE,
+                    "maxCollectionLength");
+
+            this.maxCollectionLength = maxCollectionLength;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder maxFrameAllocation(
+                final @Range(from = 0, to = Long.MAX_VALUE) long maxFrameAllocation) {
+
+            Preconditions.requireRange(maxFrameAllocation, 0, Long.MAX_VALUE,
+                    "maxFrameAllocation");
+
+            this.maxFrameAllocation = maxFrameAllocation;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder maxConnectionAllocationRate(
+                final @Range(from = 0, to = Long.MAX_VALUE) long maxConnectionAllocationRate) {
+
+            Preconditions.requireRange(maxConnectionAllocationRate, 0, Long.MAX_VALUE,
+                    "maxConnectionAllocationRate");
+
+            this.maxConnectionAllocationRate = maxConnectionAllocationRate;
+            return this;
+        }
+
+        @Override
+        public @NotNull DecodeLimits build() {
+
+            return new DecodeLimitsImpl(this);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Walks over JSON without building anything, to check that it is well-formed.
+ * <p>
+ * The JSON must be strictly valid, as the vanilla client requires of chat components.
+ */
+final class JsonScanner {
+
+    // the same nesting limit the vanilla client enforces for NBT
+    private static final int MAX_DEPTH = 512;
+
+    private JsonScanner() {
+
+    }
+
+    /**
+     * Checks that the JSON is a single well-formed value.
+     *
+     * @throws DecodeException if the JSON is malformed or nested too deeply.
+     */
+    static void requireWellFormed(final @NotNull String json) {
+
+        final int end = skipWhitespace(json, skipValue(json, skipWhitespace(json, 0), 0));
+        if (end != json.length()) {
+            throw malformed(json, end);
+        }
+    }
+
+    /**
+     * Skips the value starting at the specified index.
+     *
+     * @return The index after the value.
+     */
+    private static int skipValue(final @NotNull String json, final int index, final int depth) {
+
+        if (index >= json.length()) {
+            throw malformed(json, index);
+        }
+
+        switch (json.charAt(index)) {
+            case '{':
+                return skipObject(json, index + 1, depth + 1);
+            case '[':
+                return skipArray(json, index + 1, depth + 1);
+            case '"':
+                return skipString(json, index + 1);
+            case 't':
+                return skipLiteral(json, index, "true");
+            case 'f':
+                return skipLiteral(json, index, "false");
+            case 'n':
+                return skipLiteral(json, index, "null");
+            default:
+                return skipNumber(json, index);
+        }
+    }
+
+    private static int skipObject(final @NotNull String json, final int start, final int depth) {
+
+        requireDepth(depth);
+
+        int index = skipWhitespace(json, start);
+        if (index < json.length() && json.charAt(index) == '}') {
+            return index + 1;
+        }
+        while (true) {
+            if (index >= json.length() || json.charAt(index) != '"') {
+                throw malformed(json, index);
+            }
+            index = skipWhitespace(json, skipString(json, index + 1));
+            index = skipWhitespace(json, expect(json, index, ':'));
+            index = skipWhitespace(json, skipValue(json, index, depth));
+            if (index < json.length() && json.charAt(index) == '}') {
+                return index + 1;
+            }
+            index = skipWhitespace(json, expect(json, index, ','));
+        }
+    }
+
+    private static int skipArray(final @NotNull String json, final int start, final int depth) {
+
+        requireDepth(depth);
+
+        int index = skipWhitespace(json, start);
+        if (index < json.length() && json.charAt(index) == ']') {
+            return index + 1;
+        }
+        while (true) {
+            index = skipWhitespace(json, skipValue(json, index, depth));
+            if (index < json.length() && json.charAt(index) == ']') {
+                return index + 1;
+            }
+            index = skipWhitespace(json, expect(json, index, ','));
+        }
+    }
+
+    /**
+     * Skips the rest of a string whose opening quote has already been skipped.
+     */
+    private static int skipString(final @NotNull String json, final int start) {
+
+        int index = start;
+        while (index < json.length()) {
+            final char c = json.charAt(index++);
+            if (c == '"') {
+                return index;
+            }
+            if (c < 0x20) {
+                throw malformed(json, index - 1);
+            }
+            if (c != '\\') {
+                continue;
+            }
+            if (index >= json.length()) {
+                break;
+            }
+            switch (json.charAt(index++)) {
+                case '"':
+                case '\\':
+                case '/':
+                case 'b':
+                case 'f':
+                case 'n':
+                case 'r':
+                case 't':
+                    break;
+                case 'u':
+                    for (int end = index + 4; index < end; index++) {
+                        if (index >= json.length()
+                                || Character.digit(json.charAt(index), 16) == -1) {
+                            throw malformed(json, index);
+                        }
+                    }
+                    break;
+                default:
+                    throw malformed(json, index - 1);
+            }
+        }
+        throw malformed(json, index);
+    }
+
+    private static int skipLiteral(final @NotNull String json,
+            final int index,
+            final @NotNull String literal) {
+
+        if (!json.startsWith(literal, index)) {
+            throw malformed(json, index);
+        }
+        return index + literal.length();
+    }
+
+    private static int skipNumber(final @NotNull String json, final int start) {
+
+        int index = start;
+        if (index < json.length() && json.charAt(index) == '-') {
+            index++;
+        }
+        if (index < json.length() && json.charAt(index) == '0') {
+            index++;
+        } else {
+            index = skipDigits(json, index);
+        }
+        if (index < json.length() && json.charAt(index) == '.') {
+            index = skipDigits(json, index + 1);
+        }
+        if (index < json.length() && (json.charAt(index) == 'e' || json.charAt(index) == 'E')) {
+            index++;
+            if (index < json.length() && (json.charAt(index) == '+' || json.charAt(index) == '-')) {
+                index++;
+            }
+            index = skipDigits(json, index);
+        }
+        return index;
+    }
+
+    /**
+     * Skips one or more digits.
+     */
+    private static int skipDigits(final @NotNull String json, final int index) {
+
+        int end = index;
+        while (end < json.length() && json.charAt(end) >= '0' && json.charAt(end) <= '9') {
+            end++;
+        }
+        if (end == index) {
+            throw malformed(json, index);
+        }
+        return end;
+    }
+
+    private static int skipWhitespace(final @NotNull String json, final int start) {
+
+        int index = start;
+        while (index < json.length()) {
+            final char c = json.charAt(index);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                break;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    private static int expect(final @NotNull String json, final int index, final char expected) {
+
+        if (index >= json.length() || json.charAt(index) != expected) {
+            throw malformed(json, index);
+        }
+        return index + 1;
+    }
+
+    private static void requireDepth(final int depth) {
+
+        if (depth > MAX_DEPTH) {
+            throw new DecodeException("JSON is nested deeper than " + MAX_DEPTH);
+        }
+    }
+
+    private static @NotNull DecodeException malformed(final @NotNull String json,
+            final int index) {
+
+        return new DecodeException(index >= json.length()
+                ? "Malformed JSON: unexpected end"
+                : "Malformed JSON: unexpected '" + json.charAt(index) + "' at " + index);
+    }
+}
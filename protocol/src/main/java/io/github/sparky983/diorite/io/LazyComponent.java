@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import net.kyori.adventure.text.Component;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A chat component that is kept as JSON until it is accessed.
+ * <p>
+ * Reading a lazy component only reads its JSON string and checks that it is well-formed. The
+ * component is deserialized on the first call to {@link #get()}, and a component that was read is
+ * written back verbatim. Components that are deserialized or serialized go through a shared cache,
+ * so text that is sent repeatedly, like scoreboard lines and boss bar titles, is usually only
+ * converted once.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface LazyComponent extends Writable {
+
+    /**
+     * Creates a lazy component from an already built component.
+     *
+     * @param component The component.
+     * @return The lazy component.
+     * @throws NullPointerException if component is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    static @NotNull LazyComponent of(final @NotNull Component component) {
+
+        return new LazyComponentImpl(component);
+    }
+
+    /**
+     * Creates a lazy component from its JSON form. The JSON isn't validated until the component is
+     * accessed.
+     *
+     * @param json The JSON.
+     * @return The lazy component.
+     * @throws NullPointerException if json is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    static @NotNull LazyComponent ofJson(final @NotNull String json) {
+
+        return new LazyComponentImpl(json);
+    }
+
+    /**
+     * Returns the component, deserializing it on the first call.
+     * <p>
+     * JSON read from a stream is always well-formed, but may still not describe a component, such
+     * as an object with none of a component's content keys.
+     *
+     * @return The component.
+     * @throws DecodeException if the JSON isn't a valid component.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @NotNull Component get();
+
+    /**
+     * Returns the component's JSON, serializing it on the first call if the component wasn't read.
+     *
+     * @return The JSON.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @NotNull String getJson();
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import net.kyori.adventure.text.Component;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class LazyComponentImpl implements LazyComponent {
+
+    // at least one of these is always set
+    private volatile String json;
+    private volatile Component component;
+
+    @Contract(pure = true)
+    LazyComponentImpl(final @NotNull String json) {
+
+        Preconditions.requireNotNull(json, "json");
+
+        this.json = json;
+    }
+
+    @Contract(pure = true)
+    LazyComponentImpl(final @NotNull Component component) {
+
+        Preconditions.requireNotNull(component, "component");
+
+        this.component = component;
+    }
+
+    @Override
+    public @NotNull Component get() {
+
+        Component component = this.component;
+        if (component == null) {
+            component = ComponentCache.deserialize(json);
+            this.component = component;
+        }
+        return component;
+    }
+
+    @Override
+    public @NotNull String getJson() {
+
+        String json = this.json;
+        if (json == null) {
+            json = ComponentCache.serialize(component);
+            this.json = json;
+        }
+        return json;
+    }
+
+    @Override
+    public void write(final @NotNull StreamOut outputStream) {
+
+        Preconditions.requireNotNull(outputStream, "outputStream");
+
+        outputStream.writeString(getJson());
+    }
+
+    @Override
+    public @NotNull String toString() {
+
+        return "LazyComponent{json=" + getJson() + "}";
+    }
+}
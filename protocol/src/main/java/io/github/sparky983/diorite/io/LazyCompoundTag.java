@@ -0,0 +1,135 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import net.kyori.adventure.nbt.BinaryTag;
+import net.kyori.adventure.nbt.CompoundBinaryTag;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A compound tag that is kept in its encoded form until it is accessed.
+ * <p>
+ * Reading a lazy compound tag only walks over the tag to find where it ends. Its bytes are kept
+ * as a read-only view of the frame, or a copy for input streams that aren't backed by an array.
+ * The tag tree is built on the first call to {@link #toCompoundTag()}, {@link #get(String)} only
+ * parses the requested entry, and a tag that was read is written back verbatim.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface LazyCompoundTag extends Writable {
+
+    /**
+     * Returns a lazy compound tag with no entries.
+     *
+     * @return The empty tag.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    static @NotNull LazyCompoundTag empty() {
+
+        return LazyCompoundTagImpl.EMPTY;
+    }
+
+    /**
+     * Creates a lazy compound tag from an already built compound tag.
+     *
+     * @param tag The compound tag.
+     * @return The lazy compound tag.
+     * @throws NullPointerException if tag is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    static @NotNull LazyCompoundTag of(final @NotNull CompoundBinaryTag tag) {
+
+        return new LazyCompoundTagImpl(tag);
+    }
+
+    /**
+     * Creates a lazy compound tag from its encoded form, a named root compound or a single
+     * {@code END} tag, as it is sent over the network.
+     * <p>
+     * The buffer isn't copied, so it must not be modified afterwards.
+     *
+     * @param encoded The encoded tag.
+     * @return The lazy compound tag.
+     * @throws NullPointerException if encoded is {@code null}.
+     * @throws DecodeException if encoded isn't exactly one compound tag.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    static @NotNull LazyCompoundTag of(final @NotNull ByteBuffer encoded) {
+
+        return LazyCompoundTagImpl.decode(encoded);
+    }
+
+    /**
+     * Returns the tag at the specified key, parsing only that entry if the tag hasn't been built
+     * yet.
+     *
+     * @param key The key.
+     * @return The tag, or {@code null} if there is no tag at the specified key.
+     * @throws NullPointerException if key is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Nullable BinaryTag get(@NotNull String key);
+
+    /**
+     * Returns the long array at the specified key. If the tag hasn't been built yet, the array is
+     * read straight from the encoded tag.
+     *
+     * @param key The key.
+     * @return The long array, or {@code null} if there is no long array at the specified key.
+     * @throws NullPointerException if key is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    long @Nullable [] getLongArray(@NotNull String key);
+
+    /**
+     * Returns whether the tag has no entries.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    boolean isEmpty();
+
+    /**
+     * Returns the compound tag, building it on the first call.
+     *
+     * @return The compound tag.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @NotNull CompoundBinaryTag toCompoundTag();
+
+    /**
+     * Returns a read-only view of the encoded tag, encoding it on the first call if the tag wasn't
+     * read.
+     *
+     * @return The encoded tag.
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new", pure = true)
+    @NotNull ByteBuffer getEncoded();
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import net.kyori.adventure.nbt.BinaryTag;
+import net.kyori.adventure.nbt.BinaryTagTypes;
+import net.kyori.adventure.nbt.CompoundBinaryTag;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class LazyCompoundTagImpl implements LazyCompoundTag {
+
+    static final LazyCompoundTag EMPTY =
+            new LazyCompoundTagImpl(Buffers.readOnly(new byte[]{NbtScanner.END}));
+
+    private static final byte[] END = {NbtScanner.END};
+
+    // at least one of these is always set
+    private volatile ByteBuffer encoded;
+    private volatile CompoundBinaryTag tag;
+
+    /**
+     * Creates a lazy compound tag from an encoded tag that has already been scanned.
+     */
+    @Contract(pure = true)
+    LazyCompoundTagImpl(final @NotNull ByteBuffer encoded) {
+
+        this.encoded = encoded;
+    }
+
+    @Contract(pure = true)
+    LazyCompoundTagImpl(final @NotNull CompoundBinaryTag tag) {
+
+        Preconditions.requireNotNull(tag, "tag");
+
+        this.tag = tag;
+    }
+
+    static @NotNull LazyCompoundTag decode(final @NotNull ByteBuffer encoded) {
+
+        Preconditions.requireNotNull(encoded, "encoded");
+
+        final ByteBuffer view = Buffers.readOnly(encoded);
+        final ByteBuffer source = view.duplicate();
+        try {
+            NbtScanner.skipRootTag(new DataInputStream(new ByteBufferInputStream(source)));
+        } catch (final IOException e) {
+            throw new DecodeException("Malformed compound tag", e);
+        }
+
+        if (source.hasRemaining()) {
+            throw new DecodeException(source.remaining() + " bytes left after the compound tag");
+        }
+
+        return new LazyCompoundTagImpl(view);
+    }
+
+    @Override
+    public @Nullable BinaryTag get(final @NotNull String key) {
+
+        Preconditions.requireNotNull(key, "key");
+
+        final CompoundBinaryTag tag = this.tag;
+        if (tag != null) {
+            return tag.get(key);
+        }
+
+        final ByteBuffer source = encoded.duplicate();
+        final DataInputStream input = new DataInputStream(new ByteBufferInputStream(source));
+
+        try {
+            final int start = find(key, source, input);
+            if (start == -1) {
+                return null;
+            }
+
+            NbtScanner.skipPayload(input, encoded.get(start), 0);
+
+            // parses the entry as a compound of its own, so nothing after it is read
+            final ByteBuffer entry = encoded.duplicate();
+            entry.position(start).limit(source.position());
+            final CompoundBinaryTag compound = BinaryTagTypes.COMPOUND.read(
+                    new DataInputStream(new SequenceInputStream(
+                            new ByteBufferInputStream(entry),
+                            new ByteArrayInputStream(END))));
+            return compound.get(key);
+        } catch (final IOException e) {
+            throw new DecodeException("Malformed compound tag", e);
+        }
+    }
+
+    @Override
+    public long @Nullable [] getLongArray(final @NotNull String key) {
+
+        Preconditions.requireNotNull(key, "key");
+
+        final CompoundBinaryTag tag = this.tag;
+        if (tag != null) {
+            return tag.getLongArray(key, null);
+        }
+
+        final ByteBuffer source = encoded.duplicate();
+        final DataInputStream input = new DataInputStream(new ByteBufferInputStream(source));
+
+        try {
+            final int start = find(key, source, input);
+            if (start == -1 || encoded.get(start) != NbtScanner.LONG_ARRAY) {
+                return null;
+            }
+
+            final int length = input.readInt();
+            if (length < 0 || length > source.remaining() / Long.BYTES) {
+                throw new DecodeException("Long array length " + length + " is out of bounds");
+            }
+
+            // read straight from the encoded tag, no tag is built
+            final long[] array = new long[length];
+            source.asLongBuffer().get(array);
+            return array;
+        } catch (final IOException e) {
+            throw new DecodeException("Malformed compound tag", e);
+        }
+    }
+
+    /**
+     * Finds the entry with the specified key, leaving the input at the start of its payload.
+     *
+     * @return The index of the entry's type, or {@code -1} if there is no entry with the key.
+     */
+    private static int find(final @NotNull String key,
+            final @NotNull ByteBuffer source,
+            final @NotNull DataInputStream input) throws IOException {
+
+        if (input.readByte() == NbtScanner.END) {
+            return -1;
+        }
+        input.skipBytes(input.readUnsignedShort());
+
+        while (true) {
+            final int start = source.position();
+            final byte type = input.readByte();
+            if (type == NbtScanner.END) {
+                return -1;
+            }
+
+            if (input.readUTF().equals(key)) {
+                return start;
+            }
+            NbtScanner.skipPayload(input, type, 0);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+
+        final CompoundBinaryTag tag = this.tag;
+        if (tag != null) {
+            return tag.keySet().isEmpty();
+        }
+
+        final ByteBuffer source = encoded.duplicate();
+        if (source.get() == NbtScanner.END) {
+            return true;
+        }
+
+        // the first entry's type comes straight after the root's name
+        final int nameLength = source.getShort() & 0xFFFF;
+        return source.get(source.position() + nameLength) == NbtScanner.END;
+    }
+
+    @Override
+    public @NotNull CompoundBinaryTag toCompoundTag() {
+
+        CompoundBinaryTag tag = this.tag;
+        if (tag != null) {
+            return tag;
+        }
+
+        final DataInputStream input =
+                new DataInputStream(new ByteBufferInputStream(encoded.duplicate()));
+        try {
+            if (input.readByte() == NbtScanner.END) {
+                tag = CompoundBinaryTag.empty();
+            } else {
+                input.skipBytes(input.readUnsignedShort());
+                tag = BinaryTagTypes.COMPOUND.read(input);
+            }
+        } catch (final IOException e) {
+            throw new DecodeException("Malformed compound tag", e);
+        }
+
+        this.tag = tag;
+        return tag;
+    }
+
+    @Override
+    public @NotNull ByteBuffer getEncoded() {
+
+        ByteBuffer encoded = this.encoded;
+        if (encoded == null) {
+            try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+                outputStream.writeCompoundTag(tag);
+                encoded = Buffers.readOnly(outputStream.toByteArray());
+            }
+            this.encoded = encoded;
+        }
+
+        return encoded.duplicate();
+    }
+
+    @Override
+    public void write(final @NotNull StreamOut outputStream) {
+
+        Preconditions.requireNotNull(outputStream, "outputStream");
+
+        final ByteBuffer encoded = this.encoded;
+        if (encoded != null) {
+            outputStream.writeBuffer(encoded);
+        } else {
+            outputStream.writeCompoundTag(tag);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Walks over encoded NBT without building any tags, to find where a tag ends.
+ */
+final class NbtScanner {
+
+    static final byte END = 0;
+    static final byte COMPOUND = 10;
+    static final byte LONG_ARRAY = 12;
+
+    // the same nesting limit the vanilla client enforces
+    private static final int MAX_DEPTH = 512;
+
+    private NbtScanner() {
+
+    }
+
+    /**
+     * Skips over a root tag: its type, its name and its payload. An {@code END} tag on its own is
+     * an empty compound.
+     *
+     * @throws DecodeException if the tag isn't a compound or is malformed.
+     */
+    static void skipRootTag(final @NotNull DataInput input) throws IOException {
+
+        final byte type = input.readByte();
+
+        if (type == END) {
+            return;
+        }
+        if (type != COMPOUND) {
+            throw new DecodeException(
+                    "Expected EMPTY or COMPOUND tag. Was 0x" + Integer.toHexString(type));
+        }
+
+        skip(input, input.readUnsignedShort());
+        skipPayload(input, COMPOUND, 0);
+    }
+
+    /**
+     * Skips over the payload of a tag of the specified type.
+     *
+     * @throws DecodeException if the payload is malformed.
+     */
+    static void skipPayload(final @NotNull DataInput input, final byte type, final int depth)
+            throws IOException {
+
+        switch (type) {
+            case 1: // byte
+                skip(input, Byte.BYTES);
+                break;
+            case 2: // short
+                skip(input, Short.BYTES);
+                break;
+            case 3: // int
+            case 5: // float
+                skip(input, Integer.BYTES);
+                break;
+            case 4: // long
+            case 6: // double
+                skip(input, Long.BYTES);
+                break;
+            case 7: // byte array
+                skip(input, (long) readLength(input));
+                break;
+            case 8: // string
+                skip(input, input.readUnsignedShort());
+                break;
+            case 9: // list
+                skipList(input, depth + 1);
+                break;
+            case COMPOUND:
+                skipCompound(input, depth + 1);
+                break;
+            case 11: // int array
+                skip(input, (long) readLength(input) * Integer.BYTES);
+                break;
+            case LONG_ARRAY:
+                skip(input, (long) readLength(input) * Long.BYTES);
+                break;
+            default:
+                throw new DecodeException("Unknown tag type 0x" + Integer.toHexString(type));
+        }
+    }
+
+    private static void skipList(final @NotNull DataInput input, final int depth)
+            throws IOException {
+
+        checkDepth(depth);
+
+        final byte elementType = input.readByte();
+        final int length = readLength(input);
+
+        final int elementSize = fixedSize(elementType);
+        if (elementSize != -1) {
+            skip(input, (long) length * elementSize);
+            return;
+        }
+
+        for (int i = 0; i < length; i++) {
+            skipPayload(input, elementType, depth);
+        }
+    }
+
+    private static void skipCompound(final @NotNull DataInput input, final int depth)
+            throws IOException {
+
+        checkDepth(depth);
+
+        byte type;
+        while ((type = input.readByte()) != END) {
+            skip(input, input.readUnsignedShort());
+            skipPayload(input, type, depth);
+        }
+    }
+
+    /**
+     * Returns the size of a tag's payload if it doesn't depend on the payload, otherwise
+     * {@code -1}.
+     */
+    private static int fixedSize(final byte type) {
+
+        switch (type) {
+            case END:
+                // only valid for empty lists
+                return 0;
+            case 1:
+                return Byte.BYTES;
+            case 2:
+                return Short.BYTES;
+            case 3:
+            case 5:
+                return Integer.BYTES;
+            case 4:
+            case 6:
+                return Long.BYTES;
+            default:
+                return -1;
+        }
+    }
+
+    private static int readLength(final @NotNull DataInput input) throws IOException {
+
+        final int length = input.readInt();
+
+        if (length < 0) {
+            throw new DecodeException("Tag length " + length + " is less than 0");
+        }
+
+        return length;
+    }
+
+    private static void checkDepth(final int depth) {
+
+        if (depth > MAX_DEPTH) {
+            throw new DecodeException("Tag is nested deeper than " + MAX_DEPTH);
+        }
+    }
+
+    private static void skip(final @NotNull DataInput input, long n) throws IOException {
+
+        while (n > 0) {
+            final int skipped = input.skipBytes((int) Math.min(n, Integer.MAX_VALUE));
+            if (skipped <= 0) {
+                throw new EOFException("Tag ended " + n + " bytes early");
+            }
+            n -= skipped;
+        }
+    }
+}
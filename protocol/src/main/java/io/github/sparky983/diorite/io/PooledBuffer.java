@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A reference counted byte array borrowed from a {@link BufferPool}.
+ * <p>
+ * The array is returned to the pool once the reference count reaches 0, after which it must no
+ * longer be used.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface PooledBuffer {
+
+    /**
+     * Returns the backing array. It may be longer than the requested capacity.
+     *
+     * @throws IllegalStateException if the buffer has been released.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    byte @NotNull [] array();
+
+    /**
+     * Returns the length of the backing array.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int capacity();
+
+    /**
+     * Returns the current reference count.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int refCount();
+
+    /**
+     * Increments the reference count.
+     *
+     * @return This buffer (for chaining).
+     * @throws IllegalStateException if the buffer has been released.
+     * @since 1.0.0
+     */
+    @Contract(value = "-> this", mutates = "this")
+    @NotNull PooledBuffer retain();
+
+    /**
+     * Decrements the reference count, returning the array to the pool if it reaches 0.
+     *
+     * @return Whether the reference count reached 0.
+     * @throws IllegalStateException if the buffer has already been released.
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    boolean release();
+
+    /**
+     * Prevents the array from being returned to the pool, so views of it remain valid after the
+     * buffer is released. The array is left to the garbage collector instead.
+     *
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    void detach();
+}
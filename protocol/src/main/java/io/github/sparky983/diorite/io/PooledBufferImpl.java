@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Cleaner;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+final class PooledBufferImpl implements PooledBuffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BufferPool.class);
+
+    private static final AtomicIntegerFieldUpdater<PooledBufferImpl> REF_COUNT =
+            AtomicIntegerFieldUpdater.newUpdater(PooledBufferImpl.class, "refCount");
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final BufferPoolImpl pool;
+    private final byte[] array;
+    private final int sizeClass;
+
+    private final LeakTracker leakTracker;
+    private final Cleaner.Cleanable cleanable;
+
+    private volatile int refCount = 1;
+    private volatile boolean detached = false;
+
+    PooledBufferImpl(final @NotNull BufferPoolImpl pool,
+            final byte @NotNull [] array,
+            final int sizeClass,
+            final boolean leakDetection) {
+
+        this.pool = pool;
+        this.array = array;
+        this.sizeClass = sizeClass;
+
+        if (leakDetection) {
+            // the tracker must not reference this buffer, or it would never become unreachable
+            this.leakTracker = new LeakTracker(array.length);
+            this.cleanable = CLEANER.register(this, leakTracker);
+        } else {
+            this.leakTracker = null;
+            this.cleanable = null;
+        }
+    }
+
+    @Override
+    public byte @NotNull [] array() {
+
+        if (refCount == 0) {
+            throw new IllegalStateException("Buffer has been released");
+        }
+
+        return array;
+    }
+
+    @Override
+    public int capacity() {
+
+        return array.length;
+    }
+
+    @Override
+    public int refCount() {
+
+        return refCount;
+    }
+
+    @Override
+    public @NotNull PooledBuffer retain() {
+
+        while (true) {
+            final int current = refCount;
+            if (current == 0) {
+                throw new IllegalStateException("Buffer has been released");
+            }
+            if (REF_COUNT.compareAndSet(this, current, current + 1)) {
+                return this;
+            }
+        }
+    }
+
+    @Override
+    public boolean release() {
+
+        while (true) {
+            final int current = refCount;
+            if (current == 0) {
+                throw new IllegalStateException("Buffer has already been released");
+            }
+            if (REF_COUNT.compareAndSet(this, current, current - 1)) {
+                if (current != 1) {
+                    return false;
+                }
+                if (leakTracker != null) {
+                    leakTracker.released = true;
+                    cleanable.clean();
+                }
+                if (!detached) {
+                    pool.recycle(array, sizeClass);
+                }
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void detach() {
+
+        detached = true;
+    }
+
+    private static final class LeakTracker implements Runnable {
+
+        private final int capacity;
+        private final Throwable acquiredAt = new Throwable("Buffer acquired here");
+
+        private volatile boolean released = false;
+
+        LeakTracker(final int capacity) {
+
+            this.capacity = capacity;
+        }
+
+        @Override
+        public void run() {
+
+            if (!released) {
+                LOGGER.error("Pooled buffer of {} bytes was never released", capacity, acquiredAt);
+            }
+        }
+    }
+}
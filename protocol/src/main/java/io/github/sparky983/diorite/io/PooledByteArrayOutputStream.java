@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A {@link ByteArrayOutputStream} that borrows its buffer from a {@link BufferPool} and grows by
+ * swapping it for a larger pooled buffer.
+ * <p>
+ * {@link #close()} has no effect, as with any {@link ByteArrayOutputStream}, so wrapping streams
+ * (compression for example) can be closed safely. The buffer is returned with {@link #release()}.
+ */
+final class PooledByteArrayOutputStream extends ByteArrayOutputStream {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final BufferPool pool;
+    private PooledBuffer buffer;
+
+    PooledByteArrayOutputStream(final @NotNull BufferPool pool, final int initialCapacity) {
+
+        super(0);
+
+        this.pool = pool;
+        this.buffer = pool.acquire(initialCapacity);
+        this.buf = buffer.array();
+    }
+
+    private void ensureCapacity(final int minCapacity) {
+
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError("Required buffer capacity is too large");
+        }
+
+        if (minCapacity <= buf.length) {
+            return;
+        }
+
+        if (buffer == null) {
+            throw new IllegalStateException("Stream has been released");
+        }
+
+        final PooledBuffer grown = pool.acquire(Math.max(minCapacity, buf.length << 1));
+        System.arraycopy(buf, 0, grown.array(), 0, count);
+        buffer.release();
+        buffer = grown;
+        buf = grown.array();
+    }
+
+    @Override
+    public void write(final int b) {
+
+        ensureCapacity(count + 1);
+        buf[count] = (byte) b;
+        count++;
+    }
+
+    @Override
+    public void write(final byte @NotNull [] b, final int off, final int len) {
+
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    @Override
+    public void writeBytes(final byte @NotNull [] b) {
+
+        write(b, 0, b.length);
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer without changing its position.
+     */
+    void write(final @NotNull ByteBuffer data) {
+
+        final int length = data.remaining();
+        ensureCapacity(count + length);
+        data.duplicate().get(buf, count, length);
+        count += length;
+    }
+
+    @Override
+    public byte @NotNull [] toByteArray() {
+
+        return Arrays.copyOf(buf, count);
+    }
+
+    /**
+     * Returns the buffer to the pool. The stream can't be written to afterwards.
+     */
+    void release() {
+
+        if (buffer != null) {
+            buffer.release();
+            buffer = null;
+            buf = EMPTY;
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An input stream that keeps a copy of every byte read or skipped through it, for streams that
+ * can't be sliced.
+ */
+final class RecordingInputStream extends FilterInputStream {
+
+    private final ByteArrayOutputStream recorded = new ByteArrayOutputStream();
+    private final byte[] skipBuffer = new byte[512];
+
+    RecordingInputStream(final @NotNull InputStream inputStream) {
+
+        super(inputStream);
+    }
+
+    @Override
+    public int read() throws IOException {
+
+        final int b = in.read();
+        if (b != -1) {
+            recorded.write(b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(final byte @NotNull [] b, final int off, final int len) throws IOException {
+
+        final int read = in.read(b, off, len);
+        if (read > 0) {
+            recorded.write(b, off, read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+
+        // skipped bytes are part of the tag too
+        return Math.max(0, read(skipBuffer, 0, (int) Math.min(n, skipBuffer.length)));
+    }
+
+    @Override
+    public boolean markSupported() {
+
+        return false;
+    }
+
+    /**
+     * Returns a read-only buffer of the bytes recorded so far.
+     */
+    @NotNull ByteBuffer toBuffer() {
+
+        return Buffers.readOnly(recorded.toByteArray());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link ByteArrayInputStream} that can hand out read-only views of its array.
+ */
+final class SliceableByteArrayInputStream extends ByteArrayInputStream {
+
+    SliceableByteArrayInputStream(final byte @NotNull [] buf, final int offset, final int length) {
+
+        super(buf, offset, length);
+    }
+
+    /**
+     * Returns a read-only view of the next length bytes and skips over them.
+     *
+     * @throws RuntimeIOException if fewer than length bytes are left.
+     */
+    synchronized @NotNull ByteBuffer slice(final int length) {
+
+        if (length > count - pos) {
+            throw new RuntimeIOException(new EOFException(
+                    "Tried to read " + length + " bytes with only " + (count - pos) + " left"));
+        }
+
+        final ByteBuffer slice = ByteBuffer.wrap(buf, pos, length)
+                .slice()
+                .asReadOnlyBuffer();
+        pos += length;
+        return slice;
+    }
+
+    /**
+     * Reads the specified number of big-endian longs straight out of the array.
+     *
+     * @throws RuntimeIOException if there aren't enough bytes left.
+     */
+    synchronized long @NotNull [] readLongs(final int length) {
+
+        final long byteLength = (long) length * Long.BYTES;
+        if (byteLength > count - pos) {
+            // checked before allocating, so a bad length can't allocate more than the array
+            throw new RuntimeIOException(new EOFException(
+                    "Tried to read " + byteLength + " bytes with only " + (count - pos) + " left"));
+        }
+
+        final long[] longs = new long[length];
+        ByteBuffer.wrap(buf, pos, (int) byteLength)
+                .asLongBuffer()
+                .get(longs);
+        pos += (int) byteLength;
+        return longs;
+    }
+
+    /**
+     * Returns the index of the next byte in the array.
+     */
+    synchronized int position() {
+
+        return pos;
+    }
+
+    /**
+     * Returns a read-only view of the bytes from the specified index up to the next byte.
+     */
+    synchronized @NotNull ByteBuffer sliceFrom(final int start) {
+
+        return ByteBuffer.wrap(buf, start, pos - start)
+                .slice()
+                .asReadOnlyBuffer();
+    }
+}
@@ -24,10 +24,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Range;
 import org.jetbrains.annotations.Unmodifiable;
 
-import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.DataInputStream;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -80,7 +80,27 @@ public interface StreamIn extends Closeable {
     @Contract(value = "_ -> new", pure = true)
     static @NotNull StreamIn from(final @NotNull DataInputStream inputStream) {
 
-        return new StreamInImpl(inputStream);
+        return new StreamInImpl(inputStream, DecodeBudget.unlimited());
+    }
+
+    /**
+     * Creates a minecraft input stream from the specified input stream that checks every length it
+     * reads against the specified budget before allocating.
+     *
+     * @param inputStream The input stream.
+     * @param budget The budget.
+     * @return The read input.
+     * @throws NullPointerException if inputStream or budget are {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    static @NotNull StreamIn from(final @NotNull InputStream inputStream,
+            final @NotNull DecodeBudget budget) {
+
+        Preconditions.requireNotNull(inputStream, "inputStream");
+        Preconditions.requireNotNull(budget, "budget");
+
+        return new StreamInImpl(new DataInputStream(inputStream), budget);
     }
 
     /**
@@ -96,7 +116,89 @@ public interface StreamIn extends Closeable {
 
         Preconditions.requireNotNull(input, "input");
 
-        return new ByteArrayStreamInImpl(new ByteArrayInputStream(input));
+        return new ByteArrayStreamInImpl(
+                new SliceableByteArrayInputStream(input, 0, input.length), null,
+                DecodeBudget.unlimited());
+    }
+
+    /**
+     * Creates a new byte array minecraft output stream reading input from the specified range of
+     * the byte array.
+     * <p>
+     * The array is not copied, so it must not be modified while the stream is in use.
+     *
+     * @param input The input to read from.
+     * @param offset The index of the first byte to read.
+     * @param length The number of bytes to read.
+     * @return The newly created input stream.
+     * @throws NullPointerException if input is {@code null}.
+     * @throws IllegalArgumentException if the range is out of the array's bounds.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _, _ -> new", pure = true)
+    static @NotNull ByteArrayStreamIn createByteArrayStream(final byte @NotNull [] input,
+            final int offset,
+            final int length) {
+
+        Preconditions.requireNotNull(input, "input");
+        Preconditions.requireRange(offset, 0, input.length, "offset");
+        Preconditions.requireRange(length, 0, input.length - offset, "length");
+
+        return new ByteArrayStreamInImpl(
+                new SliceableByteArrayInputStream(input, offset, length), null,
+                DecodeBudget.unlimited());
+    }
+
+    /**
+     * Creates a new byte array minecraft input stream reading the first length bytes of the
+     * specified pooled buffer.
+     * <p>
+     * The caller still owns the buffer and releases it once it's done with the stream. If a slice
+     * is read from the stream, the buffer is {@link PooledBuffer#detach() detached} so the slice
+     * stays valid after it is released.
+     *
+     * @param buffer The buffer to read from.
+     * @param length The number of bytes to read.
+     * @return The newly created input stream.
+     * @throws NullPointerException if buffer is {@code null}.
+     * @throws IllegalArgumentException if length is out of the buffer's bounds.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    static @NotNull ByteArrayStreamIn createByteArrayStream(final @NotNull PooledBuffer buffer,
+            final int length) {
+
+        Preconditions.requireNotNull(buffer, "buffer");
+        Preconditions.requireRange(length, 0, buffer.capacity(), "length");
+
+        return createByteArrayStream(buffer, length, DecodeBudget.unlimited());
+    }
+
+    /**
+     * Creates a new byte array minecraft input stream reading the first length bytes of the
+     * specified pooled buffer, that checks every length it reads against the specified budget
+     * before allocating.
+     *
+     * @param buffer The buffer to read from.
+     * @param length The number of bytes to read.
+     * @param budget The budget.
+     * @return The newly created input stream.
+     * @throws NullPointerException if buffer or budget are {@code null}.
+     * @throws IllegalArgumentException if length is out of the buffer's bounds.
+     * @see #createByteArrayStream(PooledBuffer, int)
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _, _ -> new", pure = true)
+    static @NotNull ByteArrayStreamIn createByteArrayStream(final @NotNull PooledBuffer buffer,
+            final int length,
+            final @NotNull DecodeBudget budget) {
+
+        Preconditions.requireNotNull(buffer, "buffer");
+        Preconditions.requireRange(length, 0, buffer.capacity(), "length");
+        Preconditions.requireNotNull(budget, "budget");
+
+        return new ByteArrayStreamInImpl(
+                new SliceableByteArrayInputStream(buffer.array(), 0, length), buffer, budget);
     }
 
     @Contract(pure = true)
@@ -250,6 +352,20 @@ public interface StreamIn extends Closeable {
     @Contract(mutates = "this")
     @NotNull Component readComponent();
 
+    /**
+     * Reads the next chat component from the input stream without deserializing it. The JSON is
+     * checked to be well-formed, but is only deserialized once the component is accessed.
+     *
+     * @return The read input.
+     * @throws RuntimeIOException if an io exception occurred.
+     * @throws DecodeException if an exception occurred while decoding the value or the JSON is
+     *         malformed.
+     * @see LazyComponent
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    @NotNull LazyComponent readLazyComponent();
+
     /**
      * Reads the next identifier to from the input stream.
      *
@@ -294,6 +410,21 @@ public interface StreamIn extends Closeable {
     @Contract(mutates = "this")
     @NotNull CompoundBinaryTag readCompoundTag();
 
+    /**
+     * Reads the next nbt compound from the input stream without building it.
+     * <p>
+     * Byte array input streams return a tag backed by a slice of their array, other input streams
+     * copy the tag's bytes.
+     *
+     * @return The read input.
+     * @throws RuntimeIOException if an io exception occurred.
+     * @throws DecodeException if an exception occurred while decoding the value.
+     * @see LazyCompoundTag
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    @NotNull LazyCompoundTag readLazyCompoundTag();
+
     /**
      * Reads the next position from the input stream.
      *
@@ -350,6 +481,44 @@ public interface StreamIn extends Closeable {
     @Contract(mutates = "this")
     byte @NotNull [] readByteList();
 
+    /**
+     * Reads the specified amount of bytes from the input stream as a read-only buffer.
+     * <p>
+     * Byte array input streams return a slice of their array without copying it, other input
+     * streams wrap the bytes they read.
+     *
+     * @param length The amount of bytes to read.
+     * @return The read input.
+     * @throws IllegalArgumentException if length is less than 0.
+     * @throws RuntimeIOException if an io exception occurred.
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    @NotNull ByteBuffer readBuffer(@Range(from = 0, to = Integer.MAX_VALUE) int length);
+
+    /**
+     * Reads bytes prefixed by their length from the input stream as a read-only buffer.
+     *
+     * @return The read input.
+     * @throws RuntimeIOException if an io exception occurred.
+     * @throws DecodeException if an exception occurred while decoding the value.
+     * @see #readBuffer(int)
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    @NotNull ByteBuffer readBufferList();
+
+    /**
+     * Reads the rest of the input stream as a read-only buffer.
+     *
+     * @return The read input.
+     * @throws RuntimeIOException if an io exception occurred.
+     * @see #readBuffer(int)
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    @NotNull ByteBuffer readRemainingBuffer();
+
     /**
      * Reads the specified number of var ints from the input stream.
      *
@@ -17,18 +17,18 @@
 package io.github.sparky983.diorite.io;
 
 import net.kyori.adventure.nbt.BinaryTagIO;
-import net.kyori.adventure.nbt.BinaryTagTypes;
 import net.kyori.adventure.nbt.CompoundBinaryTag;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Range;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
@@ -49,18 +49,30 @@ import io.github.sparky983.diorite.world.Velocity;
 final class StreamInImpl implements StreamIn {
 
     private final static int MAX_UTF_8_CHAR_LENGTH = 4;
+    private static final int LONGS_PER_READ = 1024;
+    /**
+     * The estimated size of a reference in a list's backing array.
+     */
+    static final int REFERENCE_SIZE = 8;
+    /**
+     * The number of elements allocated up front for an array or list, unless fewer are claimed.
+     * Longer ones grow as their elements are read.
+     */
+    private static final int MIN_INITIAL_CAPACITY = 1024;
 
-    private static final GsonComponentSerializer COMPONENT_SERIALIZER =
-            GsonComponentSerializer.gson();
     private static final BinaryTagIO.Reader BINARY_TAG_READER = BinaryTagIO.reader();
 
     private final DataInputStream inputStream;
+    private final DecodeBudget budget;
 
-    public StreamInImpl(final @NotNull DataInputStream inputStream) {
+    public StreamInImpl(final @NotNull DataInputStream inputStream,
+            final @NotNull DecodeBudget budget) {
 
         Preconditions.requireNotNull(inputStream, "inputStream");
+        Preconditions.requireNotNull(budget, "budget");
 
         this.inputStream = inputStream;
+        this.budget = budget;
     }
 
     @Override
@@ -195,7 +207,18 @@ final class StreamInImpl implements StreamIn {
             throw new DecodeException("Received string length was less than 0");
         }
 
-        final String input = new String(readBytes(length), StandardCharsets.UTF_8);
+        budget.allocate(length, Byte.BYTES);
+
+        final String input;
+        final PooledBuffer buffer = BufferPool.shared().acquire(length);
+        try {
+            inputStream.readFully(buffer.array(), 0, length);
+            input = new String(buffer.array(), 0, length, StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            throw new RuntimeIOException(e);
+        } finally {
+            buffer.release();
+        }
 
         if (input.length() > maxLength) {
             throw new DecodeException(
@@ -208,11 +231,16 @@ final class StreamInImpl implements StreamIn {
     @Override
     public @NotNull Component readComponent() {
 
-        try {
-            return COMPONENT_SERIALIZER.deserialize(readString());
-        } catch (final Exception e) {
-            throw new DecodeException(e);
-        }
+        return ComponentCache.deserialize(readString());
+    }
+
+    @Override
+    public @NotNull LazyComponent readLazyComponent() {
+
+        final String json = readString();
+        // checked now so a malformed component fails the decode, not the code that reads it
+        JsonScanner.requireWellFormed(json);
+        return new LazyComponentImpl(json);
     }
 
     @Override
@@ -268,26 +296,22 @@ final class StreamInImpl implements StreamIn {
     @Override
     public @NotNull CompoundBinaryTag readCompoundTag() {
 
-        final byte tagType = readByte();
+        // the tag is scanned into memory first, so that none of the lengths inside it can make
+        // the tag reader allocate more than the tag's actual size
+        return readLazyCompoundTag().toCompoundTag();
+    }
 
-        final CompoundBinaryTag nbt;
+    @Override
+    public @NotNull LazyCompoundTag readLazyCompoundTag() {
 
-        if (tagType == BinaryTagTypes.END.id()) {
-            // inputStream.readTag(BinaryTagTypes.END);
-            nbt = CompoundBinaryTag.empty();
-        } else if (tagType == BinaryTagTypes.COMPOUND.id()) {
-            skip(readUnsignedShort());
-            try {
-                nbt = BinaryTagTypes.COMPOUND.read(inputStream);
-            } catch (final IOException e) {
-                throw new RuntimeIOException(e);
-            }
-        } else {
-            throw new DecodeException(
-                    "Expected EMPTY or COMPOUND tag. Was 0x" + Integer.toHexString(tagType));
+        final RecordingInputStream recordingInputStream = new RecordingInputStream(inputStream);
+        try {
+            NbtScanner.skipRootTag(new DataInputStream(recordingInputStream));
+        } catch (final IOException e) {
+            throw new RuntimeIOException(e);
         }
 
-        return nbt;
+        return new LazyCompoundTagImpl(recordingInputStream.toBuffer());
     }
 
     @Override
@@ -310,6 +334,8 @@ final class StreamInImpl implements StreamIn {
     @Override
     public byte @NotNull [] readBytes(final int n) {
 
+        budget.allocate(n, Byte.BYTES);
+
         try {
             return inputStream.readNBytes(n);
         } catch (final IOException e) {
@@ -327,6 +353,50 @@ final class StreamInImpl implements StreamIn {
         }
     }
 
+    @Override
+    public @NotNull ByteBuffer readBuffer(final @Range(from = 0, to = Integer.MAX_VALUE) int length) {
+
+        Preconditions.requireRange(length, 0, Integer.MAX_VALUE, "length");
+
+        budget.allocate(length, Byte.BYTES);
+
+        final byte[] data;
+        try {
+            if (initialCapacity(length, Byte.BYTES) == length) {
+                data = new byte[length];
+                inputStream.readFully(data);
+            } else {
+                // more than is known to be there, so the array only grows as the bytes arrive
+                data = inputStream.readNBytes(length);
+                if (data.length != length) {
+                    throw new EOFException("Stream ended " + (length - data.length)
+                            + " bytes before the end of the buffer");
+                }
+            }
+        } catch (final IOException e) {
+            throw new RuntimeIOException(e);
+        }
+        return ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    @Override
+    public @NotNull ByteBuffer readBufferList() {
+
+        final int length = readVarInt();
+
+        if (length < 0) {
+            throw new DecodeException("Received byte list length was less than 0");
+        }
+
+        return readBuffer(length);
+    }
+
+    @Override
+    public @NotNull ByteBuffer readRemainingBuffer() {
+
+        return ByteBuffer.wrap(readAllBytes()).asReadOnlyBuffer();
+    }
+
     @Override
     public byte @NotNull [] readByteList() {
 
@@ -340,8 +410,13 @@ final class StreamInImpl implements StreamIn {
 
         Preconditions.requireRange(length, 0, Integer.MAX_VALUE, "length");
 
-        final int[] varInts = new int[length];
+        budget.allocate(length, Integer.BYTES);
+
+        int[] varInts = new int[initialCapacity(length, 1)];
         for (int i = 0; i < length; i++) {
+            if (i == varInts.length) {
+                varInts = Arrays.copyOf(varInts, grow(varInts.length, length));
+            }
             varInts[i] = readVarInt();
         }
         return varInts;
@@ -351,6 +426,10 @@ final class StreamInImpl implements StreamIn {
     public int @NotNull [] readVarIntList() {
 
         final int length = readVarInt();
+
+        if (length < 0) {
+            throw new DecodeException("Received list length was less than 0");
+        }
         return readVarInts(length);
     }
 
@@ -359,9 +438,24 @@ final class StreamInImpl implements StreamIn {
 
         Preconditions.requireRange(length, 0, Integer.MAX_VALUE, "length");
 
-        final long[] longs = new long[length];
-        for (int i = 0; i < length; i++) {
-            longs[i] = readLong();
+        budget.allocate(length, Long.BYTES);
+
+        long[] longs = new long[initialCapacity(length, Long.BYTES)];
+        // the bytes are read in chunks, so there's never a second copy of the whole array
+        final byte[] bytes = new byte[Math.min(length, LONGS_PER_READ) * Long.BYTES];
+        for (int i = 0; i < length; i += LONGS_PER_READ) {
+            final int n = Math.min(length - i, LONGS_PER_READ);
+            if (i + n > longs.length) {
+                longs = Arrays.copyOf(longs, Math.max(i + n, grow(longs.length, length)));
+            }
+            try {
+                inputStream.readFully(bytes, 0, n * Long.BYTES);
+            } catch (final IOException e) {
+                throw new RuntimeIOException(e);
+            }
+            ByteBuffer.wrap(bytes, 0, n * Long.BYTES)
+                    .asLongBuffer()
+                    .get(longs, i, n);
         }
         return longs;
     }
@@ -370,6 +464,10 @@ final class StreamInImpl implements StreamIn {
     public long @NotNull [] readLongList() {
 
         final int length = readVarInt();
+
+        if (length < 0) {
+            throw new DecodeException("Received list length was less than 0");
+        }
         return readLongs(length);
     }
 
@@ -379,8 +477,13 @@ final class StreamInImpl implements StreamIn {
 
         Preconditions.requireRange(length, 0, Integer.MAX_VALUE, "length");
 
-        final long[] varLongs = new long[length];
+        budget.allocate(length, Long.BYTES);
+
+        long[] varLongs = new long[initialCapacity(length, 1)];
         for (int i = 0; i < length; i++) {
+            if (i == varLongs.length) {
+                varLongs = Arrays.copyOf(varLongs, grow(varLongs.length, length));
+            }
             varLongs[i] = readVarLong();
         }
         return varLongs;
@@ -390,6 +493,10 @@ final class StreamInImpl implements StreamIn {
     public long @NotNull [] readVarLongList() {
 
         final int length = readVarInt();
+
+        if (length < 0) {
+            throw new DecodeException("Received list length was less than 0");
+        }
         return readVarLongs(length);
     }
 
@@ -492,29 +599,64 @@ final class StreamInImpl implements StreamIn {
     }
 
     @Override
+    @SuppressWarnings({"unchecked", "Java9CollectionFactory" /* List.of doesn't support null */})
     public <T> @Unmodifiable @NotNull List<@NotNull T> readList(
             final @NotNull Function<@NotNull StreamIn, @NotNull T> reader) {
 
         Preconditions.requireNotNull(reader, "reader");
 
-        return readList(() -> reader.apply(this));
+        // elements are read directly so that a non-capturing reader doesn't allocate
+        final int size = readVarInt();
+
+        budget.allocate(size, REFERENCE_SIZE);
+
+        T[] array = (T[]) new Object[initialCapacity(size, 1)];
+
+        for (int i = 0; i < size; i++) {
+            if (i == array.length) {
+                array = Arrays.copyOf(array, grow(array.length, size));
+            }
+            array[i] = reader.apply(this);
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(array));
     }
 
-    @SuppressWarnings({"unchecked", "Java9CollectionFactory" /* List.of doesn't support null */})
     @Override
     public <T> @Unmodifiable @NotNull List<T> readList(
             final @NotNull Supplier<T> reader) {
 
-        final int size = readVarInt();
+        Preconditions.requireNotNull(reader, "reader");
+
+        return readList((inputStream) -> reader.get());
+    }
 
-        final T[] array = (T[]) new Object[size];
+    /**
+     * Returns how many elements to allocate up front for an array or list of the specified
+     * length.
+     * <p>
+     * The length comes from the wire, so it can claim far more elements than the stream holds. Only
+     * as many as could fit in the bytes known to be available are allocated, or
+     * {@link #MIN_INITIAL_CAPACITY} if that's more. For byte array streams, that is every byte left,
+     * so valid collections are allocated once. Elsewhere, collections grow as elements arrive.
+     *
+     * @param length The claimed length.
+     * @param minElementSize The fewest bytes an element is encoded in.
+     */
+    private int initialCapacity(final int length, final int minElementSize) {
 
-        for (int i = 0; i < size; i++) {
-            final T e = reader.get();
-            array[i] = e;
+        final int available;
+        try {
+            available = inputStream.available();
+        } catch (final IOException e) {
+            throw new RuntimeIOException(e);
         }
+        return Math.min(length, Math.max(MIN_INITIAL_CAPACITY, available / minElementSize));
+    }
 
-        return Collections.unmodifiableList(Arrays.asList(array));
+    static int grow(final int capacity, final int length) {
+
+        return (int) Math.min(length, capacity * 2L);
     }
 
     @Override
@@ -28,6 +28,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.DataOutputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.UUID;
 import java.util.function.BiConsumer;
@@ -95,6 +96,25 @@ public interface StreamOut extends Closeable {
         return new ByteArrayStreamOutImpl(new ByteArrayOutputStream());
     }
 
+    /**
+     * Creates a new byte array minecraft output stream that borrows its buffer from the specified
+     * pool.
+     * <p>
+     * The output stream must be closed to return the buffer, and must not be used afterwards.
+     *
+     * @param pool The pool to borrow from.
+     * @return The newly created byte array minecraft output stream.
+     * @throws NullPointerException if pool is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    static @NotNull ByteArrayStreamOut ofByteArray(final @NotNull BufferPool pool) {
+
+        Preconditions.requireNotNull(pool, "pool");
+
+        return new ByteArrayStreamOutImpl(new PooledByteArrayOutputStream(pool, 256));
+    }
+
     /**
      * Returns the output stream this output stream is writing to.
      * <p>
@@ -236,6 +256,19 @@ public interface StreamOut extends Closeable {
     @Contract(value = "_ -> this", mutates = "this")
     @NotNull StreamOut writeComponent(@NotNull Component data);
 
+    /**
+     * Writes the specified chat component to the output stream. Components that were read are
+     * written verbatim.
+     *
+     * @param data The data to write.
+     * @return The output stream instance (for chaining).
+     * @throws NullPointerException if data is {@code null}.
+     * @throws RuntimeIOException if an io exception occurred.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> this", mutates = "this")
+    @NotNull StreamOut writeComponent(@NotNull LazyComponent data);
+
     /**
      * Writes the specified identifier to the output stream.
      *
@@ -281,6 +314,17 @@ public interface StreamOut extends Closeable {
     @Contract(value = "_ -> this", mutates = "this")
     @NotNull StreamOut writeCompoundTag(@NotNull CompoundBinaryTag data);
 
+    /**
+     * Writes the specified nbt tag to the output stream. Tags that were read are written verbatim.
+     *
+     * @param data The data to write.
+     * @return The output stream instance (for chaining).
+     * @throws RuntimeIOException if an io exception occurred.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> this", mutates = "this")
+    @NotNull StreamOut writeCompoundTag(@NotNull LazyCompoundTag data);
+
     /**
      * Writes the specified position to the output stream.
      *
@@ -328,6 +372,35 @@ public interface StreamOut extends Closeable {
     @Contract(value = "_ -> this", mutates = "this")
     @NotNull StreamOut writeByteList(byte @NotNull [] data);
 
+    /**
+     * Writes the remaining bytes of the specified buffer to the output stream.
+     * <p>
+     * The buffer's position is left unchanged.
+     *
+     * @param data The data to write.
+     * @return The output stream instance (for chaining).
+     * @throws NullPointerException if data is {@code null}.
+     * @throws RuntimeIOException if an io exception occurred.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> this", mutates = "this")
+    @NotNull StreamOut writeBuffer(@NotNull ByteBuffer data);
+
+    /**
+     * Writes the remaining bytes of the specified buffer, prefixed by their length to the output
+     * stream.
+     * <p>
+     * The buffer's position is left unchanged.
+     *
+     * @param data The data to write.
+     * @return The output stream instance (for chaining).
+     * @throws NullPointerException if data is {@code null}.
+     * @throws RuntimeIOException if an io exception occurred.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> this", mutates = "this")
+    @NotNull StreamOut writeBufferList(@NotNull ByteBuffer data);
+
     /**
      * Writes the specified int array to the output stream.
      *
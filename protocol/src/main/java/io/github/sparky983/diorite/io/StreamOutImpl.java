@@ -19,7 +19,6 @@ package io.github.sparky983.diorite.io;
 import net.kyori.adventure.nbt.BinaryTagIO;
 import net.kyori.adventure.nbt.CompoundBinaryTag;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -29,7 +28,7 @@ import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.UUID;
 import java.util.function.BiConsumer;
@@ -44,11 +43,10 @@ import io.github.sparky983.diorite.world.Velocity;
 
 final class StreamOutImpl implements StreamOut {
 
-    private static final GsonComponentSerializer COMPONENT_SERIALIZER =
-            GsonComponentSerializer.gson();
-
     private static final BinaryTagIO.Writer BINARY_TAG_WRITER = BinaryTagIO.writer();
 
+    private static final int WRITE_BUFFER_CHUNK_SIZE = 8192;
+
     private final DataOutputStream outputStream;
 
     public StreamOutImpl(final @NotNull DataOutputStream outputStream) {
@@ -92,7 +90,7 @@ final class StreamOutImpl implements StreamOut {
         Preconditions.requireRange(data, 0, 0xFF, "data");
 
         try {
-            outputStream.writeByte(data + Byte.MIN_VALUE);
+            outputStream.writeByte(data);
             return this;
         } catch (final IOException e) {
             throw new RuntimeIOException(e);
@@ -117,7 +115,7 @@ final class StreamOutImpl implements StreamOut {
         Preconditions.requireRange(data, 0, 0xFFFF, "data");
 
         try {
-            outputStream.writeShort(data + Short.MIN_VALUE);
+            outputStream.writeShort(data);
             return this;
         } catch (final IOException e) {
             throw new RuntimeIOException(e);
@@ -173,14 +171,75 @@ final class StreamOutImpl implements StreamOut {
 
         Preconditions.requireNotNull(data, "data");
 
-        return writeVarInt(data.length())
-                .writeBytes(data.getBytes(StandardCharsets.UTF_8));
+        // a UTF-16 char never encodes to more than 3 UTF-8 bytes (surrogate pairs encode to 4)
+        final PooledBuffer buffer = BufferPool.shared().acquire(data.length() * 3);
+        try {
+            final int length = encodeUtf8(data, buffer.array());
+            writeVarInt(length);
+            outputStream.write(buffer.array(), 0, length);
+        } catch (final IOException e) {
+            throw new RuntimeIOException(e);
+        } finally {
+            buffer.release();
+        }
+        return this;
+    }
+
+    /**
+     * Encodes the string as UTF-8 into the buffer, replacing unpaired surrogates with {@code '?'}
+     * like {@link String#getBytes(java.nio.charset.Charset)} does.
+     *
+     * @return The number of bytes written.
+     */
+    private static int encodeUtf8(final @NotNull String data, final byte @NotNull [] buffer) {
+
+        int position = 0;
+        final int length = data.length();
+        for (int i = 0; i < length; i++) {
+            final char c = data.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                final char low;
+                if (Character.isHighSurrogate(c)
+                        && i + 1 < length
+                        && Character.isLowSurrogate(low = data.charAt(i + 1))) {
+                    final int codePoint = Character.toCodePoint(c, low);
+                    buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                    i++;
+                } else {
+                    buffer[position++] = '?';
+                }
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return position;
     }
 
     @Override
     public @NotNull StreamOut writeComponent(final @NotNull Component data) {
 
-        return writeString(COMPONENT_SERIALIZER.serialize(data));
+        Preconditions.requireNotNull(data, "data");
+
+        return writeString(ComponentCache.serialize(data));
+    }
+
+    @Override
+    public @NotNull StreamOut writeComponent(final @NotNull LazyComponent data) {
+
+        Preconditions.requireNotNull(data, "data");
+
+        data.write(this);
+        return this;
     }
 
     @Override
@@ -234,11 +293,20 @@ final class StreamOutImpl implements StreamOut {
         }
     }
 
+    @Override
+    public @NotNull StreamOut writeCompoundTag(final @NotNull LazyCompoundTag data) {
+
+        Preconditions.requireNotNull(data, "data");
+
+        data.write(this);
+        return this;
+    }
+
     @Override
     public @NotNull StreamOut writeBlockPosition(final @NotNull BlockPosition data) {
 
         writeLong(
-                ((long) (data.getX() & 0x3FFFFFF) << 38) | ((long) (data.getY() & 0x3FFFFFF) << 12)
+                ((long) (data.getX() & 0x3FFFFFF) << 38) | ((long) (data.getZ() & 0x3FFFFFF) << 12)
                         | (data.getY() & 0xFFF));
         return this;
     }
@@ -265,6 +333,47 @@ final class StreamOutImpl implements StreamOut {
         return this;
     }
 
+    @Override
+    public @NotNull StreamOut writeBuffer(final @NotNull ByteBuffer data) {
+
+        Preconditions.requireNotNull(data, "data");
+
+        try {
+            if (data.hasArray()) {
+                outputStream.write(data.array(), data.arrayOffset() + data.position(),
+                        data.remaining());
+                return this;
+            }
+
+            // read-only and direct buffers don't expose their array
+            final ByteBuffer source = data.duplicate();
+            final PooledBuffer buffer = BufferPool.shared()
+                    .acquire(Math.min(source.remaining(), WRITE_BUFFER_CHUNK_SIZE));
+            try {
+                final byte[] chunk = buffer.array();
+                while (source.hasRemaining()) {
+                    final int length = Math.min(source.remaining(), chunk.length);
+                    source.get(chunk, 0, length);
+                    outputStream.write(chunk, 0, length);
+                }
+            } finally {
+                buffer.release();
+            }
+        } catch (final IOException e) {
+            throw new RuntimeIOException(e);
+        }
+        return this;
+    }
+
+    @Override
+    public @NotNull StreamOut writeBufferList(final @NotNull ByteBuffer data) {
+
+        Preconditions.requireNotNull(data, "data");
+
+        return writeVarInt(data.remaining())
+                .writeBuffer(data);
+    }
+
     @Override
     public @NotNull StreamOut writeByteList(final byte @NotNull [] data) {
 
@@ -0,0 +1,593 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io.anvil;
+
+import net.kyori.adventure.nbt.BinaryTag;
+import net.kyori.adventure.nbt.BinaryTagIO;
+import net.kyori.adventure.nbt.ByteArrayBinaryTag;
+import net.kyori.adventure.nbt.CompoundBinaryTag;
+import net.kyori.adventure.nbt.IntBinaryTag;
+import net.kyori.adventure.nbt.ListBinaryTag;
+import net.kyori.adventure.nbt.StringBinaryTag;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import io.github.sparky983.diorite.io.LazyCompoundTag;
+import io.github.sparky983.diorite.net.packet.clientbound.play.ChunkDataAndUpdateLightPacket;
+import io.github.sparky983.diorite.util.Preconditions;
+import io.github.sparky983.diorite.world.Chunk;
+import io.github.sparky983.diorite.world.ChunkDecoder;
+import io.github.sparky983.diorite.world.ChunkSection;
+import io.github.sparky983.diorite.world.Identifier;
+import io.github.sparky983.diorite.world.LightStorage;
+import io.github.sparky983.diorite.world.PackedArrays;
+
+/**
+ * A utility class for converting between the chunks stored in Anvil region files and chunk data
+ * packets.
+ * <p>
+ * Only the 1.18 chunk format is supported: sections with {@code block_states} and {@code biomes}
+ * containers, and {@code block_entities} at the root.
+ *
+ * @author Sparky983
+ * @see io.github.sparky983.diorite.world.RegionStorage
+ * @since 1.0.0
+ */
+public final class AnvilChunks {
+
+    /**
+     * The data version of chunks written by {@link #fromPacket}, which is that of 1.18.2.
+     *
+     * @since 1.0.0
+     */
+    public static final int DATA_VERSION = 2975;
+
+    private static final int MIN_BLOCK_STATE_BITS = 4;
+
+    private AnvilChunks() {
+
+    }
+
+    /**
+     * Reads a chunk's root tag, without parsing it.
+     * <p>
+     * Entries are only parsed when they are accessed, so the entities, structures and other data
+     * a chunk packet doesn't need are skipped over.
+     *
+     * @param inputStream The chunk's decompressed NBT, as read from a region file.
+     * @return The chunk's root tag.
+     * @throws NullPointerException if inputStream is {@code null}.
+     * @throws IOException if an I/O error occurs.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", mutates = "param")
+    public static @NotNull LazyCompoundTag read(final @NotNull InputStream inputStream)
+            throws IOException {
+
+        Preconditions.requireNotNull(inputStream, "inputStream");
+
+        return LazyCompoundTag.of(ByteBuffer.wrap(inputStream.readAllBytes()));
+    }
+
+    /**
+     * Writes a chunk's root tag, uncompressed, so that it can be written to a region file.
+     *
+     * @param chunk The chunk's root tag.
+     * @param outputStream The output stream.
+     * @throws NullPointerException if chunk or outputStream are {@code null}.
+     * @throws IOException if an I/O error occurs.
+     * @since 1.0.0
+     */
+    @Contract(mutates = "param2")
+    public static void write(final @NotNull CompoundBinaryTag chunk,
+            final @NotNull OutputStream outputStream) throws IOException {
+
+        Preconditions.requireNotNull(chunk, "chunk");
+        Preconditions.requireNotNull(outputStream, "outputStream");
+
+        BinaryTagIO.writer().write(chunk, outputStream);
+    }
+
+    /**
+     * Converts a chunk's root tag to a chunk.
+     * <p>
+     * Sections missing from the tag are filled with air, in the biome
+     * {@code minecraft:plains}.
+     *
+     * @param chunk The chunk's root tag.
+     * @param registry The registry to map block states and biomes with.
+     * @param minY The lowest y coordinate of the world.
+     * @param worldHeight The height of the world.
+     * @return The chunk.
+     * @throws NullPointerException if chunk or registry are {@code null}.
+     * @throws IllegalArgumentException if minY or worldHeight aren't multiples of 16, the chunk
+     *         is malformed, including tags of the wrong type, or it contains a block state or
+     *         biome the registry doesn't know.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _, _, _ -> new", pure = true)
+    public static @NotNull Chunk toChunk(final @NotNull LazyCompoundTag chunk,
+            final @NotNull AnvilRegistry registry,
+            final int minY,
+            final @Range(from = 16, to = Integer.MAX_VALUE) int worldHeight) {
+
+        Preconditions.requireNotNull(chunk, "chunk");
+        Preconditions.requireNotNull(registry, "registry");
+        Preconditions.requireTrue((minY & 15) == 0, "minY must be a multiple of 16");
+        Preconditions.requireTrue(worldHeight >= 16 && (worldHeight & 15) == 0,
+                "worldHeight must be a positive multiple of 16");
+
+        final int sectionCount = worldHeight >> 4;
+        final ChunkSection[] sections = new ChunkSection[sectionCount];
+
+        final ListBinaryTag sectionTags = getList(chunk.get("sections"));
+        for (int i = 0; i < sectionTags.size(); i++) {
+            final CompoundBinaryTag sectionTag = getCompound(sectionTags.get(i), "a section");
+            final int index = sectionTag.getByte("Y") - (minY >> 4);
+            if (index < 0 || index >= sectionCount) {
+                // sections just outside the world only hold light
+                continue;
+            }
+            final BinaryTag blockStates = sectionTag.get("block_states");
+            if (blockStates == null) {
+                continue;
+            }
+            sections[index] = toSection(getCompound(blockStates, "block_states"),
+                    sectionTag.getCompound("biomes"), registry);
+        }
+
+        ChunkSection empty = null;
+        for (int i = 0; i < sectionCount; i++) {
+            if (sections[i] == null) {
+                if (empty == null) {
+                    empty = emptySection(registry);
+                }
+                sections[i] = empty;
+            }
+        }
+
+        return Chunk.of(getInt(chunk.get("xPos")), getInt(chunk.get("zPos")), minY, worldHeight,
+                Arrays.asList(sections));
+    }
+
+    /**
+     * Converts a chunk's root tag to the packet that sends it.
+     *
+     * @param chunk The chunk's root tag.
+     * @param registry The registry to map block states, biomes and block entity types with.
+     * @param minY The lowest y coordinate of the world.
+     * @param worldHeight The height of the world.
+     * @return The packet.
+     * @throws NullPointerException if chunk or registry are {@code null}.
+     * @throws IllegalArgumentException if minY or worldHeight aren't multiples of 16, the chunk
+     *         is malformed, including tags of the wrong type, or it contains a block state or
+     *         biome the registry doesn't know.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _, _, _ -> new", pure = true)
+    public static @NotNull ChunkDataAndUpdateLightPacket toPacket(
+            final @NotNull LazyCompoundTag chunk,
+            final @NotNull AnvilRegistry registry,
+            final int minY,
+            final @Range(from = 16, to = Integer.MAX_VALUE) int worldHeight) {
+
+        final Chunk decoded = toChunk(chunk, registry, minY, worldHeight);
+
+        final BinaryTag heightmaps = chunk.get("Heightmaps");
+        final CompoundBinaryTag heightmapsTag = heightmaps instanceof CompoundBinaryTag
+                ? (CompoundBinaryTag) heightmaps
+                : CompoundBinaryTag.empty();
+
+        final List<ChunkDataAndUpdateLightPacket.BlockEntity> blockEntities = new ArrayList<>();
+        for (final BinaryTag blockEntity : getList(chunk.get("block_entities"))) {
+            final CompoundBinaryTag blockEntityTag = getCompound(blockEntity, "a block entity");
+            final int type = registry.getBlockEntityTypeId(
+                    Identifier.parse(blockEntityTag.getString("id")));
+            if (type == -1) {
+                // the client would ignore it anyway
+                continue;
+            }
+            final int x = blockEntityTag.getInt("x");
+            final int z = blockEntityTag.getInt("z");
+            blockEntities.add(new ChunkDataAndUpdateLightPacket.BlockEntity(
+                    (byte) ((x & 15) << 4 | z & 15),
+                    (short) blockEntityTag.getInt("y"),
+                    type,
+                    withoutPosition(blockEntityTag)
+            ));
+        }
+
+        // light is stored for one section below and above the world too
+        final BitSet skyLightMask = new BitSet();
+        final BitSet blockLightMask = new BitSet();
+        final List<byte[]> skyLightArrays = new ArrayList<>();
+        final List<byte[]> blockLightArrays = new ArrayList<>();
+        final byte[][] skyLight = new byte[(worldHeight >> 4) + 2][];
+        final byte[][] blockLight = new byte[skyLight.length][];
+
+        final ListBinaryTag sectionTags = getList(chunk.get("sections"));
+        for (int i = 0; i < sectionTags.size(); i++) {
+            final CompoundBinaryTag sectionTag = getCompound(sectionTags.get(i), "a section");
+            final int index = sectionTag.getByte("Y") - (minY >> 4) + 1;
+            if (index < 0 || index >= skyLight.length) {
+                continue;
+            }
+            skyLight[index] = getLightArray(sectionTag, "SkyLight");
+            blockLight[index] = getLightArray(sectionTag, "BlockLight");
+        }
+
+        for (int i = 0; i < skyLight.length; i++) {
+            if (skyLight[i] != null) {
+                skyLightMask.set(i);
+                skyLightArrays.add(skyLight[i]);
+            }
+            if (blockLight[i] != null) {
+                blockLightMask.set(i);
+                blockLightArrays.add(blockLight[i]);
+            }
+        }
+
+        return new ChunkDataAndUpdateLightPacket(
+                decoded.getChunkX(),
+                decoded.getChunkZ(),
+                heightmapsTag,
+                decoded.encode(),
+                blockEntities,
+                true,
+                skyLightMask.toLongArray(),
+                blockLightMask.toLongArray(),
+                new long[0],
+                new long[0],
+                skyLightArrays.toArray(new byte[0][]),
+                blockLightArrays.toArray(new byte[0][])
+        );
+    }
+
+    /**
+     * Converts a chunk data packet to the root tag of a chunk, so that it can be written to a
+     * region file.
+     * <p>
+     * Block entities whose type the registry doesn't know are left out.
+     *
+     * @param packet The packet.
+     * @param registry The registry to map block states, biomes and block entity types with.
+     * @param minY The lowest y coordinate of the world.
+     * @param worldHeight The height of the world.
+     * @return The chunk's root tag.
+     * @throws NullPointerException if packet or registry are {@code null}.
+     * @throws IllegalArgumentException if minY or worldHeight aren't multiples of 16, the
+     *         packet's chunk data is malformed or it contains a block state or biome id the
+     *         registry doesn't know.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _, _, _ -> new", pure = true)
+    public static @NotNull CompoundBinaryTag fromPacket(
+            final @NotNull ChunkDataAndUpdateLightPacket packet,
+            final @NotNull AnvilRegistry registry,
+            final int minY,
+            final @Range(from = 16, to = Integer.MAX_VALUE) int worldHeight) {
+
+        Preconditions.requireNotNull(packet, "packet");
+        Preconditions.requireNotNull(registry, "registry");
+
+        final Chunk chunk = packet.decodeChunk(ChunkDecoder.sequential(), minY, worldHeight);
+
+        final byte[][] skyLight = toLightSections(packet.getSkyLightMask(),
+                packet.getSkyLightArrays(), chunk.getSectionCount() + 2);
+        final byte[][] blockLight = toLightSections(packet.getBlockLightMask(),
+                packet.getBlockLightArrays(), chunk.getSectionCount() + 2);
+
+        final ListBinaryTag.Builder<BinaryTag> sections = ListBinaryTag.builder();
+        for (int i = 0; i < skyLight.length; i++) {
+            final CompoundBinaryTag.Builder sectionTag = CompoundBinaryTag.builder()
+                    .putByte("Y", (byte) ((minY >> 4) + i - 1));
+            final boolean inWorld = i > 0 && i <= chunk.getSectionCount();
+
+            if (inWorld) {
+                final ChunkSection section = chunk.getSection(i - 1);
+                sectionTag.put("block_states", toContainer(section.getBlockStates(),
+                        MIN_BLOCK_STATE_BITS, registry::getBlockState));
+                sectionTag.put("biomes", toContainer(section.getBiomes(), 1,
+                        (id) -> StringBinaryTag.of(registry.getBiome(id).toString())));
+            } else if (skyLight[i] == null && blockLight[i] == null) {
+                continue;
+            }
+
+            if (skyLight[i] != null) {
+                sectionTag.putByteArray("SkyLight", skyLight[i]);
+            }
+            if (blockLight[i] != null) {
+                sectionTag.putByteArray("BlockLight", blockLight[i]);
+            }
+            sections.add(sectionTag.build());
+        }
+
+        final ListBinaryTag.Builder<BinaryTag> blockEntities = ListBinaryTag.builder();
+        for (final ChunkDataAndUpdateLightPacket.BlockEntity blockEntity
+                : packet.getBlockEntities()) {
+            final int type = blockEntity.getType();
+            final Identifier typeName;
+            try {
+                typeName = registry.getBlockEntityType(type);
+            } catch (final IllegalArgumentException e) {
+                continue;
+            }
+
+            final CompoundBinaryTag.Builder blockEntityTag = CompoundBinaryTag.builder();
+            for (final Map.Entry<String, ? extends BinaryTag> entry : blockEntity.getData()) {
+                blockEntityTag.put(entry.getKey(), entry.getValue());
+            }
+            final int packedXZ = blockEntity.getPackedXZ();
+            blockEntities.add(blockEntityTag
+                    .putString("id", typeName.toString())
+                    .putInt("x", (packet.getChunkX() << 4) + (packedXZ >> 4 & 15))
+                    .putInt("y", blockEntity.getY())
+                    .putInt("z", (packet.getChunkZ() << 4) + (packedXZ & 15))
+                    .putByte("keepPacked", (byte) 0)
+                    .build());
+        }
+
+        return CompoundBinaryTag.builder()
+                .putInt("DataVersion", DATA_VERSION)
+                .putInt("xPos", packet.getChunkX())
+                .putInt("yPos", minY >> 4)
+                .putInt("zPos", packet.getChunkZ())
+                .putString("Status", "full")
+                .putLong("LastUpdate", 0)
+                .putLong("InhabitedTime", 0)
+                .putByte("isLightOn", (byte) 1)
+                .put("sections", sections.build())
+                .put("block_entities", blockEntities.build())
+                .put("Heightmaps", packet.getHeightmaps())
+                .build();
+    }
+
+    private static @NotNull ChunkSection toSection(final @NotNull CompoundBinaryTag blockStates,
+            final @NotNull CompoundBinaryTag biomes,
+            final @NotNull AnvilRegistry registry) {
+
+        final ListBinaryTag blockPalette = blockStates.getList("palette");
+        final int[] blockPaletteIds = new int[blockPalette.size()];
+        final boolean[] air = new boolean[blockPalette.size()];
+        for (int i = 0; i < blockPaletteIds.length; i++) {
+            final CompoundBinaryTag state = blockPalette.getCompound(i);
+            blockPaletteIds[i] = registry.getBlockStateId(state);
+            if (blockPaletteIds[i] == -1) {
+                throw new IllegalArgumentException("Unknown block state " + state);
+            }
+            air[i] = isAir(state.getString("Name"));
+        }
+
+        final int[] blockStateIds = new int[ChunkSection.SECTION_SIZE * ChunkSection.SECTION_SIZE
+                * ChunkSection.SECTION_SIZE];
+        unpack(blockStates.getLongArray("data"), blockPaletteIds, MIN_BLOCK_STATE_BITS,
+                blockStateIds);
+
+        int blockCount = 0;
+        final int[] indices = blockStateIds;
+        for (int i = 0; i < indices.length; i++) {
+            if (!air[indices[i]]) {
+                blockCount++;
+            }
+            indices[i] = blockPaletteIds[indices[i]];
+        }
+
+        final ListBinaryTag biomePalette = biomes.getList("palette");
+        final int[] biomePaletteIds = new int[biomePalette.size()];
+        for (int i = 0; i < biomePaletteIds.length; i++) {
+            final String biome = biomePalette.getString(i);
+            biomePaletteIds[i] = registry.getBiomeId(Identifier.parse(biome));
+            if (biomePaletteIds[i] == -1) {
+                throw new IllegalArgumentException("Unknown biome " + biome);
+            }
+        }
+
+        final int[] biomeIds = new int[ChunkSection.BIOME_SIZE * ChunkSection.BIOME_SIZE
+                * ChunkSection.BIOME_SIZE];
+        unpack(biomes.getLongArray("data"), biomePaletteIds, 1, biomeIds);
+        for (int i = 0; i < biomeIds.length; i++) {
+            biomeIds[i] = biomePaletteIds[biomeIds[i]];
+        }
+
+        return ChunkSection.of(blockCount, blockStateIds, biomeIds);
+    }
+
+    /**
+     * Unpacks the palette indices of a container into destination, checking that they're all in
+     * the palette.
+     */
+    private static void unpack(final long @NotNull [] data,
+            final int @NotNull [] palette,
+            final int minBits,
+            final int @NotNull [] destination) {
+
+        if (palette.length == 0) {
+            throw new IllegalArgumentException("Empty palette");
+        }
+        if (palette.length == 1) {
+            // single valued containers store no data, and the destination is already all zeros
+            return;
+        }
+
+        // unlike the protocol, region files use a palette however many entries it has
+        final int bits = Math.max(minBits, bitsFor(palette.length));
+        PackedArrays.unpack(data, bits, destination);
+
+        for (final int index : destination) {
+            if (index >= palette.length) {
+                throw new IllegalArgumentException("Palette index " + index + " is out of bounds");
+            }
+        }
+    }
+
+    private static @NotNull CompoundBinaryTag toContainer(final int @NotNull [] values,
+            final int minBits,
+            final @NotNull IntFunction<? extends @NotNull BinaryTag> toEntry) {
+
+        final int[] palette = values.clone();
+        Arrays.sort(palette);
+        int distinct = 0;
+        for (int i = 0; i < palette.length; i++) {
+            if (i == 0 || palette[i] != palette[i - 1]) {
+                palette[distinct++] = palette[i];
+            }
+        }
+
+        final ListBinaryTag.Builder<BinaryTag> paletteTag = ListBinaryTag.builder();
+        for (int i = 0; i < distinct; i++) {
+            paletteTag.add(toEntry.apply(palette[i]));
+        }
+
+        final CompoundBinaryTag.Builder container = CompoundBinaryTag.builder()
+                .put("palette", paletteTag.build());
+        if (distinct == 1) {
+            return container.build();
+        }
+
+        final int[] indices = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            indices[i] = Arrays.binarySearch(palette, 0, distinct, values[i]);
+        }
+
+        final int bits = Math.max(minBits, bitsFor(distinct));
+        return container.putLongArray("data", PackedArrays.pack(indices, bits)).build();
+    }
+
+    private static @NotNull ChunkSection emptySection(final @NotNull AnvilRegistry registry) {
+
+        final int air = registry.getBlockStateId(CompoundBinaryTag.builder()
+                .putString("Name", "minecraft:air")
+                .build());
+        final int plains = registry.getBiomeId(Identifier.of("plains"));
+        if (air == -1 || plains == -1) {
+            throw new IllegalArgumentException(
+                    "The registry must contain minecraft:air and minecraft:plains");
+        }
+
+        final int[] blockStates = new int[ChunkSection.SECTION_SIZE * ChunkSection.SECTION_SIZE
+                * ChunkSection.SECTION_SIZE];
+        Arrays.fill(blockStates, air);
+        final int[] biomes = new int[ChunkSection.BIOME_SIZE * ChunkSection.BIOME_SIZE
+                * ChunkSection.BIOME_SIZE];
+        Arrays.fill(biomes, plains);
+        return ChunkSection.of(0, blockStates, biomes);
+    }
+
+    private static byte @NotNull [] @NotNull [] toLightSections(final long @NotNull [] mask,
+            final byte @NotNull [] @NotNull [] arrays,
+            final int sectionCount) {
+
+        final BitSet bits = BitSet.valueOf(mask);
+        final byte[][] sections = new byte[sectionCount][];
+        int array = 0;
+        for (int i = bits.nextSetBit(0); i >= 0 && i < sectionCount; i = bits.nextSetBit(i + 1)) {
+            if (array == arrays.length) {
+                throw new IllegalArgumentException("There are fewer light arrays than set bits");
+            }
+            sections[i] = arrays[array++];
+        }
+        return sections;
+    }
+
+    private static byte @Nullable [] getLightArray(final @NotNull CompoundBinaryTag section,
+            final @NotNull String key) {
+
+        final BinaryTag light = section.get(key);
+        if (!(light instanceof ByteArrayBinaryTag)) {
+            return null;
+        }
+        final byte[] array = ((ByteArrayBinaryTag) light).value();
+        if (array.length != LightStorage.LIGHT_ARRAY_LENGTH) {
+            throw new IllegalArgumentException(key + " length must be "
+                    + LightStorage.LIGHT_ARRAY_LENGTH);
+        }
+        return array;
+    }
+
+    private static @NotNull CompoundBinaryTag withoutPosition(
+            final @NotNull CompoundBinaryTag blockEntity) {
+
+        final CompoundBinaryTag.Builder data = CompoundBinaryTag.builder();
+        for (final Map.Entry<String, ? extends BinaryTag> entry : blockEntity) {
+            switch (entry.getKey()) {
+                case "id":
+                case "x":
+                case "y":
+                case "z":
+                case "keepPacked":
+                    break;
+                default:
+                    data.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return data.build();
+    }
+
+    private static @NotNull ListBinaryTag getList(final @Nullable BinaryTag tag) {
+
+        return tag instanceof ListBinaryTag ? (ListBinaryTag) tag : ListBinaryTag.empty();
+    }
+
+    private static @NotNull CompoundBinaryTag getCompound(final @NotNull BinaryTag tag,
+            final @NotNull String name) {
+
+        if (!(tag instanceof CompoundBinaryTag)) {
+            throw new IllegalArgumentException(
+                    "Expected " + name + " to be a compound, found " + tag.type());
+        }
+        return (CompoundBinaryTag) tag;
+    }
+
+    private static int getInt(final @Nullable BinaryTag tag) {
+
+        if (!(tag instanceof IntBinaryTag)) {
+            throw new IllegalArgumentException("Missing chunk position");
+        }
+        return ((IntBinaryTag) tag).value();
+    }
+
+    private static boolean isAir(final @NotNull String name) {
+
+        switch (name) {
+            case "minecraft:air":
+            case "minecraft:cave_air":
+            case "minecraft:void_air":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static int bitsFor(final int paletteSize) {
+
+        return Integer.SIZE - Integer.numberOfLeadingZeros(paletteSize - 1);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io.anvil;
+
+import net.kyori.adventure.nbt.CompoundBinaryTag;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import io.github.sparky983.diorite.world.Identifier;
+
+/**
+ * Maps the names that Anvil chunks store to the ids that the protocol sends.
+ * <p>
+ * Region files name block states, biomes and block entity types, while chunk data packets refer
+ * to them by registry id, so {@link AnvilChunks} needs the server's registries to convert between
+ * the two.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface AnvilRegistry {
+
+    /**
+     * Returns the id of the specified block state.
+     *
+     * @param blockState The block state, as it is stored in a section's palette: a compound with
+     *         a {@code Name} and, if the block has any, its {@code Properties}.
+     * @return The block state id, or {@code -1} if there is no such block state.
+     * @throws NullPointerException if blockState is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int getBlockStateId(@NotNull CompoundBinaryTag blockState);
+
+    /**
+     * Returns the block state with the specified id, in the form a section's palette stores it.
+     *
+     * @param id The block state id.
+     * @return The block state.
+     * @throws IllegalArgumentException if there is no block state with the id.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @NotNull CompoundBinaryTag getBlockState(int id);
+
+    /**
+     * Returns the id of the specified biome.
+     *
+     * @param biome The biome's name.
+     * @return The biome id, or {@code -1} if there is no such biome.
+     * @throws NullPointerException if biome is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int getBiomeId(@NotNull Identifier biome);
+
+    /**
+     * Returns the name of the biome with the specified id.
+     *
+     * @param id The biome id.
+     * @return The biome's name.
+     * @throws IllegalArgumentException if there is no biome with the id.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @NotNull Identifier getBiome(int id);
+
+    /**
+     * Returns the id of the specified block entity type.
+     *
+     * @param type The block entity type's name.
+     * @return The block entity type id, or {@code -1} if there is no such type.
+     * @throws NullPointerException if type is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int getBlockEntityTypeId(@NotNull Identifier type);
+
+    /**
+     * Returns the name of the block entity type with the specified id.
+     *
+     * @param id The block entity type id.
+     * @return The block entity type's name.
+     * @throws IllegalArgumentException if there is no block entity type with the id.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @NotNull Identifier getBlockEntityType(int id);
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io.compression;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * A zlib compression that chooses how to deflate each packet by its type.
+ * <p>
+ * Each packet type can be given its own deflate level. Types without one are deflated by their
+ * average size, with a fast level for small packets like the movement packets sent every tick and
+ * the highest level for large ones like chunks. The compression also tracks how well each type
+ * compresses. A type whose recent packets barely shrink is stored, which is deflate level 0,
+ * instead of compressed. Stored data is still valid zlib, so the frame's data length stays the
+ * same as the protocol requires, but costs little more than a copy. Every so often, one of these
+ * packets is compressed again in case the type's data has changed.
+ * <p>
+ * Statistics are kept per packet id. Ids are only unique within a state and direction, so a
+ * compression should only be used for one direction. In practice, packets are only compressed in
+ * the play state.
+ *
+ * @author Sparky983
+ * @see Compression#adaptive()
+ * @since 1.0.0
+ */
+public interface AdaptiveCompression extends Compression {
+
+    /**
+     * The default ratio of compressed to uncompressed size at or above which a packet type is
+     * considered incompressible.
+     *
+     * @since 1.0.0
+     */
+    double DEFAULT_INCOMPRESSIBLE_RATIO = 0.95;
+
+    /**
+     * The default number of packets of an incompressible type between each packet that is
+     * compressed again to check whether the type is still incompressible.
+     *
+     * @since 1.0.0
+     */
+    int DEFAULT_PROBE_INTERVAL = 64;
+
+    /**
+     * Creates a new builder.
+     *
+     * @return The builder.
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new", pure = true)
+    static @NotNull Builder builder() {
+
+        return new AdaptiveCompressionImpl.BuilderImpl();
+    }
+
+    /**
+     * Returns the statistics of every packet compressed so far.
+     *
+     * @return The statistics.
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new", pure = true)
+    @NotNull CompressionStatistics getStatistics();
+
+    /**
+     * Returns the statistics of the packets compressed so far with the specified id.
+     *
+     * @param packetId The packet id.
+     * @return The statistics.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull CompressionStatistics getStatistics(int packetId);
+
+    /**
+     * A builder for {@link AdaptiveCompression}s.
+     *
+     * @author Sparky983
+     * @since 1.0.0
+     */
+    interface Builder {
+
+        /**
+         * Sets the deflate level of packet types without a level of their own.
+         * <p>
+         * By default the level is chosen by the type's average uncompressed size so far. Types
+         * averaging under 1024 bytes use {@link java.util.zip.Deflater#BEST_SPEED}, types averaging
+         * 8192 bytes or more use {@link java.util.zip.Deflater#BEST_COMPRESSION}, and other types,
+         * including types that haven't been compressed yet, use
+         * {@link java.util.zip.Deflater#DEFAULT_COMPRESSION}.
+         *
+         * @param level The deflate level.
+         * @return The builder instance (for chaining).
+         * @throws IllegalArgumentException if level is not between -1 and 9.
+         * @since 1.0.0
+         */
+        @Contract(value = "_ -> this")
+        @NotNull Builder defaultLevel(@Range(from = -1, to = 9) int level);
+
+        /**
+         * Sets the deflate level of the packet type with the specified id.
+         *
+         * @param packetId The packet id.
+         * @param level The deflate level.
+         * @return The builder instance (for chaining).
+         * @throws IllegalArgumentException if level is not between -1 and 9.
+         * @since 1.0.0
+         */
+        @Contract(value = "_, _ -> this")
+        @NotNull Builder level(int packetId, @Range(from = -1, to = 9) int level);
+
+        /**
+         * Sets the ratio of compressed to uncompressed size at or above which a packet type is
+         * considered incompressible. Defaults to {@link #DEFAULT_INCOMPRESSIBLE_RATIO}.
+         * <p>
+         * Deflating data that doesn't compress at all makes it slightly larger, so a ratio of 2
+         * means no packet type is ever considered incompressible.
+         *
+         * @param ratio The ratio.
+         * @return The builder instance (for chaining).
+         * @throws IllegalArgumentException if ratio is not positive.
+         * @since 1.0.0
+         */
+        @Contract(value = "_ -> this")
+        @NotNull Builder incompressibleRatio(double ratio);
+
+        /**
+         * Sets the number of packets of an incompressible type between each packet that is
+         * compressed again. Defaults to {@link #DEFAULT_PROBE_INTERVAL}.
+         *
+         * @param probeInterval The interval.
+         * @return The builder instance (for chaining).
+         * @throws IllegalArgumentException if probeInterval is less than 1.
+         * @since 1.0.0
+         */
+        @Contract(value = "_ -> this")
+        @NotNull Builder probeInterval(@Range(from = 1, to = Integer.MAX_VALUE) int probeInterval);
+
+        /**
+         * Builds the compression.
+         *
+         * @return The compression.
+         * @since 1.0.0
+         */
+        @Contract(value = "-> new", pure = true)
+        @NotNull AdaptiveCompression build();
+    }
+}
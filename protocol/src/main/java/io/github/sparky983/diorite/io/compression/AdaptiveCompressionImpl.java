@@ -0,0 +1,425 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io.compression;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import io.github.sparky983.diorite.io.StreamIn;
+import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class AdaptiveCompressionImpl implements AdaptiveCompression {
+
+    /**
+     * The id packets compressed without one are counted under.
+     */
+    private static final int UNKNOWN_PACKET_ID = -1;
+    /**
+     * The number of packets of a type that are deflated before it can be considered
+     * incompressible.
+     */
+    private static final int MIN_SAMPLES = 4;
+    /**
+     * How much each deflated packet moves a type's ratio, so that it follows recent packets.
+     */
+    private static final double RATIO_WEIGHT = 0.25;
+    /**
+     * The average size below which a type is deflated as fast as possible, like movement packets.
+     */
+    private static final int SMALL_PACKET_SIZE = 1024;
+    /**
+     * The average size at or above which a type is deflated as small as possible, like chunks.
+     */
+    private static final int LARGE_PACKET_SIZE = 8192;
+
+    /**
+     * The level of types without their own, or -2 to choose it by the type's average size.
+     */
+    private final int defaultLevel;
+    private final Map<Integer, Integer> levels;
+    private final double incompressibleRatio;
+    private final int probeInterval;
+
+    private final Map<Integer, TypeStatistics> statistics = new ConcurrentHashMap<>();
+
+    @Contract(pure = true)
+    private AdaptiveCompressionImpl(final @NotNull BuilderImpl builder) {
+
+        this.defaultLevel = builder.defaultLevel;
+        this.levels = Map.copyOf(builder.levels);
+        this.incompressibleRatio = builder.incompressibleRatio;
+        this.probeInterval = builder.probeInterval;
+    }
+
+    @Override
+    public @NotNull StreamIn decompressed(final @NotNull StreamIn inputStream) {
+
+        return ZlibCompression.INSTANCE.decompressed(inputStream);
+    }
+
+    @Override
+    public @NotNull InputStream decompressed(final @NotNull InputStream inputStream) {
+
+        return ZlibCompression.INSTANCE.decompressed(inputStream);
+    }
+
+    @Override
+    public @NotNull StreamOut compressed(final @NotNull StreamOut outputStream) {
+
+        return compressed(outputStream, UNKNOWN_PACKET_ID);
+    }
+
+    @Override
+    public @NotNull OutputStream compressed(final @NotNull OutputStream outputStream) {
+
+        return compressed(outputStream, UNKNOWN_PACKET_ID);
+    }
+
+    @Override
+    public @NotNull StreamOut compressed(final @NotNull StreamOut outputStream,
+            final int packetId) {
+
+        Preconditions.requireNotNull(outputStream, "outputStream");
+
+        return StreamOut.from(compressed(outputStream.toOutputStream(), packetId));
+    }
+
+    private @NotNull OutputStream compressed(final @NotNull OutputStream outputStream,
+            final int packetId) {
+
+        Preconditions.requireNotNull(outputStream, "outputStream");
+
+        final TypeStatistics typeStatistics =
+                statistics.computeIfAbsent(packetId, (id) -> new TypeStatistics());
+        final int level = typeStatistics.shouldStore(incompressibleRatio, probeInterval)
+                ? Deflater.NO_COMPRESSION
+                : getLevel(packetId);
+
+        return new MeasuredDeflaterOutputStream(outputStream, new Deflater(level), typeStatistics,
+                level == Deflater.NO_COMPRESSION);
+    }
+
+    /**
+     * Returns the level the next deflated packet with the specified id is deflated with.
+     */
+    int getLevel(final int packetId) {
+
+        final Integer level = levels.get(packetId);
+        if (level != null) {
+            return level;
+        }
+        if (defaultLevel != BuilderImpl.LEVEL_BY_SIZE) {
+            return defaultLevel;
+        }
+
+        final TypeStatistics typeStatistics = statistics.get(packetId);
+        final long averageSize = typeStatistics == null ? -1 : typeStatistics.averageSize();
+        if (averageSize == -1) {
+            return Deflater.DEFAULT_COMPRESSION;
+        }
+        if (averageSize < SMALL_PACKET_SIZE) {
+            return Deflater.BEST_SPEED;
+        }
+        if (averageSize >= LARGE_PACKET_SIZE) {
+            return Deflater.BEST_COMPRESSION;
+        }
+        return Deflater.DEFAULT_COMPRESSION;
+    }
+
+    @Override
+    public @NotNull CompressionStatistics getStatistics() {
+
+        final StatisticsSnapshot total = new StatisticsSnapshot();
+        for (final TypeStatistics typeStatistics : statistics.values()) {
+            total.add(typeStatistics.snapshot());
+        }
+        return total;
+    }
+
+    @Override
+    public @NotNull CompressionStatistics getStatistics(final int packetId) {
+
+        final TypeStatistics typeStatistics = statistics.get(packetId);
+        return typeStatistics == null ? new StatisticsSnapshot() : typeStatistics.snapshot();
+    }
+
+    /**
+     * A deflater output stream that records how long it took and how much the data shrank once
+     * it is closed, then releases its deflater.
+     */
+    private static final class MeasuredDeflaterOutputStream extends DeflaterOutputStream {
+
+        private final TypeStatistics statistics;
+        private final boolean stored;
+        private final long start = System.nanoTime();
+        private boolean closed = false;
+
+        MeasuredDeflaterOutputStream(final @NotNull OutputStream outputStream,
+                final @NotNull Deflater deflater,
+                final @NotNull TypeStatistics statistics,
+                final boolean stored) {
+
+            super(outputStream, deflater);
+
+            this.statistics = statistics;
+            this.stored = stored;
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            try {
+                super.close();
+                statistics.record(def.getBytesRead(), def.getBytesWritten(),
+                        System.nanoTime() - start, stored);
+            } finally {
+                // the deflater isn't the stream's own, so closing doesn't end it
+                def.end();
+            }
+        }
+    }
+
+    private static final class TypeStatistics {
+
+        // guarded by this
+        private long packets;
+        private long uncompressedBytes;
+        private long compressedBytes;
+        private long storedPackets;
+        private long storedBytes;
+        private long storedCompressedBytes;
+        private long storedNanos;
+        private long deflatedBytes;
+        private long deflatedCompressedBytes;
+        private long deflatedNanos;
+        private int samples;
+        private double ratio;
+        private int storedSinceProbe;
+
+        synchronized boolean shouldStore(final double incompressibleRatio,
+                final int probeInterval) {
+
+            if (samples < MIN_SAMPLES || ratio < incompressibleRatio) {
+                return false;
+            }
+            if (storedSinceProbe < probeInterval) {
+                storedSinceProbe++;
+                return true;
+            }
+            storedSinceProbe = 0;
+            return false;
+        }
+
+        /**
+         * Returns the average uncompressed size of the type's packets, or -1 if there are none.
+         */
+        synchronized long averageSize() {
+
+            return packets == 0 ? -1 : uncompressedBytes / packets;
+        }
+
+        synchronized void record(final long uncompressed,
+                final long compressed,
+                final long nanos,
+                final boolean stored) {
+
+            packets++;
+            uncompressedBytes += uncompressed;
+            compressedBytes += compressed;
+
+            if (stored) {
+                storedPackets++;
+                storedBytes += uncompressed;
+                storedCompressedBytes += compressed;
+                storedNanos += nanos;
+                return;
+            }
+
+            deflatedBytes += uncompressed;
+            deflatedCompressedBytes += compressed;
+            deflatedNanos += nanos;
+            if (uncompressed > 0) {
+                final double packetRatio = (double) compressed / uncompressed;
+                ratio = samples == 0 ? packetRatio : ratio + (packetRatio - ratio) * RATIO_WEIGHT;
+                samples++;
+            }
+        }
+
+        synchronized @NotNull StatisticsSnapshot snapshot() {
+
+            final StatisticsSnapshot snapshot = new StatisticsSnapshot();
+            snapshot.packets = packets;
+            snapshot.uncompressedBytes = uncompressedBytes;
+            snapshot.compressedBytes = compressedBytes;
+            snapshot.storedPackets = storedPackets;
+            snapshot.storedBytes = storedBytes;
+            snapshot.compressionNanos = storedNanos + deflatedNanos;
+
+            if (deflatedBytes > 0) {
+                final double nanosPerByte = (double) deflatedNanos / deflatedBytes;
+                final double deflatedRatio = (double) deflatedCompressedBytes / deflatedBytes;
+                snapshot.estimatedNanosSaved =
+                        Math.max(0, (long) (storedBytes * nanosPerByte) - storedNanos);
+                snapshot.estimatedBytesLost =
+                        Math.max(0, storedCompressedBytes - (long) (storedBytes * deflatedRatio));
+            }
+            return snapshot;
+        }
+    }
+
+    private static final class StatisticsSnapshot implements CompressionStatistics {
+
+        private long packets;
+        private long uncompressedBytes;
+        private long compressedBytes;
+        private long storedPackets;
+        private long storedBytes;
+        private long compressionNanos;
+        private long estimatedNanosSaved;
+        private long estimatedBytesLost;
+
+        void add(final @NotNull StatisticsSnapshot other) {
+
+            packets += other.packets;
+            uncompressedBytes += other.uncompressedBytes;
+            compressedBytes += other.compressedBytes;
+            storedPackets += other.storedPackets;
+            storedBytes += other.storedBytes;
+            compressionNanos += other.compressionNanos;
+            estimatedNanosSaved += other.estimatedNanosSaved;
+            estimatedBytesLost += other.estimatedBytesLost;
+        }
+
+        @Override
+        public @Range(from = 0, to = Long.MAX_VALUE) long getPackets() {
+
+            return packets;
+        }
+
+        @Override
+        public @Range(from = 0, to = Long.MAX_VALUE) long getUncompressedBytes() {
+
+            return uncompressedBytes;
+        }
+
+        @Override
+        public @Range(from = 0, to = Long.MAX_VALUE) long getCompressedBytes() {
+
+            return compressedBytes;
+        }
+
+        @Override
+        public @Range(from = 0, to = Long.MAX_VALUE) long getStoredPackets() {
+
+            return storedPackets;
+        }
+
+        @Override
+        public @Range(from = 0, to = Long.MAX_VALUE) long getStoredBytes() {
+
+            return storedBytes;
+        }
+
+        @Override
+        public @Range(from = 0, to = Long.MAX_VALUE) long getCompressionNanos() {
+
+            return compressionNanos;
+        }
+
+        @Override
+        public @Range(from = 0, to = Long.MAX_VALUE) long getEstimatedNanosSaved() {
+
+            return estimatedNanosSaved;
+        }
+
+        @Override
+        public @Range(from = 0, to = Long.MAX_VALUE) long getEstimatedBytesLost() {
+
+            return estimatedBytesLost;
+        }
+    }
+
+    static final class BuilderImpl implements AdaptiveCompression.Builder {
+
+        private static final int LEVEL_BY_SIZE = -2;
+
+        private int defaultLevel = LEVEL_BY_SIZE;
+        private final Map<Integer, Integer> levels = new HashMap<>();
+        private double incompressibleRatio = DEFAULT_INCOMPRESSIBLE_RATIO;
+        private int probeInterval = DEFAULT_PROBE_INTERVAL;
+
+        @Override
+        public @NotNull Builder defaultLevel(final @Range(from = -1, to = 9) int level) {
+
+            Preconditions.requireRange(level, -1, 9, "level");
+
+            this.defaultLevel = level;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder level(final int packetId,
+                final @Range(from = -1, to = 9) int level) {
+
+            Preconditions.requireRange(level, -1, 9, "level");
+
+            levels.put(packetId, level);
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder incompressibleRatio(final double ratio) {
+
+            Preconditions.requireTrue(ratio > 0, "ratio must be positive");
+
+            this.incompressibleRatio = ratio;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder probeInterval(
+                final @Range(from = 1, to = Integer.MAX_VALUE) int probeInterval) {
+
+            Preconditions.requireRange(probeInterval, 1, Integer.MAX_VALUE, "probeInterval");
+
+            this.probeInterval = probeInterval;
+            return this;
+        }
+
+        @Override
+        public @NotNull AdaptiveCompression build() {
+
+            return new AdaptiveCompressionImpl(this);
+        }
+    }
+}
@@ -44,6 +44,19 @@ public interface Compression {
         return ZlibCompression.INSTANCE;
     }
 
+    /**
+     * Returns an adaptive zlib compression, which chooses how to deflate each packet by its type.
+     *
+     * @return The compression.
+     * @see AdaptiveCompression#builder()
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new", pure = true)
+    static @NotNull AdaptiveCompression adaptive() {
+
+        return AdaptiveCompression.builder().build();
+    }
+
     /**
      * Returns a version of inputStream that apply decompression.
      *
@@ -87,4 +100,23 @@ public interface Compression {
      */
     @Contract(pure = true)
     @NotNull OutputStream compressed(@NotNull OutputStream outputStream);
+
+    /**
+     * Returns a version of outputStream that compresses the data of a packet with the specified
+     * id.
+     * <p>
+     * Compressions may choose how to compress by packet type. By default, the id is ignored.
+     *
+     * @param outputStream The outputStream to compress.
+     * @param packetId The id of the packet being compressed.
+     * @return The compressed outputStream.
+     * @throws NullPointerException if outputStream is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    default @NotNull StreamOut compressed(final @NotNull StreamOut outputStream,
+            final int packetId) {
+
+        return compressed(outputStream);
+    }
 }
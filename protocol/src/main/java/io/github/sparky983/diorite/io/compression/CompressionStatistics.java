@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io.compression;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Range;
+
+/**
+ * A snapshot of how the packets an {@link AdaptiveCompression} has compressed were compressed.
+ * <p>
+ * Storing an incompressible packet instead of deflating it trades bandwidth for CPU time. The
+ * time saved and the bytes lost are estimated from the packets of the same type that were
+ * deflated.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface CompressionStatistics {
+
+    /**
+     * Returns the number of packets compressed, including those that were stored.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Long.MAX_VALUE) long getPackets();
+
+    /**
+     * Returns the total size of the packets before compression.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Long.MAX_VALUE) long getUncompressedBytes();
+
+    /**
+     * Returns the total size of the packets after compression.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Long.MAX_VALUE) long getCompressedBytes();
+
+    /**
+     * Returns the number of packets that were stored instead of deflated.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Long.MAX_VALUE) long getStoredPackets();
+
+    /**
+     * Returns the total size of the packets that were stored instead of deflated, before
+     * compression.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Long.MAX_VALUE) long getStoredBytes();
+
+    /**
+     * Returns the time spent compressing packets, in nanoseconds.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Long.MAX_VALUE) long getCompressionNanos();
+
+    /**
+     * Returns an estimate of the time saved by storing packets instead of deflating them, in
+     * nanoseconds.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Long.MAX_VALUE) long getEstimatedNanosSaved();
+
+    /**
+     * Returns an estimate of how many more bytes were sent by storing packets instead of
+     * deflating them.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Long.MAX_VALUE) long getEstimatedBytesLost();
+}
@@ -20,8 +20,8 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.zip.DeflaterInputStream;
 import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
@@ -44,7 +44,7 @@ final class ZlibCompression implements Compression {
 
         Preconditions.requireNotNull(inputStream, "inputStream");
 
-        return new DeflaterInputStream(inputStream);
+        return new InflaterInputStream(inputStream);
     }
 
     @Override
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io.encryption;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class AesEncryption implements Encryption {
+
+    private static final String TRANSFORMATION = "AES/CFB8/NoPadding";
+
+    private final SecretKey sharedSecret;
+
+    AesEncryption(final @NotNull SecretKey sharedSecret) {
+
+        Preconditions.requireNotNull(sharedSecret, "sharedSecret");
+        Preconditions.requireTrue(sharedSecret.getEncoded().length == SHARED_SECRET_LENGTH,
+                "[sharedSecret] must be " + SHARED_SECRET_LENGTH + " bytes long");
+
+        this.sharedSecret = sharedSecret;
+    }
+
+    private @NotNull Cipher createCipher(final int mode) {
+
+        try {
+            final Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            // the protocol uses the shared secret as the initial vector as well as the key
+            cipher.init(mode, sharedSecret, new IvParameterSpec(sharedSecret.getEncoded()));
+            return cipher;
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException(TRANSFORMATION + " is not supported by this JVM", e);
+        }
+    }
+
+    @Override
+    public @NotNull InputStream decrypted(final @NotNull InputStream inputStream) {
+
+        Preconditions.requireNotNull(inputStream, "inputStream");
+
+        return new DecryptingInputStream(inputStream, createCipher(Cipher.DECRYPT_MODE));
+    }
+
+    @Override
+    public @NotNull OutputStream encrypted(final @NotNull OutputStream outputStream) {
+
+        Preconditions.requireNotNull(outputStream, "outputStream");
+
+        return new EncryptingOutputStream(outputStream, createCipher(Cipher.ENCRYPT_MODE));
+    }
+}
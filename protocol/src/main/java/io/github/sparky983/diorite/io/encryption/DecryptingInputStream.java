@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io.encryption;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+
+/**
+ * Decrypts bytes in place in the reader's buffer.
+ * <p>
+ * Unlike {@link javax.crypto.CipherInputStream}, this never allocates after construction.
+ * CFB8 is a stream mode, so the cipher always outputs exactly as many bytes as it was given.
+ */
+final class DecryptingInputStream extends FilterInputStream {
+
+    private final Cipher cipher;
+    private final byte[] singleByte = new byte[1];
+
+    DecryptingInputStream(final @NotNull InputStream inputStream, final @NotNull Cipher cipher) {
+
+        super(inputStream);
+
+        this.cipher = cipher;
+    }
+
+    @Override
+    public int read() throws IOException {
+
+        final int read = read(singleByte, 0, 1);
+
+        if (read == -1) {
+            return -1;
+        }
+
+        return singleByte[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte @NotNull [] b, final int off, final int len) throws IOException {
+
+        final int read = in.read(b, off, len);
+
+        if (read > 0) {
+            try {
+                cipher.update(b, off, read, b, off);
+            } catch (final ShortBufferException e) {
+                // unreachable, CFB8 output is the same length as the input
+                throw new IOException(e);
+            }
+        }
+
+        return read;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+
+        // skipped bytes still have to go through the cipher to keep it in sync
+        long remaining = n;
+        while (remaining > 0) {
+            if (read() == -1) {
+                break;
+            }
+            remaining--;
+        }
+        return n - remaining;
+    }
+
+    @Override
+    public boolean markSupported() {
+
+        return false;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io.encryption;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+
+/**
+ * Encrypts bytes through a reused buffer before writing them to the underlying stream.
+ * <p>
+ * The caller's array is left untouched since it may still be referenced (a packet's payload for
+ * example).
+ */
+final class EncryptingOutputStream extends FilterOutputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Cipher cipher;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    EncryptingOutputStream(final @NotNull OutputStream outputStream, final @NotNull Cipher cipher) {
+
+        super(outputStream);
+
+        this.cipher = cipher;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+
+        buffer[0] = (byte) b;
+        encryptAndWrite(buffer, 0, 1);
+    }
+
+    @Override
+    public void write(final byte @NotNull [] b, final int off, final int len) throws IOException {
+
+        int written = 0;
+        while (written < len) {
+            final int chunk = Math.min(len - written, BUFFER_SIZE);
+            encryptAndWrite(b, off + written, chunk);
+            written += chunk;
+        }
+    }
+
+    private void encryptAndWrite(final byte @NotNull [] b, final int off, final int len)
+            throws IOException {
+
+        final int encrypted;
+        try {
+            encrypted = cipher.update(b, off, len, buffer, 0);
+        } catch (final ShortBufferException e) {
+            // unreachable, CFB8 output is the same length as the input
+            throw new IOException(e);
+        }
+        out.write(buffer, 0, encrypted);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io.encryption;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+/**
+ * Encrypts and decrypts a stream.
+ * <p>
+ * Each call to {@link #decrypted(InputStream)} and {@link #encrypted(OutputStream)} creates a
+ * single cipher that is reused for every byte passed through the returned stream, so a connection
+ * should create one stream per direction and keep it for its lifetime.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface Encryption {
+
+    /**
+     * The length of the shared secret in bytes.
+     *
+     * @since 1.0.0
+     */
+    int SHARED_SECRET_LENGTH = 16;
+
+    /**
+     * Returns an AES/CFB8 encryption using the specified shared secret as both the key and the
+     * initial vector, as specified by the Minecraft protocol.
+     *
+     * @param sharedSecret The shared secret.
+     * @return The encryption.
+     * @throws NullPointerException if sharedSecret is {@code null}.
+     * @throws IllegalArgumentException if sharedSecret is not {@link #SHARED_SECRET_LENGTH}
+     *         bytes long.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    static @NotNull Encryption aes(final @NotNull SecretKey sharedSecret) {
+
+        return new AesEncryption(sharedSecret);
+    }
+
+    /**
+     * Generates a new random shared secret.
+     *
+     * @return The shared secret.
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new")
+    static @NotNull SecretKey generateSharedSecret() {
+
+        try {
+            final KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+            keyGenerator.init(SHARED_SECRET_LENGTH * Byte.SIZE);
+            return keyGenerator.generateKey();
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("AES is not supported by this JVM", e);
+        }
+    }
+
+    /**
+     * Encrypts the specified data with the server's RSA public key, as is done to the shared secret
+     * and verify token of the encryption response.
+     * <p>
+     * The padding is random, so encrypting the same data twice gives different results.
+     *
+     * @param publicKey The ASN.1 DER encoded public key sent in the encryption request.
+     * @param data The data to encrypt.
+     * @return The encrypted data.
+     * @throws NullPointerException if publicKey or data are {@code null}.
+     * @throws IllegalArgumentException if publicKey is not a valid RSA public key.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _ -> new")
+    static byte @NotNull [] encryptWithPublicKey(final byte @NotNull [] publicKey,
+            final byte @NotNull [] data) {
+
+        Preconditions.requireNotNull(publicKey, "publicKey");
+        Preconditions.requireNotNull(data, "data");
+
+        final PublicKey key;
+        try {
+            key = KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(publicKey));
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalArgumentException("[publicKey] is not a valid RSA public key", e);
+        }
+
+        try {
+            final Cipher cipher = Cipher.getInstance("RSA/ECB/PKCS1Padding");
+            cipher.init(Cipher.ENCRYPT_MODE, key);
+            return cipher.doFinal(data);
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to encrypt data with RSA", e);
+        }
+    }
+
+    /**
+     * Returns a version of inputStream that decrypts everything read from it.
+     * <p>
+     * Data is decrypted in place into the buffer passed to {@link InputStream#read(byte[], int,
+     * int)}.
+     *
+     * @param inputStream The input stream to decrypt.
+     * @return The decrypted input stream.
+     * @throws NullPointerException if inputStream is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull InputStream decrypted(@NotNull InputStream inputStream);
+
+    /**
+     * Returns a version of outputStream that encrypts everything written to it.
+     * <p>
+     * The caller's buffers are never modified, data is encrypted through a reused buffer owned by
+     * the returned stream.
+     *
+     * @param outputStream The output stream to encrypt.
+     * @return The encrypted output stream.
+     * @throws NullPointerException if outputStream is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    @NotNull OutputStream encrypted(@NotNull OutputStream outputStream);
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io.encryption;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A stage between a socket and the rest of the pipeline that passes data through unchanged until
+ * encryption is enabled.
+ * <p>
+ * Buffers should sit above the stage (between it and the {@link
+ * io.github.sparky983.diorite.io.StreamIn}/{@link io.github.sparky983.diorite.io.StreamOut}), so
+ * the ciphers operate on whole buffers instead of individual bytes. Any buffered output must be
+ * flushed before encryption is enabled.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface EncryptionStage {
+
+    /**
+     * Creates a new, initially unencrypted, encryption stage over the specified streams.
+     *
+     * @param inputStream The raw input stream.
+     * @param outputStream The raw output stream.
+     * @return The encryption stage.
+     * @throws NullPointerException if inputStream or outputStream are {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    static @NotNull EncryptionStage of(final @NotNull InputStream inputStream,
+            final @NotNull OutputStream outputStream) {
+
+        return new EncryptionStageImpl(inputStream, outputStream);
+    }
+
+    /**
+     * Returns the input stream that decrypts data once encryption is enabled.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @NotNull InputStream getInputStream();
+
+    /**
+     * Returns the output stream that encrypts data once encryption is enabled.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @NotNull OutputStream getOutputStream();
+
+    /**
+     * Returns whether encryption is enabled.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    boolean isEnabled();
+
+    /**
+     * Enables encryption. All data read or written after this call is decrypted or encrypted.
+     *
+     * @param encryption The encryption.
+     * @throws NullPointerException if encryption is {@code null}.
+     * @throws IllegalStateException if encryption is already enabled.
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    void enable(@NotNull Encryption encryption);
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io.encryption;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class EncryptionStageImpl implements EncryptionStage {
+
+    private final InputStream inputStream = new StageInputStream();
+    private final OutputStream outputStream = new StageOutputStream();
+
+    private volatile InputStream in;
+    private volatile OutputStream out;
+    private volatile boolean enabled = false;
+
+    EncryptionStageImpl(final @NotNull InputStream inputStream,
+            final @NotNull OutputStream outputStream) {
+
+        Preconditions.requireNotNull(inputStream, "inputStream");
+        Preconditions.requireNotNull(outputStream, "outputStream");
+
+        this.in = inputStream;
+        this.out = outputStream;
+    }
+
+    @Override
+    public @NotNull InputStream getInputStream() {
+
+        return inputStream;
+    }
+
+    @Override
+    public @NotNull OutputStream getOutputStream() {
+
+        return outputStream;
+    }
+
+    @Override
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    @Override
+    public synchronized void enable(final @NotNull Encryption encryption) {
+
+        Preconditions.requireNotNull(encryption, "encryption");
+
+        if (enabled) {
+            throw new IllegalStateException("Encryption is already enabled");
+        }
+
+        in = encryption.decrypted(in);
+        out = encryption.encrypted(out);
+        enabled = true;
+    }
+
+    private final class StageInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+
+            return in.read();
+        }
+
+        @Override
+        public int read(final byte @NotNull [] b, final int off, final int len)
+                throws IOException {
+
+            return in.read(b, off, len);
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+
+            return in.skip(n);
+        }
+
+        @Override
+        public int available() throws IOException {
+
+            return in.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            in.close();
+        }
+    }
+
+    private final class StageOutputStream extends OutputStream {
+
+        @Override
+        public void write(final int b) throws IOException {
+
+            out.write(b);
+        }
+
+        @Override
+        public void write(final byte @NotNull [] b, final int off, final int len)
+                throws IOException {
+
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            out.close();
+        }
+    }
+}
@@ -19,8 +19,10 @@ package io.github.sparky983.diorite.net;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Range;
 
+import io.github.sparky983.diorite.io.encryption.Encryption;
 import io.github.sparky983.diorite.net.packet.Packet;
 import io.github.sparky983.diorite.net.packet.format.PacketFormat;
+import io.github.sparky983.diorite.net.packet.format.PreEncodedPacket;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -49,6 +51,25 @@ public interface Channel<In extends Packet, Out extends Packet> extends Stateful
      */
     void setCompression(@Range(from = 0, to = Integer.MAX_VALUE) int threshold);
 
+    /**
+     * Returns whether the channel is encrypted.
+     *
+     * @since 1.0.0
+     */
+    boolean isEncrypted();
+
+    /**
+     * Enables encryption. Every byte sent or received after this call is encrypted or decrypted.
+     * <p>
+     * Once enabled, encryption can't be disabled or changed.
+     *
+     * @param encryption The encryption.
+     * @throws NullPointerException if encryption is {@code null}.
+     * @throws IllegalStateException if the channel is already encrypted.
+     * @since 1.0.0
+     */
+    void setEncryption(@NotNull Encryption encryption);
+
     /**
      * Returns the current packet format.
      * <p>
@@ -80,6 +101,17 @@ public interface Channel<In extends Packet, Out extends Packet> extends Stateful
 
     @NotNull Mono<Void> sendPacket(@NotNull Out packet);
 
+    /**
+     * Sends a pre-encoded packet. The packet's frame for this channel's current packet format is
+     * written directly, so broadcasting it to many channels encodes and compresses it once.
+     *
+     * @param packet The packet.
+     * @return A mono that completes once the packet has been sent.
+     * @throws NullPointerException if packet is {@code null}.
+     * @since 1.0.0
+     */
+    @NotNull Mono<Void> sendPacket(@NotNull PreEncodedPacket<? extends Out> packet);
+
     @Override
     void close();
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.sparky983.diorite.net.packet;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import io.github.sparky983.diorite.io.StreamIn;
+
+/**
+ * Decodes packets by passing their fields to a {@link PacketHandler}, only creating the packet if
+ * the handler didn't handle it.
+ *
+ * @param <T> The type of the packet to decode.
+ * @author Sparky983
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface DirectPacketDecoder<T extends Packet> {
+
+    /**
+     * Decodes the packet from the inputStream.
+     *
+     * @param inputStream The input stream to decode the packet from.
+     * @param handler The handler to pass the packet's fields to.
+     * @return The decoded packet, or {@code null} if the handler handled it.
+     */
+    @Nullable T decode(@NotNull StreamIn inputStream, @NotNull PacketHandler handler);
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.sparky983.diorite.net.packet;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import io.github.sparky983.diorite.io.StreamIn;
+import io.github.sparky983.diorite.net.packet.clientbound.play.BlockChangePacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.EntityMovementPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.EntityTeleportPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.EntityVelocityPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.KeepAlivePacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.PingPacket;
+import io.github.sparky983.diorite.world.BlockPosition;
+import io.github.sparky983.diorite.world.Direction;
+import io.github.sparky983.diorite.world.Position;
+import io.github.sparky983.diorite.world.Velocity;
+
+/**
+ * The {@link DirectPacketDecoder}s of the packets that have a {@link PacketHandler} callback.
+ * <p>
+ * Fields are read in the same order as the packets' stream constructors read them.
+ */
+final class DirectPacketDecoders {
+
+    private DirectPacketDecoders() {
+
+    }
+
+    static @Nullable KeepAlivePacket keepAlive(final @NotNull StreamIn inputStream,
+            final @NotNull PacketHandler handler) {
+
+        final long keepAliveId = inputStream.readLong();
+
+        if (handler.onKeepAlive(keepAliveId)) {
+            return null;
+        }
+        return new KeepAlivePacket(keepAliveId);
+    }
+
+    static @Nullable PingPacket ping(final @NotNull StreamIn inputStream,
+            final @NotNull PacketHandler handler) {
+
+        final int pingId = inputStream.readInt();
+
+        if (handler.onPing(pingId)) {
+            return null;
+        }
+        return new PingPacket(pingId);
+    }
+
+    static @Nullable EntityMovementPacket.Position entityPosition(
+            final @NotNull StreamIn inputStream,
+            final @NotNull PacketHandler handler) {
+
+        final int entityId = inputStream.readVarInt();
+        final short dx = inputStream.readShort();
+        final short dy = inputStream.readShort();
+        final short dz = inputStream.readShort();
+        final boolean isOnGround = inputStream.readBoolean();
+
+        if (handler.onEntityPosition(entityId, dx, dy, dz, isOnGround)) {
+            return null;
+        }
+        return new EntityMovementPacket.Position(entityId, dx, dy, dz, isOnGround);
+    }
+
+    static @Nullable EntityMovementPacket.PositionAndRotation entityPositionAndRotation(
+            final @NotNull StreamIn inputStream,
+            final @NotNull PacketHandler handler) {
+
+        final int entityId = inputStream.readVarInt();
+        final short dx = inputStream.readShort();
+        final short dy = inputStream.readShort();
+        final short dz = inputStream.readShort();
+        final byte pitch = inputStream.readByte();
+        final byte yaw = inputStream.readByte();
+        final boolean isOnGround = inputStream.readBoolean();
+
+        if (handler.onEntityPositionAndRotation(entityId, dx, dy, dz, pitch, yaw, isOnGround)) {
+            return null;
+        }
+        return new EntityMovementPacket.PositionAndRotation(
+                entityId,
+                dx,
+                dy,
+                dz,
+                Direction.of(pitch, yaw),
+                isOnGround
+        );
+    }
+
+    static @Nullable EntityMovementPacket.Rotation entityRotation(
+            final @NotNull StreamIn inputStream,
+            final @NotNull PacketHandler handler) {
+
+        final int entityId = inputStream.readVarInt();
+        final byte pitch = inputStream.readByte();
+        final byte yaw = inputStream.readByte();
+        final boolean isOnGround = inputStream.readBoolean();
+
+        if (handler.onEntityRotation(entityId, pitch, yaw, isOnGround)) {
+            return null;
+        }
+        return new EntityMovementPacket.Rotation(entityId, Direction.of(pitch, yaw), isOnGround);
+    }
+
+    static @Nullable EntityTeleportPacket entityTeleport(final @NotNull StreamIn inputStream,
+            final @NotNull PacketHandler handler) {
+
+        final int entityId = inputStream.readVarInt();
+        final double x = inputStream.readDouble();
+        final double y = inputStream.readDouble();
+        final double z = inputStream.readDouble();
+        final byte pitch = inputStream.readByte();
+        final byte yaw = inputStream.readByte();
+        final boolean isOnGround = inputStream.readBoolean();
+
+        if (handler.onEntityTeleport(entityId, x, y, z, pitch, yaw, isOnGround)) {
+            return null;
+        }
+        return new EntityTeleportPacket(
+                entityId,
+                Position.of(x, y, z),
+                Direction.of(pitch, yaw),
+                isOnGround
+        );
+    }
+
+    static @Nullable EntityVelocityPacket entityVelocity(final @NotNull StreamIn inputStream,
+            final @NotNull PacketHandler handler) {
+
+        final int entityId = inputStream.readVarInt();
+        final short x = inputStream.readShort();
+        final short y = inputStream.readShort();
+        final short z = inputStream.readShort();
+
+        if (handler.onEntityVelocity(entityId, x, y, z)) {
+            return null;
+        }
+        return new EntityVelocityPacket(entityId, Velocity.of(x, y, z));
+    }
+
+    static @Nullable BlockChangePacket blockChange(final @NotNull StreamIn inputStream,
+            final @NotNull PacketHandler handler) {
+
+        // unpacked the same way as StreamIn#readBlockPosition
+        final long position = inputStream.readLong();
+        final int x = (int) (position >> 38);
+        final int y = (int) (position << 52 >> 52);
+        final int z = (int) (position << 26 >> 38);
+        final int blockId = inputStream.readVarInt();
+
+        if (handler.onBlockChange(x, y, z, blockId)) {
+            return null;
+        }
+        return new BlockChangePacket(BlockPosition.of(x, y, z), blockId);
+    }
+}
@@ -25,6 +25,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Optional;
 
+import io.github.sparky983.diorite.io.LazyCompoundTag;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.io.Writable;
@@ -41,11 +42,17 @@ public final class ItemStack implements Writable {
 
     private final int itemId; // Use ItemType enum
     private final byte amount;
-    private final CompoundBinaryTag nbt;
+    private final LazyCompoundTag nbt;
 
     @Contract(pure = true)
     public ItemStack(final int itemId, final byte amount, final @NotNull CompoundBinaryTag nbt) {
 
+        this(itemId, amount, LazyCompoundTag.of(nbt));
+    }
+
+    @Contract(pure = true)
+    public ItemStack(final int itemId, final byte amount, final @NotNull LazyCompoundTag nbt) {
+
         Preconditions.requireNotNull(nbt, "nbt");
 
         this.itemId = itemId;
@@ -62,7 +69,7 @@ public final class ItemStack implements Writable {
         return inputStream.readOptional(() -> {
             final int itemId = inputStream.readVarInt();
             final byte itemCount = inputStream.readByte();
-            final CompoundBinaryTag nbt = inputStream.readCompoundTag();
+            final LazyCompoundTag nbt = inputStream.readLazyCompoundTag();
 
             return new ItemStack(itemId, itemCount, nbt);
         });
@@ -102,6 +109,12 @@ public final class ItemStack implements Writable {
     @Contract(pure = true)
     public @NotNull CompoundBinaryTag getNbt() {
 
+        return nbt.toCompoundTag();
+    }
+
+    @Contract(pure = true)
+    public @NotNull LazyCompoundTag getLazyNbt() {
+
         return nbt;
     }
 }
@@ -27,7 +27,8 @@ import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 /**
  * A packet.
  * <p>
- * All packets should have a {@link PacketDecoder} constructor.
+ * All packets should have a {@link PacketDecoder} constructor, or be annotated with
+ * {@link io.github.sparky983.diorite.net.packet.codec.GenerateCodec} to have their codec generated.
  * <p>
  * 2 types of packets exist, {@link ServerBoundPacket} and {@link ClientBoundPacket}.
  *
@@ -53,4 +54,16 @@ public interface Packet extends Writable {
      */
     @Contract(pure = true)
     int getId();
+
+    /**
+     * Returns the exact number of bytes {@link #write(StreamOut)} writes, or {@code -1} if it
+     * isn't known without writing the packet.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    default int getEncodedSize() {
+
+        return -1;
+    }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.sparky983.diorite.net.packet;
+
+/**
+ * A low-level handler for the most frequently sent packets, invoked while the packet is being
+ * decoded with its fields as primitive arguments.
+ * <p>
+ * Each callback returns whether it handled the packet. If it did, no packet object is created;
+ * otherwise the packet is decoded as usual and returned by
+ * {@link io.github.sparky983.diorite.net.packet.format.PacketFormat#decode(
+ * io.github.sparky983.diorite.io.StreamIn, PacketHandler)}. Every callback defaults to not
+ * handling the packet, so implementations only need to override the ones they care about.
+ * <p>
+ * Callbacks are invoked on the thread decoding packets and must not block.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface PacketHandler {
+
+    /**
+     * A packet handler that doesn't handle any packets.
+     *
+     * @since 1.0.0
+     */
+    PacketHandler NONE = new PacketHandler() {};
+
+    /**
+     * Called when a keep-alive is received.
+     *
+     * @param keepAliveId The keep-alive id.
+     * @return Whether the packet was handled.
+     * @since 1.0.0
+     */
+    default boolean onKeepAlive(final long keepAliveId) {
+
+        return false;
+    }
+
+    /**
+     * Called when a ping is received.
+     *
+     * @param pingId The ping id.
+     * @return Whether the packet was handled.
+     * @since 1.0.0
+     */
+    default boolean onPing(final int pingId) {
+
+        return false;
+    }
+
+    /**
+     * Called when an entity position packet is received.
+     *
+     * @param entityId The entity id.
+     * @param dx The change in x, in 1/4096ths of a block.
+     * @param dy The change in y, in 1/4096ths of a block.
+     * @param dz The change in z, in 1/4096ths of a block.
+     * @param isOnGround Whether the entity is on the ground.
+     * @return Whether the packet was handled.
+     * @since 1.0.0
+     */
+    default boolean onEntityPosition(final int entityId,
+            final short dx,
+            final short dy,
+            final short dz,
+            final boolean isOnGround) {
+
+        return false;
+    }
+
+    /**
+     * Called when an entity position and rotation packet is received.
+     *
+     * @param entityId The entity id.
+     * @param dx The change in x, in 1/4096ths of a block.
+     * @param dy The change in y, in 1/4096ths of a block.
+     * @param dz The change in z, in 1/4096ths of a block.
+     * @param pitch The pitch, in 1/256ths of a full turn.
+     * @param yaw The yaw, in 1/256ths of a full turn.
+     * @param isOnGround Whether the entity is on the ground.
+     * @return Whether the packet was handled.
+     * @since 1.0.0
+     */
+    default boolean onEntityPositionAndRotation(final int entityId,
+            final short dx,
+            final short dy,
+            final short dz,
+            final byte pitch,
+            final byte yaw,
+            final boolean isOnGround) {
+
+        return false;
+    }
+
+    /**
+     * Called when an entity rotation packet is received.
+     *
+     * @param entityId The entity id.
+     * @param pitch The pitch, in 1/256ths of a full turn.
+     * @param yaw The yaw, in 1/256ths of a full turn.
+     * @param isOnGround Whether the entity is on the ground.
+     * @return Whether the packet was handled.
+     * @since 1.0.0
+     */
+    default boolean onEntityRotation(final int entityId,
+            final byte pitch,
+            final byte yaw,
+            final boolean isOnGround) {
+
+        return false;
+    }
+
+    /**
+     * Called when an entity teleport packet is received.
+     *
+     * @param entityId The entity id.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param z The z coordinate.
+     * @param pitch The pitch, in 1/256ths of a full turn.
+     * @param yaw The yaw, in 1/256ths of a full turn.
+     * @param isOnGround Whether the entity is on the ground.
+     * @return Whether the packet was handled.
+     * @since 1.0.0
+     */
+    default boolean onEntityTeleport(final int entityId,
+            final double x,
+            final double y,
+            final double z,
+            final byte pitch,
+            final byte yaw,
+            final boolean isOnGround) {
+
+        return false;
+    }
+
+    /**
+     * Called when an entity velocity packet is received.
+     *
+     * @param entityId The entity id.
+     * @param x The x velocity, in 1/8000ths of a block per tick.
+     * @param y The y velocity, in 1/8000ths of a block per tick.
+     * @param z The z velocity, in 1/8000ths of a block per tick.
+     * @return Whether the packet was handled.
+     * @since 1.0.0
+     */
+    default boolean onEntityVelocity(final int entityId,
+            final short x,
+            final short y,
+            final short z) {
+
+        return false;
+    }
+
+    /**
+     * Called when a block change packet is received.
+     *
+     * @param x The block's x coordinate.
+     * @param y The block's y coordinate.
+     * @param z The block's z coordinate.
+     * @param blockId The new block state id.
+     * @return Whether the packet was handled.
+     * @since 1.0.0
+     */
+    default boolean onBlockChange(final int x, final int y, final int z, final int blockId) {
+
+        return false;
+    }
+
+    /**
+     * Called when a packet is skipped because no decoder is registered for its id in the current
+     * state.
+     * <p>
+     * The rest of the packet's frame is skipped over by its length, so the connection stays in
+     * sync.
+     *
+     * @param packetId The packet id.
+     * @since 1.0.0
+     */
+    default void onSkipped(final int packetId) {
+
+    }
+}
@@ -130,14 +130,14 @@ import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
 import io.github.sparky983.diorite.net.packet.clientbound.login.EncryptionRequestPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.login.LoginPluginRequestPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.login.LoginSuccessPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.login.SetCompressionPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.login.SetCompressionPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.AcknowledgePlayerDiggingPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.ActionBarPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.AdvancementsPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.AttachEntityPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.AttachEntityPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.BlockActionPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.BlockBreakAnimationPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.BlockChangePacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.BlockChangePacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.BlockEntityDataPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.BossBarPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.CameraPacket;
@@ -146,94 +146,94 @@ import io.github.sparky983.diorite.net.packet.clientbound.play.ChatMessagePacket
 import io.github.sparky983.diorite.net.packet.clientbound.play.ChunkDataAndUpdateLightPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.ClearTitlesPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.CloseWindowPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.CollectItemPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.CraftRecipeResponsePacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.CollectItemPacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.CraftRecipeResponsePacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.DeathCombatEventPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.DeclareCommandsPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.DeclareRecipesPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.DestroyEntitiesPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.DestroyEntitiesPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.DisplayScoreboardPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.EffectPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.EndCombatEventPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.EffectPacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.EndCombatEventPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.EnterCombatEventPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.EntityAnimationPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.EntityEffectPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.EntityEffectPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.EntityEquipmentPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.EntityHeadLookPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.EntityHeadLookPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.EntityMetadataPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.EntityMovementPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.EntityPropertiesPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.EntitySoundEffectPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.EntityStatusPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.EntityTeleportPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.EntityVelocityPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.EntityStatusPacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.EntityTeleportPacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.EntityVelocityPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.ExplosionPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.FacePlayerPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.HeldItemChangePacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.InitializeWorldBorderPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.HeldItemChangePacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.InitializeWorldBorderPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.JoinGamePacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.KeepAlivePacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.KeepAlivePacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.MapDataPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.MultiBlockChangePacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.MultiBlockChangePacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.NamedSoundEffectPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.NbtQueryResponsePacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.OpenBookPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.OpenHorseWindowPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.OpenSignEditorPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.OpenHorseWindowPacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.OpenSignEditorPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.OpenWindowPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.ParticlePacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.PingPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.PlayerAbilitiesPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.PingPacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.PlayerAbilitiesPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.PlayerInfoPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.PlayerListHeaderAndFooterPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.PlayerPositionAndLookPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.PlayerPositionAndLookPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.PluginMessagePacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.RemoveEntityEffectPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.RemoveEntityEffectPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.ResourcePackSendPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.RespawnPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.ScoreboardObjectivePacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.SculkVibrationSignalPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.SelectAdvancementTabPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.SelectAdvancementTabPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.ServerDifficultyPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.SetCooldownPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.SetCooldownPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.SetExperiencePacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.SetPassengersPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.SetPassengersPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.SetSlotPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.SetTitleSubtitlePacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.SetTitleTextPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.SetTitleTimesPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.SetTitleTimesPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.SoundEffectPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.SpawnEntityPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.SpawnExperienceOrbPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.SpawnLivingEntityPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.SpawnEntityPacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.SpawnExperienceOrbPacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.SpawnLivingEntityPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.SpawnPaintingPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.SpawnPlayerPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.SpawnPositionPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.SpawnPlayerPacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.SpawnPositionPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.StatisticsPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.StopSoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.TabCompletePacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.TagsPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.TeamsPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.TimeUpdatePacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.TimeUpdatePacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.TradeListPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.UnloadChunkPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.UnloadChunkPacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.UnlockRecipesPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.UpdateHealthPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.UpdateLightPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.UpdateScorePacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.UpdateSimulationDistancePacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.UpdateViewDistancePacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.UpdateViewPositionPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.VehicleMovePacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.UpdateSimulationDistancePacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.UpdateViewDistancePacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.UpdateViewPositionPacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.VehicleMovePacketCodec;
 import io.github.sparky983.diorite.net.packet.clientbound.play.WindowItemsPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.play.WindowPropertyPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.WorldBorderCenterPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.WorldBorderLerpSizePacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.WorldBorderSizePacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.WorldBorderWarningDelayPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.play.WorldBorderWarningReachPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.status.PongPacket;
-import io.github.sparky983.diorite.net.packet.clientbound.status.ResponsePacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.WorldBorderCenterPacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.WorldBorderLerpSizePacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.WorldBorderSizePacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.WorldBorderWarningDelayPacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.play.WorldBorderWarningReachPacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.status.PongPacketCodec;
+import io.github.sparky983.diorite.net.packet.clientbound.status.ResponsePacketCodec;
 
 public final class PacketRegistries {
 
@@ -247,8 +247,8 @@ public final class PacketRegistries {
         public static final PacketRegistry HANDSHAKING = PacketRegistry.EMPTY;
 
         public static final PacketRegistry STATUS = PacketRegistry.builder()
-                .registerPacket(RESPONSE, ResponsePacket::new)
-                .registerPacket(PONG, PongPacket::new)
+                .registerPacket(RESPONSE, ResponsePacketCodec.INSTANCE)
+                .registerPacket(PONG, PongPacketCodec.INSTANCE)
                 .build();
 
         public static final PacketRegistry LOGIN = PacketRegistry.builder()
@@ -256,16 +256,16 @@ public final class PacketRegistries {
                         io.github.sparky983.diorite.net.packet.clientbound.login.DisconnectPacket::new)
                 .registerPacket(ENCRYPTION_REQUEST, EncryptionRequestPacket::new)
                 .registerPacket(LOGIN_SUCCESS, LoginSuccessPacket::new)
-                .registerPacket(SET_COMPRESSION, SetCompressionPacket::new)
+                .registerPacket(SET_COMPRESSION, SetCompressionPacketCodec.INSTANCE)
                 .registerPacket(LOGIN_PLUGIN_REQUEST, LoginPluginRequestPacket::new)
                 .build();
 
         public static final PacketRegistry PLAY = PacketRegistry.builder()
-                .registerPacket(SPAWN_ENTITY, SpawnEntityPacket::new)
-                .registerPacket(SPAWN_EXPERIENCE_ORB, SpawnExperienceOrbPacket::new)
-                .registerPacket(SPAWN_LIVING_ENTITY, SpawnLivingEntityPacket::new)
+                .registerPacket(SPAWN_ENTITY, SpawnEntityPacketCodec.INSTANCE)
+                .registerPacket(SPAWN_EXPERIENCE_ORB, SpawnExperienceOrbPacketCodec.INSTANCE)
+                .registerPacket(SPAWN_LIVING_ENTITY, SpawnLivingEntityPacketCodec.INSTANCE)
                 .registerPacket(SPAWN_PAINTING, SpawnPaintingPacket::new)
-                .registerPacket(SPAWN_PLAYER, SpawnPlayerPacket::new)
+                .registerPacket(SPAWN_PLAYER, SpawnPlayerPacketCodec.INSTANCE)
                 .registerPacket(SCULK_VIBRATION_SIGNAL, SculkVibrationSignalPacket::new)
                 .registerPacket(ENTITY_ANIMATION, EntityAnimationPacket::new)
                 .registerPacket(STATISTICS, StatisticsPacket::new)
@@ -273,7 +273,8 @@ public final class PacketRegistries {
                 .registerPacket(BLOCK_BREAK_ANIMATION, BlockBreakAnimationPacket::new)
                 .registerPacket(BLOCK_ENTITY_DATA, BlockEntityDataPacket::new)
                 .registerPacket(BLOCK_ACTION, BlockActionPacket::new)
-                .registerPacket(BLOCK_CHANGE, BlockChangePacket::new)
+                .registerPacket(BLOCK_CHANGE, BlockChangePacketCodec.INSTANCE,
+                        DirectPacketDecoders::blockChange)
                 .registerPacket(BOSS_BAR, BossBarPacket::new)
                 .registerPacket(SERVER_DIFFICULTY, ServerDifficultyPacket::new)
                 .registerPacket(CHAT_MESSAGE, ChatMessagePacket::new)
@@ -284,87 +285,96 @@ public final class PacketRegistries {
                 .registerPacket(WINDOW_ITEMS, WindowItemsPacket::new)
                 .registerPacket(WINDOW_PROPERTY, WindowPropertyPacket::new)
                 .registerPacket(SET_SLOT, SetSlotPacket::new)
-                .registerPacket(SET_COOLDOWN, SetCooldownPacket::new)
+                .registerPacket(SET_COOLDOWN, SetCooldownPacketCodec.INSTANCE)
                 .registerPacket(PLUGIN_MESSAGE, PluginMessagePacket::new)
                 .registerPacket(NAMED_SOUND_EFFECT, NamedSoundEffectPacket::new)
                 .registerPacket(ClientBoundPacketId.Play.DISCONNECT,
                         io.github.sparky983.diorite.net.packet.clientbound.play.DisconnectPacket::new)
-                .registerPacket(ENTITY_STATUS, EntityStatusPacket::new)
+                .registerPacket(ENTITY_STATUS, EntityStatusPacketCodec.INSTANCE)
                 .registerPacket(EXPLOSION, ExplosionPacket::new)
-                .registerPacket(UNLOAD_CHUNK, UnloadChunkPacket::new)
+                .registerPacket(UNLOAD_CHUNK, UnloadChunkPacketCodec.INSTANCE)
                 .registerPacket(CHANGE_GAME_STATE, ChangeGameStatePacket::new)
-                .registerPacket(OPEN_HORSE_WINDOW, OpenHorseWindowPacket::new)
-                .registerPacket(INITIALIZE_WORLD_BORDER, InitializeWorldBorderPacket::new)
-                .registerPacket(KEEP_ALIVE, KeepAlivePacket::new)
+                .registerPacket(OPEN_HORSE_WINDOW, OpenHorseWindowPacketCodec.INSTANCE)
+                .registerPacket(INITIALIZE_WORLD_BORDER, InitializeWorldBorderPacketCodec.INSTANCE)
+                .registerPacket(KEEP_ALIVE,
+                        KeepAlivePacketCodec.INSTANCE, DirectPacketDecoders::keepAlive)
                 .registerPacket(CHUNK_DATA, ChunkDataAndUpdateLightPacket::new)
-                .registerPacket(EFFECT, EffectPacket::new)
+                .registerPacket(EFFECT, EffectPacketCodec.INSTANCE)
                 .registerPacket(PARTICLE, ParticlePacket::new)
                 .registerPacket(UPDATE_LIGHT, UpdateLightPacket::new)
                 .registerPacket(JOIN_GAME, JoinGamePacket::new)
                 .registerPacket(MAP_DATA, MapDataPacket::new)
                 .registerPacket(TRADE_LIST, TradeListPacket::new)
-                .registerPacket(ENTITY_POSITION, EntityMovementPacket.Position::new)
+                .registerPacket(ENTITY_POSITION, EntityMovementPacket.Position::new,
+                        DirectPacketDecoders::entityPosition)
                 .registerPacket(ENTITY_POSITION_AND_ROTATION,
-                        EntityMovementPacket.PositionAndRotation::new)
-                .registerPacket(ENTITY_ROTATION, EntityMovementPacket.Rotation::new)
-                .registerPacket(VEHICLE_MOVE, VehicleMovePacket::new)
+                        EntityMovementPacket.PositionAndRotation::new,
+                        DirectPacketDecoders::entityPositionAndRotation)
+                .registerPacket(ENTITY_ROTATION, EntityMovementPacket.Rotation::new,
+                        DirectPacketDecoders::entityRotation)
+                .registerPacket(VEHICLE_MOVE, VehicleMovePacketCodec.INSTANCE)
                 .registerPacket(OPEN_BOOK, OpenBookPacket::new)
                 .registerPacket(OPEN_WINDOW, OpenWindowPacket::new)
-                .registerPacket(OPEN_SIGN_EDITOR, OpenSignEditorPacket::new)
-                .registerPacket(PING, PingPacket::new)
-                .registerPacket(CRAFT_RECIPE_RESPONSE, CraftRecipeResponsePacket::new)
-                .registerPacket(PLAYER_ABILITIES, PlayerAbilitiesPacket::new)
-                .registerPacket(END_COMBAT_EVENT, EndCombatEventPacket::new)
+                .registerPacket(OPEN_SIGN_EDITOR, OpenSignEditorPacketCodec.INSTANCE)
+                .registerPacket(PING, PingPacketCodec.INSTANCE, DirectPacketDecoders::ping)
+                .registerPacket(CRAFT_RECIPE_RESPONSE, CraftRecipeResponsePacketCodec.INSTANCE)
+                .registerPacket(PLAYER_ABILITIES, PlayerAbilitiesPacketCodec.INSTANCE)
+                .registerPacket(END_COMBAT_EVENT, EndCombatEventPacketCodec.INSTANCE)
                 .registerPacket(ENTER_COMBAT_EVENT, EnterCombatEventPacket::new)
                 .registerPacket(DEATH_COMBAT_EVENT, DeathCombatEventPacket::new)
                 .registerPacket(PLAYER_INFO, PlayerInfoPacket::new)
                 .registerPacket(FACE_PLAYER, FacePlayerPacket::new)
-                .registerPacket(PLAYER_POSITION_AND_LOOK, PlayerPositionAndLookPacket::new)
+                .registerPacket(PLAYER_POSITION_AND_LOOK, PlayerPositionAndLookPacketCodec.INSTANCE)
                 .registerPacket(UNLOCK_RECIPES, UnlockRecipesPacket::new)
-                .registerPacket(DESTROY_ENTITIES, DestroyEntitiesPacket::new)
-                .registerPacket(REMOVE_ENTITY_EFFECT, RemoveEntityEffectPacket::new)
+                .registerPacket(DESTROY_ENTITIES, DestroyEntitiesPacketCodec.INSTANCE)
+                .registerPacket(REMOVE_ENTITY_EFFECT, RemoveEntityEffectPacketCodec.INSTANCE)
                 .registerPacket(RESOURCE_PACK_SEND, ResourcePackSendPacket::new)
                 .registerPacket(RESPAWN, RespawnPacket::new)
-                .registerPacket(ENTITY_HEAD_LOOK, EntityHeadLookPacket::new)
-                .registerPacket(MULTI_BLOCK_CHANGE, MultiBlockChangePacket::new)
-                .registerPacket(SELECT_ADVANCEMENT_TAB, SelectAdvancementTabPacket::new)
+                .registerPacket(ENTITY_HEAD_LOOK, EntityHeadLookPacketCodec.INSTANCE)
+                .registerPacket(MULTI_BLOCK_CHANGE, MultiBlockChangePacketCodec.INSTANCE)
+                .registerPacket(SELECT_ADVANCEMENT_TAB, SelectAdvancementTabPacketCodec.INSTANCE)
                 .registerPacket(ACTION_BAR, ActionBarPacket::new)
-                .registerPacket(WORLD_BORDER_CENTER, WorldBorderCenterPacket::new)
-                .registerPacket(WORLD_BORDER_LERP_SIZE, WorldBorderLerpSizePacket::new)
-                .registerPacket(WORLD_BORDER_SIZE, WorldBorderSizePacket::new)
-                .registerPacket(WORLD_BORDER_WARNING_DELAY, WorldBorderWarningDelayPacket::new)
-                .registerPacket(WORLD_BORDER_WARNING_REACH, WorldBorderWarningReachPacket::new)
+                .registerPacket(WORLD_BORDER_CENTER, WorldBorderCenterPacketCodec.INSTANCE)
+                .registerPacket(WORLD_BORDER_LERP_SIZE, WorldBorderLerpSizePacketCodec.INSTANCE)
+                .registerPacket(WORLD_BORDER_SIZE, WorldBorderSizePacketCodec.INSTANCE)
+                .registerPacket(WORLD_BORDER_WARNING_DELAY,
+                        WorldBorderWarningDelayPacketCodec.INSTANCE)
+                .registerPacket(WORLD_BORDER_WARNING_REACH,
+                        WorldBorderWarningReachPacketCodec.INSTANCE)
                 .registerPacket(CAMERA, CameraPacket::new)
-                .registerPacket(HELD_ITEM_CHANGE, HeldItemChangePacket::new)
-                .registerPacket(UPDATE_VIEW_POSITION, UpdateViewPositionPacket::new)
-                .registerPacket(UPDATE_VIEW_DISTANCE, UpdateViewDistancePacket::new)
-                .registerPacket(SPAWN_POSITION, SpawnPositionPacket::new)
+                .registerPacket(HELD_ITEM_CHANGE, HeldItemChangePacketCodec.INSTANCE)
+                .registerPacket(UPDATE_VIEW_POSITION, UpdateViewPositionPacketCodec.INSTANCE)
+                .registerPacket(UPDATE_VIEW_DISTANCE, UpdateViewDistancePacketCodec.INSTANCE)
+                .registerPacket(SPAWN_POSITION, SpawnPositionPacketCodec.INSTANCE)
                 .registerPacket(DISPLAY_SCOREBOARD, DisplayScoreboardPacket::new)
                 .registerPacket(ENTITY_METADATA, EntityMetadataPacket::new)
-                .registerPacket(ATTACH_ENTITY, AttachEntityPacket::new)
-                .registerPacket(ENTITY_VELOCITY, EntityVelocityPacket::new)
+                .registerPacket(ATTACH_ENTITY, AttachEntityPacketCodec.INSTANCE)
+                .registerPacket(ENTITY_VELOCITY, EntityVelocityPacketCodec.INSTANCE,
+                        DirectPacketDecoders::entityVelocity)
                 .registerPacket(ENTITY_EQUIPMENT, EntityEquipmentPacket::new)
                 .registerPacket(SET_EXPERIENCE, SetExperiencePacket::new)
                 .registerPacket(UPDATE_HEALTH, UpdateHealthPacket::new)
                 .registerPacket(SCOREBOARD_OBJECTIVE, ScoreboardObjectivePacket::new)
-                .registerPacket(SET_PASSENGERS, SetPassengersPacket::new)
+                .registerPacket(SET_PASSENGERS, SetPassengersPacketCodec.INSTANCE)
                 .registerPacket(TEAMS, TeamsPacket::new)
                 .registerPacket(UPDATE_SCORE, UpdateScorePacket::new)
-                .registerPacket(UPDATE_SIMULATION_DISTANCE, UpdateSimulationDistancePacket::new)
+                .registerPacket(UPDATE_SIMULATION_DISTANCE,
+                        UpdateSimulationDistancePacketCodec.INSTANCE)
                 .registerPacket(SET_TITLE_SUBTITLE, SetTitleSubtitlePacket::new)
-                .registerPacket(TIME_UPDATE, TimeUpdatePacket::new)
+                .registerPacket(TIME_UPDATE, TimeUpdatePacketCodec.INSTANCE)
                 .registerPacket(SET_TITLE_TEXT, SetTitleTextPacket::new)
-                .registerPacket(SET_TITLE_TIMES, SetTitleTimesPacket::new)
+                .registerPacket(SET_TITLE_TIMES, SetTitleTimesPacketCodec.INSTANCE)
                 .registerPacket(ENTITY_SOUND_EFFECT, EntitySoundEffectPacket::new)
                 .registerPacket(SOUND_EFFECT, SoundEffectPacket::new)
                 .registerPacket(STOP_SOUND, StopSoundPacket::new)
                 .registerPacket(PLAYER_LIST_HEADER_FOOTER, PlayerListHeaderAndFooterPacket::new)
                 .registerPacket(NBT_QUERY_RESPONSE, NbtQueryResponsePacket::new)
-                .registerPacket(COLLECT_ITEM, CollectItemPacket::new)
-                .registerPacket(ENTITY_TELEPORT, EntityTeleportPacket::new)
+                .registerPacket(COLLECT_ITEM, CollectItemPacketCodec.INSTANCE)
+                .registerPacket(ENTITY_TELEPORT, EntityTeleportPacketCodec.INSTANCE,
+                        DirectPacketDecoders::entityTeleport)
                 .registerPacket(ADVANCEMENTS, AdvancementsPacket::new)
                 .registerPacket(ENTITY_PROPERTIES, EntityPropertiesPacket::new)
-                .registerPacket(ENTITY_EFFECT, EntityEffectPacket::new)
+                .registerPacket(ENTITY_EFFECT, EntityEffectPacketCodec.INSTANCE)
                 .registerPacket(DECLARE_RECIPES, DeclareRecipesPacket::new)
                 .registerPacket(TAGS, TagsPacket::new)
                 .build();
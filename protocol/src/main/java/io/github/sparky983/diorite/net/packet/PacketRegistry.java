@@ -18,11 +18,15 @@ package io.github.sparky983.diorite.net.packet;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import io.github.sparky983.diorite.io.DecodeException;
 import io.github.sparky983.diorite.util.Preconditions;
 
 /**
@@ -39,11 +43,53 @@ public final class PacketRegistry {
     public static final PacketRegistry EMPTY = builder().build();
 
     private final Map<Integer, PacketDecoder<?>> packetDecoders;
+    /**
+     * Indexed by packet id, so looking up a direct decoder neither boxes the id nor allocates.
+     */
+    private final DirectPacketDecoder<?>[] directPacketDecoders;
 
     @Contract(pure = true)
-    private PacketRegistry(final @NotNull Map<Integer, PacketDecoder<?>> packetDecoders) {
+    private PacketRegistry(final @NotNull Map<Integer, PacketDecoder<?>> packetDecoders,
+            final @NotNull Map<Integer, DirectPacketDecoder<?>> directPacketDecoders) {
+
+        this.packetDecoders = new HashMap<>();
+        packetDecoders.forEach((id, decoder) -> this.packetDecoders.put(id, checked(decoder)));
+
+        final int maxId = directPacketDecoders.keySet()
+                .stream()
+                .mapToInt(Integer::intValue)
+                .max()
+                .orElse(-1);
+        this.directPacketDecoders = new DirectPacketDecoder<?>[maxId + 1];
+        directPacketDecoders.forEach((id, decoder) ->
+                this.directPacketDecoders[id] = checked(decoder));
+    }
+
+    /**
+     * Wraps the decoder so a packet's constructor rejecting a decoded field is reported as a
+     * {@link DecodeException}, the same as any other malformed packet.
+     */
+    private static @NotNull PacketDecoder<?> checked(final @NotNull PacketDecoder<?> decoder) {
 
-        this.packetDecoders = new HashMap<>(packetDecoders);
+        return (inputStream) -> {
+            try {
+                return decoder.decode(inputStream);
+            } catch (final IllegalArgumentException e) {
+                throw new DecodeException("Malformed packet: " + e.getMessage(), e);
+            }
+        };
+    }
+
+    private static @NotNull DirectPacketDecoder<?> checked(
+            final @NotNull DirectPacketDecoder<?> decoder) {
+
+        return (inputStream, handler) -> {
+            try {
+                return decoder.decode(inputStream, handler);
+            } catch (final IllegalArgumentException e) {
+                throw new DecodeException("Malformed packet: " + e.getMessage(), e);
+            }
+        };
     }
 
     @Contract(pure = true)
@@ -54,6 +100,9 @@ public final class PacketRegistry {
 
     /**
      * Returns the packet decoder for the specified packet id.
+     * <p>
+     * The decoder throws a {@link DecodeException} if the packet is malformed, including when the
+     * packet's constructor rejects one of the decoded fields.
      *
      * @param packetId The packet id.
      * @return The packet decoder.
@@ -66,9 +115,43 @@ public final class PacketRegistry {
         return Optional.ofNullable(packetDecoders.get(packetId));
     }
 
+    /**
+     * Returns the direct packet decoder for the specified packet id.
+     * <p>
+     * Called for every decoded packet, so unlike {@link #getPacketDecoder(int)} it doesn't
+     * allocate. Like the packet decoder, it throws a {@link DecodeException} if the packet is
+     * malformed.
+     *
+     * @param packetId The packet id.
+     * @return The direct packet decoder, or {@code null} if the packet can only be decoded by its
+     *         {@link #getPacketDecoder(int) packet decoder}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public @Nullable DirectPacketDecoder<?> getDirectPacketDecoder(final int packetId) {
+
+        if (packetId < 0 || packetId >= directPacketDecoders.length) {
+            return null;
+        }
+        return directPacketDecoders[packetId];
+    }
+
+    /**
+     * Returns the ids of every packet that has a decoder.
+     *
+     * @return The packet ids.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public @Unmodifiable @NotNull Set<@NotNull Integer> getPacketIds() {
+
+        return Set.copyOf(packetDecoders.keySet());
+    }
+
     public static final class Builder {
 
         private final Map<Integer, PacketDecoder<?>> packetDecoders = new HashMap<>(115);
+        private final Map<Integer, DirectPacketDecoder<?>> directPacketDecoders = new HashMap<>();
 
         /**
          * Registers a packet decoder of the specified id.
@@ -99,10 +182,37 @@ public final class PacketRegistry {
             return this;
         }
 
+        /**
+         * Registers a packet decoder of the specified id along with a direct decoder that passes
+         * the packet's fields to a {@link PacketHandler}.
+         *
+         * @param packetId The packet id.
+         * @param packetDecoder The decoder.
+         * @param directPacketDecoder The direct decoder.
+         * @param <T> The packet type.
+         * @return The packet registry instance (for chaining).
+         * @throws IllegalStateException if a packet with the specified id has already been
+         *         registered.
+         * @since 1.0.0
+         */
+        @Contract(value = "_, _, _ -> this", mutates = "this")
+        public <T extends Packet> Builder registerPacket(
+                final int packetId,
+                final @NotNull PacketDecoder<T> packetDecoder,
+                final @NotNull DirectPacketDecoder<T> directPacketDecoder) {
+
+            Preconditions.requireNotNull(directPacketDecoder, "directPacketDecoder");
+
+            registerPacket(packetId, packetDecoder);
+            directPacketDecoders.put(packetId, directPacketDecoder);
+
+            return this;
+        }
+
         @Contract(value = "-> new")
         public @NotNull PacketRegistry build() {
 
-            return new PacketRegistry(packetDecoders);
+            return new PacketRegistry(packetDecoders, directPacketDecoders);
         }
     }
 }
@@ -21,6 +21,7 @@ import net.kyori.adventure.text.Component;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.io.LazyComponent;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
@@ -29,11 +30,17 @@ import io.github.sparky983.diorite.util.Preconditions;
 
 public final class ActionBarPacket implements ClientBoundPacket {
 
-    private final Component text;
+    private final LazyComponent text;
 
     @Contract(pure = true)
     public ActionBarPacket(final @NotNull Component text) {
 
+        this(LazyComponent.of(text));
+    }
+
+    @Contract(pure = true)
+    public ActionBarPacket(final @NotNull LazyComponent text) {
+
         Preconditions.requireNotNull(text, "text");
 
         this.text = text;
@@ -44,7 +51,7 @@ public final class ActionBarPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(inputStream, "inputStream");
 
-        this.text = inputStream.readComponent();
+        this.text = inputStream.readLazyComponent();
     }
 
     @Override
@@ -61,9 +68,23 @@ public final class ActionBarPacket implements ClientBoundPacket {
         return ClientBoundPacketId.Play.ACTION_BAR;
     }
 
+    /**
+     * Returns the text, deserializing it on the first call.
+     *
+     * @return The text.
+     * @throws io.github.sparky983.diorite.io.DecodeException if the text is well-formed JSON but
+     *         isn't a valid component.
+     * @since 1.0.0
+     */
     @Contract(pure = true)
     public @NotNull Component getText() {
 
+        return text.get();
+    }
+
+    @Contract(pure = true)
+    public @NotNull LazyComponent getLazyText() {
+
         return text;
     }
 }
@@ -20,6 +20,9 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.ByteBuffer;
+
+import io.github.sparky983.diorite.io.Buffers;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
@@ -30,7 +33,7 @@ public final class AdvancementsPacket implements ClientBoundPacket {
 
     // TODO(Sparky983): Parse this, can't be bothered
 
-    private final byte[] data;
+    private final ByteBuffer data;
 
     @ApiStatus.Experimental
     @Contract(pure = true)
@@ -38,7 +41,16 @@ public final class AdvancementsPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(data, "data");
 
-        this.data = data;
+        this.data = Buffers.readOnly(data);
+    }
+
+    @ApiStatus.Experimental
+    @Contract(pure = true)
+    public AdvancementsPacket(final @NotNull ByteBuffer data) {
+
+        Preconditions.requireNotNull(data, "data");
+
+        this.data = Buffers.readOnly(data);
     }
 
     @Contract(mutates = "param")
@@ -46,7 +58,7 @@ public final class AdvancementsPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(inputStream, "inputStream");
 
-        this.data = inputStream.readAllBytes();
+        this.data = inputStream.readRemainingBuffer();
     }
 
     @Override
@@ -54,7 +66,7 @@ public final class AdvancementsPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeBytes(data);
+        outputStream.writeBuffer(data);
     }
 
     @Override
@@ -64,9 +76,16 @@ public final class AdvancementsPacket implements ClientBoundPacket {
     }
 
     @ApiStatus.Experimental
-    @Contract(pure = true)
+    @Contract(value = "-> new", pure = true)
     public byte @NotNull [] getData() {
 
-        return data;
+        return Buffers.toByteArray(data);
+    }
+
+    @ApiStatus.Experimental
+    @Contract(value = "-> new", pure = true)
+    public @NotNull ByteBuffer getDataBuffer() {
+
+        return data.duplicate();
     }
 }
@@ -19,15 +19,21 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class AttachEntityPacket implements ClientBoundPacket {
 
+    @Field(FieldType.INT)
     private final int attachedEntityId;
+    @Field(FieldType.INT)
     private final int holdingEntityId;
 
     @Contract(pure = true)
@@ -40,10 +46,8 @@ public final class AttachEntityPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public AttachEntityPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.attachedEntityId = inputStream.readInt();
-        this.holdingEntityId = inputStream.readInt();
+        this(AttachEntityPacketCodec.readAttachedEntityId(inputStream),
+                AttachEntityPacketCodec.readHoldingEntityId(inputStream));
     }
 
     @Override
@@ -51,8 +55,13 @@ public final class AttachEntityPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeInt(attachedEntityId)
-                .writeInt(holdingEntityId);
+        AttachEntityPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return AttachEntityPacketCodec.INSTANCE.size(this);
     }
 
     @Override
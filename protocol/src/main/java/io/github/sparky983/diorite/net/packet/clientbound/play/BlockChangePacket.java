@@ -19,16 +19,22 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.BlockPosition;
 
+@GenerateCodec
 public final class BlockChangePacket implements ClientBoundPacket {
 
+    @Field(FieldType.BLOCK_POSITION)
     private final BlockPosition location;
+    @Field(FieldType.VAR_INT)
     private final int blockId;
 
     @Contract(pure = true)
@@ -43,10 +49,8 @@ public final class BlockChangePacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public BlockChangePacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        location = inputStream.readBlockPosition();
-        blockId = inputStream.readVarInt();
+        this(BlockChangePacketCodec.readLocation(inputStream),
+                BlockChangePacketCodec.readBlockId(inputStream));
     }
 
     @Override
@@ -54,8 +58,13 @@ public final class BlockChangePacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeBlockPosition(location)
-                .writeVarInt(blockId);
+        BlockChangePacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return BlockChangePacketCodec.INSTANCE.size(this);
     }
 
     @Override
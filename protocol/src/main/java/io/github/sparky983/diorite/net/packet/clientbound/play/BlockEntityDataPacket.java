@@ -21,6 +21,7 @@ import net.kyori.adventure.nbt.CompoundBinaryTag;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.io.LazyCompoundTag;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
@@ -32,13 +33,21 @@ public final class BlockEntityDataPacket implements ClientBoundPacket {
 
     private final BlockPosition location;
     private final Action action;
-    private final CompoundBinaryTag nbt;
+    private final LazyCompoundTag nbt;
 
     @Contract(pure = true)
     public BlockEntityDataPacket(final @NotNull BlockPosition location,
             final @NotNull Action action,
             final @NotNull CompoundBinaryTag nbt) {
 
+        this(location, action, LazyCompoundTag.of(nbt));
+    }
+
+    @Contract(pure = true)
+    public BlockEntityDataPacket(final @NotNull BlockPosition location,
+            final @NotNull Action action,
+            final @NotNull LazyCompoundTag nbt) {
+
         this.location = location;
         this.action = action;
         this.nbt = nbt;
@@ -51,7 +60,7 @@ public final class BlockEntityDataPacket implements ClientBoundPacket {
 
         this.location = inputStream.readBlockPosition();
         this.action = inputStream.readUnsignedByteEnum(Action.class);
-        this.nbt = inputStream.readCompoundTag();
+        this.nbt = inputStream.readLazyCompoundTag();
     }
 
     @Override
@@ -85,6 +94,12 @@ public final class BlockEntityDataPacket implements ClientBoundPacket {
     @Contract(pure = true)
     public @NotNull CompoundBinaryTag getNbt() {
 
+        return nbt.toCompoundTag();
+    }
+
+    @Contract(pure = true)
+    public @NotNull LazyCompoundTag getLazyNbt() {
+
         return nbt;
     }
 
@@ -25,6 +25,7 @@ import java.util.UUID;
 import java.util.function.Function;
 
 import io.github.sparky983.diorite.io.DecodeException;
+import io.github.sparky983.diorite.io.LazyComponent;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.io.Writable;
@@ -131,7 +132,7 @@ public final class BossBarPacket implements ClientBoundPacket {
         private final static byte IS_DRAGON_BAR_BIT = 0x00000002;
         private final static byte CREATE_FOG = 0b00000100;
 
-        private final Component title;
+        private final LazyComponent title;
         private final float health;
         private final Color color;
         private final Division division;
@@ -144,6 +145,16 @@ public final class BossBarPacket implements ClientBoundPacket {
                 final @NotNull Division division,
                 final byte flags) {
 
+            this(LazyComponent.of(title), health, color, division, flags);
+        }
+
+        @Contract(pure = true)
+        public AddAction(final @NotNull LazyComponent title,
+                final float health,
+                final @NotNull Color color,
+                final @NotNull Division division,
+                final byte flags) {
+
             Preconditions.requireNotNull(title, "title");
             Preconditions.requireNotNull(color, "color");
             Preconditions.requireNotNull(division, "division");
@@ -160,7 +171,7 @@ public final class BossBarPacket implements ClientBoundPacket {
 
             Preconditions.requireNotNull(inputStream, "inputStream");
 
-            this.title = inputStream.readComponent();
+            this.title = inputStream.readLazyComponent();
             this.health = inputStream.readFloat();
 
             if (health < 0) {
@@ -190,9 +201,23 @@ public final class BossBarPacket implements ClientBoundPacket {
             return ActionType.ADD;
         }
 
+        /**
+         * Returns the title, deserializing it on the first call.
+         *
+         * @return The title.
+         * @throws io.github.sparky983.diorite.io.DecodeException if the title is well-formed JSON
+         *         but isn't a valid component.
+         * @since 1.0.0
+         */
         @Contract(pure = true)
         public @NotNull Component getTitle() {
 
+            return title.get();
+        }
+
+        @Contract(pure = true)
+        public @NotNull LazyComponent getLazyTitle() {
+
             return title;
         }
 
@@ -308,11 +333,17 @@ public final class BossBarPacket implements ClientBoundPacket {
 
     public static final class UpdateTitleAction implements Action {
 
-        private final Component title;
+        private final LazyComponent title;
 
         @Contract(pure = true)
         public UpdateTitleAction(final @NotNull Component title) {
 
+            this(LazyComponent.of(title));
+        }
+
+        @Contract(pure = true)
+        public UpdateTitleAction(final @NotNull LazyComponent title) {
+
             Preconditions.requireNotNull(title, "title");
 
             this.title = title;
@@ -323,7 +354,7 @@ public final class BossBarPacket implements ClientBoundPacket {
 
             Preconditions.requireNotNull(inputStream, "inputStream");
 
-            this.title = inputStream.readComponent();
+            this.title = inputStream.readLazyComponent();
         }
 
         @Override
@@ -340,9 +371,23 @@ public final class BossBarPacket implements ClientBoundPacket {
             return ActionType.UPDATE_TITLE;
         }
 
+        /**
+         * Returns the title, deserializing it on the first call.
+         *
+         * @return The title.
+         * @throws io.github.sparky983.diorite.io.DecodeException if the title is well-formed JSON
+         *         but isn't a valid component.
+         * @since 1.0.0
+         */
         @Contract(pure = true)
         public @NotNull Component getTitle() {
 
+            return title.get();
+        }
+
+        @Contract(pure = true)
+        public @NotNull LazyComponent getLazyTitle() {
+
             return title;
         }
     }
@@ -23,6 +23,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.UUID;
 
+import io.github.sparky983.diorite.io.LazyComponent;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
@@ -31,7 +32,7 @@ import io.github.sparky983.diorite.util.Preconditions;
 
 public final class ChatMessagePacket implements ClientBoundPacket {
 
-    private final Component message;
+    private final LazyComponent message;
     private final Position position;
     private final UUID sender;
 
@@ -40,6 +41,14 @@ public final class ChatMessagePacket implements ClientBoundPacket {
             final @NotNull Position position,
             final @NotNull UUID sender) {
 
+        this(LazyComponent.of(message), position, sender);
+    }
+
+    @Contract(pure = true)
+    public ChatMessagePacket(final @NotNull LazyComponent message,
+            final @NotNull Position position,
+            final @NotNull UUID sender) {
+
         Preconditions.requireNotNull(message, "message");
         Preconditions.requireNotNull(position, "position");
         Preconditions.requireNotNull(sender, "sender");
@@ -54,7 +63,7 @@ public final class ChatMessagePacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(inputStream, "inputStream");
 
-        message = inputStream.readComponent();
+        message = inputStream.readLazyComponent();
         position = inputStream.readByteEnum(Position.class);
         sender = inputStream.readUuid();
     }
@@ -75,9 +84,23 @@ public final class ChatMessagePacket implements ClientBoundPacket {
         return ClientBoundPacketId.Play.CHAT_MESSAGE;
     }
 
+    /**
+     * Returns the message, deserializing it on the first call.
+     *
+     * @return The message.
+     * @throws io.github.sparky983.diorite.io.DecodeException if the message is well-formed JSON but
+     *         isn't a valid component.
+     * @since 1.0.0
+     */
     @Contract(pure = true)
     public @NotNull Component getMessage() {
 
+        return message.get();
+    }
+
+    @Contract(pure = true)
+    public @NotNull LazyComponent getLazyMessage() {
+
         return message;
     }
 
@@ -20,23 +20,31 @@ import net.kyori.adventure.nbt.CompoundBinaryTag;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
 
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Optional;
 
-import io.github.sparky983.diorite.io.DecodeException;
+import io.github.sparky983.diorite.io.Buffers;
+import io.github.sparky983.diorite.io.LazyCompoundTag;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.io.Writable;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
+import io.github.sparky983.diorite.world.Chunk;
+import io.github.sparky983.diorite.world.ChunkDecoder;
+import io.github.sparky983.diorite.world.Heightmap;
+import io.github.sparky983.diorite.world.LightStorage;
 
 public final class ChunkDataAndUpdateLightPacket implements ClientBoundPacket {
 
     private final int chunkX;
     private final int chunkZ;
-    private final CompoundBinaryTag heightmaps;
-    private final byte[] data;
+    private final LazyCompoundTag heightmaps;
+    private final ByteBuffer data;
     private final List<BlockEntity> blockEntities;
     private final boolean trustEdges;
     private final long[] skyLightMask;
@@ -60,6 +68,25 @@ public final class ChunkDataAndUpdateLightPacket implements ClientBoundPacket {
             final byte[][] skyLightArrays,
             final byte[][] blockLightArrays) {
 
+        this(chunkX, chunkZ, LazyCompoundTag.of(heightmaps), data, blockEntities, trustEdges,
+                skyLightMask, blockLightMask, emptySkyLightMask, emptyBlockLightMask,
+                skyLightArrays, blockLightArrays);
+    }
+
+    @Contract(pure = true)
+    public ChunkDataAndUpdateLightPacket(final int chunkX,
+            final int chunkZ,
+            final @NotNull LazyCompoundTag heightmaps,
+            final byte @NotNull [] data,
+            final @NotNull List<@NotNull BlockEntity> blockEntities,
+            final boolean trustEdges,
+            final long[] skyLightMask,
+            final long[] blockLightMask,
+            final long[] emptySkyLightMask,
+            final long[] emptyBlockLightMask,
+            final byte[][] skyLightArrays,
+            final byte[][] blockLightArrays) {
+
         Preconditions.requireNotNull(heightmaps, "heightmaps");
         Preconditions.requireNotNull(data, "data");
         Preconditions.requireContainsNoNulls(blockEntities, "blockEntities");
@@ -88,7 +115,7 @@ public final class ChunkDataAndUpdateLightPacket implements ClientBoundPacket {
         this.chunkX = chunkX;
         this.chunkZ = chunkZ;
         this.heightmaps = heightmaps;
-        this.data = data;
+        this.data = Buffers.readOnly(data);
         this.blockEntities = blockEntities;
         this.trustEdges = trustEdges;
         this.skyLightMask = skyLightMask;
@@ -106,8 +133,8 @@ public final class ChunkDataAndUpdateLightPacket implements ClientBoundPacket {
 
         this.chunkX = inputStream.readInt();
         this.chunkZ = inputStream.readInt();
-        this.heightmaps = inputStream.readCompoundTag();
-        this.data = inputStream.readByteList();
+        this.heightmaps = inputStream.readLazyCompoundTag();
+        this.data = inputStream.readBufferList();
         this.blockEntities = inputStream.readList(BlockEntity::new);
 
         this.trustEdges = inputStream.readBoolean();
@@ -116,30 +143,8 @@ public final class ChunkDataAndUpdateLightPacket implements ClientBoundPacket {
         this.emptySkyLightMask = inputStream.readLongList();
         this.emptyBlockLightMask = inputStream.readLongList();
 
-        // TODO(Sparky983): Create read array method
-
-        final int skyLightArraysLength = inputStream.readVarInt();
-        final byte[][] skyLightArrays = new byte[skyLightArraysLength][];
-        for (int i = 0; i < skyLightArraysLength; i++) {
-            final byte[] skyLightArray = inputStream.readByteList();
-            if (skyLightArray.length != UpdateLightPacket.LIGHT_ARRAY_LENGTH) {
-                throw new DecodeException("skyLightArrays[" + i + "] length must be "
-                        + UpdateLightPacket.LIGHT_ARRAY_LENGTH);
-            }
-            skyLightArrays[i] = skyLightArray;
-        }
-        this.skyLightArrays = skyLightArrays;
-
-        final int blockLightArraysLength = inputStream.readVarInt();
-        final byte[][] blockLightArrays = new byte[blockLightArraysLength][];
-        for (int i = 0; i < blockLightArraysLength; i++) {
-            final byte[] blockLightArray = inputStream.readByteList();
-            if (blockLightArray.length != UpdateLightPacket.LIGHT_ARRAY_LENGTH) {
-                throw new DecodeException("blockLightArrays[" + i + "] length must be 2048");
-            }
-            blockLightArrays[i] = blockLightArray;
-        }
-        this.blockLightArrays = blockLightArrays;
+        this.skyLightArrays = UpdateLightPacket.readLightArrays(inputStream);
+        this.blockLightArrays = UpdateLightPacket.readLightArrays(inputStream);
 
     }
 
@@ -151,13 +156,13 @@ public final class ChunkDataAndUpdateLightPacket implements ClientBoundPacket {
         outputStream.writeInt(chunkX)
                 .writeInt(chunkZ)
                 .writeCompoundTag(heightmaps)
-                .writeByteList(data)
+                .writeBufferList(data)
                 .writeList(blockEntities, StreamOut::writeWritable)
                 .writeBoolean(trustEdges)
-                .writeLongs(skyLightMask)
-                .writeLongs(blockLightMask)
-                .writeLongs(emptySkyLightMask)
-                .writeLongs(emptyBlockLightMask);
+                .writeLongList(skyLightMask)
+                .writeLongList(blockLightMask)
+                .writeLongList(emptySkyLightMask)
+                .writeLongList(emptyBlockLightMask);
 
         outputStream.writeVarInt(skyLightArrays.length);
         for (final byte[] skyLightArray : skyLightArrays) {
@@ -191,13 +196,71 @@ public final class ChunkDataAndUpdateLightPacket implements ClientBoundPacket {
     @Contract(pure = true)
     public @NotNull CompoundBinaryTag getHeightmaps() {
 
+        return heightmaps.toCompoundTag();
+    }
+
+    @Contract(pure = true)
+    public @NotNull LazyCompoundTag getLazyHeightmaps() {
+
         return heightmaps;
     }
 
+    /**
+     * Decodes the heightmap of the specified type straight from the encoded heightmaps. The
+     * dimension's min y and height come from the join game and respawn packets.
+     *
+     * @param type The type of heightmap.
+     * @param minY The dimension's lowest y coordinate.
+     * @param worldHeight The dimension's height.
+     * @return The heightmap, or an empty optional if the server didn't send it.
+     * @throws NullPointerException if type is {@code null}.
+     * @throws IllegalArgumentException if the heightmap's length doesn't match the world height.
+     */
     @Contract(pure = true)
+    public @NotNull Optional<Heightmap> getHeightmap(final @NotNull Heightmap.Type type,
+            final int minY,
+            final @Range(from = 1, to = Integer.MAX_VALUE) int worldHeight) {
+
+        Preconditions.requireNotNull(type, "type");
+
+        final long[] data = heightmaps.getLongArray(type.name());
+        if (data == null) {
+            return Optional.empty();
+        }
+        return Optional.of(Heightmap.of(type, minY, worldHeight, data));
+    }
+
+    @Contract(value = "-> new", pure = true)
     public byte @NotNull [] getData() {
 
-        return data;
+        return Buffers.toByteArray(data);
+    }
+
+    @Contract(value = "-> new", pure = true)
+    public @NotNull ByteBuffer getDataBuffer() {
+
+        return data.duplicate();
+    }
+
+    /**
+     * Decodes the chunk's sections with the specified decoder. The dimension's min y and height
+     * come from the join game and respawn packets.
+     *
+     * @param decoder The decoder.
+     * @param minY The dimension's lowest y coordinate.
+     * @param worldHeight The dimension's height.
+     * @return The chunk.
+     * @throws NullPointerException if decoder is {@code null}.
+     * @throws IllegalArgumentException if the data is malformed or doesn't match the world height.
+     */
+    @Contract(value = "_, _, _ -> new", pure = true)
+    public @NotNull Chunk decodeChunk(final @NotNull ChunkDecoder decoder,
+            final int minY,
+            final @Range(from = 16, to = Integer.MAX_VALUE) int worldHeight) {
+
+        Preconditions.requireNotNull(decoder, "decoder");
+
+        return decoder.decode(chunkX, chunkZ, minY, worldHeight, data);
     }
 
     @Contract(pure = true)
@@ -242,6 +305,22 @@ public final class ChunkDataAndUpdateLightPacket implements ClientBoundPacket {
         return blockLightArrays;
     }
 
+    /**
+     * Applies the packet's light data to the specified light storage.
+     *
+     * @param lightStorage The light storage of the packet's chunk.
+     * @throws NullPointerException if lightStorage is {@code null}.
+     * @throws IllegalArgumentException if the light data doesn't fit the light storage.
+     */
+    @Contract(mutates = "param")
+    public void applyTo(final @NotNull LightStorage lightStorage) {
+
+        Preconditions.requireNotNull(lightStorage, "lightStorage");
+
+        lightStorage.update(skyLightMask, blockLightMask, emptySkyLightMask, emptyBlockLightMask,
+                skyLightArrays, blockLightArrays);
+    }
+
     @Contract(pure = true)
     public @NotNull List<@NotNull BlockEntity> getBlockEntities() {
 
@@ -253,7 +332,7 @@ public final class ChunkDataAndUpdateLightPacket implements ClientBoundPacket {
         private final byte packedXZ;
         private final short y;
         private final int type;
-        private final CompoundBinaryTag data;
+        private final LazyCompoundTag data;
 
         @Contract(pure = true)
         public BlockEntity(final byte packedXZ,
@@ -261,6 +340,15 @@ public final class ChunkDataAndUpdateLightPacket implements ClientBoundPacket {
                 final int type,
                 final @NotNull CompoundBinaryTag data) {
 
+            this(packedXZ, y, type, LazyCompoundTag.of(data));
+        }
+
+        @Contract(pure = true)
+        public BlockEntity(final byte packedXZ,
+                final short y,
+                final int type,
+                final @NotNull LazyCompoundTag data) {
+
             Preconditions.requireNotNull(data, "data");
 
             this.packedXZ = packedXZ;
@@ -277,7 +365,7 @@ public final class ChunkDataAndUpdateLightPacket implements ClientBoundPacket {
             this.packedXZ = inputStream.readByte();
             this.y = inputStream.readShort();
             this.type = inputStream.readVarInt();
-            this.data = inputStream.readCompoundTag();
+            this.data = inputStream.readLazyCompoundTag();
         }
 
         @Override
@@ -312,6 +400,12 @@ public final class ChunkDataAndUpdateLightPacket implements ClientBoundPacket {
         @Contract(pure = true)
         public @NotNull CompoundBinaryTag getData() {
 
+            return data.toCompoundTag();
+        }
+
+        @Contract(pure = true)
+        public @NotNull LazyCompoundTag getLazyData() {
+
             return data;
         }
 
@@ -19,16 +19,23 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class CollectItemPacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int collectedEntityId;
+    @Field(FieldType.VAR_INT)
     private final int collectorEntityId;
+    @Field(FieldType.VAR_INT)
     private final int pickupItemCount;
 
     @Contract(pure = true)
@@ -43,11 +50,9 @@ public final class CollectItemPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public CollectItemPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.collectedEntityId = inputStream.readVarInt();
-        this.collectorEntityId = inputStream.readVarInt();
-        this.pickupItemCount = inputStream.readVarInt();
+        this(CollectItemPacketCodec.readCollectedEntityId(inputStream),
+                CollectItemPacketCodec.readCollectorEntityId(inputStream),
+                CollectItemPacketCodec.readPickupItemCount(inputStream));
     }
 
     @Override
@@ -55,9 +60,13 @@ public final class CollectItemPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(collectedEntityId)
-                .writeVarInt(collectorEntityId)
-                .writeVarInt(pickupItemCount);
+        CollectItemPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return CollectItemPacketCodec.INSTANCE.size(this);
     }
 
     @Override
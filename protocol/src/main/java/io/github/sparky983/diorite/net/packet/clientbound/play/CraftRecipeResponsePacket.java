@@ -19,16 +19,22 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.Identifier;
 
+@GenerateCodec
 public final class CraftRecipeResponsePacket implements ClientBoundPacket {
 
+    @Field(FieldType.BYTE)
     private final byte windowId;
+    @Field(FieldType.IDENTIFIER)
     private final Identifier recipe;
 
     @Contract(pure = true)
@@ -43,10 +49,8 @@ public final class CraftRecipeResponsePacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public CraftRecipeResponsePacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.windowId = inputStream.readByte();
-        this.recipe = inputStream.readIdentifier();
+        this(CraftRecipeResponsePacketCodec.readWindowId(inputStream),
+                CraftRecipeResponsePacketCodec.readRecipe(inputStream));
     }
 
     @Override
@@ -54,8 +58,13 @@ public final class CraftRecipeResponsePacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeByte(windowId)
-                .writeIdentifier(recipe);
+        CraftRecipeResponsePacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return CraftRecipeResponsePacketCodec.INSTANCE.size(this);
     }
 
     @Override
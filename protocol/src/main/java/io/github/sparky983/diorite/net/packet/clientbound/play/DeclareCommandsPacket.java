@@ -20,6 +20,7 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.io.ByteArrayStreamOut;
 import io.github.sparky983.diorite.io.DecodeException;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
@@ -30,6 +31,16 @@ import io.github.sparky983.diorite.util.Preconditions;
 @ApiStatus.Experimental
 public final class DeclareCommandsPacket implements ClientBoundPacket {
 
+    private static final int NODE_TYPE_MASK = 0x03;
+    private static final int NODE_TYPE_LITERAL = 1;
+    private static final int NODE_TYPE_ARGUMENT = 2;
+    private static final int HAS_REDIRECT = 0x08;
+    private static final int HAS_SUGGESTIONS_TYPE = 0x10;
+
+    // the flags of number parsers that say whether a min and max follow
+    private static final int HAS_MIN = 0x01;
+    private static final int HAS_MAX = 0x02;
+
     private final int nodeCount;
     private final byte[] nodes; // TODO: Add node data type and implement parsers
     private final int rootIndex;
@@ -51,7 +62,151 @@ public final class DeclareCommandsPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(inputStream, "inputStream");
 
-        throw new DecodeException("Unable to read declare commands packet", true);
+        this.nodeCount = inputStream.readVarInt();
+        if (nodeCount < 0) {
+            throw new DecodeException("Node count must not be negative: " + nodeCount);
+        }
+        // the nodes are read so their end is known, and kept as they were sent
+        try (final ByteArrayStreamOut nodesOutputStream = StreamOut.ofByteArray()) {
+            for (int i = 0; i < nodeCount; i++) {
+                copyNode(inputStream, nodesOutputStream);
+            }
+            this.nodes = nodesOutputStream.toByteArray();
+        }
+        this.rootIndex = inputStream.readVarInt();
+    }
+
+    private static void copyNode(final @NotNull StreamIn inputStream,
+            final @NotNull StreamOut outputStream) {
+
+        final byte flags = inputStream.readByte();
+        outputStream.writeByte(flags)
+                .writeVarIntList(inputStream.readVarIntList());
+
+        if ((flags & HAS_REDIRECT) != 0) {
+            outputStream.writeVarInt(inputStream.readVarInt());
+        }
+
+        final int type = flags & NODE_TYPE_MASK;
+        if (type == NODE_TYPE_LITERAL || type == NODE_TYPE_ARGUMENT) {
+            outputStream.writeString(inputStream.readString());
+        }
+        if (type == NODE_TYPE_ARGUMENT) {
+            final String parser = inputStream.readString();
+            outputStream.writeString(parser);
+            copyParserProperties(parser, inputStream, outputStream);
+            if ((flags & HAS_SUGGESTIONS_TYPE) != 0) {
+                outputStream.writeString(inputStream.readString());
+            }
+        }
+    }
+
+    private static void copyParserProperties(final @NotNull String parser,
+            final @NotNull StreamIn inputStream,
+            final @NotNull StreamOut outputStream) {
+
+        switch (parser) {
+            case "brigadier:double": {
+                final byte flags = inputStream.readByte();
+                outputStream.writeByte(flags);
+                if ((flags & HAS_MIN) != 0) {
+                    outputStream.writeDouble(inputStream.readDouble());
+                }
+                if ((flags & HAS_MAX) != 0) {
+                    outputStream.writeDouble(inputStream.readDouble());
+                }
+                break;
+            }
+            case "brigadier:float": {
+                final byte flags = inputStream.readByte();
+                outputStream.writeByte(flags);
+                if ((flags & HAS_MIN) != 0) {
+                    outputStream.writeFloat(inputStream.readFloat());
+                }
+                if ((flags & HAS_MAX) != 0) {
+                    outputStream.writeFloat(inputStream.readFloat());
+                }
+                break;
+            }
+            case "brigadier:integer": {
+                final byte flags = inputStream.readByte();
+                outputStream.writeByte(flags);
+                if ((flags & HAS_MIN) != 0) {
+                    outputStream.writeInt(inputStream.readInt());
+                }
+                if ((flags & HAS_MAX) != 0) {
+                    outputStream.writeInt(inputStream.readInt());
+                }
+                break;
+            }
+            case "brigadier:long": {
+                final byte flags = inputStream.readByte();
+                outputStream.writeByte(flags);
+                if ((flags & HAS_MIN) != 0) {
+                    outputStream.writeLong(inputStream.readLong());
+                }
+                if ((flags & HAS_MAX) != 0) {
+                    outputStream.writeLong(inputStream.readLong());
+                }
+                break;
+            }
+            case "brigadier:string":
+                outputStream.writeVarInt(inputStream.readVarInt());
+                break;
+            case "minecraft:entity":
+            case "minecraft:score_holder":
+                outputStream.writeByte(inputStream.readByte());
+                break;
+            case "minecraft:range":
+                outputStream.writeBoolean(inputStream.readBoolean());
+                break;
+            case "minecraft:resource":
+            case "minecraft:resource_or_tag":
+                // the registry
+                outputStream.writeString(inputStream.readString());
+                break;
+            case "brigadier:bool":
+            case "minecraft:game_profile":
+            case "minecraft:block_pos":
+            case "minecraft:column_pos":
+            case "minecraft:vec3":
+            case "minecraft:vec2":
+            case "minecraft:block_state":
+            case "minecraft:block_predicate":
+            case "minecraft:item_stack":
+            case "minecraft:item_predicate":
+            case "minecraft:color":
+            case "minecraft:component":
+            case "minecraft:message":
+            case "minecraft:nbt_compound_tag":
+            case "minecraft:nbt_tag":
+            case "minecraft:nbt_path":
+            case "minecraft:objective":
+            case "minecraft:objective_criteria":
+            case "minecraft:operation":
+            case "minecraft:particle":
+            case "minecraft:angle":
+            case "minecraft:rotation":
+            case "minecraft:scoreboard_slot":
+            case "minecraft:swizzle":
+            case "minecraft:team":
+            case "minecraft:item_slot":
+            case "minecraft:resource_location":
+            case "minecraft:mob_effect":
+            case "minecraft:function":
+            case "minecraft:entity_anchor":
+            case "minecraft:int_range":
+            case "minecraft:float_range":
+            case "minecraft:item_enchantment":
+            case "minecraft:entity_summon":
+            case "minecraft:dimension":
+            case "minecraft:uuid":
+            case "minecraft:time":
+                break;
+            default:
+                // the length of an unknown parser's properties can't be known
+                throw new DecodeException("Unknown command argument parser: " + parser, true);
+        }
     }
 
     @Override
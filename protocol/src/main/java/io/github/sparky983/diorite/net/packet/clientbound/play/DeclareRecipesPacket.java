@@ -20,6 +20,9 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.ByteBuffer;
+
+import io.github.sparky983.diorite.io.Buffers;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
@@ -28,7 +31,7 @@ import io.github.sparky983.diorite.util.Preconditions;
 
 public final class DeclareRecipesPacket implements ClientBoundPacket {
 
-    private final byte[] recipes; // TOOD(Sparky983): Do proper parsing of recipes
+    private final ByteBuffer recipes; // TOOD(Sparky983): Do proper parsing of recipes
 
     @ApiStatus.Experimental
     @Contract(pure = true)
@@ -36,7 +39,16 @@ public final class DeclareRecipesPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(recipes, "recipes");
 
-        this.recipes = recipes;
+        this.recipes = Buffers.readOnly(recipes);
+    }
+
+    @ApiStatus.Experimental
+    @Contract(pure = true)
+    public DeclareRecipesPacket(final @NotNull ByteBuffer recipes) {
+
+        Preconditions.requireNotNull(recipes, "recipes");
+
+        this.recipes = Buffers.readOnly(recipes);
     }
 
     @Contract(mutates = "param")
@@ -44,7 +56,7 @@ public final class DeclareRecipesPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(inputStream, "inputStream");
 
-        this.recipes = inputStream.readAllBytes();
+        this.recipes = inputStream.readRemainingBuffer();
     }
 
     @Override
@@ -52,7 +64,7 @@ public final class DeclareRecipesPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeBytes(recipes);
+        outputStream.writeBuffer(recipes);
     }
 
     @Override
@@ -62,9 +74,16 @@ public final class DeclareRecipesPacket implements ClientBoundPacket {
     }
 
     @ApiStatus.Experimental
-    @Contract(pure = true)
+    @Contract(value = "-> new", pure = true)
     public byte @NotNull [] getRecipes() {
 
-        return recipes;
+        return Buffers.toByteArray(recipes);
+    }
+
+    @ApiStatus.Experimental
+    @Contract(value = "-> new", pure = true)
+    public @NotNull ByteBuffer getRecipesBuffer() {
+
+        return recipes.duplicate();
     }
 }
@@ -19,14 +19,19 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class DestroyEntitiesPacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT_ARRAY)
     private final int[] entityIds;
 
     @Contract(pure = true)
@@ -40,14 +45,7 @@ public final class DestroyEntitiesPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public DestroyEntitiesPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        // TODO(Sparky983): make this a StreamIn method
-        final int length = inputStream.readVarInt();
-        this.entityIds = new int[length];
-        for (int i = 0; i < length; i++) {
-            this.entityIds[i] = inputStream.readVarInt();
-        }
+        this(DestroyEntitiesPacketCodec.readEntityIds(inputStream));
     }
 
     @Override
@@ -55,10 +53,13 @@ public final class DestroyEntitiesPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(this.entityIds.length);
-        for (final int entityId : this.entityIds) {
-            outputStream.writeVarInt(entityId);
-        }
+        DestroyEntitiesPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return DestroyEntitiesPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -20,19 +20,27 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.BlockPosition;
 
 @ApiStatus.Experimental
+@GenerateCodec
 public final class EffectPacket implements ClientBoundPacket {
 
+    @Field(FieldType.INT)
     private final int effectId; // TODO(Sparky983): enum
+    @Field(FieldType.BLOCK_POSITION)
     private final BlockPosition location;
+    @Field(FieldType.INT)
     private final int data;
+    @Field(FieldType.BOOLEAN)
     private final boolean disableRelativeVolume;
 
     @Contract(pure = true)
@@ -52,12 +60,10 @@ public final class EffectPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public EffectPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.effectId = inputStream.readInt();
-        this.location = inputStream.readBlockPosition();
-        this.data = inputStream.readInt();
-        this.disableRelativeVolume = inputStream.readBoolean();
+        this(EffectPacketCodec.readEffectId(inputStream),
+                EffectPacketCodec.readLocation(inputStream),
+                EffectPacketCodec.readData(inputStream),
+                EffectPacketCodec.readDisableRelativeVolume(inputStream));
     }
 
     @Override
@@ -65,10 +71,13 @@ public final class EffectPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeInt(effectId)
-                .writeBlockPosition(location)
-                .writeInt(data)
-                .writeBoolean(disableRelativeVolume);
+        EffectPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return EffectPacketCodec.INSTANCE.size(this);
     }
 
     @Override
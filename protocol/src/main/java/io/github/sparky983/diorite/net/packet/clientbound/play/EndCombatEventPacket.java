@@ -19,15 +19,21 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class EndCombatEventPacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int duration;
+    @Field(FieldType.INT)
     private final int entityId;
 
     @Contract(pure = true)
@@ -40,10 +46,8 @@ public final class EndCombatEventPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public EndCombatEventPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.duration = inputStream.readVarInt();
-        this.entityId = inputStream.readInt();
+        this(EndCombatEventPacketCodec.readDuration(inputStream),
+                EndCombatEventPacketCodec.readEntityId(inputStream));
     }
 
     @Override
@@ -51,8 +55,13 @@ public final class EndCombatEventPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(duration)
-                .writeInt(entityId);
+        EndCombatEventPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return EndCombatEventPacketCodec.INSTANCE.size(this);
     }
 
     @Override
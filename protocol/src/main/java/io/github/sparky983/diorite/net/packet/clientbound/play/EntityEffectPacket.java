@@ -19,22 +19,31 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class EntityEffectPacket implements ClientBoundPacket {
 
     private static final byte AMBIENT_BIT = 0b00000001;
     private static final byte SHOW_PARTICLES_BIT = 0b00000010;
     private static final byte SHOW_ICON_BIT = 0b00000100;
 
+    @Field(FieldType.VAR_INT)
     private final int entityId;
+    @Field(FieldType.BYTE)
     private final byte effectId;
+    @Field(FieldType.BYTE)
     private final byte amplifier;
+    @Field(FieldType.VAR_INT)
     private final int duration;
+    @Field(FieldType.BYTE)
     private final byte flags;
 
     @Contract(pure = true)
@@ -52,13 +61,11 @@ public final class EntityEffectPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public EntityEffectPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.entityId = inputStream.readVarInt();
-        this.effectId = inputStream.readByte();
-        this.amplifier = inputStream.readByte();
-        this.duration = inputStream.readVarInt();
-        this.flags = inputStream.readByte();
+        this(EntityEffectPacketCodec.readEntityId(inputStream),
+                EntityEffectPacketCodec.readEffectId(inputStream),
+                EntityEffectPacketCodec.readAmplifier(inputStream),
+                EntityEffectPacketCodec.readDuration(inputStream),
+                EntityEffectPacketCodec.readFlags(inputStream));
     }
 
     @Override
@@ -66,11 +73,13 @@ public final class EntityEffectPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(entityId)
-                .writeByte(effectId)
-                .writeByte(amplifier)
-                .writeVarInt(duration)
-                .writeByte(flags);
+        EntityEffectPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return EntityEffectPacketCodec.INSTANCE.size(this);
     }
 
     @Override
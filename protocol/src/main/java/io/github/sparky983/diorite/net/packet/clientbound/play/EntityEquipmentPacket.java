@@ -23,6 +23,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 
+import io.github.sparky983.diorite.io.DecodeException;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.ItemStack;
@@ -58,12 +59,18 @@ public final class EntityEquipmentPacket implements ClientBoundPacket {
 
         while (true) {
             final byte equipmentId = inputStream.readByte();
+            // the top bit is set on every entry but the last
+            final int slotId = equipmentId & 0x7F;
 
-            final EquipmentSlot equipmentSlot = EquipmentSlot.values()[Math.abs(equipmentId)];
+            if (slotId >= EquipmentSlot.values().length) {
+                throw new DecodeException("Unknown equipment slot " + slotId);
+            }
+
+            final EquipmentSlot equipmentSlot = EquipmentSlot.values()[slotId];
 
             equipment.add(new Equipment(equipmentSlot, ItemStack.readNullable(inputStream)));
 
-            if (equipmentId > 0) {
+            if ((equipmentId & 0x80) == 0) {
                 break;
             }
         }
@@ -80,8 +87,8 @@ public final class EntityEquipmentPacket implements ClientBoundPacket {
 
         for (int i = 0; i < equipment.size(); i++) {
             final Equipment equipment = this.equipment.get(i);
-            final byte equipmentId = (byte) (equipment.getEquipmentSlot().ordinal() *
-                    (i == this.equipment.size() - 1 ? 1 : -1));
+            final byte equipmentId = (byte) (equipment.getEquipmentSlot().ordinal()
+                    | (i == this.equipment.size() - 1 ? 0 : 0x80));
             outputStream.writeByte(equipmentId);
             outputStream.writeNullable(equipment.getItem(), StreamOut::writeWritable);
         }
@@ -115,7 +122,6 @@ public final class EntityEquipmentPacket implements ClientBoundPacket {
                 final @Nullable ItemStack item) {
 
             Preconditions.requireNotNull(equipmentSlot, "equipmentSlot");
-            Preconditions.requireNotNull(item, "item");
 
             this.equipmentSlot = equipmentSlot;
             this.item = item;
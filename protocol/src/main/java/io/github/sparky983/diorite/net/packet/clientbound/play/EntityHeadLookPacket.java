@@ -19,15 +19,21 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class EntityHeadLookPacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int entityId;
+    @Field(FieldType.BYTE)
     private final byte headYaw;
 
     @Contract(pure = true)
@@ -40,10 +46,8 @@ public final class EntityHeadLookPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public EntityHeadLookPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.entityId = inputStream.readVarInt();
-        this.headYaw = inputStream.readByte();
+        this(EntityHeadLookPacketCodec.readEntityId(inputStream),
+                EntityHeadLookPacketCodec.readHeadYaw(inputStream));
     }
 
     @Override
@@ -51,8 +55,13 @@ public final class EntityHeadLookPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(entityId)
-                .writeByte(headYaw);
+        EntityHeadLookPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return EntityHeadLookPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -145,9 +145,9 @@ public abstract class EntityMovementPacket implements ClientBoundPacket {
         public void write(final @NotNull StreamOut outputStream) {
 
             outputStream.writeVarInt(entityId)
-                    .writeDouble(dx)
-                    .writeDouble(dy)
-                    .writeDouble(dz)
+                    .writeShort(dx)
+                    .writeShort(dy)
+                    .writeShort(dz)
                     .writeBoolean(isOnGround);
         }
 
@@ -189,9 +189,9 @@ public abstract class EntityMovementPacket implements ClientBoundPacket {
         public void write(final @NotNull StreamOut outputStream) {
 
             outputStream.writeVarInt(entityId)
-                    .writeDouble(dx)
-                    .writeDouble(dy)
-                    .writeDouble(dz)
+                    .writeShort(dx)
+                    .writeShort(dy)
+                    .writeShort(dz)
                     .writeDirection(direction)
                     .writeBoolean(isOnGround);
         }
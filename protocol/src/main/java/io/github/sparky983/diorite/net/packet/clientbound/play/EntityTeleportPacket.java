@@ -19,19 +19,27 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.Direction;
 import io.github.sparky983.diorite.world.Position;
 
+@GenerateCodec
 public final class EntityTeleportPacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int entityId;
+    @Field(FieldType.POSITION)
     private final Position location;
+    @Field(FieldType.DIRECTION)
     private final Direction direction;
+    @Field(FieldType.BOOLEAN)
     private final boolean isOnGround;
 
     @Contract(pure = true)
@@ -52,12 +60,10 @@ public final class EntityTeleportPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public EntityTeleportPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.entityId = inputStream.readVarInt();
-        this.location = inputStream.readPosition();
-        this.direction = inputStream.readDirection();
-        this.isOnGround = inputStream.readBoolean();
+        this(EntityTeleportPacketCodec.readEntityId(inputStream),
+                EntityTeleportPacketCodec.readLocation(inputStream),
+                EntityTeleportPacketCodec.readDirection(inputStream),
+                EntityTeleportPacketCodec.readIsOnGround(inputStream));
     }
 
     @Override
@@ -65,10 +71,13 @@ public final class EntityTeleportPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(entityId)
-                .writePosition(location)
-                .writeDirection(direction)
-                .writeBoolean(isOnGround);
+        EntityTeleportPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return EntityTeleportPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,16 +19,22 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.Velocity;
 
+@GenerateCodec
 public final class EntityVelocityPacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int entityId;
+    @Field(FieldType.VELOCITY)
     private final Velocity velocity;
 
     @Contract(pure = true)
@@ -43,10 +49,8 @@ public final class EntityVelocityPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public EntityVelocityPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.entityId = inputStream.readVarInt();
-        this.velocity = inputStream.readVelocity();
+        this(EntityVelocityPacketCodec.readEntityId(inputStream),
+                EntityVelocityPacketCodec.readVelocity(inputStream));
     }
 
     @Override
@@ -54,8 +58,13 @@ public final class EntityVelocityPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(entityId)
-                .writeVelocity(velocity);
+        EntityVelocityPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return EntityVelocityPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,21 +19,33 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class InitializeWorldBorderPacket implements ClientBoundPacket {
 
+    @Field(FieldType.DOUBLE)
     private final double x;
+    @Field(FieldType.DOUBLE)
     private final double y;
+    @Field(FieldType.DOUBLE)
     private final double previousDiameter;
+    @Field(FieldType.DOUBLE)
     private final double newDiameter;
+    @Field(FieldType.VAR_LONG)
     private final long speed;
+    @Field(FieldType.VAR_INT)
     private final int portalTeleportBoundary;
+    @Field(FieldType.VAR_INT)
     private final int warningBlocks;
+    @Field(FieldType.VAR_INT)
     private final int warningTime;
 
     @Contract(pure = true)
@@ -59,16 +71,14 @@ public final class InitializeWorldBorderPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public InitializeWorldBorderPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.x = inputStream.readDouble();
-        this.y = inputStream.readDouble();
-        this.previousDiameter = inputStream.readDouble();
-        this.newDiameter = inputStream.readDouble();
-        this.speed = inputStream.readVarLong();
-        this.portalTeleportBoundary = inputStream.readVarInt();
-        this.warningBlocks = inputStream.readVarInt();
-        this.warningTime = inputStream.readVarInt();
+        this(InitializeWorldBorderPacketCodec.readX(inputStream),
+                InitializeWorldBorderPacketCodec.readY(inputStream),
+                InitializeWorldBorderPacketCodec.readPreviousDiameter(inputStream),
+                InitializeWorldBorderPacketCodec.readNewDiameter(inputStream),
+                InitializeWorldBorderPacketCodec.readSpeed(inputStream),
+                InitializeWorldBorderPacketCodec.readPortalTeleportBoundary(inputStream),
+                InitializeWorldBorderPacketCodec.readWarningBlocks(inputStream),
+                InitializeWorldBorderPacketCodec.readWarningTime(inputStream));
     }
 
     @Override
@@ -76,14 +86,13 @@ public final class InitializeWorldBorderPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeDouble(x)
-                .writeDouble(y)
-                .writeDouble(previousDiameter)
-                .writeDouble(newDiameter)
-                .writeVarLong(speed)
-                .writeVarInt(portalTeleportBoundary)
-                .writeVarInt(warningBlocks)
-                .writeVarInt(warningTime);
+        InitializeWorldBorderPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return InitializeWorldBorderPacketCodec.INSTANCE.size(this);
     }
 
     @Override
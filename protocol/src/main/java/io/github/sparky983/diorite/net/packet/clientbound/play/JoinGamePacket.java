@@ -25,6 +25,7 @@ import org.jetbrains.annotations.Range;
 
 import java.util.List;
 
+import io.github.sparky983.diorite.io.DecodeException;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
@@ -105,6 +106,8 @@ public final class JoinGamePacket implements ClientBoundPacket {
 
         if (previousGamemodeId == -1) {
             this.previousGamemode = null;
+        } else if (previousGamemodeId < 0 || previousGamemodeId >= Gamemode.values().length) {
+            throw new DecodeException("Unknown previous gamemode " + previousGamemodeId);
         } else {
             this.previousGamemode = Gamemode.values()[previousGamemodeId];
         }
@@ -127,7 +130,7 @@ public final class JoinGamePacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(entityId)
+        outputStream.writeInt(entityId)
                 .writeBoolean(isHardcore)
                 .writeUnsignedByteEnum(gamemode);
 
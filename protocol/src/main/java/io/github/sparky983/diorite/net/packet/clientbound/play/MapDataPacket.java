@@ -66,7 +66,8 @@ public final class MapDataPacket implements ClientBoundPacket {
         this.mapId = inputStream.readVarInt();
         this.scale = inputStream.readByte();
         this.locked = inputStream.readBoolean();
-        this.icons = inputStream.readList(Icon::new);
+        // the icons are prefixed by whether they're present, like they're written
+        this.icons = inputStream.readBoolean() ? inputStream.readList(Icon::new) : null;
 
         final int columns = inputStream.readUnsignedByte();
 
@@ -263,6 +264,7 @@ public final class MapDataPacket implements ClientBoundPacket {
                 final byte z,
                 final byte @NotNull [] colors) {
 
+            Preconditions.requireRange(columns, 1, 0xFF, "columns");
             Preconditions.requireNotNull(colors, "colors");
 
             this.columns = columns;
@@ -277,11 +279,11 @@ public final class MapDataPacket implements ClientBoundPacket {
 
             Preconditions.requireNotNull(outputStream, "outputStream");
 
-            outputStream.writeVarInt(columns)
+            outputStream.writeUnsignedByte(columns)
                     .writeByte(rows)
                     .writeByte(x)
                     .writeByte(z)
-                    .writeBytes(colors);
+                    .writeByteList(colors);
         }
 
         @Contract(pure = true)
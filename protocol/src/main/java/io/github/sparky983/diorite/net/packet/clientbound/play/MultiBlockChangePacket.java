@@ -20,18 +20,25 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
 @ApiStatus.Experimental
+@GenerateCodec
 public final class MultiBlockChangePacket implements ClientBoundPacket {
 
     // TODO(Sparky983): do better decoding of chunk section position and blocks
+    @Field(FieldType.LONG)
     private final long chunkSectionPosition;
+    @Field(FieldType.BOOLEAN)
     private final boolean suppressLightUpdates;
+    @Field(FieldType.LONG_ARRAY)
     private final long[] blocks;
 
     @Contract(pure = true)
@@ -49,16 +56,9 @@ public final class MultiBlockChangePacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public MultiBlockChangePacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.chunkSectionPosition = inputStream.readLong();
-        this.suppressLightUpdates = inputStream.readBoolean();
-
-        final int blocksLength = inputStream.readVarInt();
-        this.blocks = new long[blocksLength];
-        for (int i = 0; i < blocksLength; i++) {
-            this.blocks[i] = inputStream.readLong();
-        }
+        this(MultiBlockChangePacketCodec.readChunkSectionPosition(inputStream),
+                MultiBlockChangePacketCodec.readSuppressLightUpdates(inputStream),
+                MultiBlockChangePacketCodec.readBlocks(inputStream));
     }
 
     @Override
@@ -66,13 +66,13 @@ public final class MultiBlockChangePacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeLong(chunkSectionPosition)
-                .writeBoolean(suppressLightUpdates)
-                .writeVarInt(blocks.length);
+        MultiBlockChangePacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
 
-        for (final long block : blocks) {
-            outputStream.writeLong(block);
-        }
+        return MultiBlockChangePacketCodec.INSTANCE.size(this);
     }
 
     @Override
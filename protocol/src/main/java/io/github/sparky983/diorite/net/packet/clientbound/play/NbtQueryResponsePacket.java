@@ -21,6 +21,7 @@ import net.kyori.adventure.nbt.CompoundBinaryTag;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.io.LazyCompoundTag;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
@@ -30,11 +31,17 @@ import io.github.sparky983.diorite.util.Preconditions;
 public final class NbtQueryResponsePacket implements ClientBoundPacket {
 
     private final int transactionId;
-    private final CompoundBinaryTag nbt;
+    private final LazyCompoundTag nbt;
 
     @Contract(pure = true)
     public NbtQueryResponsePacket(final int transactionId, final @NotNull CompoundBinaryTag nbt) {
 
+        this(transactionId, LazyCompoundTag.of(nbt));
+    }
+
+    @Contract(pure = true)
+    public NbtQueryResponsePacket(final int transactionId, final @NotNull LazyCompoundTag nbt) {
+
         Preconditions.requireNotNull(nbt, "nbt");
 
         this.transactionId = transactionId;
@@ -47,7 +54,7 @@ public final class NbtQueryResponsePacket implements ClientBoundPacket {
         Preconditions.requireNotNull(inputStream, "inputStream");
 
         this.transactionId = inputStream.readVarInt();
-        this.nbt = inputStream.readCompoundTag();
+        this.nbt = inputStream.readLazyCompoundTag();
     }
 
     @Override
@@ -74,6 +81,12 @@ public final class NbtQueryResponsePacket implements ClientBoundPacket {
     @Contract(pure = true)
     public @NotNull CompoundBinaryTag getNbt() {
 
+        return nbt.toCompoundTag();
+    }
+
+    @Contract(pure = true)
+    public @NotNull LazyCompoundTag getLazyNbt() {
+
         return nbt;
     }
 }
@@ -19,16 +19,23 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class OpenHorseWindowPacket implements ClientBoundPacket {
 
+    @Field(FieldType.BYTE)
     private final byte windowId;
+    @Field(FieldType.VAR_INT)
     private final int slots;
+    @Field(FieldType.INT)
     private final int entityId;
 
     @Contract(pure = true)
@@ -44,11 +51,9 @@ public final class OpenHorseWindowPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public OpenHorseWindowPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.windowId = inputStream.readByte();
-        this.slots = inputStream.readVarInt();
-        this.entityId = inputStream.readInt();
+        this(OpenHorseWindowPacketCodec.readWindowId(inputStream),
+                OpenHorseWindowPacketCodec.readSlots(inputStream),
+                OpenHorseWindowPacketCodec.readEntityId(inputStream));
     }
 
     @Override
@@ -56,9 +61,13 @@ public final class OpenHorseWindowPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeByte(windowId)
-                .writeVarInt(slots)
-                .writeInt(entityId);
+        OpenHorseWindowPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return OpenHorseWindowPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,15 +19,20 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.BlockPosition;
 
+@GenerateCodec
 public final class OpenSignEditorPacket implements ClientBoundPacket {
 
+    @Field(FieldType.BLOCK_POSITION)
     private final BlockPosition location;
 
     @Contract(pure = true)
@@ -41,9 +46,7 @@ public final class OpenSignEditorPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public OpenSignEditorPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.location = inputStream.readBlockPosition();
+        this(OpenSignEditorPacketCodec.readLocation(inputStream));
     }
 
     @Override
@@ -51,7 +54,13 @@ public final class OpenSignEditorPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeBlockPosition(location);
+        OpenSignEditorPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return OpenSignEditorPacketCodec.INSTANCE.size(this);
     }
 
     @Override
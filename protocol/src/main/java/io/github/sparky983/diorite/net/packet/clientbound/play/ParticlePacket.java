@@ -20,6 +20,9 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.ByteBuffer;
+
+import io.github.sparky983.diorite.io.Buffers;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
@@ -37,7 +40,7 @@ public final class ParticlePacket implements ClientBoundPacket {
     private final Vector offset;
     private final float particleData;
     private final int particleCount;
-    private final byte[] data;
+    private final ByteBuffer data;
 
     @Contract(pure = true)
     public ParticlePacket(final int particleId,
@@ -58,7 +61,7 @@ public final class ParticlePacket implements ClientBoundPacket {
         this.offset = offset;
         this.particleData = particleData;
         this.particleCount = particleCount;
-        this.data = data;
+        this.data = Buffers.readOnly(data);
     }
 
     @Contract(mutates = "param")
@@ -77,7 +80,7 @@ public final class ParticlePacket implements ClientBoundPacket {
 
         this.particleData = inputStream.readFloat();
         this.particleCount = inputStream.readInt();
-        this.data = inputStream.readAllBytes();
+        this.data = inputStream.readRemainingBuffer();
     }
 
     @Override
@@ -93,7 +96,7 @@ public final class ParticlePacket implements ClientBoundPacket {
                 .writeFloat((float) offset.getZ())
                 .writeFloat(particleData)
                 .writeInt(particleCount)
-                .writeBytes(data);
+                .writeBuffer(data);
     }
 
     @Override
@@ -138,9 +141,15 @@ public final class ParticlePacket implements ClientBoundPacket {
         return particleCount;
     }
 
-    @Contract(pure = true)
+    @Contract(value = "-> new", pure = true)
     public byte @NotNull [] getData() {
 
-        return data;
+        return Buffers.toByteArray(data);
+    }
+
+    @Contract(value = "-> new", pure = true)
+    public @NotNull ByteBuffer getDataBuffer() {
+
+        return data.duplicate();
     }
 }
@@ -19,14 +19,19 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class PingPacket implements ClientBoundPacket {
 
+    @Field(FieldType.INT)
     private final int pingId;
 
     @Contract(pure = true)
@@ -38,9 +43,7 @@ public final class PingPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public PingPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.pingId = inputStream.readInt();
+        this(PingPacketCodec.readPingId(inputStream));
     }
 
     @Override
@@ -48,7 +51,13 @@ public final class PingPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeInt(pingId);
+        PingPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return PingPacketCodec.INSTANCE.size(this);
     }
 
     @Override
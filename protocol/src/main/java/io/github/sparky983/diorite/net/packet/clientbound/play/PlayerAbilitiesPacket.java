@@ -19,12 +19,16 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class PlayerAbilitiesPacket implements ClientBoundPacket {
 
     private static final byte INVULNERABLE_BIT = 0b00000001;
@@ -32,8 +36,11 @@ public final class PlayerAbilitiesPacket implements ClientBoundPacket {
     private static final byte ALLOW_FLYING_BIT = 0b00000100;
     private static final byte CREATIVE_MODE_BIT = 0b00001000;
 
+    @Field(FieldType.BYTE)
     private final byte flags;
+    @Field(FieldType.FLOAT)
     private final float flyingSpeed;
+    @Field(FieldType.FLOAT)
     private final float fieldOfViewModifier;
 
     @Contract(pure = true)
@@ -49,11 +56,9 @@ public final class PlayerAbilitiesPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public PlayerAbilitiesPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.flags = inputStream.readByte();
-        this.flyingSpeed = inputStream.readFloat();
-        this.fieldOfViewModifier = inputStream.readFloat();
+        this(PlayerAbilitiesPacketCodec.readFlags(inputStream),
+                PlayerAbilitiesPacketCodec.readFlyingSpeed(inputStream),
+                PlayerAbilitiesPacketCodec.readFieldOfViewModifier(inputStream));
     }
 
     @Override
@@ -61,9 +66,13 @@ public final class PlayerAbilitiesPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeByte(flags)
-                .writeFloat(flyingSpeed)
-                .writeFloat(fieldOfViewModifier);
+        PlayerAbilitiesPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return PlayerAbilitiesPacketCodec.INSTANCE.size(this);
     }
 
     @Override
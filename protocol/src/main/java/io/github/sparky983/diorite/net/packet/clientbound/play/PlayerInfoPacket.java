@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.UUID;
 import java.util.function.Function;
 
+import io.github.sparky983.diorite.io.LazyComponent;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.io.Writable;
@@ -156,7 +157,7 @@ public final class PlayerInfoPacket implements ClientBoundPacket {
         private final List<Property> properties;
         private final Gamemode gamemode;
         private final int ping;
-        private final @Nullable Component displayName;
+        private final @Nullable LazyComponent displayName;
 
         @Contract(pure = true)
         public AddPlayerAction(final @NotNull String name,
@@ -165,6 +166,17 @@ public final class PlayerInfoPacket implements ClientBoundPacket {
                 final int ping,
                 final @Nullable Component displayName) {
 
+            this(name, properties, gamemode, ping,
+                    displayName == null ? null : LazyComponent.of(displayName));
+        }
+
+        @Contract(pure = true)
+        public AddPlayerAction(final @NotNull String name,
+                final @NotNull List<@NotNull Property> properties,
+                final @NotNull Gamemode gamemode,
+                final int ping,
+                final @Nullable LazyComponent displayName) {
+
             Preconditions.requireNotNull(name, "name");
             Preconditions.requireNotNull(properties, "properties");
             Preconditions.requireNotNull(gamemode, "gamemode");
@@ -185,7 +197,7 @@ public final class PlayerInfoPacket implements ClientBoundPacket {
             this.properties = inputStream.readList(Property::new);
             this.gamemode = inputStream.readVarIntEnum(Gamemode.class);
             this.ping = inputStream.readVarInt();
-            this.displayName = inputStream.readOptional(StreamIn::readComponent).orElse(null);
+            this.displayName = inputStream.readOptional(StreamIn::readLazyComponent).orElse(null);
         }
 
         @Override
@@ -230,9 +242,23 @@ public final class PlayerInfoPacket implements ClientBoundPacket {
             return ping;
         }
 
+        /**
+         * Returns the display name, deserializing it on the first call.
+         *
+         * @return The display name, or {@code null} if there is none.
+         * @throws io.github.sparky983.diorite.io.DecodeException if the display name is well-formed
+         *         JSON but isn't a valid component.
+         * @since 1.0.0
+         */
         @Contract(pure = true)
         public @Nullable Component getDisplayName() {
 
+            return displayName == null ? null : displayName.get();
+        }
+
+        @Contract(pure = true)
+        public @Nullable LazyComponent getLazyDisplayName() {
+
             return displayName;
         }
     }
@@ -319,11 +345,17 @@ public final class PlayerInfoPacket implements ClientBoundPacket {
 
     public static final class UpdateDisplayNameAction implements Action {
 
-        private final @Nullable Component displayName;
+        private final @Nullable LazyComponent displayName;
 
         @Contract(pure = true)
         public UpdateDisplayNameAction(final @Nullable Component displayName) {
 
+            this(displayName == null ? null : LazyComponent.of(displayName));
+        }
+
+        @Contract(pure = true)
+        public UpdateDisplayNameAction(final @Nullable LazyComponent displayName) {
+
             this.displayName = displayName;
         }
 
@@ -332,7 +364,7 @@ public final class PlayerInfoPacket implements ClientBoundPacket {
 
             Preconditions.requireNotNull(inputStream, "inputStream");
 
-            this.displayName = inputStream.readOptional(StreamIn::readComponent).orElse(null);
+            this.displayName = inputStream.readOptional(StreamIn::readLazyComponent).orElse(null);
         }
 
         @Override
@@ -349,9 +381,23 @@ public final class PlayerInfoPacket implements ClientBoundPacket {
             return ActionType.UPDATE_DISPLAY_NAME;
         }
 
+        /**
+         * Returns the display name, deserializing it on the first call.
+         *
+         * @return The display name, or {@code null} if there is none.
+         * @throws io.github.sparky983.diorite.io.DecodeException if the display name is well-formed
+         *         JSON but isn't a valid component.
+         * @since 1.0.0
+         */
         @Contract(pure = true)
         public @Nullable Component getDisplayName() {
 
+            return displayName == null ? null : displayName.get();
+        }
+
+        @Contract(pure = true)
+        public @Nullable LazyComponent getLazyDisplayName() {
+
             return displayName;
         }
     }
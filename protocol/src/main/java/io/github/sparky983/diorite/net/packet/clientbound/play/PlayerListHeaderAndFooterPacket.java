@@ -21,6 +21,7 @@ import net.kyori.adventure.text.Component;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.io.LazyComponent;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
@@ -29,13 +30,20 @@ import io.github.sparky983.diorite.util.Preconditions;
 
 public final class PlayerListHeaderAndFooterPacket implements ClientBoundPacket {
 
-    private final Component header;
-    private final Component footer;
+    private final LazyComponent header;
+    private final LazyComponent footer;
 
     @Contract(pure = true)
     public PlayerListHeaderAndFooterPacket(final @NotNull Component header,
             final @NotNull Component footer) {
 
+        this(LazyComponent.of(header), LazyComponent.of(footer));
+    }
+
+    @Contract(pure = true)
+    public PlayerListHeaderAndFooterPacket(final @NotNull LazyComponent header,
+            final @NotNull LazyComponent footer) {
+
         Preconditions.requireNotNull(header, "header");
         Preconditions.requireNotNull(footer, "footer");
 
@@ -48,8 +56,8 @@ public final class PlayerListHeaderAndFooterPacket implements ClientBoundPacket
 
         Preconditions.requireNotNull(inputStream, "inputStream");
 
-        this.header = inputStream.readComponent();
-        this.footer = inputStream.readComponent();
+        this.header = inputStream.readLazyComponent();
+        this.footer = inputStream.readLazyComponent();
     }
 
     @Override
@@ -67,15 +75,43 @@ public final class PlayerListHeaderAndFooterPacket implements ClientBoundPacket
         return ClientBoundPacketId.Play.PLAYER_LIST_HEADER_FOOTER;
     }
 
+    /**
+     * Returns the header, deserializing it on the first call.
+     *
+     * @return The header.
+     * @throws io.github.sparky983.diorite.io.DecodeException if the header is well-formed JSON but
+     *         isn't a valid component.
+     * @since 1.0.0
+     */
     @Contract(pure = true)
     public @NotNull Component getHeader() {
 
+        return header.get();
+    }
+
+    @Contract(pure = true)
+    public @NotNull LazyComponent getLazyHeader() {
+
         return header;
     }
 
+    /**
+     * Returns the footer, deserializing it on the first call.
+     *
+     * @return The footer.
+     * @throws io.github.sparky983.diorite.io.DecodeException if the footer is well-formed JSON but
+     *         isn't a valid component.
+     * @since 1.0.0
+     */
     @Contract(pure = true)
     public @NotNull Component getFooter() {
 
+        return footer.get();
+    }
+
+    @Contract(pure = true)
+    public @NotNull LazyComponent getLazyFooter() {
+
         return footer;
     }
 }
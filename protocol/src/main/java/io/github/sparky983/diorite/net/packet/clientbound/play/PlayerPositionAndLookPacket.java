@@ -19,13 +19,17 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.Position;
 
+@GenerateCodec
 public final class PlayerPositionAndLookPacket implements ClientBoundPacket {
 
     private final byte X_IS_RELATIVE_BIT = 0b00000001;
@@ -34,11 +38,17 @@ public final class PlayerPositionAndLookPacket implements ClientBoundPacket {
     private final byte Y_ROT_IS_RELATIVE_BIT = 0b00001000;
     private final byte X_ROT_IS_RELATIVE_BIT = 0b00010000;
 
+    @Field(FieldType.POSITION)
     private final Position location;
+    @Field(FieldType.FLOAT)
     private final float yaw;
+    @Field(FieldType.FLOAT)
     private final float pitch;
+    @Field(FieldType.BYTE)
     private final byte flags;
+    @Field(FieldType.VAR_INT)
     private final int teleportId;
+    @Field(FieldType.BOOLEAN)
     private final boolean dismountVehicle;
 
     @Contract(pure = true)
@@ -62,14 +72,12 @@ public final class PlayerPositionAndLookPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public PlayerPositionAndLookPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.location = inputStream.readPosition();
-        this.yaw = inputStream.readFloat();
-        this.pitch = inputStream.readFloat();
-        this.flags = inputStream.readByte();
-        this.teleportId = inputStream.readVarInt();
-        this.dismountVehicle = inputStream.readBoolean();
+        this(PlayerPositionAndLookPacketCodec.readLocation(inputStream),
+                PlayerPositionAndLookPacketCodec.readYaw(inputStream),
+                PlayerPositionAndLookPacketCodec.readPitch(inputStream),
+                PlayerPositionAndLookPacketCodec.readFlags(inputStream),
+                PlayerPositionAndLookPacketCodec.readTeleportId(inputStream),
+                PlayerPositionAndLookPacketCodec.readDismountVehicle(inputStream));
     }
 
     @Override
@@ -77,12 +85,13 @@ public final class PlayerPositionAndLookPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writePosition(location)
-                .writeFloat(yaw)
-                .writeFloat(pitch)
-                .writeByte(flags)
-                .writeVarInt(teleportId)
-                .writeBoolean(dismountVehicle);
+        PlayerPositionAndLookPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return PlayerPositionAndLookPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,6 +19,9 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.ByteBuffer;
+
+import io.github.sparky983.diorite.io.Buffers;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
@@ -29,7 +32,7 @@ import io.github.sparky983.diorite.world.Identifier;
 public final class PluginMessagePacket implements ClientBoundPacket {
 
     private final Identifier channel;
-    private final byte[] data;
+    private final ByteBuffer data;
 
     @Contract(pure = true)
     public PluginMessagePacket(final @NotNull Identifier channel, final byte @NotNull [] data) {
@@ -39,7 +42,17 @@ public final class PluginMessagePacket implements ClientBoundPacket {
         Preconditions.requireNotNull(data, "data");
 
         this.channel = channel;
-        this.data = data;
+        this.data = Buffers.readOnly(data);
+    }
+
+    @Contract(pure = true)
+    public PluginMessagePacket(final @NotNull Identifier channel, final @NotNull ByteBuffer data) {
+
+        Preconditions.requireNotNull(channel, "channel");
+        Preconditions.requireNotNull(data, "data");
+
+        this.channel = channel;
+        this.data = Buffers.readOnly(data);
     }
 
     @Contract(mutates = "param")
@@ -49,7 +62,7 @@ public final class PluginMessagePacket implements ClientBoundPacket {
         Preconditions.requireNotNull(inputStream, "inputStream");
 
         this.channel = inputStream.readIdentifier();
-        this.data = inputStream.readAllBytes();
+        this.data = inputStream.readRemainingBuffer();
     }
 
     @Override
@@ -58,7 +71,7 @@ public final class PluginMessagePacket implements ClientBoundPacket {
         Preconditions.requireNotNull(outputStream, "outputStream");
 
         outputStream.writeIdentifier(channel)
-                .writeBytes(data);
+                .writeBuffer(data);
     }
 
     @Override
@@ -73,9 +86,15 @@ public final class PluginMessagePacket implements ClientBoundPacket {
         return channel;
     }
 
-    @Contract(pure = true)
+    @Contract(value = "-> new", pure = true)
     public byte @NotNull [] getData() {
 
-        return data;
+        return Buffers.toByteArray(data);
+    }
+
+    @Contract(value = "-> new", pure = true)
+    public @NotNull ByteBuffer getDataBuffer() {
+
+        return data.duplicate();
     }
 }
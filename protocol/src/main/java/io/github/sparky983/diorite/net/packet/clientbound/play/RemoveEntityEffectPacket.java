@@ -20,16 +20,22 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
 @ApiStatus.Experimental
+@GenerateCodec
 public final class RemoveEntityEffectPacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int entityId;
+    @Field(FieldType.BYTE)
     private final byte effectId; // TODO(Sparky983): better representation? enum?
 
     @Contract(pure = true)
@@ -42,10 +48,8 @@ public final class RemoveEntityEffectPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public RemoveEntityEffectPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.entityId = inputStream.readVarInt();
-        this.effectId = inputStream.readByte();
+        this(RemoveEntityEffectPacketCodec.readEntityId(inputStream),
+                RemoveEntityEffectPacketCodec.readEffectId(inputStream));
     }
 
     @Override
@@ -53,8 +57,13 @@ public final class RemoveEntityEffectPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(this.entityId)
-                .writeByte(this.effectId);
+        RemoveEntityEffectPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return RemoveEntityEffectPacketCodec.INSTANCE.size(this);
     }
 
     @Override
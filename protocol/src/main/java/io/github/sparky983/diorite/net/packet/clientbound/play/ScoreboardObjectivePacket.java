@@ -22,6 +22,7 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import io.github.sparky983.diorite.io.LazyComponent;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.io.Writable;
@@ -105,7 +106,7 @@ public final class ScoreboardObjectivePacket implements ClientBoundPacket {
     public static final class Action implements Writable {
 
         private final ActionType mode;
-        private final Component objectiveValue;
+        private final LazyComponent objectiveValue;
         private final Type type;
 
         @Contract(pure = true)
@@ -113,6 +114,14 @@ public final class ScoreboardObjectivePacket implements ClientBoundPacket {
                 final @NotNull Component objectiveValue,
                 final @NotNull Type type) {
 
+            this(mode, LazyComponent.of(objectiveValue), type);
+        }
+
+        @Contract(pure = true)
+        public Action(final @NotNull ActionType mode,
+                final @NotNull LazyComponent objectiveValue,
+                final @NotNull Type type) {
+
             Preconditions.requireNotNull(mode, "mode");
             Preconditions.requireNotNull(objectiveValue, "objectiveValue");
             Preconditions.requireNotNull(type, "type");
@@ -132,7 +141,7 @@ public final class ScoreboardObjectivePacket implements ClientBoundPacket {
                 return null;
             }
 
-            final Component objectiveValue = inputStream.readComponent();
+            final LazyComponent objectiveValue = inputStream.readLazyComponent();
             final Type type = inputStream.readVarIntEnum(Type.class);
 
             return new Action(
@@ -158,9 +167,23 @@ public final class ScoreboardObjectivePacket implements ClientBoundPacket {
             return mode;
         }
 
+        /**
+         * Returns the objective value, deserializing it on the first call.
+         *
+         * @return The objective value.
+         * @throws io.github.sparky983.diorite.io.DecodeException if the objective value is well-
+         *         formed JSON but isn't a valid component.
+         * @since 1.0.0
+         */
         @Contract(pure = true)
         public @NotNull Component getObjectiveValue() {
 
+            return objectiveValue.get();
+        }
+
+        @Contract(pure = true)
+        public @NotNull LazyComponent getLazyObjectiveValue() {
+
             return objectiveValue;
         }
 
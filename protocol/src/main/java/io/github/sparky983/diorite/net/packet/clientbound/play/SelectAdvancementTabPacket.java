@@ -20,15 +20,20 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.Identifier;
 
+@GenerateCodec
 public final class SelectAdvancementTabPacket implements ClientBoundPacket {
 
+    @Field(value = FieldType.IDENTIFIER, nullable = true)
     private final @Nullable Identifier identifier;
 
     @Contract(pure = true)
@@ -40,9 +45,7 @@ public final class SelectAdvancementTabPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public SelectAdvancementTabPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.identifier = inputStream.readOptional(StreamIn::readIdentifier).orElse(null);
+        this(SelectAdvancementTabPacketCodec.readIdentifier(inputStream));
     }
 
     @Override
@@ -50,7 +53,13 @@ public final class SelectAdvancementTabPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeNullable(identifier, StreamOut::writeIdentifier);
+        SelectAdvancementTabPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return SelectAdvancementTabPacketCodec.INSTANCE.size(this);
     }
 
     @Override
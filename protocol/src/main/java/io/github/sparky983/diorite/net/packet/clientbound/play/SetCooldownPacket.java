@@ -19,15 +19,21 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class SetCooldownPacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int itemId;
+    @Field(FieldType.VAR_INT)
     private final int cooldownTicks;
 
     @Contract(pure = true)
@@ -40,10 +46,8 @@ public final class SetCooldownPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public SetCooldownPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.itemId = inputStream.readVarInt();
-        this.cooldownTicks = inputStream.readVarInt();
+        this(SetCooldownPacketCodec.readItemId(inputStream),
+                SetCooldownPacketCodec.readCooldownTicks(inputStream));
     }
 
     @Override
@@ -51,8 +55,13 @@ public final class SetCooldownPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(itemId)
-                .writeVarInt(cooldownTicks);
+        SetCooldownPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return SetCooldownPacketCodec.INSTANCE.size(this);
     }
 
     @Override
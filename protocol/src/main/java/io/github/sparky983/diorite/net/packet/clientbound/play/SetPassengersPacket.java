@@ -19,15 +19,21 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class SetPassengersPacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int entityId;
+    @Field(FieldType.VAR_INT_ARRAY)
     private final int[] passengerIds;
 
     @Contract(pure = true)
@@ -44,16 +50,8 @@ public final class SetPassengersPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public SetPassengersPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.entityId = inputStream.readVarInt();
-
-        final int passengerCount = inputStream.readVarInt();
-        passengerIds = new int[passengerCount];
-
-        for (int i = 0; i < passengerCount; i++) {
-            passengerIds[i] = inputStream.readVarInt();
-        }
+        this(SetPassengersPacketCodec.readEntityId(inputStream),
+                SetPassengersPacketCodec.readPassengerIds(inputStream));
     }
 
     @Override
@@ -61,12 +59,13 @@ public final class SetPassengersPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(entityId)
-                .writeVarInt(passengerIds.length);
+        SetPassengersPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
 
-        for (final int passengerId : passengerIds) {
-            outputStream.writeVarInt(passengerId);
-        }
+        return SetPassengersPacketCodec.INSTANCE.size(this);
     }
 
     @Override
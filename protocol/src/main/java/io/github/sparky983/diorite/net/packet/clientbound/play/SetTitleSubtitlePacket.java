@@ -21,6 +21,7 @@ import net.kyori.adventure.text.Component;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.io.LazyComponent;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
@@ -29,11 +30,17 @@ import io.github.sparky983.diorite.util.Preconditions;
 
 public final class SetTitleSubtitlePacket implements ClientBoundPacket {
 
-    private final Component subtitleText;
+    private final LazyComponent subtitleText;
 
     @Contract(pure = true)
     public SetTitleSubtitlePacket(final @NotNull Component subtitleText) {
 
+        this(LazyComponent.of(subtitleText));
+    }
+
+    @Contract(pure = true)
+    public SetTitleSubtitlePacket(final @NotNull LazyComponent subtitleText) {
+
         Preconditions.requireNotNull(subtitleText, "subtitleText");
 
         this.subtitleText = subtitleText;
@@ -44,7 +51,7 @@ public final class SetTitleSubtitlePacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(inputStream, "inputStream");
 
-        this.subtitleText = inputStream.readComponent();
+        this.subtitleText = inputStream.readLazyComponent();
     }
 
     @Override
@@ -61,9 +68,23 @@ public final class SetTitleSubtitlePacket implements ClientBoundPacket {
         return ClientBoundPacketId.Play.SET_TITLE_SUBTITLE;
     }
 
+    /**
+     * Returns the subtitle text, deserializing it on the first call.
+     *
+     * @return The subtitle text.
+     * @throws io.github.sparky983.diorite.io.DecodeException if the subtitle text is well-formed
+     *         JSON but isn't a valid component.
+     * @since 1.0.0
+     */
     @Contract(pure = true)
     public @NotNull Component getSubtitleText() {
 
+        return subtitleText.get();
+    }
+
+    @Contract(pure = true)
+    public @NotNull LazyComponent getLazySubtitleText() {
+
         return subtitleText;
     }
 }
@@ -21,6 +21,7 @@ import net.kyori.adventure.text.Component;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.io.LazyComponent;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
@@ -29,11 +30,17 @@ import io.github.sparky983.diorite.util.Preconditions;
 
 public final class SetTitleTextPacket implements ClientBoundPacket {
 
-    private final Component titleText;
+    private final LazyComponent titleText;
 
     @Contract(pure = true)
     public SetTitleTextPacket(final @NotNull Component titleText) {
 
+        this(LazyComponent.of(titleText));
+    }
+
+    @Contract(pure = true)
+    public SetTitleTextPacket(final @NotNull LazyComponent titleText) {
+
         Preconditions.requireNotNull(titleText, "titleText");
 
         this.titleText = titleText;
@@ -44,7 +51,7 @@ public final class SetTitleTextPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(inputStream, "inputStream");
 
-        this.titleText = inputStream.readComponent();
+        this.titleText = inputStream.readLazyComponent();
     }
 
     @Override
@@ -61,9 +68,23 @@ public final class SetTitleTextPacket implements ClientBoundPacket {
         return ClientBoundPacketId.Play.SET_TITLE_TEXT;
     }
 
+    /**
+     * Returns the title text, deserializing it on the first call.
+     *
+     * @return The title text.
+     * @throws io.github.sparky983.diorite.io.DecodeException if the title text is well-formed JSON
+     *         but isn't a valid component.
+     * @since 1.0.0
+     */
     @Contract(pure = true)
     public @NotNull Component getTitleText() {
 
+        return titleText.get();
+    }
+
+    @Contract(pure = true)
+    public @NotNull LazyComponent getLazyTitleText() {
+
         return titleText;
     }
 }
@@ -19,16 +19,23 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class SetTitleTimesPacket implements ClientBoundPacket {
 
+    @Field(FieldType.INT)
     private final int fadeIn;
+    @Field(FieldType.INT)
     private final int stay;
+    @Field(FieldType.INT)
     private final int fadeOut;
 
     @Contract(pure = true)
@@ -42,11 +49,9 @@ public final class SetTitleTimesPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public SetTitleTimesPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.fadeIn = inputStream.readInt();
-        this.stay = inputStream.readInt();
-        this.fadeOut = inputStream.readInt();
+        this(SetTitleTimesPacketCodec.readFadeIn(inputStream),
+                SetTitleTimesPacketCodec.readStay(inputStream),
+                SetTitleTimesPacketCodec.readFadeOut(inputStream));
     }
 
     @Override
@@ -54,9 +59,13 @@ public final class SetTitleTimesPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeInt(fadeIn)
-                .writeInt(stay)
-                .writeInt(fadeOut);
+        SetTitleTimesPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return SetTitleTimesPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -21,23 +21,34 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.UUID;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.Direction;
 import io.github.sparky983.diorite.world.Position;
 import io.github.sparky983.diorite.world.Velocity;
 
+@GenerateCodec
 public final class SpawnEntityPacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int entityId;
+    @Field(FieldType.UUID)
     private final UUID objectId;
+    @Field(FieldType.VAR_INT)
     private final int entityType;
+    @Field(FieldType.POSITION)
     private final Position location;
+    @Field(FieldType.DIRECTION)
     private final Direction direction;
+    @Field(FieldType.INT)
     private final int data;
+    @Field(FieldType.VELOCITY)
     private final Velocity velocity;
 
     @Contract(pure = true)
@@ -66,15 +77,13 @@ public final class SpawnEntityPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public SpawnEntityPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.entityId = inputStream.readVarInt();
-        this.objectId = inputStream.readUuid();
-        this.entityType = inputStream.readVarInt();
-        this.location = inputStream.readPosition();
-        this.direction = inputStream.readDirection();
-        this.data = inputStream.readInt();
-        this.velocity = inputStream.readVelocity();
+        this(SpawnEntityPacketCodec.readEntityId(inputStream),
+                SpawnEntityPacketCodec.readObjectId(inputStream),
+                SpawnEntityPacketCodec.readEntityType(inputStream),
+                SpawnEntityPacketCodec.readLocation(inputStream),
+                SpawnEntityPacketCodec.readDirection(inputStream),
+                SpawnEntityPacketCodec.readData(inputStream),
+                SpawnEntityPacketCodec.readVelocity(inputStream));
     }
 
     @Override
@@ -82,13 +91,13 @@ public final class SpawnEntityPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(entityId)
-                .writeUuid(objectId)
-                .writeVarInt(entityType)
-                .writePosition(location)
-                .writeDirection(direction)
-                .writeInt(data)
-                .writeVelocity(velocity);
+        SpawnEntityPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return SpawnEntityPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,17 +19,24 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.Position;
 
+@GenerateCodec
 public final class SpawnExperienceOrbPacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int entityId;
+    @Field(FieldType.POSITION)
     private final Position location;
+    @Field(FieldType.SHORT)
     private final short count;
 
     @Contract(pure = true)
@@ -47,11 +54,9 @@ public final class SpawnExperienceOrbPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public SpawnExperienceOrbPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.entityId = inputStream.readVarInt();
-        this.location = inputStream.readPosition();
-        this.count = inputStream.readShort();
+        this(SpawnExperienceOrbPacketCodec.readEntityId(inputStream),
+                SpawnExperienceOrbPacketCodec.readLocation(inputStream),
+                SpawnExperienceOrbPacketCodec.readCount(inputStream));
     }
 
     @Override
@@ -59,9 +64,13 @@ public final class SpawnExperienceOrbPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(entityId)
-                .writePosition(location)
-                .writeShort(count);
+        SpawnExperienceOrbPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return SpawnExperienceOrbPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -21,23 +21,34 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.UUID;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.Direction;
 import io.github.sparky983.diorite.world.Position;
 import io.github.sparky983.diorite.world.Velocity;
 
+@GenerateCodec
 public final class SpawnLivingEntityPacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int entityId;
+    @Field(FieldType.UUID)
     private final UUID entityUuid;
+    @Field(FieldType.VAR_INT)
     private final int type;
+    @Field(FieldType.POSITION)
     private final Position location;
+    @Field(FieldType.DIRECTION)
     private final Direction direction;
+    @Field(FieldType.BYTE)
     private final byte headPitch;
+    @Field(FieldType.VELOCITY)
     private final Velocity velocity;
 
     @Contract(pure = true)
@@ -66,15 +77,13 @@ public final class SpawnLivingEntityPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public SpawnLivingEntityPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.entityId = inputStream.readVarInt();
-        this.entityUuid = inputStream.readUuid();
-        this.type = inputStream.readVarInt();
-        this.location = inputStream.readPosition();
-        this.direction = inputStream.readDirection();
-        this.headPitch = inputStream.readByte();
-        this.velocity = inputStream.readVelocity();
+        this(SpawnLivingEntityPacketCodec.readEntityId(inputStream),
+                SpawnLivingEntityPacketCodec.readEntityUuid(inputStream),
+                SpawnLivingEntityPacketCodec.readType(inputStream),
+                SpawnLivingEntityPacketCodec.readLocation(inputStream),
+                SpawnLivingEntityPacketCodec.readDirection(inputStream),
+                SpawnLivingEntityPacketCodec.readHeadPitch(inputStream),
+                SpawnLivingEntityPacketCodec.readVelocity(inputStream));
     }
 
     @Override
@@ -82,13 +91,13 @@ public final class SpawnLivingEntityPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(entityId)
-                .writeUuid(entityUuid)
-                .writeVarInt(type)
-                .writePosition(location)
-                .writeDirection(direction)
-                .writeByte(headPitch)
-                .writeVelocity(velocity);
+        SpawnLivingEntityPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return SpawnLivingEntityPacketCodec.INSTANCE.size(this);
     }
 
     @Override
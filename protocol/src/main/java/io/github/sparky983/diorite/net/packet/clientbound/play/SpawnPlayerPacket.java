@@ -21,19 +21,27 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.UUID;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.Direction;
 import io.github.sparky983.diorite.world.Position;
 
+@GenerateCodec
 public final class SpawnPlayerPacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int entityId;
+    @Field(FieldType.UUID)
     private final UUID entityUuid;
+    @Field(FieldType.POSITION)
     private final Position position;
+    @Field(FieldType.DIRECTION)
     private final Direction direction;
 
     @Contract(pure = true)
@@ -55,12 +63,10 @@ public final class SpawnPlayerPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public SpawnPlayerPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.entityId = inputStream.readVarInt();
-        this.entityUuid = inputStream.readUuid();
-        this.position = inputStream.readPosition();
-        this.direction = inputStream.readDirection();
+        this(SpawnPlayerPacketCodec.readEntityId(inputStream),
+                SpawnPlayerPacketCodec.readEntityUuid(inputStream),
+                SpawnPlayerPacketCodec.readPosition(inputStream),
+                SpawnPlayerPacketCodec.readDirection(inputStream));
     }
 
     @Override
@@ -68,10 +74,13 @@ public final class SpawnPlayerPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(this.entityId)
-                .writeUuid(this.entityUuid)
-                .writePosition(this.position)
-                .writeDirection(this.direction);
+        SpawnPlayerPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return SpawnPlayerPacketCodec.INSTANCE.size(this);
     }
 
     @Override
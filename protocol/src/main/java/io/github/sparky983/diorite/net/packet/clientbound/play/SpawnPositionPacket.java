@@ -19,16 +19,22 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.BlockPosition;
 
+@GenerateCodec
 public final class SpawnPositionPacket implements ClientBoundPacket {
 
+    @Field(FieldType.BLOCK_POSITION)
     private final BlockPosition spawnLocation;
+    @Field(FieldType.BYTE)
     private final byte angle;
 
     @Contract(pure = true)
@@ -43,10 +49,8 @@ public final class SpawnPositionPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public SpawnPositionPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.spawnLocation = inputStream.readBlockPosition();
-        this.angle = inputStream.readByte();
+        this(SpawnPositionPacketCodec.readSpawnLocation(inputStream),
+                SpawnPositionPacketCodec.readAngle(inputStream));
     }
 
     @Override
@@ -54,8 +58,13 @@ public final class SpawnPositionPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeBlockPosition(spawnLocation)
-                .writeByte(angle);
+        SpawnPositionPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return SpawnPositionPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,7 +19,9 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
@@ -27,17 +29,19 @@ import io.github.sparky983.diorite.io.Writable;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
+import io.github.sparky983.diorite.world.Identifier;
+import io.github.sparky983.diorite.world.TagRegistry;
 
 public final class TagsPacket implements ClientBoundPacket {
 
-    private final List<Tag> tags;
+    private final List<TagType> tagTypes;
 
     @Contract(pure = true)
-    public TagsPacket(final @NotNull List<@NotNull Tag> tags) {
+    public TagsPacket(final @NotNull List<@NotNull TagType> tagTypes) {
 
-        Preconditions.requireContainsNoNulls(tags, "tags");
+        Preconditions.requireContainsNoNulls(tagTypes, "tagTypes");
 
-        this.tags = List.copyOf(tags);
+        this.tagTypes = List.copyOf(tagTypes);
     }
 
     @Contract(mutates = "param")
@@ -45,7 +49,7 @@ public final class TagsPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(inputStream, "inputStream");
 
-        this.tags = inputStream.readList(Tag::new);
+        this.tagTypes = inputStream.readList(TagType::new);
     }
 
     @Override
@@ -53,7 +57,7 @@ public final class TagsPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeList(tags, StreamOut::writeWritable);
+        outputStream.writeList(tagTypes, StreamOut::writeWritable);
     }
 
     @Override
@@ -63,18 +67,85 @@ public final class TagsPacket implements ClientBoundPacket {
     }
 
     @Contract(pure = true)
-    public @NotNull List<@NotNull Tag> getTags() {
+    public @NotNull List<@NotNull TagType> getTagTypes() {
 
-        return tags;
+        return tagTypes;
+    }
+
+    /**
+     * Builds a {@link TagRegistry} from the packet's tags, for membership queries that don't scan
+     * the entries.
+     *
+     * @return The tag registry.
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new", pure = true)
+    public @NotNull TagRegistry toTagRegistry() {
+
+        final Map<Identifier, Map<Identifier, int[]>> registries = new HashMap<>();
+        for (final TagType tagType : tagTypes) {
+            final Map<Identifier, int[]> tags =
+                    registries.computeIfAbsent(tagType.getRegistry(), (registry) -> new HashMap<>());
+            for (final Tag tag : tagType.getTags()) {
+                tags.put(tag.getName(), tag.getEntries());
+            }
+        }
+        return TagRegistry.of(registries);
+    }
+
+    public static final class TagType implements Writable {
+
+        private final Identifier registry;
+        private final List<Tag> tags;
+
+        @Contract(pure = true)
+        public TagType(final @NotNull Identifier registry, final @NotNull List<@NotNull Tag> tags) {
+
+            Preconditions.requireNotNull(registry, "registry");
+            Preconditions.requireContainsNoNulls(tags, "tags");
+
+            this.registry = registry;
+            this.tags = List.copyOf(tags);
+        }
+
+        @Contract(mutates = "param")
+        public TagType(final @NotNull StreamIn inputStream) {
+
+            Preconditions.requireNotNull(inputStream, "inputStream");
+
+            this.registry = inputStream.readIdentifier();
+            this.tags = inputStream.readList(Tag::new);
+        }
+
+        @Override
+        public void write(final @NotNull StreamOut outputStream) {
+
+            Preconditions.requireNotNull(outputStream, "outputStream");
+
+            outputStream.writeIdentifier(registry)
+                    .writeList(tags, StreamOut::writeWritable);
+        }
+
+        @Contract(pure = true)
+        public @NotNull Identifier getRegistry() {
+
+            return registry;
+        }
+
+        @Contract(pure = true)
+        public @NotNull List<@NotNull Tag> getTags() {
+
+            return tags;
+        }
     }
 
     public static final class Tag implements Writable {
 
-        private final String name;
+        private final Identifier name;
         private final int[] entries;
 
         @Contract(pure = true)
-        public Tag(final @NotNull String name, final int @NotNull [] entries) {
+        public Tag(final @NotNull Identifier name, final int @NotNull [] entries) {
 
             Preconditions.requireNotNull(name, "name");
             Preconditions.requireNotNull(entries, "entries");
@@ -89,13 +160,9 @@ public final class TagsPacket implements ClientBoundPacket {
 
             Preconditions.requireNotNull(inputStream, "inputStream");
 
-            this.name = inputStream.readString();
-
-            final int entriesLength = inputStream.readVarInt();
-            this.entries = new int[entriesLength];
-            for (int i = 0; i < entriesLength; i++) {
-                this.entries[i] = inputStream.readVarInt();
-            }
+            // tag names repeat across connections, so they're interned
+            this.name = inputStream.readIdentifier();
+            this.entries = inputStream.readVarIntList();
         }
 
         @Override
@@ -103,16 +170,12 @@ public final class TagsPacket implements ClientBoundPacket {
 
             Preconditions.requireNotNull(outputStream, "outputStream");
 
-            outputStream.writeString(name)
-                    .writeVarInt(entries.length);
-
-            for (final int entry : entries) {
-                outputStream.writeVarInt(entry);
-            }
+            outputStream.writeIdentifier(name)
+                    .writeVarIntList(entries);
         }
 
         @Contract(pure = true)
-        public @NotNull String getName() {
+        public @NotNull Identifier getName() {
 
             return name;
         }
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.function.Function;
 
 import io.github.sparky983.diorite.io.DecodeException;
+import io.github.sparky983.diorite.io.LazyComponent;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.io.Writable;
@@ -141,6 +142,20 @@ public final class TeamsPacket implements ClientBoundPacket {
                 final @NotNull Component suffix,
                 final @NotNull List<@NotNull String> entities) {
 
+            this(LazyComponent.of(displayName), flags, nameTagVisibility, collisionRule, teamColor,
+                    LazyComponent.of(prefix), LazyComponent.of(suffix), entities);
+        }
+
+        @Contract(pure = true)
+        public CreateAction(final @NotNull LazyComponent displayName,
+                final byte flags,
+                final TeamsPacket.UpdateAction.@NotNull NameTagVisibility nameTagVisibility,
+                final TeamsPacket.UpdateAction.@NotNull CollisionRule collisionRule,
+                final TeamsPacket.UpdateAction.@NotNull TeamColor teamColor,
+                final @NotNull LazyComponent prefix,
+                final @NotNull LazyComponent suffix,
+                final @NotNull List<@NotNull String> entities) {
+
             super(displayName, flags, nameTagVisibility, collisionRule, teamColor, prefix, suffix);
 
             Preconditions.requireContainsNoNulls(entities, "entities");
@@ -221,13 +236,13 @@ public final class TeamsPacket implements ClientBoundPacket {
         private static final int MAX_NAME_TAG_VISIBILITY_LENGTH = 32;
         private static final int MAX_COLLISION_RULE_LENGTH = 32;
 
-        private final Component displayName;
+        private final LazyComponent displayName;
         private final byte flags;
         private final NameTagVisibility nameTagVisibility;
         private final CollisionRule collisionRule;
         private final TeamColor teamColor;
-        private final Component prefix;
-        private final Component suffix;
+        private final LazyComponent prefix;
+        private final LazyComponent suffix;
 
         @Contract(pure = true)
         public UpdateAction(final @NotNull Component displayName,
@@ -238,6 +253,19 @@ public final class TeamsPacket implements ClientBoundPacket {
                 final @NotNull Component prefix,
                 final @NotNull Component suffix) {
 
+            this(LazyComponent.of(displayName), flags, nameTagVisibility, collisionRule, teamColor,
+                    LazyComponent.of(prefix), LazyComponent.of(suffix));
+        }
+
+        @Contract(pure = true)
+        public UpdateAction(final @NotNull LazyComponent displayName,
+                final byte flags,
+                final @NotNull NameTagVisibility nameTagVisibility,
+                final @NotNull CollisionRule collisionRule,
+                final @NotNull TeamColor teamColor,
+                final @NotNull LazyComponent prefix,
+                final @NotNull LazyComponent suffix) {
+
             Preconditions.requireNotNull(displayName, "displayName");
             Preconditions.requireNotNull(nameTagVisibility, "nameTagVisibility");
             Preconditions.requireNotNull(collisionRule, "collisionRule");
@@ -258,15 +286,15 @@ public final class TeamsPacket implements ClientBoundPacket {
 
             Preconditions.requireNotNull(inputStream, "inputStream");
 
-            this.displayName = inputStream.readComponent();
+            this.displayName = inputStream.readLazyComponent();
             this.flags = inputStream.readByte();
             this.nameTagVisibility = NameTagVisibility.valueOf(
                     inputStream.readString(MAX_NAME_TAG_VISIBILITY_LENGTH));
             this.collisionRule = CollisionRule.valueOf(
                     inputStream.readString(MAX_COLLISION_RULE_LENGTH));
             this.teamColor = inputStream.readVarIntEnum(TeamColor.class);
-            this.prefix = inputStream.readComponent();
-            this.suffix = inputStream.readComponent();
+            this.prefix = inputStream.readLazyComponent();
+            this.suffix = inputStream.readLazyComponent();
         }
 
         @Override
@@ -289,9 +317,23 @@ public final class TeamsPacket implements ClientBoundPacket {
             return ActionType.UPDATE;
         }
 
+        /**
+         * Returns the display name, deserializing it on the first call.
+         *
+         * @return The display name.
+         * @throws io.github.sparky983.diorite.io.DecodeException if the display name is well-formed
+         *         JSON but isn't a valid component.
+         * @since 1.0.0
+         */
         @Contract(pure = true)
         public @NotNull Component getDisplayName() {
 
+            return displayName.get();
+        }
+
+        @Contract(pure = true)
+        public @NotNull LazyComponent getLazyDisplayName() {
+
             return displayName;
         }
 
@@ -331,15 +373,43 @@ public final class TeamsPacket implements ClientBoundPacket {
             return teamColor;
         }
 
+        /**
+         * Returns the prefix, deserializing it on the first call.
+         *
+         * @return The prefix.
+         * @throws io.github.sparky983.diorite.io.DecodeException if the prefix is well-formed JSON
+         *         but isn't a valid component.
+         * @since 1.0.0
+         */
         @Contract(pure = true)
         public @NotNull Component getPrefix() {
 
+            return prefix.get();
+        }
+
+        @Contract(pure = true)
+        public @NotNull LazyComponent getLazyPrefix() {
+
             return prefix;
         }
 
+        /**
+         * Returns the suffix, deserializing it on the first call.
+         *
+         * @return The suffix.
+         * @throws io.github.sparky983.diorite.io.DecodeException if the suffix is well-formed JSON
+         *         but isn't a valid component.
+         * @since 1.0.0
+         */
         @Contract(pure = true)
         public @NotNull Component getSuffix() {
 
+            return suffix.get();
+        }
+
+        @Contract(pure = true)
+        public @NotNull LazyComponent getLazySuffix() {
+
             return suffix;
         }
 
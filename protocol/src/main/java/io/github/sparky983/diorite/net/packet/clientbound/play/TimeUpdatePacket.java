@@ -19,15 +19,21 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class TimeUpdatePacket implements ClientBoundPacket {
 
+    @Field(FieldType.LONG)
     private final long worldAge;
+    @Field(FieldType.LONG)
     private final long timeOfDay;
 
     @Contract(pure = true)
@@ -40,10 +46,8 @@ public final class TimeUpdatePacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public TimeUpdatePacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.worldAge = inputStream.readLong();
-        this.timeOfDay = inputStream.readLong();
+        this(TimeUpdatePacketCodec.readWorldAge(inputStream),
+                TimeUpdatePacketCodec.readTimeOfDay(inputStream));
     }
 
     @Override
@@ -51,8 +55,13 @@ public final class TimeUpdatePacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeLong(worldAge)
-                .writeLong(timeOfDay);
+        TimeUpdatePacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return TimeUpdatePacketCodec.INSTANCE.size(this);
     }
 
     @Override
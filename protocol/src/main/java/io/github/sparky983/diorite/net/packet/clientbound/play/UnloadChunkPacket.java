@@ -19,15 +19,21 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class UnloadChunkPacket implements ClientBoundPacket {
 
+    @Field(FieldType.INT)
     private final int chunkX;
+    @Field(FieldType.INT)
     private final int chunkZ;
 
     @Contract(pure = true)
@@ -40,10 +46,8 @@ public final class UnloadChunkPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public UnloadChunkPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.chunkX = inputStream.readInt();
-        this.chunkZ = inputStream.readInt();
+        this(UnloadChunkPacketCodec.readChunkX(inputStream),
+                UnloadChunkPacketCodec.readChunkZ(inputStream));
     }
 
     @Override
@@ -51,8 +55,13 @@ public final class UnloadChunkPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeInt(chunkX)
-                .writeInt(chunkZ);
+        UnloadChunkPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return UnloadChunkPacketCodec.INSTANCE.size(this);
     }
 
     @Override
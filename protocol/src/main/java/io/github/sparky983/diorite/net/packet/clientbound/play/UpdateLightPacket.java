@@ -26,6 +26,7 @@ import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
+import io.github.sparky983.diorite.world.LightStorage;
 
 @ApiStatus.Experimental
 public final class UpdateLightPacket implements ClientBoundPacket {
@@ -96,30 +97,8 @@ public final class UpdateLightPacket implements ClientBoundPacket {
         this.emptySkyLightMask = inputStream.readLongList();
         this.emptyBlockLightMask = inputStream.readLongList();
 
-        // TODO(Sparky983): Create read array method
-
-        final int skyLightArraysLength = inputStream.readVarInt();
-        final byte[][] skyLightArrays = new byte[skyLightArraysLength][];
-        for (int i = 0; i < skyLightArraysLength; i++) {
-            final byte[] skyLightArray = inputStream.readByteList();
-            if (skyLightArray.length != LIGHT_ARRAY_LENGTH) {
-                throw new DecodeException(
-                        "skyLightArrays[" + i + "] length must be " + LIGHT_ARRAY_LENGTH);
-            }
-            skyLightArrays[i] = skyLightArray;
-        }
-        this.skyLightArrays = skyLightArrays;
-
-        final int blockLightArraysLength = inputStream.readVarInt();
-        final byte[][] blockLightArrays = new byte[blockLightArraysLength][];
-        for (int i = 0; i < blockLightArraysLength; i++) {
-            final byte[] blockLightArray = inputStream.readByteList();
-            if (blockLightArray.length != LIGHT_ARRAY_LENGTH) {
-                throw new DecodeException("blockLightArrays[" + i + "] length must be 2048");
-            }
-            blockLightArrays[i] = blockLightArray;
-        }
-        this.blockLightArrays = blockLightArrays;
+        this.skyLightArrays = readLightArrays(inputStream);
+        this.blockLightArrays = readLightArrays(inputStream);
     }
 
     @Override
@@ -130,10 +109,10 @@ public final class UpdateLightPacket implements ClientBoundPacket {
         outputStream.writeVarInt(this.chunkX)
                 .writeVarInt(chunkZ)
                 .writeBoolean(trustEdges)
-                .writeLongs(skyLightMask)
-                .writeLongs(blockLightMask)
-                .writeLongs(emptySkyLightMask)
-                .writeLongs(emptyBlockLightMask);
+                .writeLongList(skyLightMask)
+                .writeLongList(blockLightMask)
+                .writeLongList(emptySkyLightMask)
+                .writeLongList(emptyBlockLightMask);
 
         outputStream.writeVarInt(skyLightArrays.length);
         for (final byte[] skyLightArray : skyLightArrays) {
@@ -205,4 +184,37 @@ public final class UpdateLightPacket implements ClientBoundPacket {
 
         return blockLightArrays;
     }
+
+    /**
+     * Reads a list of light arrays, checking each array's length before it's allocated.
+     *
+     * @throws DecodeException if an array isn't {@value #LIGHT_ARRAY_LENGTH} bytes long.
+     */
+    static byte @NotNull [] @NotNull [] readLightArrays(final @NotNull StreamIn inputStream) {
+
+        return inputStream.readList((lightArrayInputStream) -> {
+            final int length = lightArrayInputStream.readVarInt();
+            if (length != LIGHT_ARRAY_LENGTH) {
+                throw new DecodeException(
+                        "Light array length " + length + " must be " + LIGHT_ARRAY_LENGTH);
+            }
+            return lightArrayInputStream.readBytes(length);
+        }).toArray(new byte[0][]);
+    }
+
+    /**
+     * Applies the packet's light data to the specified light storage.
+     *
+     * @param lightStorage The light storage of the packet's chunk.
+     * @throws NullPointerException if lightStorage is {@code null}.
+     * @throws IllegalArgumentException if the light data doesn't fit the light storage.
+     */
+    @Contract(mutates = "param")
+    public void applyTo(final @NotNull LightStorage lightStorage) {
+
+        Preconditions.requireNotNull(lightStorage, "lightStorage");
+
+        lightStorage.update(skyLightMask, blockLightMask, emptySkyLightMask, emptyBlockLightMask,
+                skyLightArrays, blockLightArrays);
+    }
 }
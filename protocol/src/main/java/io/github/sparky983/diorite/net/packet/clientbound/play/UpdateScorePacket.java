@@ -64,6 +64,7 @@ public final class UpdateScorePacket implements ClientBoundPacket {
         Preconditions.requireNotNull(outputStream, "outputStream");
 
         outputStream.writeString(entityName)
+                .writeVarIntEnum(action.getType())
                 .writeWritable(action);
     }
 
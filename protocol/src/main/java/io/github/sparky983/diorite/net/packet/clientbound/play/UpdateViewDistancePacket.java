@@ -19,14 +19,19 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class UpdateViewDistancePacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int viewDistance;
 
     @Contract(pure = true)
@@ -38,9 +43,7 @@ public final class UpdateViewDistancePacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public UpdateViewDistancePacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.viewDistance = inputStream.readVarInt();
+        this(UpdateViewDistancePacketCodec.readViewDistance(inputStream));
     }
 
     @Override
@@ -48,7 +51,13 @@ public final class UpdateViewDistancePacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(viewDistance);
+        UpdateViewDistancePacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return UpdateViewDistancePacketCodec.INSTANCE.size(this);
     }
 
     @Override
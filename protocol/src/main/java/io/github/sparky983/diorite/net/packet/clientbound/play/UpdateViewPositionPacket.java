@@ -19,15 +19,21 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class UpdateViewPositionPacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int chunkX;
+    @Field(FieldType.VAR_INT)
     private final int chunkZ;
 
     @Contract(pure = true)
@@ -40,10 +46,8 @@ public final class UpdateViewPositionPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public UpdateViewPositionPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.chunkX = inputStream.readVarInt();
-        this.chunkZ = inputStream.readVarInt();
+        this(UpdateViewPositionPacketCodec.readChunkX(inputStream),
+                UpdateViewPositionPacketCodec.readChunkZ(inputStream));
     }
 
     @Override
@@ -51,8 +55,13 @@ public final class UpdateViewPositionPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(chunkX)
-                .writeVarInt(chunkZ);
+        UpdateViewPositionPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return UpdateViewPositionPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,17 +19,24 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.Position;
 
+@GenerateCodec
 public final class VehicleMovePacket implements ClientBoundPacket {
 
+    @Field(FieldType.POSITION)
     private final Position location;
+    @Field(FieldType.FLOAT)
     private final float yaw;
+    @Field(FieldType.FLOAT)
     private final float pitch;
 
     @Contract(pure = true)
@@ -45,11 +52,9 @@ public final class VehicleMovePacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public VehicleMovePacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.location = inputStream.readPosition();
-        this.yaw = inputStream.readFloat();
-        this.pitch = inputStream.readFloat();
+        this(VehicleMovePacketCodec.readLocation(inputStream),
+                VehicleMovePacketCodec.readYaw(inputStream),
+                VehicleMovePacketCodec.readPitch(inputStream));
     }
 
     @Override
@@ -57,9 +62,13 @@ public final class VehicleMovePacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writePosition(location)
-                .writeFloat(yaw)
-                .writeFloat(pitch);
+        VehicleMovePacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return VehicleMovePacketCodec.INSTANCE.size(this);
     }
 
     @Override
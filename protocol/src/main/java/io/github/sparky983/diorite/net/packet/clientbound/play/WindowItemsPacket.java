@@ -82,7 +82,7 @@ public final class WindowItemsPacket implements ClientBoundPacket {
                                 outputStream::writeWritable
                         )
                 )
-                .writeWritable(carriedItem);
+                .writeNullable(carriedItem, outputStream::writeWritable);
     }
 
     @Override
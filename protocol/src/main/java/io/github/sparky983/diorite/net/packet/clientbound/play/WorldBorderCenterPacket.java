@@ -19,15 +19,21 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class WorldBorderCenterPacket implements ClientBoundPacket {
 
+    @Field(FieldType.DOUBLE)
     private final double x;
+    @Field(FieldType.DOUBLE)
     private final double z;
 
     @Contract(pure = true)
@@ -40,10 +46,8 @@ public final class WorldBorderCenterPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public WorldBorderCenterPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.x = inputStream.readDouble();
-        this.z = inputStream.readDouble();
+        this(WorldBorderCenterPacketCodec.readX(inputStream),
+                WorldBorderCenterPacketCodec.readZ(inputStream));
     }
 
     @Override
@@ -51,8 +55,13 @@ public final class WorldBorderCenterPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeDouble(x)
-                .writeDouble(z);
+        WorldBorderCenterPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return WorldBorderCenterPacketCodec.INSTANCE.size(this);
     }
 
     @Override
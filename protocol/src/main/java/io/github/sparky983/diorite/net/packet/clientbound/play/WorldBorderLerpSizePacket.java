@@ -19,16 +19,23 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class WorldBorderLerpSizePacket implements ClientBoundPacket {
 
+    @Field(FieldType.DOUBLE)
     private final double previousDiameter;
+    @Field(FieldType.DOUBLE)
     private final double newDiameter;
+    @Field(FieldType.VAR_LONG)
     private final long speed;
 
     @Contract(pure = true)
@@ -43,11 +50,9 @@ public final class WorldBorderLerpSizePacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public WorldBorderLerpSizePacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.previousDiameter = inputStream.readDouble();
-        this.newDiameter = inputStream.readDouble();
-        this.speed = inputStream.readVarLong();
+        this(WorldBorderLerpSizePacketCodec.readPreviousDiameter(inputStream),
+                WorldBorderLerpSizePacketCodec.readNewDiameter(inputStream),
+                WorldBorderLerpSizePacketCodec.readSpeed(inputStream));
     }
 
     @Override
@@ -55,9 +60,13 @@ public final class WorldBorderLerpSizePacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeDouble(previousDiameter)
-                .writeDouble(newDiameter)
-                .writeVarLong(speed);
+        WorldBorderLerpSizePacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return WorldBorderLerpSizePacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,14 +19,19 @@ package io.github.sparky983.diorite.net.packet.clientbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class WorldBorderWarningDelayPacket implements ClientBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int warningTime;
 
     @Contract(pure = true)
@@ -38,9 +43,7 @@ public final class WorldBorderWarningDelayPacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public WorldBorderWarningDelayPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.warningTime = inputStream.readVarInt();
+        this(WorldBorderWarningDelayPacketCodec.readWarningTime(inputStream));
     }
 
     @Override
@@ -48,7 +51,13 @@ public final class WorldBorderWarningDelayPacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(warningTime);
+        WorldBorderWarningDelayPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return WorldBorderWarningDelayPacketCodec.INSTANCE.size(this);
     }
 
     @Override
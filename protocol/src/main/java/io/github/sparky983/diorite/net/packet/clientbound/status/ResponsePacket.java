@@ -19,14 +19,19 @@ package io.github.sparky983.diorite.net.packet.clientbound.status;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacket;
 import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class ResponsePacket implements ClientBoundPacket {
 
+    @Field(FieldType.STRING)
     private final String jsonResponse;
 
     @Contract(pure = true)
@@ -40,9 +45,7 @@ public final class ResponsePacket implements ClientBoundPacket {
     @Contract(mutates = "param")
     public ResponsePacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.jsonResponse = inputStream.readString();
+        this(ResponsePacketCodec.readJsonResponse(inputStream));
     }
 
     @Override
@@ -50,7 +53,13 @@ public final class ResponsePacket implements ClientBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeString(jsonResponse);
+        ResponsePacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return ResponsePacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.sparky983.diorite.net.packet.codec;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import io.github.sparky983.diorite.world.Identifier;
+
+/**
+ * Computes the encoded size of variable length fields, used by the generated codecs.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public final class Codecs {
+
+    private Codecs() {
+
+    }
+
+    /**
+     * Returns the number of bytes the specified var int is encoded in.
+     *
+     * @param value The var int.
+     * @return The size.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public static @Range(from = 1, to = 5) int varIntSize(final int value) {
+
+        // 7 bits per byte, and 0 still takes a byte
+        return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /**
+     * Returns the number of bytes the specified var long is encoded in.
+     *
+     * @param value The var long.
+     * @return The size.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public static @Range(from = 1, to = 10) int varLongSize(final long value) {
+
+        return (63 - Long.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /**
+     * Returns the number of bytes the specified string is encoded in, including its length.
+     *
+     * @param value The string.
+     * @return The size.
+     * @throws NullPointerException if value is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public static int stringSize(final @NotNull String value) {
+
+        final int length = utf8Length(value);
+        return varIntSize(length) + length;
+    }
+
+    /**
+     * Returns the number of bytes the specified identifier is encoded in, including its length.
+     *
+     * @param value The identifier.
+     * @return The size.
+     * @throws NullPointerException if value is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public static int identifierSize(final @NotNull Identifier value) {
+
+        return stringSize(value.toString());
+    }
+
+    /**
+     * Returns the number of bytes the specified var int list is encoded in, including its length.
+     *
+     * @param value The var int list.
+     * @return The size.
+     * @throws NullPointerException if value is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public static int varIntListSize(final int @NotNull [] value) {
+
+        int size = varIntSize(value.length);
+        for (final int element : value) {
+            size += varIntSize(element);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes the specified long list is encoded in, including its length.
+     *
+     * @param value The long list.
+     * @return The size.
+     * @throws NullPointerException if value is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public static int longListSize(final long @NotNull [] value) {
+
+        return varIntSize(value.length) + value.length * Long.BYTES;
+    }
+
+    /**
+     * Returns the number of bytes the specified enum is encoded in as a var int.
+     *
+     * @param value The enum.
+     * @return The size.
+     * @throws NullPointerException if value is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public static @Range(from = 1, to = 5) int varIntEnumSize(final @NotNull Enum<?> value) {
+
+        return varIntSize(value.ordinal());
+    }
+
+    // matches StreamOut#writeString, unpaired surrogates are replaced with a single byte
+    private static int utf8Length(final @NotNull String value) {
+
+        final int length = value.length();
+        int utf8Length = length;
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                utf8Length++;
+            } else if (!Character.isSurrogate(c)) {
+                utf8Length += 2;
+            } else if (Character.isHighSurrogate(c)
+                    && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                // 2 chars, 4 bytes
+                utf8Length += 2;
+                i++;
+            }
+        }
+        return utf8Length;
+    }
+}
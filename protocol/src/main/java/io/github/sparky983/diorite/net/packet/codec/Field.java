@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.sparky983.diorite.net.packet.codec;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import io.github.sparky983.diorite.codec.FieldType;
+
+/**
+ * Marks a field of a {@link GenerateCodec} packet as encoded.
+ * <p>
+ * A {@link #nullable()} field is prefixed by a boolean that's {@code true} if the field is present,
+ * and a {@link #list()} field is a {@link java.util.List} of the field type prefixed by its size.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Field {
+
+    /**
+     * Returns how the field is encoded.
+     *
+     * @since 1.0.0
+     */
+    @NotNull FieldType value();
+
+    /**
+     * Returns whether the field may be {@code null}.
+     *
+     * @since 1.0.0
+     */
+    boolean nullable() default false;
+
+    /**
+     * Returns whether the field is a list of the field type.
+     *
+     * @since 1.0.0
+     */
+    boolean list() default false;
+}
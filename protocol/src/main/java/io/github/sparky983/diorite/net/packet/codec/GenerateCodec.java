@@ -0,0 +1,46 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.sparky983.diorite.net.packet.codec;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a {@link PacketCodec} for the annotated packet, named after the packet with a
+ * {@code Codec} suffix and placed in the same package.
+ * <p>
+ * The packet's {@link Field} annotated fields are encoded in declaration order. The packet must
+ * have a constructor taking exactly those fields in the same order, and an accessor for each field
+ * named either after the field or {@code get}/{@code is} followed by the field's name.
+ * <p>
+ * The codec also has a static {@code read} method for each field, such as {@code readItemId} for
+ * {@code itemId}, so that the packet's stream constructor can pass the fields straight to its
+ * constructor.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateCodec {
+
+}
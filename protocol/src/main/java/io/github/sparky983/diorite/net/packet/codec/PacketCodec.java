@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.sparky983.diorite.net.packet.codec;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.Packet;
+import io.github.sparky983.diorite.net.packet.PacketDecoder;
+
+/**
+ * Decodes and encodes a single type of packet. Implementations are generated for packets annotated
+ * with {@link GenerateCodec}.
+ *
+ * @param <T> The type of the packet.
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface PacketCodec<T extends Packet> extends PacketDecoder<T> {
+
+    /**
+     * Returns the type of packet this codec decodes and encodes.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @NotNull Class<T> getPacketType();
+
+    /**
+     * Encodes the packet's fields to the output stream.
+     *
+     * @param packet The packet.
+     * @param outputStream The output stream.
+     * @since 1.0.0
+     */
+    @Contract(mutates = "param2")
+    void encode(@NotNull T packet, @NotNull StreamOut outputStream);
+
+    /**
+     * Returns the exact number of bytes {@link #encode(Packet, StreamOut)} writes for the packet.
+     *
+     * @param packet The packet.
+     * @return The size of the encoded packet.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int size(@NotNull T packet);
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.net.packet.format;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.util.function.Supplier;
+
+import io.github.sparky983.diorite.net.packet.clientbound.play.ChunkDataAndUpdateLightPacket;
+
+/**
+ * A cache of pre-encoded chunk data packets, so that a chunk sent to many players is only
+ * encoded and compressed once for as long as it doesn't change.
+ * <p>
+ * Each chunk is cached along with a version, which the caller increments whenever a block or the
+ * light in the chunk changes. Asking for a newer version replaces the cached packet, while asking
+ * for an older one never does. When the encoded packets take up more than the cache's byte
+ * budget, the least recently used are evicted.
+ * <p>
+ * Chunk packet caches are safe to use from multiple threads.
+ *
+ * @author Sparky983
+ * @see PreEncodedPacket
+ * @since 1.0.0
+ */
+public interface ChunkPacketCache {
+
+    /**
+     * Creates a cache that keeps up to the specified number of bytes of encoded packets.
+     *
+     * @param maxBytes The byte budget.
+     * @return The cache.
+     * @throws IllegalArgumentException if maxBytes is less than 1.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    static @NotNull ChunkPacketCache create(
+            final @Range(from = 1, to = Long.MAX_VALUE) long maxBytes) {
+
+        return new ChunkPacketCacheImpl(maxBytes);
+    }
+
+    /**
+     * Returns the cached packet for the specified version of a chunk, creating and caching it with
+     * the supplier if the chunk isn't cached or an older version is. If a newer version is cached,
+     * the packet is created but not cached, so the newer one is kept.
+     * <p>
+     * The supplier is called without holding any locks, so two threads may both create the
+     * packet, in which case the first one cached is returned to both.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @param version The chunk's version.
+     * @param packetSupplier Creates the chunk's packet.
+     * @return The pre-encoded packet.
+     * @throws NullPointerException if packetSupplier is or supplies {@code null}.
+     * @since 1.0.0
+     */
+    @NotNull PreEncodedPacket<ChunkDataAndUpdateLightPacket> get(int chunkX,
+            int chunkZ,
+            long version,
+            @NotNull Supplier<? extends @NotNull ChunkDataAndUpdateLightPacket> packetSupplier);
+
+    /**
+     * Removes the specified chunk from the cache, whatever its version.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @since 1.0.0
+     */
+    void invalidate(int chunkX, int chunkZ);
+
+    /**
+     * Removes every chunk from the cache.
+     *
+     * @since 1.0.0
+     */
+    void clear();
+
+    /**
+     * Returns the number of cached chunks.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Integer.MAX_VALUE) int size();
+
+    /**
+     * Returns the number of bytes the cached packets' encoded data and frames take up. A packet's
+     * frames are only built when it is first sent, so a packet that hasn't been sent takes up
+     * nothing.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Long.MAX_VALUE) long getCachedBytes();
+
+    /**
+     * Returns the number of calls to {@link #get} that returned a cached packet.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Long.MAX_VALUE) long getHits();
+
+    /**
+     * Returns the number of calls to {@link #get} that had to create a packet.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Long.MAX_VALUE) long getMisses();
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.net.packet.format;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Supplier;
+
+import io.github.sparky983.diorite.net.packet.clientbound.play.ChunkDataAndUpdateLightPacket;
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class ChunkPacketCacheImpl implements ChunkPacketCache {
+
+    private final long maxBytes;
+
+    // access ordered, so the eldest entry is the least recently used. Guarded by this
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private long hits;
+    private long misses;
+
+    @Contract(pure = true)
+    ChunkPacketCacheImpl(final @Range(from = 1, to = Long.MAX_VALUE) long maxBytes) {
+
+        Preconditions.requireRange(maxBytes, 1, Long.MAX_VALUE, "maxBytes");
+
+        this.maxBytes = maxBytes;
+    }
+
+    private static long key(final int chunkX, final int chunkZ) {
+
+        return (long) chunkX << 32 | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public @NotNull PreEncodedPacket<ChunkDataAndUpdateLightPacket> get(final int chunkX,
+            final int chunkZ,
+            final long version,
+            final @NotNull Supplier<? extends ChunkDataAndUpdateLightPacket> packetSupplier) {
+
+        Preconditions.requireNotNull(packetSupplier, "packetSupplier");
+
+        final Long key = key(chunkX, chunkZ);
+
+        synchronized (this) {
+            final Entry entry = entries.get(key);
+            if (entry != null && entry.version == version) {
+                hits++;
+                return entry.packet;
+            }
+            misses++;
+        }
+
+        final ChunkDataAndUpdateLightPacket packet = packetSupplier.get();
+        Preconditions.requireNotNull(packet, "packetSupplier.get()");
+        final Entry created = new Entry(version);
+        // the data and frames are built as the packet is sent, after it has been cached
+        created.packet = PreEncodedPacket.of(packet, (size) -> grow(created, size));
+
+        synchronized (this) {
+            final Entry existing = entries.get(key);
+            if (existing != null && existing.version == version) {
+                return existing.packet;
+            }
+            if (existing != null && existing.version > version) {
+                // a newer version was cached while this one was being created, keep it
+                return created.packet;
+            }
+            if (existing != null) {
+                uncache(existing);
+            }
+            entries.put(key, created);
+            created.cached = true;
+            return created.packet;
+        }
+    }
+
+    private synchronized void grow(final @NotNull Entry entry, final long size) {
+
+        entry.size += size;
+        if (entry.cached) {
+            cachedBytes += size;
+            evict();
+        }
+    }
+
+    private void evict() {
+
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (cachedBytes > maxBytes && iterator.hasNext()) {
+            uncache(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private void uncache(final @NotNull Entry entry) {
+
+        cachedBytes -= entry.size;
+        entry.cached = false;
+    }
+
+    @Override
+    public synchronized void invalidate(final int chunkX, final int chunkZ) {
+
+        final Entry entry = entries.remove(key(chunkX, chunkZ));
+        if (entry != null) {
+            uncache(entry);
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+
+        entries.values().forEach(this::uncache);
+        entries.clear();
+    }
+
+    @Override
+    public synchronized @Range(from = 0, to = Integer.MAX_VALUE) int size() {
+
+        return entries.size();
+    }
+
+    @Override
+    public synchronized @Range(from = 0, to = Long.MAX_VALUE) long getCachedBytes() {
+
+        return cachedBytes;
+    }
+
+    @Override
+    public synchronized @Range(from = 0, to = Long.MAX_VALUE) long getHits() {
+
+        return hits;
+    }
+
+    @Override
+    public synchronized @Range(from = 0, to = Long.MAX_VALUE) long getMisses() {
+
+        return misses;
+    }
+
+    private static final class Entry {
+
+        private final long version;
+        private PreEncodedPacket<ChunkDataAndUpdateLightPacket> packet;
+        // guarded by the cache
+        private long size;
+        private boolean cached;
+
+        @Contract(pure = true)
+        Entry(final long version) {
+
+            this.version = version;
+        }
+    }
+}
@@ -18,16 +18,28 @@ package io.github.sparky983.diorite.net.packet.format;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
-import io.github.sparky983.diorite.io.ByteArrayStreamIn;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+import io.github.sparky983.diorite.io.BufferPool;
 import io.github.sparky983.diorite.io.ByteArrayStreamOut;
 import io.github.sparky983.diorite.io.DecodeException;
+import io.github.sparky983.diorite.io.DecodeLimits;
+import io.github.sparky983.diorite.io.PooledBuffer;
+import io.github.sparky983.diorite.io.RuntimeIOException;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.io.compression.Compression;
 import io.github.sparky983.diorite.net.Stateful;
 import io.github.sparky983.diorite.net.packet.Packet;
+import io.github.sparky983.diorite.net.packet.PacketHandler;
+import io.github.sparky983.diorite.net.packet.PacketRegistry;
+import io.github.sparky983.diorite.net.packet.codec.Codecs;
 import io.github.sparky983.diorite.util.Preconditions;
 
 final class CompressedPacketFormat implements PacketFormat {
@@ -35,19 +47,23 @@ final class CompressedPacketFormat implements PacketFormat {
     private final Stateful stateful;
     private final int threshold;
     private final Compression compression;
+    private final DecodeLimits limits;
 
     @Contract(pure = true)
     CompressedPacketFormat(final @NotNull Stateful stateful,
             final @Range(from = -1, to = Integer.MAX_VALUE) int threshold,
-            final @NotNull Compression compression) {
+            final @NotNull Compression compression,
+            final @NotNull DecodeLimits limits) {
 
         Preconditions.requireNotNull(stateful, "stateful");
         Preconditions.requireRange(threshold, -1, Integer.MAX_VALUE, "stateful");
         Preconditions.requireNotNull(compression, "compression");
+        Preconditions.requireNotNull(limits, "limits");
 
         this.stateful = stateful;
         this.threshold = threshold;
         this.compression = compression;
+        this.limits = limits;
     }
 
     @Override
@@ -56,66 +72,319 @@ final class CompressedPacketFormat implements PacketFormat {
         Preconditions.requireNotNull(packet, "packet");
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        // contains an uncompressed version of packet id and data fields
-        final byte[] uncompressed;
+        final int size = packet.getEncodedSize();
+
+        if (size != -1) {
+            final int dataLength = Codecs.varIntSize(packet.getId()) + size;
+            if (dataLength < threshold) {
+                // small enough to be sent uncompressed, and the length is known up front
+                outputStream.writeVarInt(dataLength + 1)
+                        .writeVarInt(0)
+                        .writeVarInt(packet.getId());
+                packet.write(outputStream);
+                return;
+            }
+        }
 
+        // contains an uncompressed version of packet id and data fields
         try (final ByteArrayStreamOut uncompressedOutputStream =
-                     StreamOut.ofByteArray()) {
+                     StreamOut.ofByteArray(BufferPool.shared())) {
             uncompressedOutputStream.writeVarInt(packet.getId());
             packet.write(uncompressedOutputStream);
-            uncompressed = uncompressedOutputStream.toByteArray();
+
+            final int dataLength = uncompressedOutputStream.size();
+
+            if (dataLength < threshold) {
+                // + 1 for the data length of 0, which is a single byte
+                outputStream.writeVarInt(dataLength + 1)
+                        .writeVarInt(0);
+                uncompressedOutputStream.writeTo(outputStream);
+                return;
+            }
+
+            try (final ByteArrayStreamOut dataLengthAndDataOutputStream =
+                         StreamOut.ofByteArray(BufferPool.shared())) {
+                dataLengthAndDataOutputStream.writeVarInt(dataLength);
+
+                // closing finishes the compressed data, the byte array stream itself stays open
+                try (final StreamOut compressedOutputStream = compression.compressed(
+                        dataLengthAndDataOutputStream, packet.getId())) {
+                    uncompressedOutputStream.writeTo(compressedOutputStream);
+                }
+
+                outputStream.writeVarInt(dataLengthAndDataOutputStream.size());
+                dataLengthAndDataOutputStream.writeTo(outputStream);
+            }
         }
+    }
+
+    @Override
+    public void encode(final @NotNull PreEncodedPacket<?> packet,
+            final @NotNull StreamOut outputStream) {
+
+        Preconditions.requireNotNull(packet, "packet");
+        Preconditions.requireNotNull(outputStream, "outputStream");
+
+        final byte[] frame = packet.getFrame(threshold, compression,
+                (data) -> frame(packet.getId(), data));
+
+        outputStream.writeBytes(frame);
+    }
 
-        final byte[] dataLengthAndData;
+    /**
+     * Frames the packet id and data, compressing them if they reach the threshold.
+     */
+    private byte @NotNull [] frame(final int packetId, final byte @NotNull [] data) {
+
+        try (final ByteArrayStreamOut frameOutputStream = StreamOut.ofByteArray()) {
+            if (data.length < threshold) {
+                frameOutputStream.writeVarInt(data.length + 1)
+                        .writeVarInt(0)
+                        .writeBytes(data);
+                return frameOutputStream.toByteArray();
+            }
 
-        if (uncompressed.length < threshold) {
             try (final ByteArrayStreamOut dataLengthAndDataOutputStream =
-                         StreamOut.ofByteArray()) {
-                dataLengthAndDataOutputStream.writeVarInt(0);
-                dataLengthAndDataOutputStream.writeBytes(uncompressed);
-                dataLengthAndData = dataLengthAndDataOutputStream.toByteArray();
+                         StreamOut.ofByteArray(BufferPool.shared())) {
+                dataLengthAndDataOutputStream.writeVarInt(data.length);
+
+                try (final StreamOut compressedOutputStream =
+                             compression.compressed(dataLengthAndDataOutputStream, packetId)) {
+                    compressedOutputStream.writeBytes(data);
+                }
+
+                frameOutputStream.writeVarInt(dataLengthAndDataOutputStream.size());
+                dataLengthAndDataOutputStream.writeTo(frameOutputStream);
             }
+            return frameOutputStream.toByteArray();
+        }
+    }
+
+    @Override
+    public @Nullable Packet decode(final @NotNull StreamIn inputStream,
+            final @NotNull PacketHandler handler) {
+
+        Preconditions.requireNotNull(inputStream, "inputStream");
+        Preconditions.requireNotNull(handler, "handler");
+
+        try (final Frame frame = Frame.read(inputStream, limits)) {
+            return decode(frame, readDataLength(frame.getInputStream()), handler);
+        }
+    }
+
+    /**
+     * Decodes the packet in the frame as it's read, just past the data length.
+     */
+    private @Nullable Packet decode(final @NotNull Frame frame,
+            final int dataLength,
+            final @NotNull PacketHandler handler) {
+
+        final StreamIn packetInputStream = frame.getInputStream();
+
+        // inflates straight out of the frame, the compressed bytes are never copied
+        final StreamIn decompressedDataInputStream;
+
+        if (dataLength == 0) {
+            decompressedDataInputStream = packetInputStream;
         } else {
-            final ByteArrayStreamOut byteArrayCompressedOutputStream =
-                    StreamOut.ofByteArray();
-            try (final StreamOut compressedOutputStream = compression.compressed(
-                    byteArrayCompressedOutputStream)) {
-                compressedOutputStream.writeByteList(uncompressed);
-                dataLengthAndData = byteArrayCompressedOutputStream.toByteArray();
-            }
+            final InputStream inflaterInputStream =
+                    compression.decompressed(packetInputStream.toInputStream());
+            // the packet can't read past its declared length, however much the data inflates
+            decompressedDataInputStream = StreamIn.from(
+                    new InflatedInputStream(inflaterInputStream, dataLength),
+                    frame.getBudget()
+            );
         }
 
-        outputStream.writeByteList(dataLengthAndData);
+        try {
+            final int id = decompressedDataInputStream.readVarInt();
+
+            // the rest of the frame is skipped on close, so the connection is still in sync even
+            // if the packet is skipped or couldn't be decoded
+            return EncodedPacketImpl.decode(
+                    stateful.getPacketRegistry(),
+                    id,
+                    decompressedDataInputStream,
+                    handler
+            );
+        } finally {
+            decompressedDataInputStream.close();
+        }
     }
 
     @Override
-    public @NotNull Packet decode(final @NotNull StreamIn inputStream) {
+    public @NotNull EncodedPacket read(final @NotNull StreamIn inputStream) {
 
         Preconditions.requireNotNull(inputStream, "inputStream");
 
-        try (final ByteArrayStreamIn packetInputStream = StreamIn.createByteArrayStream(
-                inputStream.readByteList())) {
-            final int dataLength = packetInputStream.readVarInt();
+        try (final Frame frame = Frame.read(inputStream, limits)) {
+            return read(frame, readDataLength(frame.getInputStream()));
+        }
+    }
 
-            final StreamIn decompressedDataInputStream;
+    @Override
+    public @Nullable EncodedPacket read(final @NotNull StreamIn inputStream,
+            final @NotNull PacketHandler handler,
+            final @NotNull Consumer<? super @NotNull Packet> decoded) {
 
-            if (dataLength == 0) {
-                decompressedDataInputStream = packetInputStream;
+        Preconditions.requireNotNull(inputStream, "inputStream");
+        Preconditions.requireNotNull(handler, "handler");
+        Preconditions.requireNotNull(decoded, "decoded");
+
+        final Packet packet;
+        try (final Frame frame = Frame.read(inputStream, limits)) {
+            final int dataLength = readDataLength(frame.getInputStream());
+            final boolean buffered = dataLength == 0
+                    ? frame.getBuffer() != null
+                    : dataLength <= Frame.MAX_BUFFERED_LENGTH;
+
+            if (!buffered) {
+                // inflated and decoded as it's read, rather than read into memory whole
+                packet = decode(frame, dataLength, handler);
             } else {
-                decompressedDataInputStream = compression.decompressed(packetInputStream);
+                final EncodedPacket encodedPacket = read(frame, dataLength);
+                if (!encodedPacket.isDirect()) {
+                    return encodedPacket;
+                }
+                packet = encodedPacket.decode(handler);
             }
+        }
+
+        if (packet != null) {
+            decoded.accept(packet);
+        }
+        return null;
+    }
+
+    /**
+     * Reads the packet in the frame into memory, just past the data length. Uncompressed packets
+     * keep the frame's buffer if it has one, and the rest are inflated into a buffer of their own.
+     */
+    private @NotNull EncodedPacket read(final @NotNull Frame frame, final int dataLength) {
 
-            try {
-                final int id = decompressedDataInputStream.readVarInt();
+        final StreamIn packetInputStream = frame.getInputStream();
+        final PacketRegistry packetRegistry = stateful.getPacketRegistry();
 
-                return stateful.getPacketRegistry()
-                        .getPacketDecoder(id)
-                        .orElseThrow(() -> new DecodeException(
-                                "Unknown packet decoder for id 0x" + Integer.toHexString(id), true))
-                        .decode(decompressedDataInputStream);
-            } finally {
-                decompressedDataInputStream.close();
+        if (dataLength == 0) {
+            final int length = frame.getLength() - Codecs.varIntSize(dataLength);
+            final PooledBuffer buffer = frame.getBuffer();
+            if (buffer == null) {
+                return EncodedPacketImpl.read(
+                        packetRegistry,
+                        packetInputStream.toInputStream(),
+                        length,
+                        limits
+                );
             }
+
+            final int id = packetInputStream.readVarInt();
+            return EncodedPacketImpl.of(
+                    packetRegistry,
+                    buffer,
+                    packetInputStream,
+                    id,
+                    length - Codecs.varIntSize(id)
+            );
+        }
+
+        // the data length is exact, so the packet is inflated straight into a buffer of the right
+        // size
+        try (final InputStream decompressedInputStream =
+                     compression.decompressed(packetInputStream.toInputStream())) {
+            return EncodedPacketImpl.read(
+                    packetRegistry,
+                    decompressedInputStream,
+                    dataLength,
+                    limits
+            );
+        } catch (final IOException | RuntimeIOException e) {
+            // the frame is skipped on close, so the connection is still in sync
+            throw new DecodeException("Malformed compressed packet", e, true, false);
+        }
+    }
+
+    /**
+     * Reads the data length of a compressed frame.
+     *
+     * @throws DecodeException if the data length is negative or greater than the max inflated
+     *         size.
+     */
+    private int readDataLength(final @NotNull StreamIn packetInputStream) {
+
+        final int dataLength = packetInputStream.readVarInt();
+
+        if (dataLength < 0) {
+            throw new DecodeException("Data length " + dataLength + " is out of bounds", false);
+        }
+
+        if (dataLength > limits.getMaxInflatedSize()) {
+            throw new DecodeException("Data length " + dataLength
+                    + " exceeds the max inflated size of " + limits.getMaxInflatedSize(), false);
+        }
+        return dataLength;
+    }
+
+    /**
+     * A view over the first {@code length} bytes of an inflated packet. Reads past the declared
+     * data length return {@code -1}, and closing the view releases the inflater.
+     */
+    private static final class InflatedInputStream extends FilterInputStream {
+
+        private int remaining;
+
+        InflatedInputStream(final @NotNull InputStream inputStream, final int length) {
+
+            super(inputStream);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+
+            if (remaining == 0) {
+                return -1;
+            }
+
+            final int read = in.read();
+            if (read != -1) {
+                remaining--;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(final byte @NotNull [] b, final int off, final int len)
+                throws IOException {
+
+            if (remaining == 0) {
+                return len == 0 ? 0 : -1;
+            }
+
+            final int read = in.read(b, off, Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+
+            final long skipped = in.skip(Math.min(n, remaining));
+            remaining -= (int) skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+
+            return Math.min(in.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+
+            return false;
         }
     }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.net.packet.format;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import io.github.sparky983.diorite.net.packet.Packet;
+import io.github.sparky983.diorite.net.packet.PacketHandler;
+
+/**
+ * A packet that has been read out of its frame, and decompressed if needed, but not yet decoded.
+ * <p>
+ * The packet's bytes are detached from the connection, so it can be decoded on another thread
+ * while the connection carries on reading. It is decoded with the packet registry of the state
+ * the connection was in when it was read. The bytes are held in a pooled buffer until the packet
+ * is decoded or released, whichever comes first.
+ *
+ * @author Sparky983
+ * @see PacketFormat#read(io.github.sparky983.diorite.io.StreamIn)
+ * @since 1.0.0
+ */
+public interface EncodedPacket {
+
+    /**
+     * Returns the packet id.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int getId();
+
+    /**
+     * Returns the length of the packet's data, excluding the id.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int getLength();
+
+    /**
+     * Returns whether the packet has a {@link PacketHandler} callback that it is decoded into.
+     * These packets are small, and their callbacks should be invoked in the order the packets were
+     * received.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    boolean isDirect();
+
+    /**
+     * Decodes the packet, passing its fields straight to the specified handler if it has a
+     * {@link PacketHandler} callback, then releases its bytes.
+     * <p>
+     * As the packet's bytes are self-contained, every {@link
+     * io.github.sparky983.diorite.io.DecodeException} thrown is ignorable, apart from a {@link
+     * io.github.sparky983.diorite.io.DecodeLimitException} if the packet exceeds its limits.
+     *
+     * @param handler The handler.
+     * @return The decoded packet, or {@code null} if the handler handled it or it was skipped, in
+     *         which case {@link PacketHandler#onSkipped(int)} is called.
+     * @throws NullPointerException if handler is {@code null}.
+     * @throws IllegalStateException if the packet has already been decoded or released.
+     * @throws io.github.sparky983.diorite.io.DecodeException if the packet couldn't be decoded.
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    @Nullable Packet decode(@NotNull PacketHandler handler);
+
+    /**
+     * Releases the packet's bytes without decoding it. Does nothing if the packet has already been
+     * decoded or released.
+     *
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    void release();
+}
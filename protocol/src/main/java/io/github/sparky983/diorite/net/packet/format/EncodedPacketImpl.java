@@ -0,0 +1,208 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.net.packet.format;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import io.github.sparky983.diorite.io.BufferPool;
+import io.github.sparky983.diorite.io.DecodeException;
+import io.github.sparky983.diorite.io.DecodeLimitException;
+import io.github.sparky983.diorite.io.DecodeLimits;
+import io.github.sparky983.diorite.io.PooledBuffer;
+import io.github.sparky983.diorite.io.RuntimeIOException;
+import io.github.sparky983.diorite.io.StreamIn;
+import io.github.sparky983.diorite.net.packet.DirectPacketDecoder;
+import io.github.sparky983.diorite.net.packet.Packet;
+import io.github.sparky983.diorite.net.packet.PacketDecoder;
+import io.github.sparky983.diorite.net.packet.PacketHandler;
+import io.github.sparky983.diorite.net.packet.PacketRegistry;
+import io.github.sparky983.diorite.net.packet.codec.Codecs;
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class EncodedPacketImpl implements EncodedPacket {
+
+    private final PacketRegistry packetRegistry;
+    private final PooledBuffer buffer;
+    private final StreamIn inputStream;
+    private final int id;
+    private final int length;
+
+    private boolean released = false;
+
+    private EncodedPacketImpl(final @NotNull PacketRegistry packetRegistry,
+            final @NotNull PooledBuffer buffer,
+            final @NotNull StreamIn inputStream,
+            final int id,
+            final int length) {
+
+        this.packetRegistry = packetRegistry;
+        this.buffer = buffer;
+        this.inputStream = inputStream;
+        this.id = id;
+        this.length = length;
+    }
+
+    /**
+     * Creates a packet out of a buffered frame, without copying it. The input stream must be over
+     * the frame's buffer, just past the packet id, with length bytes of data left.
+     * <p>
+     * The buffer is retained, so the frame can still be closed.
+     */
+    static @NotNull EncodedPacket of(final @NotNull PacketRegistry packetRegistry,
+            final @NotNull PooledBuffer buffer,
+            final @NotNull StreamIn inputStream,
+            final int id,
+            final int length) {
+
+        return new EncodedPacketImpl(packetRegistry, buffer.retain(), inputStream, id, length);
+    }
+
+    /**
+     * Reads length bytes of a packet's id and data into a pooled buffer. The packet is decoded
+     * with a budget from the specified limits.
+     *
+     * @throws RuntimeIOException if the stream ends before length bytes are read.
+     */
+    static @NotNull EncodedPacket read(final @NotNull PacketRegistry packetRegistry,
+            final @NotNull InputStream inputStream,
+            final int length,
+            final @NotNull DecodeLimits limits) {
+
+        final PooledBuffer buffer = BufferPool.shared().acquire(length);
+        try {
+            if (inputStream.readNBytes(buffer.array(), 0, length) != length) {
+                throw new EOFException("Stream ended before the end of the packet");
+            }
+        } catch (final IOException e) {
+            buffer.release();
+            throw new RuntimeIOException(e);
+        } catch (final RuntimeException e) {
+            buffer.release();
+            throw e;
+        }
+
+        final StreamIn packetInputStream =
+                StreamIn.createByteArrayStream(buffer, length, limits.newBudget());
+        final int id;
+        try {
+            id = packetInputStream.readVarInt();
+        } catch (final RuntimeException e) {
+            buffer.release();
+            throw e;
+        }
+
+        return new EncodedPacketImpl(
+                packetRegistry,
+                buffer,
+                packetInputStream,
+                id,
+                length - Codecs.varIntSize(id)
+        );
+    }
+
+    /**
+     * Decodes a packet's data with the decoder registered for its id, shared by the packet formats
+     * and encoded packets.
+     * <p>
+     * Non-ignorable exceptions are rethrown as ignorable ones, so the caller must make sure the
+     * input stream is left at the end of the packet regardless. {@link DecodeLimitException}s stay
+     * non-ignorable, so a peer over its limits isn't let off with dropped packets.
+     */
+    static @Nullable Packet decode(final @NotNull PacketRegistry packetRegistry,
+            final int id,
+            final @NotNull StreamIn inputStream,
+            final @NotNull PacketHandler handler) {
+
+        try {
+            final DirectPacketDecoder<?> directDecoder = packetRegistry.getDirectPacketDecoder(id);
+
+            if (directDecoder != null) {
+                return directDecoder.decode(inputStream, handler);
+            }
+
+            final Optional<PacketDecoder<?>> decoder = packetRegistry.getPacketDecoder(id);
+
+            if (decoder.isEmpty()) {
+                handler.onSkipped(id);
+                return null;
+            }
+
+            return decoder.get().decode(inputStream);
+        } catch (final DecodeException e) {
+            if (!e.isIgnorable() && !(e instanceof DecodeLimitException)) {
+                // the cause already has the stack trace
+                throw new DecodeException(e.getMessage(), e, true, false);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public int getId() {
+
+        return id;
+    }
+
+    @Override
+    public int getLength() {
+
+        return length;
+    }
+
+    @Override
+    public boolean isDirect() {
+
+        return packetRegistry.getDirectPacketDecoder(id) != null;
+    }
+
+    @Override
+    public @Nullable Packet decode(final @NotNull PacketHandler handler) {
+
+        Preconditions.requireNotNull(handler, "handler");
+
+        if (released) {
+            throw new IllegalStateException("The packet has already been decoded or released");
+        }
+
+        try {
+            return decode(packetRegistry, id, inputStream, handler);
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public void release() {
+
+        if (!released) {
+            released = true;
+            buffer.release();
+        }
+    }
+
+    @Override
+    public @NotNull String toString() {
+
+        return "EncodedPacket{id=" + id + ", length=" + length + "}";
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.net.packet.format;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import io.github.sparky983.diorite.io.BufferPool;
+import io.github.sparky983.diorite.io.DecodeBudget;
+import io.github.sparky983.diorite.io.DecodeException;
+import io.github.sparky983.diorite.io.DecodeLimits;
+import io.github.sparky983.diorite.io.PooledBuffer;
+import io.github.sparky983.diorite.io.RuntimeIOException;
+import io.github.sparky983.diorite.io.StreamIn;
+
+/**
+ * The body of a length-prefixed packet frame.
+ * <p>
+ * Small frames are read into a pooled array up front. Frames longer than {@link #MAX_BUFFERED_LENGTH}
+ * are decoded straight from the connection's input stream through a bounded view, so large
+ * packets (chunk data, tags, recipes) are never materialized as a frame and then again as the
+ * decoded packet. Either way, closing the frame leaves the connection at the start of the next
+ * frame regardless of how much of it was read.
+ */
+final class Frame implements AutoCloseable {
+
+    /**
+     * The length up to which frames are buffered into an array.
+     */
+    static final int MAX_BUFFERED_LENGTH = 64 * 1024;
+
+    private final StreamIn inputStream;
+    private final FrameInputStream frameInputStream;
+    private final PooledBuffer buffer;
+    private final int length;
+    private final DecodeBudget budget;
+
+    private Frame(final @NotNull StreamIn inputStream,
+            final FrameInputStream frameInputStream,
+            final PooledBuffer buffer,
+            final int length,
+            final @NotNull DecodeBudget budget) {
+
+        this.inputStream = inputStream;
+        this.frameInputStream = frameInputStream;
+        this.buffer = buffer;
+        this.length = length;
+        this.budget = budget;
+    }
+
+    /**
+     * Reads the length prefix of the next frame.
+     *
+     * @param inputStream The connection's input stream.
+     * @param limits The connection's decode limits, the frame gets a fresh budget of its own.
+     * @return The frame.
+     * @throws DecodeException if the frame is longer than the max frame size.
+     */
+    static @NotNull Frame read(final @NotNull StreamIn inputStream,
+            final @NotNull DecodeLimits limits) {
+
+        final int length = readLength(inputStream, limits.getMaxFrameSize());
+        final DecodeBudget budget = limits.newBudget();
+
+        if (length <= MAX_BUFFERED_LENGTH) {
+            final PooledBuffer buffer = BufferPool.shared().acquire(length);
+            try {
+                readFully(inputStream.toInputStream(), buffer.array(), length);
+            } catch (final RuntimeException e) {
+                buffer.release();
+                throw e;
+            }
+            return new Frame(
+                    StreamIn.createByteArrayStream(buffer, length, budget),
+                    null,
+                    buffer,
+                    length,
+                    budget
+            );
+        }
+
+        final FrameInputStream frameInputStream =
+                new FrameInputStream(inputStream.toInputStream(), length);
+        return new Frame(
+                StreamIn.from(frameInputStream, budget),
+                frameInputStream,
+                null,
+                length,
+                budget
+        );
+    }
+
+    /**
+     * Reads the length prefix of the next frame, leaving the input stream at the start of its
+     * body.
+     *
+     * @param inputStream The connection's input stream.
+     * @param maxFrameSize The maximum allowed frame length.
+     * @return The frame's length.
+     * @throws DecodeException if the frame is longer than maxFrameSize.
+     */
+    static int readLength(final @NotNull StreamIn inputStream, final int maxFrameSize) {
+
+        final int length = inputStream.readVarInt();
+
+        if (length < 0 || length > maxFrameSize) {
+            // the frame can't be trusted enough to skip
+            throw new DecodeException(
+                    "Frame length " + length + " exceeds the max frame size of " + maxFrameSize,
+                    false);
+        }
+        return length;
+    }
+
+    private static void readFully(final @NotNull InputStream inputStream,
+            final byte @NotNull [] buffer,
+            final int length) {
+
+        try {
+            if (inputStream.readNBytes(buffer, 0, length) != length) {
+                throw new EOFException("Stream ended before the end of the frame");
+            }
+        } catch (final IOException e) {
+            throw new RuntimeIOException(e);
+        }
+    }
+
+    /**
+     * Returns a stream over the body of the frame.
+     */
+    @NotNull StreamIn getInputStream() {
+
+        return inputStream;
+    }
+
+    /**
+     * Returns the budget that everything read from the frame is checked against, including the
+     * packet it inflates to.
+     */
+    @NotNull DecodeBudget getBudget() {
+
+        return budget;
+    }
+
+    /**
+     * Returns the buffer the frame was read into, or {@code null} if it is streamed because it is
+     * longer than {@link #MAX_BUFFERED_LENGTH}. The buffer is released when the frame is closed,
+     * so it must be retained to outlive it.
+     */
+    @Nullable PooledBuffer getBuffer() {
+
+        return buffer;
+    }
+
+    /**
+     * Returns the length of the frame's body.
+     */
+    int getLength() {
+
+        return length;
+    }
+
+    /**
+     * Skips whatever is left of the frame and returns its buffer to the pool.
+     */
+    @Override
+    public void close() {
+
+        if (frameInputStream != null) {
+            frameInputStream.skipRemaining();
+        }
+        if (buffer != null) {
+            buffer.release();
+        }
+    }
+}
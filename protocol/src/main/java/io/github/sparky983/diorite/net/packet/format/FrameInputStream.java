@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.net.packet.format;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import io.github.sparky983.diorite.io.RuntimeIOException;
+
+/**
+ * A view over the next {@code length} bytes of an input stream.
+ * <p>
+ * Used to decode large frames directly from the socket buffer without copying them into an array
+ * first. Reads past the end of the frame return {@code -1} and {@link #skipRemaining()} discards
+ * whatever the decoder didn't read, so the underlying stream is always left at the next frame.
+ */
+final class FrameInputStream extends InputStream {
+
+    private final InputStream inputStream;
+    private int remaining;
+
+    FrameInputStream(final @NotNull InputStream inputStream, final int length) {
+
+        this.inputStream = inputStream;
+        this.remaining = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+
+        if (remaining == 0) {
+            return -1;
+        }
+
+        final int read = inputStream.read();
+        if (read != -1) {
+            remaining--;
+        }
+        return read;
+    }
+
+    @Override
+    public int read(final byte @NotNull [] b, final int off, final int len) throws IOException {
+
+        if (remaining == 0) {
+            return len == 0 ? 0 : -1;
+        }
+
+        final int read = inputStream.read(b, off, Math.min(len, remaining));
+        if (read > 0) {
+            remaining -= read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+
+        final long skipped = inputStream.skip(Math.min(n, remaining));
+        remaining -= (int) skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+
+        return Math.min(inputStream.available(), remaining);
+    }
+
+    /**
+     * Does nothing, closing a frame must never close the connection.
+     */
+    @Override
+    public void close() {
+
+    }
+
+    /**
+     * Discards the rest of the frame.
+     *
+     * @throws RuntimeIOException if the stream ends before the frame does.
+     */
+    void skipRemaining() {
+
+        try {
+            while (remaining > 0) {
+                final long skipped = inputStream.skip(remaining);
+                if (skipped > 0) {
+                    remaining -= (int) skipped;
+                } else if (inputStream.read() == -1) {
+                    throw new RuntimeIOException(
+                            new IOException("Stream ended " + remaining + " bytes before frame"));
+                } else {
+                    remaining--;
+                }
+            }
+        } catch (final IOException e) {
+            throw new RuntimeIOException(e);
+        }
+    }
+}
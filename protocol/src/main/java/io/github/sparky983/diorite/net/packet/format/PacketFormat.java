@@ -18,13 +18,20 @@ package io.github.sparky983.diorite.net.packet.format;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
+import java.util.function.Consumer;
+
+import io.github.sparky983.diorite.io.DecodeException;
+import io.github.sparky983.diorite.io.DecodeLimits;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.io.compression.Compression;
 import io.github.sparky983.diorite.net.Stateful;
 import io.github.sparky983.diorite.net.packet.Packet;
+import io.github.sparky983.diorite.net.packet.PacketHandler;
+import io.github.sparky983.diorite.util.Protocol;
 
 /**
  * Represents a packet format. The Minecraft protocol specifies 2 formats: uncompressed and
@@ -35,6 +42,13 @@ import io.github.sparky983.diorite.net.packet.Packet;
  */
 public interface PacketFormat {
 
+    /**
+     * The default max frame size, the largest frame the protocol allows.
+     *
+     * @since 1.0.0
+     */
+    int DEFAULT_MAX_FRAME_SIZE = Protocol.MAX_FRAME_LENGTH;
+
     /**
      * Creates a new uncompressed packet format.
      *
@@ -46,7 +60,40 @@ public interface PacketFormat {
     @Contract(pure = true)
     static @NotNull PacketFormat uncompressed(final @NotNull Stateful stateful) {
 
-        return new UncompressedPacketFormat(stateful);
+        return uncompressed(stateful, DecodeLimits.defaults());
+    }
+
+    /**
+     * Creates a new uncompressed packet format.
+     *
+     * @param stateful The object representing the channel's current state.
+     * @param maxFrameSize The maximum length of a received frame.
+     * @return The created packet format.
+     * @throws NullPointerException if stateful is {@code null}.
+     * @throws IllegalArgumentException if maxFrameSize is less than 1.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    static @NotNull PacketFormat uncompressed(final @NotNull Stateful stateful,
+            final @Range(from = 1, to = Integer.MAX_VALUE) int maxFrameSize) {
+
+        return uncompressed(stateful, DecodeLimits.builder().maxFrameSize(maxFrameSize).build());
+    }
+
+    /**
+     * Creates a new uncompressed packet format that decodes frames within the specified limits.
+     *
+     * @param stateful The object representing the channel's current state.
+     * @param limits The limits.
+     * @return The created packet format.
+     * @throws NullPointerException if stateful or limits are {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    static @NotNull PacketFormat uncompressed(final @NotNull Stateful stateful,
+            final @NotNull DecodeLimits limits) {
+
+        return new UncompressedPacketFormat(stateful, limits);
     }
 
     /**
@@ -63,7 +110,51 @@ public interface PacketFormat {
             final @Range(from = 1, to = Integer.MAX_VALUE) int threshold,
             final @NotNull Compression compression) {
 
-        return new CompressedPacketFormat(stateful, threshold, compression);
+        return compressed(stateful, threshold, compression, DecodeLimits.defaults());
+    }
+
+    /**
+     * Creates a new compressed packet format.
+     *
+     * @param threshold The compression threshold.
+     * @param compression The compression to use.
+     * @param maxFrameSize The maximum length of a received frame, before decompression.
+     * @return The created packet format.
+     * @throws IllegalArgumentException if maxFrameSize is less than 1.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    static @NotNull PacketFormat compressed(
+            final @NotNull Stateful stateful,
+            final @Range(from = 1, to = Integer.MAX_VALUE) int threshold,
+            final @NotNull Compression compression,
+            final @Range(from = 1, to = Integer.MAX_VALUE) int maxFrameSize) {
+
+        return compressed(stateful, threshold, compression,
+                DecodeLimits.builder().maxFrameSize(maxFrameSize).build());
+    }
+
+    /**
+     * Creates a new compressed packet format that decodes frames within the specified limits.
+     * <p>
+     * Packets are never inflated past their declared data length, which may be no greater than
+     * the limits' max inflated size.
+     *
+     * @param threshold The compression threshold.
+     * @param compression The compression to use.
+     * @param limits The limits.
+     * @return The created packet format.
+     * @throws NullPointerException if stateful, compression or limits are {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    static @NotNull PacketFormat compressed(
+            final @NotNull Stateful stateful,
+            final @Range(from = 1, to = Integer.MAX_VALUE) int threshold,
+            final @NotNull Compression compression,
+            final @NotNull DecodeLimits limits) {
+
+        return new CompressedPacketFormat(stateful, threshold, compression, limits);
     }
 
     /**
@@ -71,6 +162,9 @@ public interface PacketFormat {
      * <p>
      * Note that no checks will be made to ensure that the specified packet is able to sent at the
      * current time.
+     * <p>
+     * Writes to the output stream aren't synchronized, callers that encode to the same stream from
+     * multiple threads must synchronize on it themselves.
      *
      * @param packet The packet to format.
      * @param outputStream The output stream to format it to.
@@ -80,13 +174,98 @@ public interface PacketFormat {
     void encode(@NotNull Packet packet,
             @NotNull StreamOut outputStream);
 
+    /**
+     * Formats the specified pre-encoded packet.
+     * <p>
+     * The frame is built the first time the packet is sent with this format's settings, and
+     * written as is every time after that, including by other formats with the same settings.
+     *
+     * @param packet The packet to format.
+     * @param outputStream The output stream to format it to.
+     * @throws NullPointerException if packet or outputStream are {@code null}.
+     * @since 1.0.0
+     */
+    void encode(@NotNull PreEncodedPacket<?> packet,
+            @NotNull StreamOut outputStream);
+
     /**
      * Decodes the formatted packet from the input stream using the specified decoder to decoder the
      * packet data.
+     * <p>
+     * The input stream is always left at the start of the next frame, unless a non-ignorable
+     * {@link io.github.sparky983.diorite.io.DecodeException} is thrown.
      *
      * @param inputStream The input stream.
      * @return The decoded packet.
      * @throws NullPointerException if decoder or inputStream are {@code null}.
+     * @throws io.github.sparky983.diorite.io.DecodeException if the frame is longer than the max
+     *         frame size, there is no decoder for the packet's id or the packet couldn't be
+     *         decoded.
+     */
+    default @NotNull Packet decode(@NotNull StreamIn inputStream) {
+
+        final Packet packet = decode(inputStream, PacketHandler.NONE);
+        if (packet == null) {
+            // PacketHandler.NONE never handles packets, so it was skipped
+            throw new DecodeException("No packet decoder for the packet's id", true);
+        }
+        return packet;
+    }
+
+    /**
+     * Decodes the formatted packet from the input stream, passing its fields straight to the
+     * specified handler if it has a {@link PacketHandler} callback.
+     * <p>
+     * The input stream is always left at the start of the next frame, unless a non-ignorable
+     * {@link io.github.sparky983.diorite.io.DecodeException} is thrown.
+     *
+     * @param inputStream The input stream.
+     * @param handler The handler.
+     * @return The decoded packet, or {@code null} if the handler handled it or it was skipped, in
+     *         which case {@link PacketHandler#onSkipped(int)} is called.
+     * @throws NullPointerException if inputStream or handler are {@code null}.
+     * @throws io.github.sparky983.diorite.io.DecodeException if the frame is longer than the max
+     *         frame size or the packet couldn't be decoded.
+     * @since 1.0.0
+     */
+    @Nullable Packet decode(@NotNull StreamIn inputStream, @NotNull PacketHandler handler);
+
+    /**
+     * Reads the next packet out of its frame without decoding it, so it can be decoded later or
+     * on another thread.
+     * <p>
+     * Unlike {@link #decode(StreamIn, PacketHandler)}, the whole packet is read into memory, even
+     * if it is large.
+     *
+     * @param inputStream The input stream.
+     * @return The packet.
+     * @throws NullPointerException if inputStream is {@code null}.
+     * @throws io.github.sparky983.diorite.io.DecodeException if the frame is longer than the max
+     *         frame size or couldn't be decompressed.
+     * @since 1.0.0
+     */
+    @NotNull EncodedPacket read(@NotNull StreamIn inputStream);
+
+    /**
+     * Reads the next packet out of its frame without decoding it, unless it has to be decoded
+     * straight away.
+     * <p>
+     * Packets with a {@link PacketHandler} callback are decoded into the handler as they're read,
+     * so the callback isn't held up behind packets that are still being decoded. Packets longer
+     * than the frames that are buffered are also decoded as they're read, rather than being read
+     * into memory whole. Packets decoded straight away are passed to the specified consumer,
+     * unless the handler handled them or they were skipped.
+     *
+     * @param inputStream The input stream.
+     * @param handler The handler.
+     * @param decoded The consumer of the packets that are decoded straight away.
+     * @return The packet, or {@code null} if it was decoded straight away.
+     * @throws NullPointerException if inputStream, handler or decoded are {@code null}.
+     * @throws io.github.sparky983.diorite.io.DecodeException if the frame is longer than the max
+     *         frame size, couldn't be decompressed or its packet couldn't be decoded.
+     * @since 1.0.0
      */
-    @NotNull Packet decode(@NotNull StreamIn inputStream);
+    @Nullable EncodedPacket read(@NotNull StreamIn inputStream,
+            @NotNull PacketHandler handler,
+            @NotNull Consumer<? super @NotNull Packet> decoded);
 }
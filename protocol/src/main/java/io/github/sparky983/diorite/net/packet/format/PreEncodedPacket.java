@@ -0,0 +1,204 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.net.packet.format;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.function.UnaryOperator;
+
+import io.github.sparky983.diorite.io.ByteArrayStreamOut;
+import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.io.compression.Compression;
+import io.github.sparky983.diorite.net.packet.Packet;
+import io.github.sparky983.diorite.util.Preconditions;
+
+/**
+ * A packet that is encoded once and sent to many channels.
+ * <p>
+ * The packet's fields are written the first time it is sent, and each frame is built the first
+ * time it is sent with a given compression threshold and compression, then reused. Broadcasting a
+ * packet to many channels with the same settings compresses it only once. Encryption is still
+ * applied per channel, as the frame is written.
+ * <p>
+ * The packet must not change after it has been pre-encoded.
+ *
+ * @param <P> The type of the packet.
+ * @author Sparky983
+ * @see PacketFormat#encode(PreEncodedPacket, StreamOut)
+ * @since 1.0.0
+ */
+public final class PreEncodedPacket<P extends Packet> {
+
+    private static final Frame[] NO_FRAMES = new Frame[0];
+    private static final LongConsumer NO_LISTENER = (size) -> {};
+
+    private final P packet;
+    private final LongConsumer sizeListener;
+
+    private volatile byte[] data;
+    // a channel rarely changes its settings, so there are usually one or two frames and a scan
+    // beats a map
+    private volatile Frame[] frames = NO_FRAMES;
+
+    @Contract(pure = true)
+    private PreEncodedPacket(final @NotNull P packet, final @NotNull LongConsumer sizeListener) {
+
+        Preconditions.requireNotNull(packet, "packet");
+
+        this.packet = packet;
+        this.sizeListener = sizeListener;
+    }
+
+    /**
+     * Creates a pre-encoded version of the specified packet. Nothing is encoded until the packet
+     * is first sent.
+     *
+     * @param packet The packet.
+     * @param <P> The type of the packet.
+     * @return The pre-encoded packet.
+     * @throws NullPointerException if packet is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    public static <P extends Packet> @NotNull PreEncodedPacket<P> of(final @NotNull P packet) {
+
+        return new PreEncodedPacket<>(packet, NO_LISTENER);
+    }
+
+    /**
+     * Creates a pre-encoded version of the specified packet, which passes the number of bytes it
+     * grows by to the listener whenever its data or a frame is built.
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    static <P extends Packet> @NotNull PreEncodedPacket<P> of(final @NotNull P packet,
+            final @NotNull LongConsumer sizeListener) {
+
+        return new PreEncodedPacket<>(packet, sizeListener);
+    }
+
+    /**
+     * Returns the packet.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public @NotNull P getPacket() {
+
+        return packet;
+    }
+
+    /**
+     * Returns the packet id.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public int getId() {
+
+        return packet.getId();
+    }
+
+    /**
+     * Returns the packet id followed by the packet's fields, which is what a frame holds before
+     * it is compressed.
+     */
+    byte @NotNull [] getData() {
+
+        byte[] data = this.data;
+        if (data == null) {
+            synchronized (this) {
+                data = this.data;
+                if (data == null) {
+                    try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+                        outputStream.writeVarInt(packet.getId());
+                        packet.write(outputStream);
+                        data = outputStream.toByteArray();
+                    }
+                    this.data = data;
+                    sizeListener.accept(data.length);
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Returns the frame for the specified settings, building it from the packet's data with the
+     * framer if it hasn't been built yet.
+     *
+     * @param threshold The compression threshold.
+     * @param compression The compression, or {@code null} if the format is uncompressed.
+     * @param framer Builds the frame from the packet's data.
+     */
+    byte @NotNull [] getFrame(final int threshold,
+            final @Nullable Compression compression,
+            final @NotNull UnaryOperator<byte @NotNull []> framer) {
+
+        final byte[] frame = findFrame(frames, threshold, compression);
+        if (frame != null) {
+            return frame;
+        }
+
+        // other channels sending the packet wait here instead of building the frame themselves
+        synchronized (this) {
+            final Frame[] frames = this.frames;
+            final byte[] existing = findFrame(frames, threshold, compression);
+            if (existing != null) {
+                return existing;
+            }
+            final byte[] built = framer.apply(getData());
+            final Frame[] updated = Arrays.copyOf(frames, frames.length + 1);
+            updated[frames.length] = new Frame(threshold, compression, built);
+            this.frames = updated;
+            sizeListener.accept(built.length);
+            return built;
+        }
+    }
+
+    private static byte @Nullable [] findFrame(final @NotNull Frame @NotNull [] frames,
+            final int threshold,
+            final @Nullable Compression compression) {
+
+        for (final Frame frame : frames) {
+            if (frame.threshold == threshold && frame.compression == compression) {
+                return frame.bytes;
+            }
+        }
+        return null;
+    }
+
+    private static final class Frame {
+
+        private final int threshold;
+        private final Compression compression;
+        private final byte[] bytes;
+
+        @Contract(pure = true)
+        Frame(final int threshold,
+                final @Nullable Compression compression,
+                final byte @NotNull [] bytes) {
+
+            this.threshold = threshold;
+            this.compression = compression;
+            this.bytes = bytes;
+        }
+    }
+}
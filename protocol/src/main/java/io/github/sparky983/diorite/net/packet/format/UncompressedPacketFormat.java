@@ -18,26 +18,36 @@ package io.github.sparky983.diorite.net.packet.format;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.function.Consumer;
+
+import io.github.sparky983.diorite.io.BufferPool;
 import io.github.sparky983.diorite.io.ByteArrayStreamOut;
-import io.github.sparky983.diorite.io.DecodeException;
+import io.github.sparky983.diorite.io.DecodeLimits;
+import io.github.sparky983.diorite.io.PooledBuffer;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
 import io.github.sparky983.diorite.net.Stateful;
 import io.github.sparky983.diorite.net.packet.Packet;
-import io.github.sparky983.diorite.net.packet.PacketDecoder;
+import io.github.sparky983.diorite.net.packet.PacketHandler;
+import io.github.sparky983.diorite.net.packet.PacketRegistry;
+import io.github.sparky983.diorite.net.packet.codec.Codecs;
 import io.github.sparky983.diorite.util.Preconditions;
 
 final class UncompressedPacketFormat implements PacketFormat {
 
     private final Stateful stateful;
+    private final DecodeLimits limits;
 
     @Contract(pure = true)
-    UncompressedPacketFormat(final @NotNull Stateful stateful) {
+    UncompressedPacketFormat(final @NotNull Stateful stateful, final @NotNull DecodeLimits limits) {
 
         Preconditions.requireNotNull(stateful, "stateful");
+        Preconditions.requireNotNull(limits, "limits");
 
         this.stateful = stateful;
+        this.limits = limits;
     }
 
     @Override
@@ -47,42 +57,117 @@ final class UncompressedPacketFormat implements PacketFormat {
         Preconditions.requireNotNull(packet, "packet");
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        final ByteArrayStreamOut byteArrayOutputStream =
-                StreamOut.ofByteArray();
+        final int size = packet.getEncodedSize();
 
-        byteArrayOutputStream.writeVarInt(packet.getId());
+        if (size != -1) {
+            // the length is known up front, so there's no need to buffer the packet
+            outputStream.writeVarInt(Codecs.varIntSize(packet.getId()) + size)
+                    .writeVarInt(packet.getId());
+            packet.write(outputStream);
+            return;
+        }
 
-        packet.write(byteArrayOutputStream);
+        try (final ByteArrayStreamOut byteArrayOutputStream =
+                     StreamOut.ofByteArray(BufferPool.shared())) {
+            byteArrayOutputStream.writeVarInt(packet.getId());
 
-        final byte[] data = byteArrayOutputStream.toByteArray();
+            packet.write(byteArrayOutputStream);
 
-        synchronized (this) {
-            outputStream.writeByteList(data);
+            outputStream.writeVarInt(byteArrayOutputStream.size());
+            byteArrayOutputStream.writeTo(outputStream);
         }
     }
 
     @Override
-    public @NotNull Packet decode(final @NotNull StreamIn inputStream) {
+    public void encode(final @NotNull PreEncodedPacket<?> packet,
+            final @NotNull StreamOut outputStream) {
+
+        Preconditions.requireNotNull(packet, "packet");
+        Preconditions.requireNotNull(outputStream, "outputStream");
+
+        final byte[] frame = packet.getFrame(0, null, (data) -> {
+            try (final ByteArrayStreamOut frameOutputStream = StreamOut.ofByteArray()) {
+                frameOutputStream.writeVarInt(data.length)
+                        .writeBytes(data);
+                return frameOutputStream.toByteArray();
+            }
+        });
+
+        outputStream.writeBytes(frame);
+    }
+
+    @Override
+    public @Nullable Packet decode(final @NotNull StreamIn inputStream,
+            final @NotNull PacketHandler handler) {
 
         Preconditions.requireNotNull(inputStream, "inputStream");
+        Preconditions.requireNotNull(handler, "handler");
 
-        final int length = inputStream.readVarInt();
+        try (final Frame frame = Frame.read(inputStream, limits)) {
+            final StreamIn frameInputStream = frame.getInputStream();
 
-        final byte[] data = inputStream.readBytes(length);
+            final int id = frameInputStream.readVarInt();
 
-        final StreamIn byteArrayInputStream = StreamIn.createByteArrayStream(data);
+            // the rest of the frame is skipped on close, so the connection is still in sync even
+            // if the packet is skipped or couldn't be decoded
+            return EncodedPacketImpl.decode(
+                    stateful.getPacketRegistry(),
+                    id,
+                    frameInputStream,
+                    handler
+            );
+        }
+    }
+
+    @Override
+    public @NotNull EncodedPacket read(final @NotNull StreamIn inputStream) {
 
-        final int id = byteArrayInputStream.readVarInt();
+        Preconditions.requireNotNull(inputStream, "inputStream");
 
-        final PacketDecoder<?> decoder = stateful.getPacketRegistry()
-                .getPacketDecoder(id)
-                .orElseThrow(() -> new DecodeException(
-                        "No packet encoder for id 0x" + Integer.toHexString(id), true));
+        final int length = Frame.readLength(inputStream, limits.getMaxFrameSize());
+        return EncodedPacketImpl.read(
+                stateful.getPacketRegistry(),
+                inputStream.toInputStream(),
+                length,
+                limits
+        );
+    }
+
+    @Override
+    public @Nullable EncodedPacket read(final @NotNull StreamIn inputStream,
+            final @NotNull PacketHandler handler,
+            final @NotNull Consumer<? super @NotNull Packet> decoded) {
+
+        Preconditions.requireNotNull(inputStream, "inputStream");
+        Preconditions.requireNotNull(handler, "handler");
+        Preconditions.requireNotNull(decoded, "decoded");
+
+        final Packet packet;
+        try (final Frame frame = Frame.read(inputStream, limits)) {
+            final StreamIn frameInputStream = frame.getInputStream();
+            final PacketRegistry packetRegistry = stateful.getPacketRegistry();
+
+            final int id = frameInputStream.readVarInt();
+
+            final PooledBuffer buffer = frame.getBuffer();
+            if (buffer != null && packetRegistry.getDirectPacketDecoder(id) == null) {
+                // the packet keeps the frame's buffer rather than copying it
+                return EncodedPacketImpl.of(
+                        packetRegistry,
+                        buffer,
+                        frameInputStream,
+                        id,
+                        frame.getLength() - Codecs.varIntSize(id)
+                );
+            }
+
+            // streamed frames are decoded as they're read, rather than read into memory whole
+            packet = EncodedPacketImpl.decode(packetRegistry, id, frameInputStream, handler);
+        }
 
-        try {
-            return decoder.decode(byteArrayInputStream);
-        } catch (final DecodeException e) {
-            throw new DecodeException(e, true);
+        if (packet != null) {
+            decoded.accept(packet);
         }
+        return null;
     }
 }
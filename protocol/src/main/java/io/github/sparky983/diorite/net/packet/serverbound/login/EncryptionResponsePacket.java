@@ -19,8 +19,12 @@ package io.github.sparky983.diorite.net.packet.serverbound.login;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import javax.crypto.SecretKey;
+
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.io.encryption.Encryption;
+import io.github.sparky983.diorite.net.packet.clientbound.login.EncryptionRequestPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
@@ -41,6 +45,33 @@ public final class EncryptionResponsePacket implements ServerBoundPacket {
         this.verifyToken = verifyToken;
     }
 
+    /**
+     * Creates the response to the specified encryption request, encrypting the shared secret and
+     * the request's verify token with the server's public key.
+     *
+     * @param request The encryption request.
+     * @param sharedSecret The shared secret the connection will be encrypted with.
+     * @return The response.
+     * @throws NullPointerException if request or sharedSecret are {@code null}.
+     * @throws IllegalArgumentException if the request's public key is not a valid RSA public key.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _ -> new")
+    public static @NotNull EncryptionResponsePacket respondTo(
+            final @NotNull EncryptionRequestPacket request,
+            final @NotNull SecretKey sharedSecret) {
+
+        Preconditions.requireNotNull(request, "request");
+        Preconditions.requireNotNull(sharedSecret, "sharedSecret");
+
+        final byte[] publicKey = request.getPublicKey();
+
+        return new EncryptionResponsePacket(
+                Encryption.encryptWithPublicKey(publicKey, sharedSecret.getEncoded()),
+                Encryption.encryptWithPublicKey(publicKey, request.getVerifyToken())
+        );
+    }
+
     @Contract(mutates = "param")
     public EncryptionResponsePacket(final @NotNull StreamIn inputStream) {
 
@@ -60,4 +91,16 @@ public final class EncryptionResponsePacket implements ServerBoundPacket {
 
         return ServerBoundPacketId.Login.ENCRYPTION_RESPONSE;
     }
+
+    @Contract(pure = true)
+    public byte @NotNull [] getSharedSecret() {
+
+        return sharedSecret;
+    }
+
+    @Contract(pure = true)
+    public byte @NotNull [] getVerifyToken() {
+
+        return verifyToken;
+    }
 }
@@ -19,15 +19,21 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class ClickWindowButtonPacket implements ServerBoundPacket {
 
+    @Field(FieldType.BYTE)
     private final byte windowId;
+    @Field(FieldType.BYTE)
     private final byte buttonId;
 
     @Contract(pure = true)
@@ -40,10 +46,8 @@ public final class ClickWindowButtonPacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public ClickWindowButtonPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.windowId = inputStream.readByte();
-        this.buttonId = inputStream.readByte();
+        this(ClickWindowButtonPacketCodec.readWindowId(inputStream),
+                ClickWindowButtonPacketCodec.readButtonId(inputStream));
     }
 
     @Override
@@ -51,8 +55,13 @@ public final class ClickWindowButtonPacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeByte(windowId)
-                .writeByte(buttonId);
+        ClickWindowButtonPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return ClickWindowButtonPacketCodec.INSTANCE.size(this);
     }
 
     @Override
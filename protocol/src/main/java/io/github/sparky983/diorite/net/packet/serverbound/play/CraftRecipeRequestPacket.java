@@ -19,17 +19,24 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.Identifier;
 
+@GenerateCodec
 public final class CraftRecipeRequestPacket implements ServerBoundPacket {
 
+    @Field(FieldType.BYTE)
     private final byte windowId;
+    @Field(FieldType.IDENTIFIER)
     private final Identifier recipe;
+    @Field(FieldType.BOOLEAN)
     private final boolean shouldMakeAll;
 
     @Contract(pure = true)
@@ -47,11 +54,9 @@ public final class CraftRecipeRequestPacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public CraftRecipeRequestPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.windowId = inputStream.readByte();
-        this.recipe = inputStream.readIdentifier();
-        this.shouldMakeAll = inputStream.readBoolean();
+        this(CraftRecipeRequestPacketCodec.readWindowId(inputStream),
+                CraftRecipeRequestPacketCodec.readRecipe(inputStream),
+                CraftRecipeRequestPacketCodec.readShouldMakeAll(inputStream));
     }
 
     @Override
@@ -59,9 +64,13 @@ public final class CraftRecipeRequestPacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeByte(windowId)
-                .writeIdentifier(recipe)
-                .writeBoolean(shouldMakeAll);
+        CraftRecipeRequestPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return CraftRecipeRequestPacketCodec.INSTANCE.size(this);
     }
 
     @Override
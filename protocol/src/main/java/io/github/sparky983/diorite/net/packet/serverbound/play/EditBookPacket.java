@@ -22,17 +22,24 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.Hand;
 
+@GenerateCodec
 public final class EditBookPacket implements ServerBoundPacket {
 
+    @Field(FieldType.VAR_INT_ENUM)
     private final Hand hand;
+    @Field(value = FieldType.STRING, list = true)
     private final List<String> entries;
+    @Field(value = FieldType.STRING, nullable = true)
     private final @Nullable String title;
 
     @Contract(pure = true)
@@ -51,11 +58,9 @@ public final class EditBookPacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public EditBookPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.hand = inputStream.readVarIntEnum(Hand.class);
-        this.entries = inputStream.readList(() -> inputStream.readString());
-        this.title = inputStream.readOptional(() -> inputStream.readString()).orElse(null);
+        this(EditBookPacketCodec.readHand(inputStream),
+                EditBookPacketCodec.readEntries(inputStream),
+                EditBookPacketCodec.readTitle(inputStream));
     }
 
     @Override
@@ -63,9 +68,13 @@ public final class EditBookPacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarIntEnum(hand)
-                .writeList(entries, outputStream::writeString)
-                .writeNullable(title, outputStream::writeString);
+        EditBookPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return EditBookPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,17 +19,24 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.BlockPosition;
 
+@GenerateCodec
 public final class GenerateStructurePacket implements ServerBoundPacket {
 
+    @Field(FieldType.BLOCK_POSITION)
     private final BlockPosition location;
+    @Field(FieldType.VAR_INT)
     private final int levels;
+    @Field(FieldType.BOOLEAN)
     private final boolean keepJigsaws;
 
     @Contract(pure = true)
@@ -47,11 +54,9 @@ public final class GenerateStructurePacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public GenerateStructurePacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.location = inputStream.readBlockPosition();
-        this.levels = inputStream.readVarInt();
-        this.keepJigsaws = inputStream.readBoolean();
+        this(GenerateStructurePacketCodec.readLocation(inputStream),
+                GenerateStructurePacketCodec.readLevels(inputStream),
+                GenerateStructurePacketCodec.readKeepJigsaws(inputStream));
     }
 
     @Override
@@ -59,9 +64,13 @@ public final class GenerateStructurePacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeBlockPosition(location)
-                .writeVarInt(levels)
-                .writeBoolean(keepJigsaws);
+        GenerateStructurePacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return GenerateStructurePacketCodec.INSTANCE.size(this);
     }
 
     @Override
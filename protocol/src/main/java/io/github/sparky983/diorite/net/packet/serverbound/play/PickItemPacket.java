@@ -19,14 +19,19 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class PickItemPacket implements ServerBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int slotToUse;
 
     @Contract(pure = true)
@@ -38,9 +43,7 @@ public final class PickItemPacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public PickItemPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.slotToUse = inputStream.readVarInt();
+        this(PickItemPacketCodec.readSlotToUse(inputStream));
     }
 
     @Override
@@ -48,7 +51,13 @@ public final class PickItemPacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(slotToUse);
+        PickItemPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return PickItemPacketCodec.INSTANCE.size(this);
     }
 
     @Override
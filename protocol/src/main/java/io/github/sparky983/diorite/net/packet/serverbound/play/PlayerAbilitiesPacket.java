@@ -19,16 +19,21 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class PlayerAbilitiesPacket implements ServerBoundPacket {
 
     private static final byte FLYING_BIT = 0b00000010;
 
+    @Field(FieldType.BYTE)
     private final byte flags;
 
     @Contract(pure = true)
@@ -40,9 +45,7 @@ public final class PlayerAbilitiesPacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public PlayerAbilitiesPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.flags = inputStream.readByte();
+        this(PlayerAbilitiesPacketCodec.readFlags(inputStream));
     }
 
     @Override
@@ -50,7 +53,13 @@ public final class PlayerAbilitiesPacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeByte(flags);
+        PlayerAbilitiesPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return PlayerAbilitiesPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,19 +19,29 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class PlayerPositionAndRotationPacket implements ServerBoundPacket {
 
+    @Field(FieldType.DOUBLE)
     private final double x;
+    @Field(FieldType.DOUBLE)
     private final double y;
+    @Field(FieldType.DOUBLE)
     private final double z;
+    @Field(FieldType.FLOAT)
     private final float yaw;
+    @Field(FieldType.FLOAT)
     private final float pitch;
+    @Field(FieldType.BOOLEAN)
     private final boolean isOnGround;
 
     @Contract(pure = true)
@@ -53,14 +63,12 @@ public final class PlayerPositionAndRotationPacket implements ServerBoundPacket
     @Contract(mutates = "param")
     public PlayerPositionAndRotationPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.x = inputStream.readDouble();
-        this.y = inputStream.readDouble();
-        this.z = inputStream.readDouble();
-        this.yaw = inputStream.readFloat();
-        this.pitch = inputStream.readFloat();
-        this.isOnGround = inputStream.readBoolean();
+        this(PlayerPositionAndRotationPacketCodec.readX(inputStream),
+                PlayerPositionAndRotationPacketCodec.readY(inputStream),
+                PlayerPositionAndRotationPacketCodec.readZ(inputStream),
+                PlayerPositionAndRotationPacketCodec.readYaw(inputStream),
+                PlayerPositionAndRotationPacketCodec.readPitch(inputStream),
+                PlayerPositionAndRotationPacketCodec.readIsOnGround(inputStream));
     }
 
     @Override
@@ -68,12 +76,13 @@ public final class PlayerPositionAndRotationPacket implements ServerBoundPacket
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeDouble(x)
-                .writeDouble(y)
-                .writeDouble(z)
-                .writeFloat(yaw)
-                .writeFloat(pitch)
-                .writeBoolean(isOnGround);
+        PlayerPositionAndRotationPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return PlayerPositionAndRotationPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,17 +19,25 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class PlayerPositionPacket implements ServerBoundPacket {
 
+    @Field(FieldType.DOUBLE)
     private final double x;
+    @Field(FieldType.DOUBLE)
     private final double y;
+    @Field(FieldType.DOUBLE)
     private final double z;
+    @Field(FieldType.BOOLEAN)
     private final boolean isOnGround;
 
     @Contract(pure = true)
@@ -47,12 +55,10 @@ public final class PlayerPositionPacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public PlayerPositionPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.x = inputStream.readDouble();
-        this.y = inputStream.readDouble();
-        this.z = inputStream.readDouble();
-        this.isOnGround = inputStream.readBoolean();
+        this(PlayerPositionPacketCodec.readX(inputStream),
+                PlayerPositionPacketCodec.readY(inputStream),
+                PlayerPositionPacketCodec.readZ(inputStream),
+                PlayerPositionPacketCodec.readIsOnGround(inputStream));
     }
 
     @Override
@@ -60,10 +66,13 @@ public final class PlayerPositionPacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeDouble(x)
-                .writeDouble(y)
-                .writeDouble(z)
-                .writeBoolean(isOnGround);
+        PlayerPositionPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return PlayerPositionPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,16 +19,23 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class PlayerRotationPacket implements ServerBoundPacket {
 
+    @Field(FieldType.FLOAT)
     private final float yaw;
+    @Field(FieldType.FLOAT)
     private final float pitch;
+    @Field(FieldType.BOOLEAN)
     private final boolean isOnGround;
 
     @Contract(pure = true)
@@ -44,11 +51,9 @@ public final class PlayerRotationPacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public PlayerRotationPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.yaw = inputStream.readFloat();
-        this.pitch = inputStream.readFloat();
-        this.isOnGround = inputStream.readBoolean();
+        this(PlayerRotationPacketCodec.readYaw(inputStream),
+                PlayerRotationPacketCodec.readPitch(inputStream),
+                PlayerRotationPacketCodec.readIsOnGround(inputStream));
     }
 
     @Override
@@ -56,9 +61,13 @@ public final class PlayerRotationPacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeFloat(yaw)
-                .writeFloat(pitch)
-                .writeBoolean(isOnGround);
+        PlayerRotationPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return PlayerRotationPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,16 +19,22 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.BlockPosition;
 
+@GenerateCodec
 public final class QueryBlockNbtPacket implements ServerBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int transactionId;
+    @Field(FieldType.BLOCK_POSITION)
     private final BlockPosition location;
 
     @Contract(pure = true)
@@ -43,10 +49,8 @@ public final class QueryBlockNbtPacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public QueryBlockNbtPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.transactionId = inputStream.readVarInt();
-        this.location = inputStream.readBlockPosition();
+        this(QueryBlockNbtPacketCodec.readTransactionId(inputStream),
+                QueryBlockNbtPacketCodec.readLocation(inputStream));
     }
 
     @Override
@@ -54,8 +58,13 @@ public final class QueryBlockNbtPacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(transactionId)
-                .writeBlockPosition(location);
+        QueryBlockNbtPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return QueryBlockNbtPacketCodec.INSTANCE.size(this);
     }
 
     @Override
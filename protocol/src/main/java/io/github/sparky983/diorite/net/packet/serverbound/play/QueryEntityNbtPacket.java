@@ -19,15 +19,21 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class QueryEntityNbtPacket implements ServerBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int transactionId;
+    @Field(FieldType.VAR_INT)
     private final int entityId;
 
     @Contract(pure = true)
@@ -40,10 +46,8 @@ public final class QueryEntityNbtPacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public QueryEntityNbtPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.transactionId = inputStream.readVarInt();
-        this.entityId = inputStream.readVarInt();
+        this(QueryEntityNbtPacketCodec.readTransactionId(inputStream),
+                QueryEntityNbtPacketCodec.readEntityId(inputStream));
     }
 
     @Override
@@ -51,8 +55,13 @@ public final class QueryEntityNbtPacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(transactionId)
-                .writeVarInt(entityId);
+        QueryEntityNbtPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return QueryEntityNbtPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,15 +19,21 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class SetBeaconEffectPacket implements ServerBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int primaryEffect;
+    @Field(FieldType.VAR_INT)
     private final int secondaryEffect;
 
     @Contract(pure = true)
@@ -40,10 +46,8 @@ public final class SetBeaconEffectPacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public SetBeaconEffectPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.primaryEffect = inputStream.readVarInt();
-        this.secondaryEffect = inputStream.readVarInt();
+        this(SetBeaconEffectPacketCodec.readPrimaryEffect(inputStream),
+                SetBeaconEffectPacketCodec.readSecondaryEffect(inputStream));
     }
 
     @Override
@@ -51,8 +55,13 @@ public final class SetBeaconEffectPacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(primaryEffect)
-                .writeVarInt(secondaryEffect);
+        SetBeaconEffectPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return SetBeaconEffectPacketCodec.INSTANCE.size(this);
     }
 
     @Override
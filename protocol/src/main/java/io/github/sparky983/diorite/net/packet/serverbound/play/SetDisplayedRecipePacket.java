@@ -19,15 +19,20 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.Identifier;
 
+@GenerateCodec
 public final class SetDisplayedRecipePacket implements ServerBoundPacket {
 
+    @Field(FieldType.IDENTIFIER)
     private final Identifier recipe;
 
     @Contract(pure = true)
@@ -41,9 +46,7 @@ public final class SetDisplayedRecipePacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public SetDisplayedRecipePacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.recipe = inputStream.readIdentifier();
+        this(SetDisplayedRecipePacketCodec.readRecipe(inputStream));
     }
 
     @Override
@@ -51,7 +54,13 @@ public final class SetDisplayedRecipePacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeIdentifier(recipe);
+        SetDisplayedRecipePacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return SetDisplayedRecipePacketCodec.INSTANCE.size(this);
     }
 
     @Override
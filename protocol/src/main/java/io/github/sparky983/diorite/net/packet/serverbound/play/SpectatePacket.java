@@ -21,14 +21,19 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.UUID;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class SpectatePacket implements ServerBoundPacket {
 
+    @Field(FieldType.UUID)
     private final UUID targetEntity;
 
     @Contract(pure = true)
@@ -42,9 +47,7 @@ public final class SpectatePacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public SpectatePacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.targetEntity = inputStream.readUuid();
+        this(SpectatePacketCodec.readTargetEntity(inputStream));
     }
 
     @Override
@@ -52,7 +55,13 @@ public final class SpectatePacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeUuid(targetEntity);
+        SpectatePacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return SpectatePacketCodec.INSTANCE.size(this);
     }
 
     @Override
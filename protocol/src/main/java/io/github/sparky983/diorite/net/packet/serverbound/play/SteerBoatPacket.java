@@ -19,15 +19,21 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class SteerBoatPacket implements ServerBoundPacket {
 
+    @Field(FieldType.BOOLEAN)
     private final boolean leftPaddleIsTurning;
+    @Field(FieldType.BOOLEAN)
     private final boolean rightPaddleIsTurning;
 
     @Contract(pure = true)
@@ -40,10 +46,8 @@ public final class SteerBoatPacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public SteerBoatPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.leftPaddleIsTurning = inputStream.readBoolean();
-        this.rightPaddleIsTurning = inputStream.readBoolean();
+        this(SteerBoatPacketCodec.readLeftPaddleIsTurning(inputStream),
+                SteerBoatPacketCodec.readRightPaddleIsTurning(inputStream));
     }
 
     @Override
@@ -51,8 +55,13 @@ public final class SteerBoatPacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeBoolean(leftPaddleIsTurning)
-                .writeBoolean(rightPaddleIsTurning);
+        SteerBoatPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return SteerBoatPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,19 +19,26 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class SteerVehiclePacket implements ServerBoundPacket {
 
     private static final byte JUMP_BIT = 0b00000001;
     private static final byte UNMOUNT_BIT = 0b00000010;
 
+    @Field(FieldType.FLOAT)
     private final float sideways;
+    @Field(FieldType.FLOAT)
     private final float forwards;
+    @Field(FieldType.BYTE)
     private final byte flags;
 
     @Contract(pure = true)
@@ -45,11 +52,9 @@ public final class SteerVehiclePacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public SteerVehiclePacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.sideways = inputStream.readFloat();
-        this.forwards = inputStream.readFloat();
-        this.flags = inputStream.readByte();
+        this(SteerVehiclePacketCodec.readSideways(inputStream),
+                SteerVehiclePacketCodec.readForwards(inputStream),
+                SteerVehiclePacketCodec.readFlags(inputStream));
     }
 
     @Override
@@ -57,9 +62,13 @@ public final class SteerVehiclePacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeFloat(sideways)
-                .writeFloat(forwards)
-                .writeByte(flags);
+        SteerVehiclePacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return SteerVehiclePacketCodec.INSTANCE.size(this);
     }
 
     @Override
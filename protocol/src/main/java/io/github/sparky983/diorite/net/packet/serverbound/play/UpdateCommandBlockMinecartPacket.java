@@ -19,17 +19,24 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.util.Protocol;
 
+@GenerateCodec
 public final class UpdateCommandBlockMinecartPacket implements ServerBoundPacket {
 
+    @Field(FieldType.VAR_INT)
     private final int entityId;
+    @Field(FieldType.STRING)
     private final String command;
+    @Field(FieldType.BOOLEAN)
     private final boolean trackOutput;
 
     @Contract(pure = true)
@@ -49,11 +56,9 @@ public final class UpdateCommandBlockMinecartPacket implements ServerBoundPacket
     @Contract(mutates = "param")
     public UpdateCommandBlockMinecartPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.entityId = inputStream.readVarInt();
-        this.command = inputStream.readString();
-        this.trackOutput = inputStream.readBoolean();
+        this(UpdateCommandBlockMinecartPacketCodec.readEntityId(inputStream),
+                UpdateCommandBlockMinecartPacketCodec.readCommand(inputStream),
+                UpdateCommandBlockMinecartPacketCodec.readTrackOutput(inputStream));
     }
 
     @Override
@@ -61,9 +66,13 @@ public final class UpdateCommandBlockMinecartPacket implements ServerBoundPacket
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeVarInt(entityId)
-                .writeString(command)
-                .writeBoolean(trackOutput);
+        UpdateCommandBlockMinecartPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return UpdateCommandBlockMinecartPacketCodec.INSTANCE.size(this);
     }
 
     @Override
@@ -19,21 +19,31 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 import io.github.sparky983.diorite.world.BlockPosition;
 import io.github.sparky983.diorite.world.Identifier;
 
+@GenerateCodec
 public final class UpdateJigsawBlockPacket implements ServerBoundPacket {
 
+    @Field(FieldType.BLOCK_POSITION)
     private final BlockPosition location;
+    @Field(FieldType.IDENTIFIER)
     private final Identifier name;
+    @Field(FieldType.IDENTIFIER)
     private final Identifier target;
+    @Field(FieldType.IDENTIFIER)
     private final Identifier pool;
+    @Field(FieldType.STRING)
     private final String finalState;
+    @Field(FieldType.STRING)
     private final String jointType;
 
     @Contract(pure = true)
@@ -62,14 +72,12 @@ public final class UpdateJigsawBlockPacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public UpdateJigsawBlockPacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.location = inputStream.readBlockPosition();
-        this.name = inputStream.readIdentifier();
-        this.target = inputStream.readIdentifier();
-        this.pool = inputStream.readIdentifier();
-        this.finalState = inputStream.readString();
-        this.jointType = inputStream.readString();
+        this(UpdateJigsawBlockPacketCodec.readLocation(inputStream),
+                UpdateJigsawBlockPacketCodec.readName(inputStream),
+                UpdateJigsawBlockPacketCodec.readTarget(inputStream),
+                UpdateJigsawBlockPacketCodec.readPool(inputStream),
+                UpdateJigsawBlockPacketCodec.readFinalState(inputStream),
+                UpdateJigsawBlockPacketCodec.readJointType(inputStream));
     }
 
     @Override
@@ -77,12 +85,13 @@ public final class UpdateJigsawBlockPacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeBlockPosition(location)
-                .writeIdentifier(name)
-                .writeIdentifier(target)
-                .writeIdentifier(pool)
-                .writeString(finalState)
-                .writeString(jointType);
+        UpdateJigsawBlockPacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return UpdateJigsawBlockPacketCodec.INSTANCE.size(this);
     }
 
     @Override
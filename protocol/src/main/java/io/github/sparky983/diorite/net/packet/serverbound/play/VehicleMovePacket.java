@@ -19,18 +19,27 @@ package io.github.sparky983.diorite.net.packet.serverbound.play;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import io.github.sparky983.diorite.codec.FieldType;
 import io.github.sparky983.diorite.io.StreamIn;
 import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GenerateCodec;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacket;
 import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
 import io.github.sparky983.diorite.util.Preconditions;
 
+@GenerateCodec
 public final class VehicleMovePacket implements ServerBoundPacket {
 
+    @Field(FieldType.DOUBLE)
     private final double x;
+    @Field(FieldType.DOUBLE)
     private final double y;
+    @Field(FieldType.DOUBLE)
     private final double z;
+    @Field(FieldType.FLOAT)
     private final float yaw;
+    @Field(FieldType.FLOAT)
     private final float pitch;
 
     @Contract(pure = true)
@@ -50,13 +59,11 @@ public final class VehicleMovePacket implements ServerBoundPacket {
     @Contract(mutates = "param")
     public VehicleMovePacket(final @NotNull StreamIn inputStream) {
 
-        Preconditions.requireNotNull(inputStream, "inputStream");
-
-        this.x = inputStream.readDouble();
-        this.y = inputStream.readDouble();
-        this.z = inputStream.readDouble();
-        this.yaw = inputStream.readFloat();
-        this.pitch = inputStream.readFloat();
+        this(VehicleMovePacketCodec.readX(inputStream),
+                VehicleMovePacketCodec.readY(inputStream),
+                VehicleMovePacketCodec.readZ(inputStream),
+                VehicleMovePacketCodec.readYaw(inputStream),
+                VehicleMovePacketCodec.readPitch(inputStream));
     }
 
     @Override
@@ -64,11 +71,13 @@ public final class VehicleMovePacket implements ServerBoundPacket {
 
         Preconditions.requireNotNull(outputStream, "outputStream");
 
-        outputStream.writeDouble(x)
-                .writeDouble(y)
-                .writeDouble(z)
-                .writeFloat(yaw)
-                .writeFloat(pitch);
+        VehicleMovePacketCodec.INSTANCE.encode(this, outputStream);
+    }
+
+    @Override
+    public int getEncodedSize() {
+
+        return VehicleMovePacketCodec.INSTANCE.size(this);
     }
 
     @Override
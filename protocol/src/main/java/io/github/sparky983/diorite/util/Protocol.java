@@ -30,4 +30,18 @@ public final class Protocol {
      * @since 1.0.0
      */
     public static final int MAX_STRING_LENGTH = Short.MAX_VALUE;
+
+    /**
+     * The maximum length of a packet frame (the length prefix is a 3 byte VarInt).
+     *
+     * @since 1.0.0
+     */
+    public static final int MAX_FRAME_LENGTH = (1 << 21) - 1;
+
+    /**
+     * The maximum uncompressed length of a compressed packet.
+     *
+     * @since 1.0.0
+     */
+    public static final int MAX_DATA_LENGTH = 1 << 23;
 }
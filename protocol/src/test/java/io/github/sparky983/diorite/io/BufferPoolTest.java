@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+class BufferPoolTest {
+
+    static List<Arguments> provideCapacities() {
+
+        return List.of(
+                Arguments.of(0, 256),
+                Arguments.of(256, 256),
+                Arguments.of(257, 512),
+                Arguments.of(70000, 131072),
+                Arguments.of(1 << 21, 1 << 21),
+                Arguments.of((1 << 21) + 1, (1 << 21) + 1)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideCapacities")
+    void acquire_ReturnsSizeClassCapacity(final int minCapacity, final int capacity) {
+
+        final PooledBuffer buffer = new BufferPoolImpl(false).acquire(minCapacity);
+
+        assertEquals(capacity, buffer.capacity());
+    }
+
+    @Test
+    void acquire_ReusesArray_WhenReleased() {
+
+        final BufferPool pool = new BufferPoolImpl(false);
+        final PooledBuffer buffer = pool.acquire(1000);
+        final byte[] array = buffer.array();
+
+        assertTrue(buffer.release());
+
+        assertSame(array, pool.acquire(600).array());
+    }
+
+    @Test
+    void acquire_DoesNotReuseArray_WhenDetached() {
+
+        final BufferPool pool = new BufferPoolImpl(false);
+        final PooledBuffer buffer = pool.acquire(1000);
+        final byte[] array = buffer.array();
+
+        buffer.detach();
+        buffer.release();
+
+        assertNotSame(array, pool.acquire(1000).array());
+    }
+
+    @Test
+    void readList_DetachesBuffer_WhenElementsAreSliced() {
+
+        final BufferPool pool = new BufferPoolImpl(false);
+        final PooledBuffer buffer = pool.acquire(1000);
+        final byte[] array = buffer.array();
+        // a list of 2 byte lists, each 1 byte long
+        System.arraycopy(new byte[]{2, 1, 42, 1, 43}, 0, array, 0, 5);
+
+        final List<ByteBuffer> elements = StreamIn.createByteArrayStream(buffer, 5)
+                .readList(StreamIn::readBufferList);
+        buffer.release();
+
+        assertEquals(List.of(ByteBuffer.wrap(new byte[]{42}), ByteBuffer.wrap(new byte[]{43})),
+                elements);
+        assertNotSame(array, pool.acquire(1000).array());
+    }
+
+    @Test
+    void release_ReturnsFalse_WhenRetained() {
+
+        final PooledBuffer buffer = new BufferPoolImpl(false).acquire(10).retain();
+
+        assertFalse(buffer.release());
+        assertTrue(buffer.release());
+    }
+
+    @Test
+    void release_Fails_WhenAlreadyReleased() {
+
+        final PooledBuffer buffer = new BufferPoolImpl(false).acquire(10);
+        buffer.release();
+
+        assertThrows(IllegalStateException.class, buffer::release);
+        assertThrows(IllegalStateException.class, buffer::array);
+    }
+
+    @Test
+    void ofByteArray_Grows_WhenWritingPastCapacity() {
+
+        final byte[] data = new byte[5000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        try (final ByteArrayStreamOut outputStream =
+                     StreamOut.ofByteArray(new BufferPoolImpl(false))) {
+            outputStream.writeBytes(data);
+
+            assertEquals(data.length, outputStream.size());
+            assertArrayEquals(data, outputStream.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+class DecodeLimitsTest {
+
+    private static final DecodeLimits LIMITS = DecodeLimits.builder()
+            .maxCollectionLength(1024)
+            .maxFrameAllocation(4096)
+            .build();
+
+    private static byte[] encode(final int length, final int elements) {
+
+        try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+            outputStream.writeVarInt(length);
+            for (int i = 0; i < elements; i++) {
+                outputStream.writeVarInt(i);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+
+    /**
+     * Returns both kinds of stream over the specified input, each with a fresh budget.
+     */
+    private static List<StreamIn> streams(final byte[] input) {
+
+        final PooledBuffer buffer = BufferPool.shared().acquire(input.length);
+        System.arraycopy(input, 0, buffer.array(), 0, input.length);
+
+        return List.of(
+                StreamIn.from(new ByteArrayInputStream(input), LIMITS.newBudget()),
+                StreamIn.createByteArrayStream(buffer, input.length, LIMITS.newBudget())
+        );
+    }
+
+    @Test
+    void readVarIntList_WithinLimits_ReadsList() {
+
+        for (final StreamIn inputStream : streams(encode(3, 3))) {
+            assertArrayEquals(new int[]{0, 1, 2}, inputStream.readVarIntList());
+        }
+    }
+
+    @Test
+    void readVarIntList_LongerThanMaxCollectionLength_Throws() {
+
+        // nowhere near enough input, the length alone must be rejected
+        for (final StreamIn inputStream : streams(encode(Integer.MAX_VALUE, 0))) {
+            assertThrows(DecodeException.class, inputStream::readVarIntList);
+        }
+    }
+
+    @Test
+    void readLongList_LongerThanMaxCollectionLength_Throws() {
+
+        for (final StreamIn inputStream : streams(encode(1 << 24, 0))) {
+            assertThrows(DecodeException.class, inputStream::readLongList);
+        }
+    }
+
+    @Test
+    void readList_NegativeLength_Throws() {
+
+        for (final StreamIn inputStream : streams(encode(-1, 0))) {
+            assertThrows(DecodeException.class, () -> inputStream.readList(StreamIn::readVarInt));
+        }
+    }
+
+    @Test
+    void readByteList_OverFrameAllocation_Throws() {
+
+        try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+            for (int i = 0; i < 5; i++) {
+                outputStream.writeVarInt(1000).writeBytes(new byte[1000]);
+            }
+
+            for (final StreamIn inputStream : streams(outputStream.toByteArray())) {
+                // each array is within the collection limit, but together they aren't
+                for (int i = 0; i < 4; i++) {
+                    assertEquals(1000, inputStream.readByteList().length);
+                }
+                assertThrows(DecodeException.class, inputStream::readByteList);
+            }
+        }
+    }
+
+    @Test
+    void newBudget_EachFrame_StartsEmpty() {
+
+        final DecodeBudget first = LIMITS.newBudget();
+        first.allocate(1000, Integer.BYTES);
+
+        assertEquals(4000, first.getAllocated());
+        assertEquals(0, LIMITS.newBudget().getAllocated());
+    }
+
+    @Test
+    void forConnection_FramesOverConnectionAllocationRate_Throws() {
+
+        final DecodeLimits limits = DecodeLimits.builder()
+                .maxFrameAllocation(4096)
+                .maxConnectionAllocationRate(10_000)
+                .build();
+        final DecodeLimits connectionLimits = limits.forConnection();
+
+        // each frame stays under the frame allocation, but together they don't
+        for (int i = 0; i < 2; i++) {
+            connectionLimits.newBudget().allocate(1000, Integer.BYTES);
+        }
+        assertThrows(DecodeException.class,
+                () -> connectionLimits.newBudget().allocate(1000, Integer.BYTES));
+
+        // other connections and the limits they were created from have budgets of their own
+        limits.forConnection().newBudget().allocate(1000, Integer.BYTES);
+        for (int i = 0; i < 3; i++) {
+            limits.newBudget().allocate(1000, Integer.BYTES);
+        }
+    }
+
+    @Test
+    void builder_InflatedSizeOverProtocolMax_Throws() {
+
+        assertThrows(IllegalArgumentException.class,
+                () -> DecodeLimits.builder().maxInflatedSize(Integer.MAX_VALUE));
+    }
+}
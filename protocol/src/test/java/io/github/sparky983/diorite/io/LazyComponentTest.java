@@ -0,0 +1,170 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import net.kyori.adventure.text.Component;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LazyComponentTest {
+
+    // not what the serializer would write, so it's only written back if it was kept
+    private static final String JSON = "{ \"text\" : \"Hello\" }";
+
+    private static final byte NEXT = 42;
+
+    private static byte[] encode(final String json) {
+
+        try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+            outputStream.writeString(json);
+            return outputStream.toByteArray();
+        }
+    }
+
+    private static byte[] withNext(final byte[] bytes) {
+
+        final byte[] withNext = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, withNext, 0, bytes.length);
+        withNext[bytes.length] = NEXT;
+        return withNext;
+    }
+
+    @Test
+    void readLazyComponent_KeepsJson() {
+
+        final StreamIn inputStream = StreamIn.createByteArrayStream(withNext(encode(JSON)));
+
+        final LazyComponent component = inputStream.readLazyComponent();
+
+        assertEquals(JSON, component.getJson());
+        assertEquals(NEXT, inputStream.readByte());
+    }
+
+    @Test
+    void writeComponent_ReadComponent_WritesJsonVerbatim() {
+
+        final LazyComponent component =
+                StreamIn.createByteArrayStream(encode(JSON)).readLazyComponent();
+
+        try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+            outputStream.writeComponent(component);
+
+            assertArrayEquals(encode(JSON), outputStream.toByteArray());
+        }
+    }
+
+    @Test
+    void get_DeserializesOnce() {
+
+        final LazyComponent component = LazyComponent.ofJson(JSON);
+
+        assertEquals(Component.text("Hello"), component.get());
+        assertSame(component.get(), component.get());
+    }
+
+    @Test
+    void get_InvalidJson_ThrowsDecodeException() {
+
+        final LazyComponent component = LazyComponent.ofJson("{");
+
+        assertThrows(DecodeException.class, component::get);
+    }
+
+    @Test
+    void readComponent_RepeatedJson_ReturnsCachedComponent() {
+
+        final Component first = StreamIn.createByteArrayStream(encode(JSON)).readComponent();
+        final Component second = StreamIn.createByteArrayStream(encode(JSON)).readComponent();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void getJson_Component_SerializesOnce() {
+
+        final LazyComponent component = LazyComponent.of(Component.text("Hello"));
+
+        assertEquals("{\"text\":\"Hello\"}", component.getJson());
+        assertSame(component.getJson(), component.getJson());
+    }
+
+    @Test
+    void writeComponent_SameComponent_ReusesJson() {
+
+        final Component component = Component.text("Hello");
+
+        try (final ByteArrayStreamOut first = StreamOut.ofByteArray();
+             final ByteArrayStreamOut second = StreamOut.ofByteArray()) {
+            first.writeComponent(component);
+            second.writeComponent(component);
+
+            assertArrayEquals(first.toByteArray(), second.toByteArray());
+            assertSame(ComponentCache.serialize(component), ComponentCache.serialize(component));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "\"Hello\"",
+            "{\"text\":\"\\u00e9\\n\\\"\",\"extra\":[{\"text\":\"a\"},\"b\"]}",
+            " { \"translate\" : \"chat.type.text\" , \"with\" : [ 1 , -2.5e+3, true, null ] } ",
+            "[]"
+    })
+    void readLazyComponent_WellFormedJson_KeepsJson(final String json) {
+
+        final LazyComponent component =
+                StreamIn.createByteArrayStream(encode(json)).readLazyComponent();
+
+        assertEquals(json, component.getJson());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "{",
+            "{\"text\":\"Hello\"",
+            "{\"text\":\"Hello\"}}",
+            "{\"text\":\"Hello\",}",
+            "{text:\"Hello\"}",
+            "\"\\x\"",
+            "[01]",
+            "[1.]",
+            "tru"
+    })
+    void readLazyComponent_MalformedJson_ThrowsDecodeException(final String json) {
+
+        final StreamIn inputStream = StreamIn.createByteArrayStream(encode(json));
+
+        assertThrows(DecodeException.class, inputStream::readLazyComponent);
+    }
+
+    @Test
+    void readLazyComponent_DeeplyNestedJson_ThrowsDecodeException() {
+
+        final String json = "[".repeat(1000) + "]".repeat(1000);
+        final StreamIn inputStream = StreamIn.createByteArrayStream(encode(json));
+
+        assertThrows(DecodeException.class, inputStream::readLazyComponent);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+
+class LazyCompoundTagTest {
+
+    // {"heights": [L; 1L, 2L], "entities": [{"id": "a"}], "flag": 1b}
+    private static final byte[] TAG = {
+            10, 0, 0,
+            12, 0, 7, 'h', 'e', 'i', 'g', 'h', 't', 's', 0, 0, 0, 2,
+            0, 0, 0, 0, 0, 0, 0, 1,
+            0, 0, 0, 0, 0, 0, 0, 2,
+            9, 0, 8, 'e', 'n', 't', 'i', 't', 'i', 'e', 's', 10, 0, 0, 0, 1,
+            8, 0, 2, 'i', 'd', 0, 1, 'a',
+            0,
+            1, 0, 4, 'f', 'l', 'a', 'g', 1,
+            0
+    };
+
+    private static final byte NEXT = 42;
+
+    private static byte[] withNext(final byte[] tag) {
+
+        final byte[] bytes = new byte[tag.length + 1];
+        System.arraycopy(tag, 0, bytes, 0, tag.length);
+        bytes[tag.length] = NEXT;
+        return bytes;
+    }
+
+    private static byte[] encode(final LazyCompoundTag tag) {
+
+        try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+            outputStream.writeCompoundTag(tag);
+            return outputStream.toByteArray();
+        }
+    }
+
+    @Test
+    void readLazyCompoundTag_ReadsWholeTag_WhenByteArray() {
+
+        final StreamIn inputStream = StreamIn.createByteArrayStream(withNext(TAG));
+
+        final LazyCompoundTag tag = inputStream.readLazyCompoundTag();
+
+        assertEquals(NEXT, inputStream.readByte());
+        assertArrayEquals(TAG, encode(tag));
+        assertFalse(tag.isEmpty());
+    }
+
+    @Test
+    void readLazyCompoundTag_ReadsWholeTag_WhenStream() {
+
+        final StreamIn inputStream = StreamIn.from(new ByteArrayInputStream(withNext(TAG)));
+
+        final LazyCompoundTag tag = inputStream.readLazyCompoundTag();
+
+        assertEquals(NEXT, inputStream.readByte());
+        assertArrayEquals(TAG, encode(tag));
+    }
+
+    @Test
+    void readLazyCompoundTag_ReturnsEmptyTag_WhenEndTag() {
+
+        final LazyCompoundTag tag = StreamIn.createByteArrayStream(withNext(new byte[]{0}))
+                .readLazyCompoundTag();
+
+        assertTrue(tag.isEmpty());
+        assertArrayEquals(new byte[]{0}, encode(tag));
+    }
+
+    @Test
+    void readLazyCompoundTag_ThrowsDecodeException_WhenTypeIsUnknown() {
+
+        final byte[] tag = TAG.clone();
+        tag[tag.length - 9] = 13;
+
+        assertThrows(DecodeException.class,
+                () -> StreamIn.createByteArrayStream(tag).readLazyCompoundTag());
+    }
+
+    @Test
+    void getLongArray_ReadsArrayWithoutBuildingTag() {
+
+        final LazyCompoundTag tag = StreamIn.createByteArrayStream(TAG).readLazyCompoundTag();
+
+        assertArrayEquals(new long[]{1, 2}, tag.getLongArray("heights"));
+        assertNull(tag.getLongArray("flag"));
+        assertNull(tag.getLongArray("missing"));
+    }
+
+    @Test
+    void of_ThrowsDecodeException_WhenBytesAreLeft() {
+
+        assertThrows(DecodeException.class,
+                () -> LazyCompoundTag.of(ByteBuffer.wrap(withNext(TAG))));
+    }
+
+    @Test
+    void of_IsEmpty_WhenCompoundHasNoEntries() {
+
+        assertTrue(LazyCompoundTag.of(ByteBuffer.wrap(new byte[]{10, 0, 0, 0})).isEmpty());
+    }
+}
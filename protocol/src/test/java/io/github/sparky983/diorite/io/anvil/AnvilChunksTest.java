@@ -0,0 +1,342 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io.anvil;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.kyori.adventure.nbt.CompoundBinaryTag;
+import net.kyori.adventure.nbt.IntBinaryTag;
+import net.kyori.adventure.nbt.ListBinaryTag;
+import net.kyori.adventure.nbt.StringBinaryTag;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.github.sparky983.diorite.io.LazyCompoundTag;
+import io.github.sparky983.diorite.net.packet.clientbound.play.ChunkDataAndUpdateLightPacket;
+import io.github.sparky983.diorite.world.Chunk;
+import io.github.sparky983.diorite.world.ChunkDecoder;
+import io.github.sparky983.diorite.world.ChunkSection;
+import io.github.sparky983.diorite.world.Identifier;
+import io.github.sparky983.diorite.world.LightStorage;
+
+class AnvilChunksTest {
+
+    private static final int MIN_Y = -64;
+    private static final int WORLD_HEIGHT = 384;
+    private static final int SECTIONS = WORLD_HEIGHT / 16;
+
+    private static final int AIR = 0;
+    private static final int STONE = 1;
+    private static final int DIRT = 2;
+    private static final int PLAINS = 0;
+    private static final int FOREST = 1;
+    private static final int CHEST = 0;
+
+    private static final List<String> BLOCK_STATES =
+            List.of("minecraft:air", "minecraft:stone", "minecraft:dirt");
+    private static final List<Identifier> BIOMES =
+            List.of(Identifier.of("plains"), Identifier.of("forest"));
+    private static final List<Identifier> BLOCK_ENTITY_TYPES = List.of(Identifier.of("chest"));
+
+    private static final AnvilRegistry REGISTRY = new AnvilRegistry() {
+        @Override
+        public int getBlockStateId(final @NotNull CompoundBinaryTag blockState) {
+
+            return BLOCK_STATES.indexOf(blockState.getString("Name"));
+        }
+
+        @Override
+        public @NotNull CompoundBinaryTag getBlockState(final int id) {
+
+            return CompoundBinaryTag.builder()
+                    .putString("Name", BLOCK_STATES.get(id))
+                    .build();
+        }
+
+        @Override
+        public int getBiomeId(final @NotNull Identifier biome) {
+
+            return BIOMES.indexOf(biome);
+        }
+
+        @Override
+        public @NotNull Identifier getBiome(final int id) {
+
+            return BIOMES.get(id);
+        }
+
+        @Override
+        public int getBlockEntityTypeId(final @NotNull Identifier type) {
+
+            return BLOCK_ENTITY_TYPES.indexOf(type);
+        }
+
+        @Override
+        public @NotNull Identifier getBlockEntityType(final int id) {
+
+            if (id < 0 || id >= BLOCK_ENTITY_TYPES.size()) {
+                throw new IllegalArgumentException("Unknown block entity type " + id);
+            }
+            return BLOCK_ENTITY_TYPES.get(id);
+        }
+    };
+
+    /**
+     * Returns a chunk whose even sections are stone over dirt in the forest, and whose odd
+     * sections are air in the plains.
+     */
+    private static Chunk chunk() {
+
+        final List<ChunkSection> sections = new ArrayList<>();
+        for (int i = 0; i < SECTIONS; i++) {
+            final int[] blockStates = new int[4096];
+            final int[] biomes = new int[64];
+            int blockCount = 0;
+            if (i % 2 == 0) {
+                for (int j = 0; j < blockStates.length; j++) {
+                    blockStates[j] = j < 2048 ? DIRT : STONE;
+                }
+                blockCount = blockStates.length;
+                Arrays.fill(biomes, FOREST);
+            } else {
+                Arrays.fill(blockStates, AIR);
+                Arrays.fill(biomes, PLAINS);
+            }
+            sections.add(ChunkSection.of(blockCount, blockStates, biomes));
+        }
+        return Chunk.of(3, -2, MIN_Y, WORLD_HEIGHT, sections);
+    }
+
+    private static byte[] lightArray(final int seed) {
+
+        final byte[] light = new byte[LightStorage.LIGHT_ARRAY_LENGTH];
+        for (int i = 0; i < light.length; i++) {
+            light[i] = (byte) (i * 31 + seed);
+        }
+        return light;
+    }
+
+    private static ChunkDataAndUpdateLightPacket packet() {
+
+        return new ChunkDataAndUpdateLightPacket(
+                3,
+                -2,
+                CompoundBinaryTag.empty(),
+                chunk().encode(),
+                List.of(new ChunkDataAndUpdateLightPacket.BlockEntity((byte) 0x5A, (short) 12,
+                        CHEST, CompoundBinaryTag.builder().putString("Lock", "key").build())),
+                true,
+                // the section below the world and the bottom section
+                new long[]{0b11},
+                new long[]{0b10},
+                new long[0],
+                new long[0],
+                new byte[][]{lightArray(1), lightArray(2)},
+                new byte[][]{lightArray(3)}
+        );
+    }
+
+    private static LazyCompoundTag writeAndRead(final CompoundBinaryTag chunk) throws IOException {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        AnvilChunks.write(chunk, outputStream);
+        return AnvilChunks.read(new ByteArrayInputStream(outputStream.toByteArray()));
+    }
+
+    private static void assertSameBlocks(final Chunk expected, final Chunk actual) {
+
+        assertEquals(expected.getChunkX(), actual.getChunkX());
+        assertEquals(expected.getChunkZ(), actual.getChunkZ());
+        assertEquals(expected.getSectionCount(), actual.getSectionCount());
+        for (int i = 0; i < expected.getSectionCount(); i++) {
+            assertEquals(expected.getSection(i).getBlockCount(),
+                    actual.getSection(i).getBlockCount());
+            assertArrayEquals(expected.getSection(i).getBlockStates(),
+                    actual.getSection(i).getBlockStates());
+            assertArrayEquals(expected.getSection(i).getBiomes(),
+                    actual.getSection(i).getBiomes());
+        }
+    }
+
+    private static CompoundBinaryTag withSections(final ListBinaryTag sections) {
+
+        return CompoundBinaryTag.builder()
+                .putInt("xPos", 0)
+                .putInt("zPos", 0)
+                .put("sections", sections)
+                .build();
+    }
+
+    @Test
+    void toChunk_ReadsChunkWrittenByFromPacket() throws IOException {
+
+        final CompoundBinaryTag written = AnvilChunks.fromPacket(packet(), REGISTRY, MIN_Y,
+                WORLD_HEIGHT);
+
+        final Chunk chunk = AnvilChunks.toChunk(writeAndRead(written), REGISTRY, MIN_Y,
+                WORLD_HEIGHT);
+
+        assertSameBlocks(chunk(), chunk);
+    }
+
+    @Test
+    void toPacket_ReadsPacketWrittenByFromPacket() throws IOException {
+
+        final ChunkDataAndUpdateLightPacket packet = packet();
+        final CompoundBinaryTag written = AnvilChunks.fromPacket(packet, REGISTRY, MIN_Y,
+                WORLD_HEIGHT);
+
+        final ChunkDataAndUpdateLightPacket read = AnvilChunks.toPacket(writeAndRead(written),
+                REGISTRY, MIN_Y, WORLD_HEIGHT);
+
+        assertEquals(packet.getChunkX(), read.getChunkX());
+        assertEquals(packet.getChunkZ(), read.getChunkZ());
+        assertSameBlocks(packet.decodeChunk(ChunkDecoder.sequential(), MIN_Y, WORLD_HEIGHT),
+                read.decodeChunk(ChunkDecoder.sequential(), MIN_Y, WORLD_HEIGHT));
+        assertArrayEquals(packet.getSkyLightMask(), read.getSkyLightMask());
+        assertArrayEquals(packet.getBlockLightMask(), read.getBlockLightMask());
+        assertTrue(Arrays.deepEquals(packet.getSkyLightArrays(), read.getSkyLightArrays()));
+        assertTrue(Arrays.deepEquals(packet.getBlockLightArrays(), read.getBlockLightArrays()));
+
+        assertEquals(1, read.getBlockEntities().size());
+        final ChunkDataAndUpdateLightPacket.BlockEntity blockEntity =
+                read.getBlockEntities().get(0);
+        assertEquals(0x5A, blockEntity.getPackedXZ());
+        assertEquals(12, blockEntity.getY());
+        assertEquals(CHEST, blockEntity.getType());
+        assertEquals("key", blockEntity.getData().getString("Lock"));
+    }
+
+    @Test
+    void fromPacket_LeavesOutUnknownBlockEntities() {
+
+        final ChunkDataAndUpdateLightPacket packet = new ChunkDataAndUpdateLightPacket(0, 0,
+                CompoundBinaryTag.empty(), chunk().encode(),
+                List.of(new ChunkDataAndUpdateLightPacket.BlockEntity((byte) 0, (short) 0, 7,
+                        CompoundBinaryTag.empty())),
+                true, new long[0], new long[0], new long[0], new long[0], new byte[0][],
+                new byte[0][]);
+
+        final CompoundBinaryTag written = AnvilChunks.fromPacket(packet, REGISTRY, MIN_Y,
+                WORLD_HEIGHT);
+
+        assertEquals(0, written.getList("block_entities").size());
+    }
+
+    @Test
+    void toChunk_FillsMissingSectionsWithAir() {
+
+        final Chunk chunk = AnvilChunks.toChunk(LazyCompoundTag.of(
+                withSections(ListBinaryTag.empty())), REGISTRY, MIN_Y, WORLD_HEIGHT);
+
+        for (int i = 0; i < chunk.getSectionCount(); i++) {
+            final ChunkSection section = chunk.getSection(i);
+            assertEquals(0, section.getBlockCount());
+            assertEquals(AIR, section.getBlockState(15, 15, 15));
+            assertEquals(PLAINS, section.getBiome(3, 3, 3));
+        }
+    }
+
+    @Test
+    void toChunk_Throws_WhenSectionIsNotCompound() {
+
+        final LazyCompoundTag chunk = LazyCompoundTag.of(withSections(ListBinaryTag.builder()
+                .add(IntBinaryTag.of(1))
+                .build()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> AnvilChunks.toChunk(chunk, REGISTRY, MIN_Y, WORLD_HEIGHT));
+    }
+
+    @Test
+    void toChunk_Throws_WhenBlockStatesIsNotCompound() {
+
+        final LazyCompoundTag chunk = LazyCompoundTag.of(withSections(ListBinaryTag.builder()
+                .add(CompoundBinaryTag.builder()
+                        .putByte("Y", (byte) 0)
+                        .put("block_states", StringBinaryTag.of("minecraft:stone"))
+                        .build())
+                .build()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> AnvilChunks.toChunk(chunk, REGISTRY, MIN_Y, WORLD_HEIGHT));
+    }
+
+    @Test
+    void toPacket_Throws_WhenBlockEntityIsNotCompound() {
+
+        final LazyCompoundTag chunk = LazyCompoundTag.of(CompoundBinaryTag.builder()
+                .putInt("xPos", 0)
+                .putInt("zPos", 0)
+                .put("block_entities", ListBinaryTag.builder()
+                        .add(StringBinaryTag.of("minecraft:chest"))
+                        .build())
+                .build());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> AnvilChunks.toPacket(chunk, REGISTRY, MIN_Y, WORLD_HEIGHT));
+    }
+
+    @Test
+    void toChunk_Throws_WhenBlockStateIsUnknown() {
+
+        final LazyCompoundTag chunk = LazyCompoundTag.of(withSections(ListBinaryTag.builder()
+                .add(CompoundBinaryTag.builder()
+                        .putByte("Y", (byte) 0)
+                        .put("block_states", CompoundBinaryTag.builder()
+                                .put("palette", ListBinaryTag.builder()
+                                        .add(CompoundBinaryTag.builder()
+                                                .putString("Name", "minecraft:unknown")
+                                                .build())
+                                        .build())
+                                .build())
+                        .build())
+                .build()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> AnvilChunks.toChunk(chunk, REGISTRY, MIN_Y, WORLD_HEIGHT));
+    }
+
+    @Test
+    void toChunk_Throws_WhenPaletteIndexIsOutOfBounds() throws IOException {
+
+        final CompoundBinaryTag written = AnvilChunks.fromPacket(packet(), REGISTRY, MIN_Y,
+                WORLD_HEIGHT);
+        final CompoundBinaryTag section = written.getList("sections").getCompound(1);
+        final long[] data = section.getCompound("block_states").getLongArray("data").clone();
+        Arrays.fill(data, -1L); // every index is 15, the palette has 2 entries
+        final CompoundBinaryTag corrupted = withSections(ListBinaryTag.builder()
+                .add(section.put("block_states", section.getCompound("block_states")
+                        .putLongArray("data", data)))
+                .build());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> AnvilChunks.toChunk(writeAndRead(corrupted), REGISTRY, MIN_Y,
+                        WORLD_HEIGHT));
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io.compression;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import io.github.sparky983.diorite.io.ByteArrayStreamOut;
+import io.github.sparky983.diorite.io.StreamOut;
+
+class AdaptiveCompressionTest {
+
+    private static final int RANDOM_PACKET_ID = 0x18;
+    private static final int CHUNK_PACKET_ID = 0x22;
+    private static final int MOVEMENT_PACKET_ID = 0x29;
+
+    private static byte[] compress(final Compression compression,
+            final int packetId,
+            final byte[] data) {
+
+        try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+            try (final StreamOut compressedOutputStream =
+                         compression.compressed(outputStream, packetId)) {
+                compressedOutputStream.writeBytes(data);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+
+    private static byte[] decompress(final Compression compression, final byte[] compressed)
+            throws IOException {
+
+        try (final InputStream inputStream =
+                     compression.decompressed(new ByteArrayInputStream(compressed))) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static byte[] randomBytes(final Random random) {
+
+        final byte[] data = new byte[4096];
+        random.nextBytes(data);
+        return data;
+    }
+
+    @Test
+    void compressed_IncompressibleType_StoresPackets() throws IOException {
+
+        final AdaptiveCompression compression = AdaptiveCompression.builder()
+                .probeInterval(8)
+                .build();
+        final Random random = new Random(1);
+
+        for (int i = 0; i < 40; i++) {
+            final byte[] data = randomBytes(random);
+            assertArrayEquals(data, decompress(compression,
+                    compress(compression, RANDOM_PACKET_ID, data)));
+        }
+
+        final CompressionStatistics statistics = compression.getStatistics(RANDOM_PACKET_ID);
+        assertEquals(40, statistics.getPackets());
+        // 4 packets are deflated before the type is stored, then 1 in every 9 is deflated again
+        assertEquals(32, statistics.getStoredPackets());
+        assertEquals(32 * 4096, statistics.getStoredBytes());
+        assertTrue(statistics.getCompressedBytes() > statistics.getUncompressedBytes());
+        assertTrue(statistics.getCompressionNanos() > 0);
+    }
+
+    @Test
+    void compressed_CompressibleType_DeflatesPackets() throws IOException {
+
+        final AdaptiveCompression compression = AdaptiveCompression.builder()
+                .level(CHUNK_PACKET_ID, 9)
+                .build();
+        final byte[] data = new byte[8192];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i / 512);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            assertArrayEquals(data, decompress(compression,
+                    compress(compression, CHUNK_PACKET_ID, data)));
+        }
+
+        final CompressionStatistics statistics = compression.getStatistics(CHUNK_PACKET_ID);
+        assertEquals(0, statistics.getStoredPackets());
+        assertEquals(0, statistics.getEstimatedBytesLost());
+        assertTrue(statistics.getCompressedBytes() * 10 < statistics.getUncompressedBytes());
+    }
+
+    @Test
+    void compressed_WithoutLevels_ChoosesLevelBySize() {
+
+        final AdaptiveCompressionImpl compression =
+                (AdaptiveCompressionImpl) Compression.adaptive();
+
+        assertEquals(Deflater.DEFAULT_COMPRESSION, compression.getLevel(MOVEMENT_PACKET_ID));
+
+        compress(compression, MOVEMENT_PACKET_ID, new byte[300]);
+        compress(compression, CHUNK_PACKET_ID, new byte[16384]);
+        compress(compression, RANDOM_PACKET_ID, new byte[4096]);
+
+        assertEquals(Deflater.BEST_SPEED, compression.getLevel(MOVEMENT_PACKET_ID));
+        assertEquals(Deflater.BEST_COMPRESSION, compression.getLevel(CHUNK_PACKET_ID));
+        assertEquals(Deflater.DEFAULT_COMPRESSION, compression.getLevel(RANDOM_PACKET_ID));
+    }
+
+    @Test
+    void compressed_WithLevels_UsesThem() {
+
+        final AdaptiveCompressionImpl compression =
+                (AdaptiveCompressionImpl) AdaptiveCompression.builder()
+                        .defaultLevel(4)
+                        .level(CHUNK_PACKET_ID, 7)
+                        .build();
+
+        compress(compression, MOVEMENT_PACKET_ID, new byte[300]);
+        compress(compression, CHUNK_PACKET_ID, new byte[16384]);
+
+        assertEquals(4, compression.getLevel(MOVEMENT_PACKET_ID));
+        assertEquals(7, compression.getLevel(CHUNK_PACKET_ID));
+    }
+
+    @Test
+    void getStatistics_SumsTypes() {
+
+        final AdaptiveCompression compression = Compression.adaptive();
+        final Random random = new Random(1);
+
+        compress(compression, RANDOM_PACKET_ID, randomBytes(random));
+        compress(compression, CHUNK_PACKET_ID, new byte[4096]);
+        compress(compression, CHUNK_PACKET_ID, new byte[4096]);
+
+        assertEquals(3, compression.getStatistics().getPackets());
+        assertEquals(3 * 4096, compression.getStatistics().getUncompressedBytes());
+        assertEquals(0, compression.getStatistics(0x7F).getPackets());
+    }
+
+    @Test
+    void builder_InvalidLevel_Throws() {
+
+        assertThrows(IllegalArgumentException.class,
+                () -> AdaptiveCompression.builder().defaultLevel(10));
+        assertThrows(IllegalArgumentException.class,
+                () -> AdaptiveCompression.builder().level(0, -2));
+    }
+}
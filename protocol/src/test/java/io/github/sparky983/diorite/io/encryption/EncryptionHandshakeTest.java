@@ -0,0 +1,200 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io.encryption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+import io.github.sparky983.diorite.io.StreamIn;
+import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.ChannelState;
+import io.github.sparky983.diorite.net.Stateful;
+import io.github.sparky983.diorite.net.packet.PacketRegistries;
+import io.github.sparky983.diorite.net.packet.PacketRegistry;
+import io.github.sparky983.diorite.net.packet.clientbound.login.EncryptionRequestPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.login.LoginSuccessPacket;
+import io.github.sparky983.diorite.net.packet.format.PacketFormat;
+import io.github.sparky983.diorite.net.packet.serverbound.ServerBoundPacketId;
+import io.github.sparky983.diorite.net.packet.serverbound.login.EncryptionResponsePacket;
+import io.github.sparky983.diorite.net.packet.serverbound.play.KeepAlivePacket;
+
+/**
+ * Runs the login encryption handshake against a stand-in server on a local socket, with the
+ * client using a known shared secret.
+ */
+class EncryptionHandshakeTest {
+
+    private static final byte[] VERIFY_TOKEN = {1, 2, 3, 4};
+    private static final UUID UUID = new UUID(1, 2);
+    private static final String USERNAME = "Sparky983";
+    private static final long KEEP_ALIVE_ID = 0x1234_5678_9ABCL;
+
+    private static final Stateful LOGIN = new Stateful() {
+
+        @Override
+        public ChannelState getState() {
+
+            return ChannelState.LOGIN;
+        }
+
+        @Override
+        public void setState(final ChannelState state) {
+
+        }
+
+        @Override
+        public PacketRegistry getPacketRegistry() {
+
+            return PacketRegistries.Client.LOGIN;
+        }
+
+        @Override
+        public void close() {
+
+        }
+    };
+
+    private static final PacketFormat FORMAT = PacketFormat.uncompressed(LOGIN);
+
+    /**
+     * What the stand-in server saw during the handshake.
+     */
+    private static final class ServerResult {
+
+        private final byte[] sharedSecret;
+        private final byte[] verifyToken;
+        private final long keepAliveId;
+
+        private ServerResult(final byte[] sharedSecret,
+                final byte[] verifyToken,
+                final long keepAliveId) {
+
+            this.sharedSecret = sharedSecret;
+            this.verifyToken = verifyToken;
+            this.keepAliveId = keepAliveId;
+        }
+    }
+
+    /**
+     * Requests encryption, enables it with the shared secret the client sent, then sends login
+     * success and reads a keep-alive back, both encrypted.
+     */
+    private static ServerResult serve(final ServerSocket serverSocket, final KeyPair keyPair)
+            throws IOException, GeneralSecurityException {
+
+        try (final Socket socket = serverSocket.accept()) {
+            final EncryptionStage stage =
+                    EncryptionStage.of(socket.getInputStream(), socket.getOutputStream());
+            final StreamIn inputStream = StreamIn.from(stage.getInputStream());
+            final StreamOut outputStream = StreamOut.from(stage.getOutputStream());
+
+            FORMAT.encode(new EncryptionRequestPacket(
+                    "",
+                    keyPair.getPublic().getEncoded(),
+                    VERIFY_TOKEN
+            ), outputStream);
+
+            inputStream.readVarInt(); // length
+            assertEquals(ServerBoundPacketId.Login.ENCRYPTION_RESPONSE, inputStream.readVarInt());
+            final EncryptionResponsePacket response = new EncryptionResponsePacket(inputStream);
+
+            final Cipher cipher = Cipher.getInstance("RSA/ECB/PKCS1Padding");
+            cipher.init(Cipher.DECRYPT_MODE, keyPair.getPrivate());
+            final byte[] sharedSecret = cipher.doFinal(response.getSharedSecret());
+            final byte[] verifyToken = cipher.doFinal(response.getVerifyToken());
+
+            stage.enable(Encryption.aes(new SecretKeySpec(sharedSecret, "AES")));
+
+            FORMAT.encode(new LoginSuccessPacket(UUID, USERNAME), outputStream);
+
+            inputStream.readVarInt(); // length
+            assertEquals(ServerBoundPacketId.Play.KEEP_ALIVE, inputStream.readVarInt());
+            return new ServerResult(sharedSecret, verifyToken, inputStream.readLong());
+        }
+    }
+
+    @Test
+    void handshake_EncryptsBothDirections_WithTheClientsSharedSecret() throws Exception {
+
+        final KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(1024);
+        final KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+        try (final ServerSocket serverSocket =
+                     new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            final CompletableFuture<ServerResult> server = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return serve(serverSocket, keyPair);
+                } catch (final IOException | GeneralSecurityException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            try (final Socket socket = new Socket(serverSocket.getInetAddress(),
+                    serverSocket.getLocalPort())) {
+                // buffered above the stage, as the client's channel is
+                final EncryptionStage stage =
+                        EncryptionStage.of(socket.getInputStream(), socket.getOutputStream());
+                final StreamIn inputStream =
+                        StreamIn.from(new BufferedInputStream(stage.getInputStream()));
+                final BufferedOutputStream bufferedOutputStream =
+                        new BufferedOutputStream(stage.getOutputStream());
+                final StreamOut outputStream = StreamOut.from(bufferedOutputStream);
+
+                final EncryptionRequestPacket request =
+                        (EncryptionRequestPacket) FORMAT.decode(inputStream);
+
+                FORMAT.encode(EncryptionResponsePacket.respondTo(request,
+                        EncryptionTest.SHARED_SECRET), outputStream);
+                bufferedOutputStream.flush();
+                stage.enable(Encryption.aes(EncryptionTest.SHARED_SECRET));
+
+                final LoginSuccessPacket loginSuccess =
+                        (LoginSuccessPacket) FORMAT.decode(inputStream);
+
+                FORMAT.encode(new KeepAlivePacket(KEEP_ALIVE_ID), outputStream);
+                bufferedOutputStream.flush();
+
+                final ServerResult result = server.get(10, TimeUnit.SECONDS);
+
+                assertArrayEquals(EncryptionTest.SHARED_SECRET.getEncoded(), result.sharedSecret);
+                assertArrayEquals(VERIFY_TOKEN, result.verifyToken);
+                assertEquals(UUID, loginSuccess.getUuid());
+                assertEquals(USERNAME, loginSuccess.getUsername());
+                assertEquals(KEEP_ALIVE_ID, result.keepAliveId);
+            }
+        }
+    }
+}
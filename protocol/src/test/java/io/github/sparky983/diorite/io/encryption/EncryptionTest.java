@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.io.encryption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+class EncryptionTest {
+
+    static final SecretKey SHARED_SECRET = new SecretKeySpec(new byte[]{
+            0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15
+    }, "AES");
+
+    static byte[] createData(final int length) {
+
+        final byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        return data;
+    }
+
+    static byte[] encryptWithReferenceCipher(final byte[] data) throws GeneralSecurityException {
+
+        final Cipher cipher = Cipher.getInstance("AES/CFB8/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, SHARED_SECRET,
+                new IvParameterSpec(SHARED_SECRET.getEncoded()));
+        return cipher.doFinal(data);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 8192, 20000})
+    void encrypted_MatchesReferenceCipher_WhenWrittenInChunks(final int chunkSize)
+            throws IOException, GeneralSecurityException {
+
+        final byte[] data = createData(50000);
+        final ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+
+        try (final OutputStream outputStream = Encryption.aes(SHARED_SECRET).encrypted(encrypted)) {
+            for (int i = 0; i < data.length; i += chunkSize) {
+                outputStream.write(data, i, Math.min(chunkSize, data.length - i));
+            }
+        }
+
+        assertArrayEquals(encryptWithReferenceCipher(data), encrypted.toByteArray());
+    }
+
+    @Test
+    void encrypted_DoesNotModifyInput() throws IOException {
+
+        final byte[] data = createData(100);
+
+        Encryption.aes(SHARED_SECRET).encrypted(new ByteArrayOutputStream()).write(data);
+
+        assertArrayEquals(createData(100), data);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 8192, 20000})
+    void decrypted_ReturnsOriginalData_WhenReadInChunks(final int chunkSize)
+            throws IOException, GeneralSecurityException {
+
+        final byte[] data = createData(50000);
+        final InputStream inputStream = Encryption.aes(SHARED_SECRET)
+                .decrypted(new ByteArrayInputStream(encryptWithReferenceCipher(data)));
+
+        final byte[] decrypted = new byte[data.length];
+        int read = 0;
+        while (read < decrypted.length) {
+            read += inputStream.read(decrypted, read, Math.min(chunkSize, data.length - read));
+        }
+
+        assertArrayEquals(data, decrypted);
+    }
+
+    @Test
+    void enable_EncryptsOnlyDataAfterwards() throws IOException, GeneralSecurityException {
+
+        final byte[] plain = createData(10);
+        final byte[] data = createData(100);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final EncryptionStage stage = EncryptionStage.of(InputStream.nullInputStream(), output);
+
+        stage.getOutputStream().write(plain);
+        stage.enable(Encryption.aes(SHARED_SECRET));
+        stage.getOutputStream().write(data);
+
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(plain);
+        expected.write(encryptWithReferenceCipher(data));
+        assertArrayEquals(expected.toByteArray(), output.toByteArray());
+    }
+}
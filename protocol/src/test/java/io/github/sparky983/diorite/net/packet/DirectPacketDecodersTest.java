@@ -0,0 +1,230 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.net.packet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import io.github.sparky983.diorite.io.StreamIn;
+import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.clientbound.play.BlockChangePacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.EntityMovementPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.EntityTeleportPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.EntityVelocityPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.KeepAlivePacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.PingPacket;
+import io.github.sparky983.diorite.world.BlockPosition;
+import io.github.sparky983.diorite.world.Direction;
+import io.github.sparky983.diorite.world.Position;
+import io.github.sparky983.diorite.world.Velocity;
+
+class DirectPacketDecodersTest {
+
+    private static final Direction DIRECTION = Direction.of((byte) -90, (byte) 127);
+
+    private static <T extends Packet> Arguments decoder(final T packet,
+            final DirectPacketDecoder<T> decoder,
+            final Function<StreamIn, T> constructor,
+            final Object... handlerArguments) {
+
+        return Arguments.of(packet, decoder, constructor, List.of(handlerArguments));
+    }
+
+    // negative and extreme values, so sign extension and field order mistakes show up
+    static List<Arguments> provideDecoders() {
+
+        return List.of(
+                decoder(new KeepAlivePacket(Long.MIN_VALUE + 1),
+                        DirectPacketDecoders::keepAlive,
+                        KeepAlivePacket::new,
+                        Long.MIN_VALUE + 1),
+                decoder(new PingPacket(-2),
+                        DirectPacketDecoders::ping,
+                        PingPacket::new,
+                        -2),
+                decoder(new EntityMovementPacket.Position(300, (short) -4096, (short) 1,
+                                (short) 4095, true),
+                        DirectPacketDecoders::entityPosition,
+                        EntityMovementPacket.Position::new,
+                        300, (short) -4096, (short) 1, (short) 4095, true),
+                decoder(new EntityMovementPacket.PositionAndRotation(-1, (short) 7, (short) -8,
+                                (short) 9, DIRECTION, false),
+                        DirectPacketDecoders::entityPositionAndRotation,
+                        EntityMovementPacket.PositionAndRotation::new,
+                        -1, (short) 7, (short) -8, (short) 9, (byte) -90, (byte) 127, false),
+                decoder(new EntityMovementPacket.Rotation(5, DIRECTION, true),
+                        DirectPacketDecoders::entityRotation,
+                        EntityMovementPacket.Rotation::new,
+                        5, (byte) -90, (byte) 127, true),
+                decoder(new EntityTeleportPacket(Integer.MAX_VALUE,
+                                Position.of(-1.5, 320.25, 3e7), DIRECTION, true),
+                        DirectPacketDecoders::entityTeleport,
+                        EntityTeleportPacket::new,
+                        Integer.MAX_VALUE, -1.5, 320.25, 3e7, (byte) -90, (byte) 127, true),
+                decoder(new EntityVelocityPacket(6, Velocity.of((short) -1, (short) 0,
+                                Short.MAX_VALUE)),
+                        DirectPacketDecoders::entityVelocity,
+                        EntityVelocityPacket::new,
+                        6, (short) -1, (short) 0, Short.MAX_VALUE),
+                decoder(new BlockChangePacket(BlockPosition.of(-33554432, -2048, 33554431), 70),
+                        DirectPacketDecoders::blockChange,
+                        BlockChangePacket::new,
+                        -33554432, -2048, 33554431, 70)
+        );
+    }
+
+    private static byte[] write(final Packet packet) {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        packet.write(StreamOut.from(outputStream));
+        return outputStream.toByteArray();
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideDecoders")
+    <T extends Packet> void decode_ReadsSameFieldsAsStreamConstructor(final T packet,
+            final DirectPacketDecoder<T> decoder,
+            final Function<StreamIn, T> constructor,
+            final List<Object> handlerArguments) {
+
+        final byte[] encoded = write(packet);
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(encoded);
+
+        final T decoded = decoder.decode(StreamIn.from(inputStream), PacketHandler.NONE);
+        final T constructed = constructor.apply(
+                StreamIn.from(new ByteArrayInputStream(encoded)));
+
+        assertNotNull(decoded);
+        assertEquals(0, inputStream.available());
+        assertEquals(packet.getClass(), decoded.getClass());
+        assertArrayEquals(write(constructed), write(decoded));
+        assertArrayEquals(encoded, write(decoded));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideDecoders")
+    <T extends Packet> void decode_PassesFieldsToHandler(final T packet,
+            final DirectPacketDecoder<T> decoder,
+            final Function<StreamIn, T> constructor,
+            final List<Object> handlerArguments) {
+
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(write(packet));
+        final RecordingHandler handler = new RecordingHandler();
+
+        final T decoded = decoder.decode(StreamIn.from(inputStream), handler);
+
+        assertNull(decoded);
+        assertEquals(0, inputStream.available());
+        assertEquals(handlerArguments, handler.arguments);
+    }
+
+    /**
+     * Handles every packet, recording the fields it was passed.
+     */
+    private static final class RecordingHandler implements PacketHandler {
+
+        private final List<Object> arguments = new ArrayList<>();
+
+        private boolean record(final Object... arguments) {
+
+            this.arguments.addAll(List.of(arguments));
+            return true;
+        }
+
+        @Override
+        public boolean onKeepAlive(final long keepAliveId) {
+
+            return record(keepAliveId);
+        }
+
+        @Override
+        public boolean onPing(final int pingId) {
+
+            return record(pingId);
+        }
+
+        @Override
+        public boolean onEntityPosition(final int entityId,
+                final short dx,
+                final short dy,
+                final short dz,
+                final boolean isOnGround) {
+
+            return record(entityId, dx, dy, dz, isOnGround);
+        }
+
+        @Override
+        public boolean onEntityPositionAndRotation(final int entityId,
+                final short dx,
+                final short dy,
+                final short dz,
+                final byte pitch,
+                final byte yaw,
+                final boolean isOnGround) {
+
+            return record(entityId, dx, dy, dz, pitch, yaw, isOnGround);
+        }
+
+        @Override
+        public boolean onEntityRotation(final int entityId,
+                final byte pitch,
+                final byte yaw,
+                final boolean isOnGround) {
+
+            return record(entityId, pitch, yaw, isOnGround);
+        }
+
+        @Override
+        public boolean onEntityTeleport(final int entityId,
+                final double x,
+                final double y,
+                final double z,
+                final byte pitch,
+                final byte yaw,
+                final boolean isOnGround) {
+
+            return record(entityId, x, y, z, pitch, yaw, isOnGround);
+        }
+
+        @Override
+        public boolean onEntityVelocity(final int entityId,
+                final short x,
+                final short y,
+                final short z) {
+
+            return record(entityId, x, y, z);
+        }
+
+        @Override
+        public boolean onBlockChange(final int x, final int y, final int z, final int blockId) {
+
+            return record(x, y, z, blockId);
+        }
+    }
+}
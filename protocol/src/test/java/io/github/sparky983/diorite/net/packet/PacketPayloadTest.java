@@ -0,0 +1,173 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.net.packet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import net.kyori.adventure.nbt.CompoundBinaryTag;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import io.github.sparky983.diorite.io.StreamIn;
+import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.clientbound.play.AdvancementsPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.ChunkDataAndUpdateLightPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.DeclareRecipesPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.ParticlePacket;
+import io.github.sparky983.diorite.net.packet.serverbound.play.PluginMessagePacket;
+import io.github.sparky983.diorite.world.Identifier;
+import io.github.sparky983.diorite.world.Position;
+import io.github.sparky983.diorite.world.Vector;
+
+/**
+ * Tests that the packets holding an opaque payload expose it as a read-only view of the frame they
+ * were read from, and copy it for their {@code byte[]} getters.
+ */
+class PacketPayloadTest {
+
+    private static final byte[] PAYLOAD = {1, 2, 3, 4, 5, 6, 7, 8};
+    private static final Identifier CHANNEL = Identifier.of("diorite", "test");
+
+    private static <T extends Packet> Arguments payload(final T packet,
+            final Function<StreamIn, T> decoder,
+            final Function<T, ByteBuffer> getBuffer,
+            final Function<T, byte[]> getArray) {
+
+        return Arguments.of(packet, decoder, getBuffer, getArray);
+    }
+
+    static List<Arguments> providePayloadPackets() {
+
+        return List.of(
+                payload(new PluginMessagePacket(CHANNEL, PAYLOAD.clone()),
+                        PluginMessagePacket::new,
+                        PluginMessagePacket::getDataBuffer,
+                        PluginMessagePacket::getData),
+                payload(new io.github.sparky983.diorite.net.packet.clientbound.play
+                                .PluginMessagePacket(CHANNEL, PAYLOAD.clone()),
+                        io.github.sparky983.diorite.net.packet.clientbound.play
+                                .PluginMessagePacket::new,
+                        io.github.sparky983.diorite.net.packet.clientbound.play
+                                .PluginMessagePacket::getDataBuffer,
+                        io.github.sparky983.diorite.net.packet.clientbound.play
+                                .PluginMessagePacket::getData),
+                payload(new ParticlePacket(1, true, Position.of(1, 2, 3), Vector.of(0, 1, 0), 0.5F,
+                                4, PAYLOAD.clone()),
+                        ParticlePacket::new,
+                        ParticlePacket::getDataBuffer,
+                        ParticlePacket::getData),
+                payload(new AdvancementsPacket(PAYLOAD.clone()),
+                        AdvancementsPacket::new,
+                        AdvancementsPacket::getDataBuffer,
+                        AdvancementsPacket::getData),
+                payload(new DeclareRecipesPacket(PAYLOAD.clone()),
+                        DeclareRecipesPacket::new,
+                        DeclareRecipesPacket::getRecipesBuffer,
+                        DeclareRecipesPacket::getRecipes),
+                payload(new ChunkDataAndUpdateLightPacket(0, 0, CompoundBinaryTag.empty(),
+                                PAYLOAD.clone(), List.of(), true, new long[0], new long[0],
+                                new long[0], new long[0], new byte[0][], new byte[0][]),
+                        ChunkDataAndUpdateLightPacket::new,
+                        ChunkDataAndUpdateLightPacket::getDataBuffer,
+                        ChunkDataAndUpdateLightPacket::getData)
+        );
+    }
+
+    private static byte[] write(final Packet packet) {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        packet.write(StreamOut.from(outputStream));
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] remaining(final ByteBuffer buffer) {
+
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    @ParameterizedTest
+    @MethodSource("providePayloadPackets")
+    <T extends Packet> void getBuffer_ReturnsReadOnlyViewOfFrame(final T packet,
+            final Function<StreamIn, T> decoder,
+            final Function<T, ByteBuffer> getBuffer,
+            final Function<T, byte[]> getArray) {
+
+        final byte[] frame = write(packet);
+        final T decoded = decoder.apply(StreamIn.createByteArrayStream(frame));
+
+        final ByteBuffer buffer = getBuffer.apply(decoded);
+
+        assertTrue(buffer.isReadOnly());
+        assertArrayEquals(PAYLOAD, remaining(buffer));
+        assertThrows(ReadOnlyBufferException.class, () -> buffer.put(0, (byte) 0));
+
+        // the payload wasn't copied out of the frame, so the view sees changes to it
+        Arrays.fill(frame, (byte) -1);
+        final byte[] changed = new byte[PAYLOAD.length];
+        Arrays.fill(changed, (byte) -1);
+        assertArrayEquals(changed, remaining(buffer));
+    }
+
+    @ParameterizedTest
+    @MethodSource("providePayloadPackets")
+    <T extends Packet> void getBuffer_ReturnsIndependentViews(final T packet,
+            final Function<StreamIn, T> decoder,
+            final Function<T, ByteBuffer> getBuffer,
+            final Function<T, byte[]> getArray) {
+
+        final T decoded = decoder.apply(StreamIn.createByteArrayStream(write(packet)));
+
+        getBuffer.apply(decoded).position(PAYLOAD.length);
+
+        assertEquals(PAYLOAD.length, getBuffer.apply(decoded).remaining());
+        assertArrayEquals(PAYLOAD, getArray.apply(decoded));
+    }
+
+    @ParameterizedTest
+    @MethodSource("providePayloadPackets")
+    <T extends Packet> void getArray_ReturnsCopy(final T packet,
+            final Function<StreamIn, T> decoder,
+            final Function<T, ByteBuffer> getBuffer,
+            final Function<T, byte[]> getArray) {
+
+        final byte[] frame = write(packet);
+        final T decoded = decoder.apply(StreamIn.createByteArrayStream(frame));
+
+        final byte[] data = getArray.apply(decoded);
+        Arrays.fill(data, (byte) 0);
+
+        assertNotSame(data, getArray.apply(decoded));
+        assertArrayEquals(PAYLOAD, getArray.apply(decoded));
+        assertArrayEquals(PAYLOAD, remaining(getBuffer.apply(decoded)));
+        assertArrayEquals(frame, write(decoded));
+    }
+}
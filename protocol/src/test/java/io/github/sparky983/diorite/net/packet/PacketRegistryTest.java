@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.net.packet;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.sparky983.diorite.io.DecodeException;
+import io.github.sparky983.diorite.io.StreamIn;
+
+class PacketRegistryTest {
+
+    private static final int PACKET_ID = 0x01;
+
+    private static Packet reject(final StreamIn inputStream) {
+
+        throw new IllegalArgumentException("Field is out of range");
+    }
+
+    @Test
+    void getPacketDecoder_ConstructorRejectsField_ThrowsDecodeException() {
+
+        final PacketRegistry registry = PacketRegistry.builder()
+                .registerPacket(PACKET_ID, PacketRegistryTest::reject)
+                .build();
+        final PacketDecoder<?> decoder = registry.getPacketDecoder(PACKET_ID).orElseThrow();
+
+        final DecodeException e = assertThrows(DecodeException.class,
+                () -> decoder.decode(StreamIn.createByteArrayStream(new byte[0])));
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void getDirectPacketDecoder_ConstructorRejectsField_ThrowsDecodeException() {
+
+        final PacketRegistry registry = PacketRegistry.builder()
+                .registerPacket(PACKET_ID, PacketRegistryTest::reject,
+                        (inputStream, handler) -> reject(inputStream))
+                .build();
+        final DirectPacketDecoder<?> decoder = registry.getDirectPacketDecoder(PACKET_ID);
+
+        final DecodeException e = assertThrows(DecodeException.class, () -> decoder.decode(
+                StreamIn.createByteArrayStream(new byte[0]), PacketHandler.NONE));
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+}
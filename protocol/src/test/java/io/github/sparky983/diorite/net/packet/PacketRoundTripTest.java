@@ -0,0 +1,503 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.sparky983.diorite.net.packet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import net.kyori.adventure.nbt.CompoundBinaryTag;
+import net.kyori.adventure.text.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.github.sparky983.diorite.codec.FieldType;
+import io.github.sparky983.diorite.io.DecodeException;
+import io.github.sparky983.diorite.io.LazyComponent;
+import io.github.sparky983.diorite.io.LazyCompoundTag;
+import io.github.sparky983.diorite.io.StreamIn;
+import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.packet.clientbound.play.DeclareCommandsPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.EntityEquipmentPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.EntityMovementPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.MapDataPacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.SelectAdvancementTabPacket;
+import io.github.sparky983.diorite.net.packet.codec.Field;
+import io.github.sparky983.diorite.net.packet.codec.GeneratedPacketCodecs;
+import io.github.sparky983.diorite.net.packet.codec.PacketCodec;
+import io.github.sparky983.diorite.world.BlockPosition;
+import io.github.sparky983.diorite.world.Direction;
+import io.github.sparky983.diorite.world.EquipmentSlot;
+import io.github.sparky983.diorite.world.Identifier;
+import io.github.sparky983.diorite.world.Position;
+import io.github.sparky983.diorite.world.Vector;
+import io.github.sparky983.diorite.world.Velocity;
+
+class PacketRoundTripTest {
+
+    private static final String PACKET_PACKAGE = "io.github.sparky983.diorite.net.packet.";
+
+    // packets that can't be created from sample arguments
+    private static final Map<Class<?>, Packet> SAMPLES = Map.of(
+            EntityEquipmentPacket.class, new EntityEquipmentPacket(1, List.of(
+                    new EntityEquipmentPacket.Equipment(EquipmentSlot.MAIN_HAND, null),
+                    new EntityEquipmentPacket.Equipment(EquipmentSlot.BOOTS, null))),
+            DeclareCommandsPacket.class, new DeclareCommandsPacket(3, commandNodes(), 0));
+
+    // the root, the literal "give" and an integer argument with a min, max and suggestions
+    private static byte[] commandNodes() {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        StreamOut.from(outputStream)
+                .writeByte((byte) 0x00)
+                .writeVarIntList(new int[]{1})
+                .writeByte((byte) 0x01)
+                .writeVarIntList(new int[]{2})
+                .writeString("give")
+                .writeByte((byte) (0x02 | 0x04 | 0x10))
+                .writeVarIntList(new int[0])
+                .writeString("amount")
+                .writeString("brigadier:integer")
+                .writeByte((byte) 0x03)
+                .writeInt(1)
+                .writeInt(64)
+                .writeString("minecraft:ask_server");
+        return outputStream.toByteArray();
+    }
+
+    static List<Arguments> provideCodecs() {
+
+        return GeneratedPacketCodecs.all()
+                .stream()
+                .map(Arguments::of)
+                .collect(Collectors.toList());
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideCodecs")
+    <T extends Packet> void encode_WritesSize_AndDecodesToSamePacket(final PacketCodec<T> codec)
+            throws ReflectiveOperationException {
+
+        final T packet = createPacket(codec.getPacketType());
+
+        final byte[] encoded = write(packet);
+        final T decoded = codec.decode(StreamIn.from(new ByteArrayInputStream(encoded)));
+
+        assertEquals(encoded.length, codec.size(packet));
+        assertEquals(encoded.length, packet.getEncodedSize());
+        assertArrayEquals(encoded, write(decoded));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideCodecs")
+    <T extends Packet> void streamConstructor_ReadsSameFieldsAsCodec(final PacketCodec<T> codec)
+            throws ReflectiveOperationException {
+
+        final T packet = createPacket(codec.getPacketType());
+
+        final byte[] encoded = write(packet);
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(encoded);
+        final T constructed = codec.getPacketType()
+                .getConstructor(StreamIn.class)
+                .newInstance(StreamIn.from(inputStream));
+
+        assertEquals(0, inputStream.available());
+        assertArrayEquals(encoded, write(constructed));
+    }
+
+    static List<Arguments> provideRegisteredPackets()
+            throws IOException, URISyntaxException, ReflectiveOperationException {
+
+        final List<Arguments> arguments = new ArrayList<>();
+        addRegisteredPackets(arguments, "clientbound.status", PacketRegistries.Client.STATUS);
+        addRegisteredPackets(arguments, "clientbound.login", PacketRegistries.Client.LOGIN);
+        addRegisteredPackets(arguments, "clientbound.play", PacketRegistries.Client.PLAY);
+        return arguments;
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideRegisteredPackets")
+    void registeredPacket_DecodesToSamePacket(final String state,
+            final int packetId,
+            final PacketRegistry registry,
+            final Packet packet) {
+
+        assertNotNull(packet, "No " + state + " packet with the id " + packetId);
+
+        final byte[] encoded = write(packet);
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(encoded);
+        final Packet decoded = registry.getPacketDecoder(packetId)
+                .orElseThrow()
+                .decode(StreamIn.from(inputStream));
+
+        assertEquals(packet.getClass(), decoded.getClass());
+        assertEquals(0, inputStream.available());
+        assertArrayEquals(encoded, write(decoded));
+        if (packet.getEncodedSize() != -1) {
+            assertEquals(encoded.length, packet.getEncodedSize());
+        }
+    }
+
+    @Test
+    void entityPosition_DecodesToSamePacket() {
+
+        final EntityMovementPacket.Position packet = new EntityMovementPacket.Position(
+                7, (short) -4096, (short) 1, (short) 4095, true);
+
+        final byte[] encoded = write(packet);
+        final EntityMovementPacket.Position decoded = new EntityMovementPacket.Position(
+                StreamIn.from(new ByteArrayInputStream(encoded)));
+
+        assertEquals(-4096, decoded.getDx());
+        assertEquals(1, decoded.getDy());
+        assertEquals(4095, decoded.getDz());
+        assertArrayEquals(encoded, write(decoded));
+    }
+
+    @Test
+    void declareCommands_ReadsNodes() {
+
+        final DeclareCommandsPacket packet = new DeclareCommandsPacket(3, commandNodes(), 0);
+
+        final byte[] encoded = write(packet);
+        final DeclareCommandsPacket decoded = new DeclareCommandsPacket(
+                StreamIn.from(new ByteArrayInputStream(encoded)));
+
+        assertEquals(3, decoded.getNodeCount());
+        assertArrayEquals(commandNodes(), decoded.getNodes());
+        assertEquals(0, decoded.getRootIndex());
+    }
+
+    @Test
+    void declareCommands_ThrowsIgnorableException_WhenParserIsUnknown() {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        StreamOut.from(outputStream)
+                .writeVarInt(1)
+                .writeByte((byte) 0x02)
+                .writeVarIntList(new int[0])
+                .writeString("argument")
+                .writeString("diorite:unknown")
+                .writeVarInt(0);
+
+        final DecodeException e = assertThrows(DecodeException.class,
+                () -> new DeclareCommandsPacket(
+                        StreamIn.from(new ByteArrayInputStream(outputStream.toByteArray()))));
+
+        assertTrue(e.isIgnorable());
+    }
+
+    @Test
+    void mapData_DecodesToSamePacket() {
+
+        final MapDataPacket packet = new MapDataPacket(
+                3,
+                (byte) 1,
+                false,
+                null,
+                new MapDataPacket.MapPatch(2, (byte) 1, (byte) 0, (byte) 0, new byte[]{1, 2}));
+
+        final byte[] encoded = write(packet);
+        final MapDataPacket decoded = new MapDataPacket(
+                StreamIn.from(new ByteArrayInputStream(encoded)));
+
+        assertNull(decoded.getIcons());
+        assertArrayEquals(encoded, write(decoded));
+    }
+
+    @Test
+    void nullableField_DecodesToNull() {
+
+        final SelectAdvancementTabPacket packet = new SelectAdvancementTabPacket((Identifier) null);
+
+        final byte[] encoded = write(packet);
+        final SelectAdvancementTabPacket decoded = new SelectAdvancementTabPacket(
+                StreamIn.from(new ByteArrayInputStream(encoded)));
+
+        assertArrayEquals(new byte[]{0}, encoded);
+        assertEquals(1, packet.getEncodedSize());
+        assertNull(decoded.getIdentifier());
+    }
+
+    private static byte[] write(final Packet packet) {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        packet.write(StreamOut.from(outputStream));
+        return outputStream.toByteArray();
+    }
+
+    private static void addRegisteredPackets(final List<Arguments> arguments,
+            final String state,
+            final PacketRegistry registry)
+            throws IOException, URISyntaxException, ReflectiveOperationException {
+
+        final Map<Integer, Packet> samples = createSamples(state);
+        for (final int packetId : new TreeSet<>(registry.getPacketIds())) {
+            arguments.add(Arguments.of(state, packetId, registry, samples.get(packetId)));
+        }
+    }
+
+    /*
+     * Creates a sample of every packet in the state's package, keyed by packet id. The packet
+     * classes are found on the class path, so a newly registered packet is covered without
+     * changing this test.
+     */
+    private static Map<Integer, Packet> createSamples(final String state)
+            throws IOException, URISyntaxException, ReflectiveOperationException {
+
+        final String packageName = PACKET_PACKAGE + state;
+        final Path classes = Path.of(Packet.class.getProtectionDomain()
+                .getCodeSource()
+                .getLocation()
+                .toURI());
+        final Path directory = classes.resolve(packageName.replace('.', '/'));
+
+        final List<String> classNames;
+        try (final Stream<Path> files = Files.list(directory)) {
+            classNames = files.map((file) -> file.getFileName().toString())
+                    .filter((name) -> name.endsWith(".class"))
+                    .map((name) -> packageName + "." + name.substring(0, name.length() - 6))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        final Map<Integer, Packet> samples = new HashMap<>();
+        for (final String className : classNames) {
+            final Class<?> type = Class.forName(className);
+            if (Packet.class.isAssignableFrom(type)
+                    && Modifier.isPublic(type.getModifiers())
+                    && !Modifier.isAbstract(type.getModifiers())) {
+                final Packet packet = SAMPLES.containsKey(type)
+                        ? SAMPLES.get(type)
+                        : (Packet) createSample(type);
+                samples.putIfAbsent(packet.getId(), packet);
+            }
+        }
+        return samples;
+    }
+
+    /*
+     * Creates a sample of the type through its public constructor with the most parameters,
+     * recursively creating a sample of each parameter.
+     */
+    private static Object createSample(final Class<?> type) throws ReflectiveOperationException {
+
+        if (type == boolean.class) {
+            return true;
+        } else if (type == byte.class) {
+            return (byte) 1;
+        } else if (type == short.class) {
+            return (short) 1;
+        } else if (type == int.class) {
+            // the smallest view distance
+            return 2;
+        } else if (type == long.class) {
+            return 1L;
+        } else if (type == float.class) {
+            return 1F;
+        } else if (type == double.class) {
+            return 1D;
+        } else if (type == String.class) {
+            return "diorite";
+        } else if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        } else if (type.isArray()) {
+            return Array.newInstance(type.getComponentType(), 0);
+        } else if (type == List.class) {
+            return List.of();
+        } else if (type == Optional.class) {
+            return Optional.empty();
+        } else if (type == ByteBuffer.class) {
+            return ByteBuffer.allocate(0);
+        } else if (type == Identifier.class) {
+            return Identifier.of("diorite", "sample");
+        } else if (type == UUID.class) {
+            return new UUID(1, 2);
+        } else if (type == Position.class) {
+            return Position.of(1, 2, 3);
+        } else if (type == BlockPosition.class) {
+            return BlockPosition.of(1, 2, 3);
+        } else if (type == Direction.class) {
+            return Direction.of((byte) 1, (byte) 2);
+        } else if (type == Velocity.class) {
+            return Velocity.of((short) 1, (short) 2, (short) 3);
+        } else if (type == Vector.class) {
+            return Vector.of(1, 2, 3);
+        } else if (type == Component.class) {
+            return Component.text("diorite");
+        } else if (type == LazyComponent.class) {
+            return LazyComponent.of(Component.text("diorite"));
+        } else if (type == CompoundBinaryTag.class) {
+            return CompoundBinaryTag.empty();
+        } else if (type == LazyCompoundTag.class) {
+            return LazyCompoundTag.empty();
+        }
+
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return createSample(findImplementation(type));
+        }
+
+        Constructor<?> widest = null;
+        for (final Constructor<?> constructor : type.getConstructors()) {
+            if (List.of(constructor.getParameterTypes()).contains(StreamIn.class)) {
+                continue;
+            }
+            if (widest == null || constructor.getParameterCount() > widest.getParameterCount()) {
+                widest = constructor;
+            }
+        }
+        if (widest == null) {
+            throw new AssertionError("No constructor to create a sample " + type.getName());
+        }
+
+        final Object[] arguments = new Object[widest.getParameterCount()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = createSample(widest.getParameterTypes()[i]);
+        }
+        return widest.newInstance(arguments);
+    }
+
+    // abstract types are implemented by classes nested in the same class, like a packet's actions
+    private static Class<?> findImplementation(final Class<?> type) {
+
+        final Class<?> enclosingType = type.getEnclosingClass() == null
+                ? type
+                : type.getEnclosingClass();
+        return Stream.concat(Stream.of(type.getClasses()), Stream.of(enclosingType.getClasses()))
+                .filter((nestedType) -> type.isAssignableFrom(nestedType)
+                        && !nestedType.isInterface()
+                        && !Modifier.isAbstract(nestedType.getModifiers()))
+                .min(Comparator.comparing(Class::getName))
+                .orElseThrow(() -> new AssertionError("No implementation of " + type.getName()));
+    }
+
+    /*
+     * Creates the packet with a distinct value for each field, through the same constructor the
+     * codec decodes with.
+     */
+    private static <T> T createPacket(final Class<T> packetType)
+            throws ReflectiveOperationException {
+
+        final List<Class<?>> types = new ArrayList<>();
+        final List<Object> values = new ArrayList<>();
+        for (final java.lang.reflect.Field field : packetType.getDeclaredFields()) {
+            final Field annotation = field.getAnnotation(Field.class);
+            if (annotation != null) {
+                types.add(field.getType());
+                values.add(createValue(field, annotation, values.size()));
+            }
+        }
+
+        return packetType.getConstructor(types.toArray(new Class<?>[0]))
+                .newInstance(values.toArray());
+    }
+
+    private static Object createValue(final java.lang.reflect.Field field,
+            final Field annotation,
+            final int seed) {
+
+        if (annotation.list()) {
+            final Class<?> elementType = (Class<?>) ((ParameterizedType) field.getGenericType())
+                    .getActualTypeArguments()[0];
+            return List.of(createValue(annotation.value(), elementType, seed),
+                    createValue(annotation.value(), elementType, seed + 1));
+        }
+        return createValue(annotation.value(), field.getType(), seed);
+    }
+
+    private static Object createValue(final FieldType type,
+            final Class<?> javaType,
+            final int seed) {
+
+        switch (type) {
+            case BOOLEAN:
+                return seed % 2 == 0;
+            case BYTE:
+                return (byte) (-3 - seed);
+            case UNSIGNED_BYTE:
+                return 200 + seed;
+            case SHORT:
+                return (short) (-1234 - seed);
+            case UNSIGNED_SHORT:
+                return 60000 + seed;
+            case INT:
+                return -123456 - seed;
+            case LONG:
+                return -1234567890123L - seed;
+            case FLOAT:
+                return 1.5F + seed;
+            case DOUBLE:
+                return -2.25 + seed;
+            case VAR_INT:
+                return 300 + seed;
+            case VAR_LONG:
+                return 1L << 40 | seed;
+            case STRING:
+                return "diorite \u00E9\u2713\uD83D\uDE00" + seed;
+            case IDENTIFIER:
+                return Identifier.of("diorite", "test_" + seed);
+            case UUID:
+                return new UUID(seed, -seed);
+            case POSITION:
+                return Position.of(1.5 + seed, -2, 3);
+            case BLOCK_POSITION:
+                return BlockPosition.of(-100 - seed, -60, 12345);
+            case DIRECTION:
+                return Direction.of((byte) 4, (byte) (5 + seed));
+            case VELOCITY:
+                return Velocity.of((short) 1, (short) -2, (short) (3 + seed));
+            case VAR_INT_ARRAY:
+                return new int[]{300 + seed, -1, 0};
+            case LONG_ARRAY:
+                return new long[]{-1234567890123L - seed, 0};
+            case VAR_INT_ENUM:
+                final Object[] constants = javaType.getEnumConstants();
+                return constants[constants.length - 1];
+            default:
+                throw new AssertionError(type);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.net.packet.format;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.github.sparky983.diorite.io.ByteArrayStreamOut;
+import io.github.sparky983.diorite.io.LazyCompoundTag;
+import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.net.ChannelState;
+import io.github.sparky983.diorite.net.Stateful;
+import io.github.sparky983.diorite.net.packet.PacketRegistries;
+import io.github.sparky983.diorite.net.packet.PacketRegistry;
+import io.github.sparky983.diorite.net.packet.clientbound.play.ChunkDataAndUpdateLightPacket;
+
+class ChunkPacketCacheTest {
+
+    private static final PacketFormat FORMAT = PacketFormat.uncompressed(new Stateful() {
+
+        @Override
+        public ChannelState getState() {
+
+            return ChannelState.PLAY;
+        }
+
+        @Override
+        public void setState(final ChannelState state) {
+
+        }
+
+        @Override
+        public PacketRegistry getPacketRegistry() {
+
+            return PacketRegistries.Client.PLAY;
+        }
+
+        @Override
+        public void close() {
+
+        }
+    });
+
+    private static Supplier<ChunkDataAndUpdateLightPacket> chunk(final int chunkX,
+            final int chunkZ,
+            final int dataLength,
+            final AtomicInteger created) {
+
+        return () -> {
+            created.incrementAndGet();
+            return new ChunkDataAndUpdateLightPacket(chunkX, chunkZ, LazyCompoundTag.empty(),
+                    new byte[dataLength], List.of(), true, new long[0], new long[0],
+                    new long[0], new long[0], new byte[0][], new byte[0][]);
+        };
+    }
+
+    private static void send(final PreEncodedPacket<?> packet) {
+
+        try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+            FORMAT.encode(packet, outputStream);
+        }
+    }
+
+    @Test
+    void get_SameVersion_ReturnsCachedPacket() {
+
+        final ChunkPacketCache cache = ChunkPacketCache.create(1024 * 1024);
+        final AtomicInteger created = new AtomicInteger();
+
+        final PreEncodedPacket<ChunkDataAndUpdateLightPacket> first =
+                cache.get(1, 2, 0, chunk(1, 2, 100, created));
+        final PreEncodedPacket<ChunkDataAndUpdateLightPacket> second =
+                cache.get(1, 2, 0, chunk(1, 2, 100, created));
+
+        assertSame(first, second);
+        assertEquals(1, created.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void get_NewVersion_ReplacesPacket() {
+
+        final ChunkPacketCache cache = ChunkPacketCache.create(1024 * 1024);
+        final AtomicInteger created = new AtomicInteger();
+
+        final PreEncodedPacket<ChunkDataAndUpdateLightPacket> first =
+                cache.get(1, 2, 0, chunk(1, 2, 100, created));
+        final PreEncodedPacket<ChunkDataAndUpdateLightPacket> second =
+                cache.get(1, 2, 1, chunk(1, 2, 100, created));
+
+        assertNotSame(first, second);
+        assertSame(second, cache.get(1, 2, 1, chunk(1, 2, 100, created)));
+        assertEquals(2, created.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void get_OlderVersion_KeepsNewerPacket() {
+
+        final ChunkPacketCache cache = ChunkPacketCache.create(1024 * 1024);
+        final AtomicInteger created = new AtomicInteger();
+
+        final PreEncodedPacket<ChunkDataAndUpdateLightPacket> newer =
+                cache.get(1, 2, 2, chunk(1, 2, 100, created));
+        final PreEncodedPacket<ChunkDataAndUpdateLightPacket> older =
+                cache.get(1, 2, 1, chunk(1, 2, 100, created));
+
+        assertNotSame(newer, older);
+        assertSame(newer, cache.get(1, 2, 2, chunk(1, 2, 100, created)));
+        assertEquals(2, created.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void get_OverBudget_EvictsLeastRecentlyUsed() {
+
+        final ChunkPacketCache cache = ChunkPacketCache.create(5000);
+        final AtomicInteger created = new AtomicInteger();
+
+        // each packet's data and frame take up a little over 2000 bytes once it has been sent
+        for (int chunkX = 0; chunkX < 2; chunkX++) {
+            send(cache.get(chunkX, 0, 0, chunk(chunkX, 0, 1000, created)));
+        }
+        // uses chunk 0 again, so chunk 1 is the least recently used
+        cache.get(0, 0, 0, chunk(0, 0, 1000, created));
+        assertTrue(cache.getCachedBytes() > 4000);
+
+        send(cache.get(2, 0, 0, chunk(2, 0, 1000, created)));
+        cache.get(2, 0, 0, chunk(2, 0, 1000, created));
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.getCachedBytes() <= 5000);
+        cache.get(0, 0, 0, chunk(0, 0, 1000, created));
+        assertEquals(3, created.get());
+        cache.get(1, 0, 0, chunk(1, 0, 1000, created));
+        assertEquals(4, created.get());
+    }
+
+    @Test
+    void invalidate_RemovesChunk() {
+
+        final ChunkPacketCache cache = ChunkPacketCache.create(1024 * 1024);
+        final AtomicInteger created = new AtomicInteger();
+
+        send(cache.get(1, 2, 0, chunk(1, 2, 100, created)));
+        cache.get(1, 2, 0, chunk(1, 2, 100, created));
+        cache.invalidate(1, 2);
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getCachedBytes());
+        cache.get(1, 2, 0, chunk(1, 2, 100, created));
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    void create_NonPositiveBudget_Throws() {
+
+        assertThrows(IllegalArgumentException.class, () -> ChunkPacketCache.create(0));
+    }
+}
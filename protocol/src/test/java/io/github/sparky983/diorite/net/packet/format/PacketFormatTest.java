@@ -0,0 +1,367 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.net.packet.format;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.sparky983.diorite.io.ByteArrayStreamOut;
+import io.github.sparky983.diorite.io.DecodeException;
+import io.github.sparky983.diorite.io.DecodeLimitException;
+import io.github.sparky983.diorite.io.DecodeLimits;
+import io.github.sparky983.diorite.io.RuntimeIOException;
+import io.github.sparky983.diorite.io.StreamIn;
+import io.github.sparky983.diorite.io.StreamOut;
+import io.github.sparky983.diorite.io.compression.Compression;
+import io.github.sparky983.diorite.net.ChannelState;
+import io.github.sparky983.diorite.net.Stateful;
+import io.github.sparky983.diorite.net.packet.Packet;
+import io.github.sparky983.diorite.net.packet.PacketHandler;
+import io.github.sparky983.diorite.net.packet.PacketRegistries;
+import io.github.sparky983.diorite.net.packet.PacketRegistry;
+import io.github.sparky983.diorite.net.packet.clientbound.ClientBoundPacketId;
+import io.github.sparky983.diorite.net.packet.clientbound.play.KeepAlivePacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.PluginMessagePacket;
+import io.github.sparky983.diorite.net.packet.clientbound.play.TimeUpdatePacket;
+import io.github.sparky983.diorite.world.Identifier;
+
+class PacketFormatTest {
+
+    private static final Stateful PLAY = new Stateful() {
+
+        @Override
+        public ChannelState getState() {
+
+            return ChannelState.PLAY;
+        }
+
+        @Override
+        public void setState(final ChannelState state) {
+
+        }
+
+        @Override
+        public PacketRegistry getPacketRegistry() {
+
+            return PacketRegistries.Client.PLAY;
+        }
+
+        @Override
+        public void close() {
+
+        }
+    };
+
+    private static final PacketFormat UNCOMPRESSED = PacketFormat.uncompressed(PLAY);
+    private static final PacketFormat COMPRESSED =
+            PacketFormat.compressed(PLAY, 1, Compression.zlib());
+
+    private static StreamIn encode(final PacketFormat packetFormat, final Packet... packets) {
+
+        try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+            for (final Packet packet : packets) {
+                packetFormat.encode(packet, outputStream);
+            }
+            return StreamIn.createByteArrayStream(outputStream.toByteArray());
+        }
+    }
+
+    private static void assertReadsPackets(final PacketFormat packetFormat) {
+
+        final StreamIn inputStream = encode(
+                packetFormat,
+                new TimeUpdatePacket(1, 2),
+                new KeepAlivePacket(3)
+        );
+
+        final EncodedPacket timeUpdate = packetFormat.read(inputStream);
+        final EncodedPacket keepAlive = packetFormat.read(inputStream);
+
+        assertEquals(ClientBoundPacketId.Play.TIME_UPDATE, timeUpdate.getId());
+        assertEquals(2 * Long.BYTES, timeUpdate.getLength());
+        assertFalse(timeUpdate.isDirect());
+        assertTrue(keepAlive.isDirect());
+
+        // decoded out of order, the packets don't share any state
+        final List<Long> keepAliveIds = new ArrayList<>();
+        assertNull(keepAlive.decode(new PacketHandler() {
+
+            @Override
+            public boolean onKeepAlive(final long keepAliveId) {
+
+                keepAliveIds.add(keepAliveId);
+                return true;
+            }
+        }));
+        final TimeUpdatePacket packet = (TimeUpdatePacket) timeUpdate.decode(PacketHandler.NONE);
+
+        assertEquals(List.of(3L), keepAliveIds);
+        assertEquals(1, packet.getWorldAge());
+        assertEquals(2, packet.getTimeOfDay());
+    }
+
+    @Test
+    void read_Uncompressed_ReadsPacketsToDecodeLater() {
+
+        assertReadsPackets(UNCOMPRESSED);
+    }
+
+    @Test
+    void read_Compressed_ReadsPacketsToDecodeLater() {
+
+        assertReadsPackets(COMPRESSED);
+    }
+
+    private static void assertDecodesDirectAndLargePacketsStraightAway(
+            final PacketFormat packetFormat) {
+
+        final byte[] data = new byte[Frame.MAX_BUFFERED_LENGTH * 2];
+        new Random(1).nextBytes(data);
+        final StreamIn inputStream = encode(
+                packetFormat,
+                new KeepAlivePacket(3),
+                new PluginMessagePacket(Identifier.of("diorite", "large"), data),
+                new TimeUpdatePacket(1, 2)
+        );
+        final List<Long> keepAliveIds = new ArrayList<>();
+        final PacketHandler handler = new PacketHandler() {
+
+            @Override
+            public boolean onKeepAlive(final long keepAliveId) {
+
+                keepAliveIds.add(keepAliveId);
+                return true;
+            }
+        };
+        final List<Packet> decoded = new ArrayList<>();
+
+        assertNull(packetFormat.read(inputStream, handler, decoded::add));
+        assertEquals(List.of(3L), keepAliveIds);
+        assertEquals(List.of(), decoded);
+
+        assertNull(packetFormat.read(inputStream, handler, decoded::add));
+        assertEquals(1, decoded.size());
+        assertArrayEquals(data, ((PluginMessagePacket) decoded.get(0)).getData());
+
+        final EncodedPacket timeUpdate = packetFormat.read(inputStream, handler, decoded::add);
+        assertEquals(ClientBoundPacketId.Play.TIME_UPDATE, timeUpdate.getId());
+        assertEquals(2 * Long.BYTES, timeUpdate.getLength());
+        assertEquals(1, ((TimeUpdatePacket) timeUpdate.decode(PacketHandler.NONE)).getWorldAge());
+        assertEquals(1, decoded.size());
+    }
+
+    @Test
+    void read_UncompressedWithHandler_DecodesDirectAndLargePacketsStraightAway() {
+
+        assertDecodesDirectAndLargePacketsStraightAway(UNCOMPRESSED);
+    }
+
+    @Test
+    void read_CompressedWithHandler_DecodesDirectAndLargePacketsStraightAway() {
+
+        assertDecodesDirectAndLargePacketsStraightAway(COMPRESSED);
+        assertDecodesDirectAndLargePacketsStraightAway(
+                PacketFormat.compressed(PLAY, Integer.MAX_VALUE, Compression.zlib()));
+    }
+
+    @Test
+    void decode_UnknownId_CallsOnSkipped() {
+
+        try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+            outputStream.writeVarInt(3)
+                    .writeVarInt(0x7F)
+                    .writeByte((byte) 1)
+                    .writeByte((byte) 2);
+            final EncodedPacket encodedPacket = UNCOMPRESSED.read(
+                    StreamIn.createByteArrayStream(outputStream.toByteArray()));
+
+            final List<Integer> skipped = new ArrayList<>();
+            assertNull(encodedPacket.decode(new PacketHandler() {
+
+                @Override
+                public void onSkipped(final int packetId) {
+
+                    skipped.add(packetId);
+                }
+            }));
+            assertEquals(List.of(0x7F), skipped);
+        }
+    }
+
+    @Test
+    void decode_Twice_Throws() {
+
+        final EncodedPacket encodedPacket =
+                UNCOMPRESSED.read(encode(UNCOMPRESSED, new TimeUpdatePacket(1, 2)));
+        encodedPacket.decode(PacketHandler.NONE);
+
+        assertThrows(IllegalStateException.class, () -> encodedPacket.decode(PacketHandler.NONE));
+    }
+
+    private static byte[] encodePreEncoded(final PacketFormat packetFormat,
+            final PreEncodedPacket<?> packet) {
+
+        try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+            packetFormat.encode(packet, outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+
+    @Test
+    void encode_PreEncoded_WritesTheSameFrame() {
+
+        final PacketFormat uncompressedBelowThreshold =
+                PacketFormat.compressed(PLAY, 256, Compression.zlib());
+        final TimeUpdatePacket packet = new TimeUpdatePacket(1, 2);
+        final PreEncodedPacket<TimeUpdatePacket> preEncodedPacket = PreEncodedPacket.of(packet);
+
+        for (final PacketFormat packetFormat
+                : List.of(UNCOMPRESSED, COMPRESSED, uncompressedBelowThreshold)) {
+            final byte[] frame = encodePreEncoded(packetFormat, preEncodedPacket);
+            try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+                packetFormat.encode(packet, outputStream);
+                assertArrayEquals(outputStream.toByteArray(), frame);
+            }
+            final EncodedPacket read =
+                    packetFormat.read(StreamIn.createByteArrayStream(frame));
+            assertEquals(ClientBoundPacketId.Play.TIME_UPDATE, read.getId());
+            read.release();
+        }
+    }
+
+    @Test
+    void encode_PreEncodedToManyChannels_WritesPacketOnce() {
+
+        final AtomicInteger writes = new AtomicInteger();
+        final Packet packet = new Packet() {
+
+            @Override
+            public void write(final StreamOut outputStream) {
+
+                writes.incrementAndGet();
+                outputStream.writeLong(1).writeLong(2);
+            }
+
+            @Override
+            public int getId() {
+
+                return ClientBoundPacketId.Play.TIME_UPDATE;
+            }
+        };
+        final PreEncodedPacket<Packet> preEncodedPacket = PreEncodedPacket.of(packet);
+
+        final byte[] first = encodePreEncoded(COMPRESSED, preEncodedPacket);
+        for (int i = 0; i < 100; i++) {
+            // every channel has its own format, but they share the same settings
+            final PacketFormat channelFormat = PacketFormat.compressed(PLAY, 1, Compression.zlib());
+            assertArrayEquals(first, encodePreEncoded(channelFormat, preEncodedPacket));
+        }
+        encodePreEncoded(UNCOMPRESSED, preEncodedPacket);
+
+        assertEquals(1, writes.get());
+    }
+
+    /**
+     * Frames data as a compressed packet that claims to inflate to dataLength bytes.
+     */
+    private static byte[] compressedFrame(final int dataLength, final byte[] data) {
+
+        try (final ByteArrayStreamOut dataLengthAndDataOutputStream = StreamOut.ofByteArray()) {
+            dataLengthAndDataOutputStream.writeVarInt(dataLength);
+            try (final StreamOut compressedOutputStream =
+                         Compression.zlib().compressed(dataLengthAndDataOutputStream)) {
+                compressedOutputStream.writeBytes(data);
+            }
+
+            try (final ByteArrayStreamOut frameOutputStream = StreamOut.ofByteArray()) {
+                frameOutputStream.writeVarInt(dataLengthAndDataOutputStream.size());
+                dataLengthAndDataOutputStream.writeTo(frameOutputStream);
+                return frameOutputStream.toByteArray();
+            }
+        }
+    }
+
+    @Test
+    void decode_CollectionLongerThanLimit_ThrowsAndSkipsFrame() {
+
+        final byte[] destroyEntities;
+        try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+            // claims a 1 GiB array of entity ids, but the frame holds none of them
+            outputStream.writeVarInt(ClientBoundPacketId.Play.DESTROY_ENTITIES)
+                    .writeVarInt(1 << 28);
+            destroyEntities = outputStream.toByteArray();
+        }
+        final byte[] keepAlive = encode(COMPRESSED, new KeepAlivePacket(1))
+                .readAllBytes();
+
+        try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+            outputStream.writeBytes(compressedFrame(destroyEntities.length, destroyEntities))
+                    .writeBytes(keepAlive);
+            final StreamIn inputStream = StreamIn.createByteArrayStream(outputStream.toByteArray());
+
+            // over the limits, so the connection is closed rather than the packet dropped, but the
+            // frame is still skipped
+            final DecodeException e =
+                    assertThrows(DecodeLimitException.class, () -> COMPRESSED.decode(inputStream));
+            assertFalse(e.isIgnorable());
+            assertEquals(1, ((KeepAlivePacket) COMPRESSED.decode(inputStream)).getKeepAliveId());
+        }
+    }
+
+    @Test
+    void decode_InflatesPastDataLength_StopsAtDataLength() {
+
+        final byte[] timeUpdate;
+        try (final ByteArrayStreamOut outputStream = StreamOut.ofByteArray()) {
+            outputStream.writeVarInt(ClientBoundPacketId.Play.TIME_UPDATE)
+                    .writeLong(1)
+                    .writeLong(2)
+                    .writeBytes(new byte[1 << 20]);
+            timeUpdate = outputStream.toByteArray();
+        }
+
+        // declares room for the id and one of the two longs
+        final StreamIn inputStream =
+                StreamIn.createByteArrayStream(compressedFrame(1 + Long.BYTES, timeUpdate));
+
+        assertThrows(RuntimeIOException.class, () -> COMPRESSED.decode(inputStream));
+    }
+
+    @Test
+    void decode_DataLengthOverLimit_Throws() {
+
+        final PacketFormat packetFormat = PacketFormat.compressed(PLAY, 1, Compression.zlib(),
+                DecodeLimits.builder().maxInflatedSize(1024).build());
+        final StreamIn inputStream =
+                StreamIn.createByteArrayStream(compressedFrame(1025, new byte[1025]));
+
+        final DecodeException e =
+                assertThrows(DecodeException.class, () -> packetFormat.decode(inputStream));
+        assertFalse(e.isIgnorable());
+    }
+}
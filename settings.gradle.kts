@@ -6,7 +6,9 @@ dependencyResolutionManagement {
 
 sequenceOf(
     "client",
+    "codegen",
     "common",
+    "fuzz",
     "protocol",
     "world"
 ).forEach { include(it) }
@@ -1,5 +1,6 @@
 plugins {
     id("diorite.library-conventions")
+    id("me.champeau.jmh") version "0.6.8"
 }
 
 dependencies {
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link PackedArrays} with the obvious loop, for the widths chunk sections (4 to 8 bits)
+ * and 1.18 heightmaps (9 bits) use.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PackedArraysBenchmark {
+
+    private static final int SECTION_BLOCKS = 16 * 16 * 16;
+
+    @Param({"4", "5", "8", "9"})
+    private int bitsPerEntry;
+
+    private long[] packed;
+    private ByteBuffer encoded;
+    private int[] destination;
+
+    @Setup
+    public void setUp() {
+
+        final Random random = new Random(0);
+        packed = new long[PackedArrays.packedLength(bitsPerEntry, SECTION_BLOCKS)];
+        encoded = ByteBuffer.allocate(packed.length * Long.BYTES);
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = random.nextLong();
+            encoded.putLong(i * Long.BYTES, packed[i]);
+        }
+        destination = new int[SECTION_BLOCKS];
+    }
+
+    @Benchmark
+    public int[] naive() {
+
+        final int valuesPerLong = Long.SIZE / bitsPerEntry;
+        final long mask = (1L << bitsPerEntry) - 1;
+        for (int i = 0; i < destination.length; i++) {
+            final int longIndex = i / valuesPerLong;
+            final int shift = (i % valuesPerLong) * bitsPerEntry;
+            destination[i] = (int) ((packed[longIndex] >>> shift) & mask);
+        }
+        return destination;
+    }
+
+    @Benchmark
+    public int[] unpack() {
+
+        PackedArrays.unpack(packed, bitsPerEntry, destination);
+        return destination;
+    }
+
+    @Benchmark
+    public int[] naiveFromBuffer() {
+
+        final ByteBuffer buffer = encoded.duplicate();
+        final long[] longs = new long[packed.length];
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = buffer.getLong();
+        }
+
+        final int valuesPerLong = Long.SIZE / bitsPerEntry;
+        final long mask = (1L << bitsPerEntry) - 1;
+        for (int i = 0; i < destination.length; i++) {
+            final int longIndex = i / valuesPerLong;
+            final int shift = (i % valuesPerLong) * bitsPerEntry;
+            destination[i] = (int) ((longs[longIndex] >>> shift) & mask);
+        }
+        return destination;
+    }
+
+    @Benchmark
+    public int[] unpackFromBuffer() {
+
+        PackedArrays.unpack(encoded.duplicate(), bitsPerEntry, destination);
+        return destination;
+    }
+}
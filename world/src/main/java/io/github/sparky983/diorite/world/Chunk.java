@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.util.List;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+/**
+ * The blocks and biomes of a chunk, decoded from a chunk data packet by a {@link ChunkDecoder}.
+ * <p>
+ * Sections are kept paletted and bit-packed as they were sent, so a chunk takes about as much
+ * memory as its packet did. Chunks are immutable.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface Chunk {
+
+    /**
+     * Creates a chunk from its sections.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @param minY The lowest y coordinate of the world.
+     * @param worldHeight The height of the world.
+     * @param sections The sections, from the bottom of the world to the top.
+     * @return The chunk.
+     * @throws NullPointerException if sections is or contains {@code null}.
+     * @throws IllegalArgumentException if minY or worldHeight aren't multiples of 16, worldHeight
+     *         is less than 16 or there isn't a section for every 16 blocks of height.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _, _, _, _ -> new", pure = true)
+    static @NotNull Chunk of(final int chunkX,
+            final int chunkZ,
+            final int minY,
+            final @Range(from = 16, to = Integer.MAX_VALUE) int worldHeight,
+            final @NotNull List<? extends @NotNull ChunkSection> sections) {
+
+        Preconditions.requireTrue((minY & 15) == 0, "minY must be a multiple of 16");
+        Preconditions.requireTrue(worldHeight >= 16 && (worldHeight & 15) == 0,
+                "worldHeight must be a positive multiple of 16");
+        Preconditions.requireContainsNoNulls(sections, "sections");
+        Preconditions.requireTrue(sections.size() == worldHeight >> 4,
+                "there must be " + (worldHeight >> 4) + " sections");
+
+        return new ChunkImpl(chunkX, chunkZ, minY, worldHeight,
+                sections.toArray(new ChunkSection[0]));
+    }
+
+    /**
+     * Returns the chunk's x coordinate.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int getChunkX();
+
+    /**
+     * Returns the chunk's z coordinate.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int getChunkZ();
+
+    /**
+     * Returns the lowest y coordinate of the world.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int getMinY();
+
+    /**
+     * Returns the height of the world.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 1, to = Integer.MAX_VALUE) int getWorldHeight();
+
+    /**
+     * Returns the number of sections, from the bottom of the world to the top.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Integer.MAX_VALUE) int getSectionCount();
+
+    /**
+     * Returns the section at the specified index, where 0 is the bottom section.
+     *
+     * @param index The index of the section.
+     * @return The section.
+     * @throws IndexOutOfBoundsException if there is no section at the index.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @NotNull ChunkSection getSection(int index);
+
+    /**
+     * Returns the state id of the specified block.
+     *
+     * @param x The x coordinate within the chunk.
+     * @param y The y coordinate.
+     * @param z The z coordinate within the chunk.
+     * @return The block state id.
+     * @throws IndexOutOfBoundsException if the block is outside the chunk.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int getBlockState(@Range(from = 0, to = 15) int x,
+            int y,
+            @Range(from = 0, to = 15) int z);
+
+    /**
+     * Returns the biome id at the specified block.
+     *
+     * @param x The x coordinate within the chunk.
+     * @param y The y coordinate.
+     * @param z The z coordinate within the chunk.
+     * @return The biome id.
+     * @throws IndexOutOfBoundsException if the block is outside the chunk.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int getBiome(@Range(from = 0, to = 15) int x,
+            int y,
+            @Range(from = 0, to = 15) int z);
+
+    /**
+     * Encodes the chunk's sections as they are sent in a chunk data packet.
+     *
+     * @return The encoded sections.
+     * @see ChunkDecoder
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new", pure = true)
+    byte @NotNull [] encode();
+}
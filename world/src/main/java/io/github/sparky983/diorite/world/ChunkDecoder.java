@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Decodes the data of a chunk data packet into a {@link Chunk}.
+ * <p>
+ * A parallel decoder decodes the sections of large chunks on its executor. Where each section
+ * starts is only known once the one before it has been read, so the section boundaries are found
+ * with a cheap sequential scan first, and only the palettes and data are decoded in parallel.
+ * Chunks smaller than {@link #PARALLEL_THRESHOLD} are always decoded on the calling thread, since
+ * handing them off costs more than decoding them.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface ChunkDecoder {
+
+    /**
+     * The size, in bytes, of the smallest chunk data a parallel decoder splits across its
+     * executor.
+     *
+     * @since 1.0.0
+     */
+    int PARALLEL_THRESHOLD = 16 * 1024;
+
+    /**
+     * Returns a decoder that decodes every chunk on the calling thread.
+     *
+     * @return The decoder.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    static @NotNull ChunkDecoder sequential() {
+
+        return ChunkDecoderImpl.SEQUENTIAL;
+    }
+
+    /**
+     * Returns a decoder that decodes the sections of large chunks on the common
+     * {@link ForkJoinPool}.
+     *
+     * @return The decoder.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    static @NotNull ChunkDecoder parallel() {
+
+        return ChunkDecoderImpl.COMMON_POOL;
+    }
+
+    /**
+     * Creates a decoder that decodes the sections of large chunks on the specified executor.
+     *
+     * @param executor The executor.
+     * @return The decoder.
+     * @throws NullPointerException if executor is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    static @NotNull ChunkDecoder parallel(final @NotNull Executor executor) {
+
+        return new ChunkDecoderImpl(executor);
+    }
+
+    /**
+     * Decodes a chunk, blocking until every section has been decoded.
+     * <p>
+     * The buffer's position isn't changed.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @param minY The lowest y coordinate of the world.
+     * @param worldHeight The height of the world.
+     * @param data The chunk data, from the buffer's position to its limit.
+     * @return The chunk.
+     * @throws NullPointerException if data is {@code null}.
+     * @throws IllegalArgumentException if minY or worldHeight aren't multiples of 16, worldHeight
+     *         is less than 16 or the data is malformed.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _, _, _, _ -> new", pure = true)
+    @NotNull Chunk decode(int chunkX,
+            int chunkZ,
+            int minY,
+            @Range(from = 16, to = Integer.MAX_VALUE) int worldHeight,
+            @NotNull ByteBuffer data);
+
+    /**
+     * Decodes a chunk without blocking the calling thread, unless the decoder is sequential.
+     * <p>
+     * The buffer's position isn't changed, but its contents must not be modified until the
+     * returned future completes.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @param minY The lowest y coordinate of the world.
+     * @param worldHeight The height of the world.
+     * @param data The chunk data, from the buffer's position to its limit.
+     * @return A future that completes with the chunk once every section has been decoded, or
+     *         completes exceptionally with an {@link IllegalArgumentException} if the data is
+     *         malformed.
+     * @throws NullPointerException if data is {@code null}.
+     * @throws IllegalArgumentException if minY or worldHeight aren't multiples of 16 or worldHeight
+     *         is less than 16.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _, _, _, _ -> new", pure = true)
+    @NotNull CompletableFuture<@NotNull Chunk> decodeAsync(int chunkX,
+            int chunkZ,
+            int minY,
+            @Range(from = 16, to = Integer.MAX_VALUE) int worldHeight,
+            @NotNull ByteBuffer data);
+}
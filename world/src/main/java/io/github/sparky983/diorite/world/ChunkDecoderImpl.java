@@ -0,0 +1,200 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class ChunkDecoderImpl implements ChunkDecoder {
+
+    static final ChunkDecoder SEQUENTIAL = new ChunkDecoderImpl();
+    static final ChunkDecoder COMMON_POOL = new ChunkDecoderImpl(ForkJoinPool.commonPool());
+
+    // a batch smaller than this isn't worth a task of its own
+    private static final int MIN_BATCH_BYTES = 4 * 1024;
+
+    private final @Nullable Executor executor;
+
+    @Contract(pure = true)
+    private ChunkDecoderImpl() {
+
+        this.executor = null;
+    }
+
+    @Contract(pure = true)
+    ChunkDecoderImpl(final @NotNull Executor executor) {
+
+        Preconditions.requireNotNull(executor, "executor");
+
+        this.executor = executor;
+    }
+
+    @Override
+    public @NotNull Chunk decode(final int chunkX,
+            final int chunkZ,
+            final int minY,
+            final int worldHeight,
+            final @NotNull ByteBuffer data) {
+
+        final ChunkSection[] sections = new ChunkSection[sectionCount(minY, worldHeight, data)];
+        final ByteBuffer buffer = data.duplicate();
+
+        if (executor == null || buffer.remaining() < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < sections.length; i++) {
+                sections[i] = ChunkSectionImpl.read(buffer);
+            }
+        } else {
+            final int[] offsets = scan(buffer, sections.length);
+            final int batches = batches(buffer.remaining(), sections.length);
+
+            final CompletableFuture<?>[] futures = new CompletableFuture<?>[batches - 1];
+            for (int batch = 1; batch < batches; batch++) {
+                futures[batch - 1] = submit(buffer, offsets, sections, batch, batches);
+            }
+            // the calling thread would only be waiting, so it decodes the first batch itself
+            decodeBatch(buffer, offsets, sections, 0, batches);
+
+            try {
+                CompletableFuture.allOf(futures).join();
+            } catch (final CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        return new ChunkImpl(chunkX, chunkZ, minY, worldHeight, sections);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<@NotNull Chunk> decodeAsync(final int chunkX,
+            final int chunkZ,
+            final int minY,
+            final int worldHeight,
+            final @NotNull ByteBuffer data) {
+
+        final ChunkSection[] sections = new ChunkSection[sectionCount(minY, worldHeight, data)];
+        final ByteBuffer buffer = data.duplicate();
+
+        if (executor == null) {
+            try {
+                return CompletableFuture.completedFuture(
+                        decode(chunkX, chunkZ, minY, worldHeight, buffer));
+            } catch (final RuntimeException e) {
+                // anything the decode throws goes through the future, like the async paths
+                final CompletableFuture<Chunk> future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+                return future;
+            }
+        }
+
+        if (buffer.remaining() < PARALLEL_THRESHOLD) {
+            return CompletableFuture.supplyAsync(
+                    () -> decode(chunkX, chunkZ, minY, worldHeight, buffer), executor);
+        }
+
+        // the scan is cheap, but is still moved off the calling thread
+        return CompletableFuture.supplyAsync(() -> scan(buffer, sections.length), executor)
+                .thenCompose((offsets) -> {
+                    final int batches = batches(buffer.remaining(), sections.length);
+                    final CompletableFuture<?>[] futures = new CompletableFuture<?>[batches];
+                    for (int batch = 0; batch < batches; batch++) {
+                        futures[batch] = submit(buffer, offsets, sections, batch, batches);
+                    }
+                    return CompletableFuture.allOf(futures);
+                })
+                .thenApply((ignored) ->
+                        new ChunkImpl(chunkX, chunkZ, minY, worldHeight, sections));
+    }
+
+    private static int sectionCount(final int minY,
+            final int worldHeight,
+            final @NotNull ByteBuffer data) {
+
+        Preconditions.requireNotNull(data, "data");
+        Preconditions.requireTrue((minY & 15) == 0, "minY must be a multiple of 16");
+        Preconditions.requireTrue(worldHeight >= 16 && (worldHeight & 15) == 0,
+                "worldHeight must be a positive multiple of 16");
+
+        return worldHeight >> 4;
+    }
+
+    /**
+     * Finds where each section starts by skipping over them, without moving the buffer's
+     * position.
+     *
+     * @throws IllegalArgumentException if the data is malformed.
+     */
+    private static int @NotNull [] scan(final @NotNull ByteBuffer buffer, final int sectionCount) {
+
+        final ByteBuffer scanBuffer = buffer.duplicate();
+        final int[] offsets = new int[sectionCount];
+        for (int i = 0; i < sectionCount; i++) {
+            offsets[i] = scanBuffer.position();
+            ChunkSectionImpl.skip(scanBuffer);
+        }
+        return offsets;
+    }
+
+    private static int batches(final int length, final int sectionCount) {
+
+        final int batches = Math.min(length / MIN_BATCH_BYTES,
+                Runtime.getRuntime().availableProcessors());
+        return Math.max(1, Math.min(batches, sectionCount));
+    }
+
+    private @NotNull CompletableFuture<?> submit(final @NotNull ByteBuffer buffer,
+            final int @NotNull [] offsets,
+            final @NotNull ChunkSection @NotNull [] sections,
+            final int batch,
+            final int batches) {
+
+        assert executor != null;
+        return CompletableFuture.runAsync(
+                () -> decodeBatch(buffer, offsets, sections, batch, batches), executor);
+    }
+
+    /**
+     * Decodes the sections in the specified batch. Sections are split evenly between batches.
+     */
+    private static void decodeBatch(final @NotNull ByteBuffer buffer,
+            final int @NotNull [] offsets,
+            final @NotNull ChunkSection @NotNull [] sections,
+            final int batch,
+            final int batches) {
+
+        final int from = sections.length * batch / batches;
+        final int to = sections.length * (batch + 1) / batches;
+
+        // each batch has its own view of the buffer, so they can be read concurrently
+        final ByteBuffer batchBuffer = buffer.duplicate();
+        for (int i = from; i < to; i++) {
+            batchBuffer.position(offsets[i]);
+            sections[i] = ChunkSectionImpl.read(batchBuffer);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+final class ChunkImpl implements Chunk {
+
+    private final int chunkX;
+    private final int chunkZ;
+    private final int minY;
+    private final int worldHeight;
+    private final ChunkSection[] sections;
+
+    @Contract(pure = true)
+    ChunkImpl(final int chunkX,
+            final int chunkZ,
+            final int minY,
+            final int worldHeight,
+            final @NotNull ChunkSection @NotNull [] sections) {
+
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.minY = minY;
+        this.worldHeight = worldHeight;
+        this.sections = sections;
+    }
+
+    @Override
+    public int getChunkX() {
+
+        return chunkX;
+    }
+
+    @Override
+    public int getChunkZ() {
+
+        return chunkZ;
+    }
+
+    @Override
+    public int getMinY() {
+
+        return minY;
+    }
+
+    @Override
+    public int getWorldHeight() {
+
+        return worldHeight;
+    }
+
+    @Override
+    public int getSectionCount() {
+
+        return sections.length;
+    }
+
+    @Override
+    public @NotNull ChunkSection getSection(final int index) {
+
+        return sections[index];
+    }
+
+    @Override
+    public int getBlockState(final int x, final int y, final int z) {
+
+        return sectionAt(x, y, z).getBlockState(x, (y - minY) & 15, z);
+    }
+
+    @Override
+    public int getBiome(final int x, final int y, final int z) {
+
+        return sectionAt(x, y, z).getBiome(x >> 2, ((y - minY) & 15) >> 2, z >> 2);
+    }
+
+    @Override
+    public byte @NotNull [] encode() {
+
+        final ChunkSectionImpl[] sectionImpls = new ChunkSectionImpl[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            sectionImpls[i] = ChunkSectionImpl.from(sections[i]);
+        }
+        return encode(sectionImpls);
+    }
+
+    static byte @NotNull [] encode(final @NotNull ChunkSectionImpl @NotNull [] sections) {
+
+        int size = 0;
+        for (final ChunkSectionImpl section : sections) {
+            size += section.encodedSize();
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (final ChunkSectionImpl section : sections) {
+            section.write(buffer);
+        }
+        return buffer.array();
+    }
+
+    private @NotNull ChunkSection sectionAt(final int x, final int y, final int z) {
+
+        if ((x | z) >>> 4 != 0 || y < minY || y - minY >= worldHeight) {
+            throw new IndexOutOfBoundsException(
+                    "Block " + x + ", " + y + ", " + z + " is outside the chunk");
+        }
+        return sections[(y - minY) >> 4];
+    }
+}
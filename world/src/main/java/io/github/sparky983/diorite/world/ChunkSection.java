@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * A 16x16x16 section of a chunk, with the block states and biomes as the protocol sends them.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface ChunkSection {
+
+    /**
+     * The width, length and height of a section in blocks.
+     *
+     * @since 1.0.0
+     */
+    int SECTION_SIZE = 16;
+
+    /**
+     * The width, length and height of a section in biome cells, each of which is 4x4x4 blocks.
+     *
+     * @since 1.0.0
+     */
+    int BIOME_SIZE = 4;
+
+    /**
+     * Creates a section from its block states and biomes, choosing the smallest palettes that fit
+     * them.
+     *
+     * @param blockCount The number of non-air blocks.
+     * @param blockStates The state id of every block, indexed by {@code y << 8 | z << 4 | x}.
+     * @param biomes The biome id of every biome cell, indexed by {@code y << 4 | z << 2 | x}.
+     * @return The section.
+     * @throws NullPointerException if blockStates or biomes are {@code null}.
+     * @throws IllegalArgumentException if blockCount is not between 0 and 4096, or blockStates or
+     *         biomes are the wrong length.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _, _ -> new", pure = true)
+    static @NotNull ChunkSection of(final @Range(from = 0, to = 4096) int blockCount,
+            final int @NotNull [] blockStates,
+            final int @NotNull [] biomes) {
+
+        return ChunkSectionImpl.of(blockCount, blockStates, biomes);
+    }
+
+    /**
+     * Returns the number of non-air blocks, as sent by the server.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = 4096) int getBlockCount();
+
+    /**
+     * Returns whether the section is entirely air.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    boolean isEmpty();
+
+    /**
+     * Returns the state id of the specified block.
+     *
+     * @param x The x coordinate within the section.
+     * @param y The y coordinate within the section.
+     * @param z The z coordinate within the section.
+     * @return The block state id.
+     * @throws IndexOutOfBoundsException if the block is outside the section.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int getBlockState(@Range(from = 0, to = 15) int x,
+            @Range(from = 0, to = 15) int y,
+            @Range(from = 0, to = 15) int z);
+
+    /**
+     * Returns the state id of every block, indexed by {@code y << 8 | z << 4 | x}.
+     *
+     * @return A new array of 4096 block state ids.
+     * @throws IndexOutOfBoundsException if a block isn't in the section's palette.
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new", pure = true)
+    int @NotNull [] getBlockStates();
+
+    /**
+     * Returns the biome id of every biome cell, indexed by {@code y << 4 | z << 2 | x}.
+     *
+     * @return A new array of 64 biome ids.
+     * @throws IndexOutOfBoundsException if a biome isn't in the section's palette.
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new", pure = true)
+    int @NotNull [] getBiomes();
+
+    /**
+     * Returns the biome id of the specified biome cell.
+     *
+     * @param x The x coordinate of the cell within the section.
+     * @param y The y coordinate of the cell within the section.
+     * @param z The z coordinate of the cell within the section.
+     * @return The biome id.
+     * @throws IndexOutOfBoundsException if the cell is outside the section.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int getBiome(@Range(from = 0, to = 3) int x,
+            @Range(from = 0, to = 3) int y,
+            @Range(from = 0, to = 3) int z);
+}
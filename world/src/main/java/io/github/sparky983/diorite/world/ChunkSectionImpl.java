@@ -0,0 +1,188 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class ChunkSectionImpl implements ChunkSection {
+
+    private final int blockCount;
+    private final PalettedContainer blockStates;
+    private final PalettedContainer biomes;
+
+    ChunkSectionImpl(final int blockCount,
+            final @NotNull PalettedContainer blockStates,
+            final @NotNull PalettedContainer biomes) {
+
+        this.blockCount = blockCount;
+        this.blockStates = blockStates;
+        this.biomes = biomes;
+    }
+
+    /**
+     * Returns the section as a {@link ChunkSectionImpl}, re-encoding it if it is another
+     * implementation.
+     */
+    static @NotNull ChunkSectionImpl from(final @NotNull ChunkSection section) {
+
+        if (section instanceof ChunkSectionImpl) {
+            return (ChunkSectionImpl) section;
+        }
+        return of(section.getBlockCount(), section.getBlockStates(), section.getBiomes());
+    }
+
+    static @NotNull ChunkSectionImpl of(final int blockCount,
+            final int @NotNull [] blockStates,
+            final int @NotNull [] biomes) {
+
+        Preconditions.requireRange(blockCount, 0, SECTION_SIZE * SECTION_SIZE * SECTION_SIZE,
+                "blockCount");
+        Preconditions.requireNotNull(blockStates, "blockStates");
+        Preconditions.requireTrue(blockStates.length == SECTION_SIZE * SECTION_SIZE * SECTION_SIZE,
+                "blockStates length must be 4096");
+        Preconditions.requireNotNull(biomes, "biomes");
+        Preconditions.requireTrue(biomes.length == BIOME_SIZE * BIOME_SIZE * BIOME_SIZE,
+                "biomes length must be 64");
+
+        return new ChunkSectionImpl(blockCount,
+                PalettedContainer.of(blockStates, PalettedContainer.Strategy.BLOCK_STATES),
+                PalettedContainer.of(biomes, PalettedContainer.Strategy.BIOMES));
+    }
+
+    /**
+     * Reads a section, leaving the buffer at the end of it.
+     *
+     * @throws IllegalArgumentException if the section is malformed.
+     */
+    static @NotNull ChunkSection read(final @NotNull ByteBuffer buffer) {
+
+        final int blockCount = readBlockCount(buffer);
+        final PalettedContainer blockStates =
+                PalettedContainer.read(buffer, PalettedContainer.Strategy.BLOCK_STATES);
+        final PalettedContainer biomes =
+                PalettedContainer.read(buffer, PalettedContainer.Strategy.BIOMES);
+
+        return new ChunkSectionImpl(blockCount, blockStates, biomes);
+    }
+
+    /**
+     * Skips over a section.
+     *
+     * @throws IllegalArgumentException if the section is malformed.
+     */
+    static void skip(final @NotNull ByteBuffer buffer) {
+
+        readBlockCount(buffer);
+        PalettedContainer.skip(buffer, PalettedContainer.Strategy.BLOCK_STATES);
+        PalettedContainer.skip(buffer, PalettedContainer.Strategy.BIOMES);
+    }
+
+    /**
+     * Returns the number of bytes {@link #write(ByteBuffer)} writes.
+     */
+    int encodedSize() {
+
+        return Short.BYTES + blockStates.encodedSize() + biomes.encodedSize();
+    }
+
+    /**
+     * Writes the section as the protocol sends it.
+     */
+    void write(final @NotNull ByteBuffer buffer) {
+
+        buffer.putShort((short) blockCount);
+        blockStates.write(buffer);
+        biomes.write(buffer);
+    }
+
+    private static int readBlockCount(final @NotNull ByteBuffer buffer) {
+
+        try {
+            final int blockCount = buffer.getShort();
+            if (blockCount < 0 || blockCount > SECTION_SIZE * SECTION_SIZE * SECTION_SIZE) {
+                throw new IllegalArgumentException(
+                        "Block count " + blockCount + " is out of bounds");
+            }
+            return blockCount;
+        } catch (final BufferUnderflowException e) {
+            throw new IllegalArgumentException("Section ends early", e);
+        }
+    }
+
+    @NotNull PalettedContainer getBlockStateContainer() {
+
+        return blockStates;
+    }
+
+    @NotNull PalettedContainer getBiomeContainer() {
+
+        return biomes;
+    }
+
+    @Override
+    public int getBlockCount() {
+
+        return blockCount;
+    }
+
+    @Override
+    public boolean isEmpty() {
+
+        return blockCount == 0;
+    }
+
+    @Override
+    public int getBlockState(final int x, final int y, final int z) {
+
+        if ((x | y | z) >>> 4 != 0) {
+            throw new IndexOutOfBoundsException(
+                    "Block " + x + ", " + y + ", " + z + " is outside the section");
+        }
+        return blockStates.get(y << 8 | z << 4 | x);
+    }
+
+    @Override
+    public int @NotNull [] getBlockStates() {
+
+        final int[] blockStates = new int[SECTION_SIZE * SECTION_SIZE * SECTION_SIZE];
+        this.blockStates.unpack(blockStates);
+        return blockStates;
+    }
+
+    @Override
+    public int @NotNull [] getBiomes() {
+
+        final int[] biomes = new int[BIOME_SIZE * BIOME_SIZE * BIOME_SIZE];
+        this.biomes.unpack(biomes);
+        return biomes;
+    }
+
+    @Override
+    public int getBiome(final int x, final int y, final int z) {
+
+        if ((x | y | z) >>> 2 != 0) {
+            throw new IndexOutOfBoundsException(
+                    "Biome cell " + x + ", " + y + ", " + z + " is outside the section");
+        }
+        return biomes.get(y << 4 | z << 2 | x);
+    }
+}
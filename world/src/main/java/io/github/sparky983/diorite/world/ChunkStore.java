@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.util.Optional;
+
+/**
+ * The loaded chunks of a world, keyed by their coordinates.
+ * <p>
+ * An {@link #offHeap() off-heap} store copies each chunk's sections into direct memory, so the
+ * heap and the garbage collector's work stay the same size however many chunks are loaded. Its
+ * chunks are views of that memory. Once a chunk is replaced or removed, typically on an unload
+ * chunk packet, or the store is closed, reading it throws an {@link IllegalStateException}. Its
+ * memory is only reused after every read already in progress has finished, so a read never sees
+ * another chunk's data.
+ * <p>
+ * Chunk stores are safe to use from multiple threads, including reading a chunk while another
+ * thread replaces or removes it.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface ChunkStore extends AutoCloseable {
+
+    /**
+     * The default size of the slabs an off-heap store allocates direct memory in.
+     *
+     * @since 1.0.0
+     */
+    int DEFAULT_SLAB_SIZE = 1024 * 1024;
+
+    /**
+     * Creates a store that keeps chunks on the heap, as they are.
+     *
+     * @return The store.
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new", pure = true)
+    static @NotNull ChunkStore onHeap() {
+
+        return new OnHeapChunkStore();
+    }
+
+    /**
+     * Creates a store that keeps chunks in direct memory, allocated in slabs of
+     * {@link #DEFAULT_SLAB_SIZE} bytes.
+     *
+     * @return The store.
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new", pure = true)
+    static @NotNull ChunkStore offHeap() {
+
+        return offHeap(DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates a store that keeps chunks in direct memory, allocated in slabs of the specified size.
+     * Chunks larger than a slab are given direct memory of their own.
+     *
+     * @param slabSize The size of each slab in bytes.
+     * @return The store.
+     * @throws IllegalArgumentException if slabSize is less than 4096.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    static @NotNull ChunkStore offHeap(
+            final @Range(from = 4096, to = Integer.MAX_VALUE) int slabSize) {
+
+        return new OffHeapChunkStore(slabSize);
+    }
+
+    /**
+     * Stores a chunk, replacing and removing any chunk already stored at its coordinates.
+     *
+     * @param chunk The chunk.
+     * @throws NullPointerException if chunk is {@code null}.
+     * @throws IllegalStateException if the store has been closed.
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    void put(@NotNull Chunk chunk);
+
+    /**
+     * Returns the chunk at the specified coordinates.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @return The chunk, or an empty optional if no chunk is stored at the coordinates.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @NotNull Optional<Chunk> getChunk(int chunkX, int chunkZ);
+
+    /**
+     * Removes the chunk at the specified coordinates, freeing its memory once reads in progress
+     * have finished.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @return {@code true} if a chunk was removed, otherwise {@code false}.
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    boolean remove(int chunkX, int chunkZ);
+
+    /**
+     * Returns the number of stored chunks.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Integer.MAX_VALUE) int size();
+
+    /**
+     * Returns the number of bytes of direct memory the store has reserved, which is {@code 0} for
+     * an on-heap store.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = Long.MAX_VALUE) long getOffHeapBytes();
+
+    /**
+     * Removes every chunk and releases the store's direct memory.
+     *
+     * @since 1.0.0
+     */
+    @Override
+    @Contract(mutates = "this")
+    void close();
+}
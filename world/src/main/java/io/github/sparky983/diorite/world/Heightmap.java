@@ -0,0 +1,192 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.util.function.IntPredicate;
+
+/**
+ * The height of the highest block of each column in a chunk, for blocks matching the heightmap's
+ * {@link Type}.
+ * <p>
+ * Heights are kept bit-packed, exactly as they are sent in a chunk's heightmaps, so a height is
+ * read with a single bit extract. Heightmaps are mutable so they can be kept up to date as blocks
+ * change, and are not thread-safe.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface Heightmap {
+
+    /**
+     * The width of a chunk along the x and z axes.
+     *
+     * @since 1.0.0
+     */
+    int CHUNK_WIDTH = 16;
+
+    /**
+     * Creates a heightmap from its packed form.
+     * <p>
+     * The array isn't copied, so it must not be modified afterwards.
+     *
+     * @param type The type of heightmap.
+     * @param minY The lowest y coordinate of the world.
+     * @param worldHeight The height of the world.
+     * @param data The packed heights.
+     * @return The heightmap.
+     * @throws NullPointerException if type or data are {@code null}.
+     * @throws IllegalArgumentException if worldHeight is less than 1 or data is the wrong length
+     *         for the world height.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _, _, _ -> new", pure = true)
+    static @NotNull Heightmap of(final @NotNull Type type,
+            final int minY,
+            final @Range(from = 1, to = Integer.MAX_VALUE) int worldHeight,
+            final long @NotNull [] data) {
+
+        return new HeightmapImpl(type, minY, worldHeight, data);
+    }
+
+    /**
+     * Creates a heightmap where every column is empty.
+     *
+     * @param type The type of heightmap.
+     * @param minY The lowest y coordinate of the world.
+     * @param worldHeight The height of the world.
+     * @return The heightmap.
+     * @throws NullPointerException if type is {@code null}.
+     * @throws IllegalArgumentException if worldHeight is less than 1.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _, _ -> new", pure = true)
+    static @NotNull Heightmap empty(final @NotNull Type type,
+            final int minY,
+            final @Range(from = 1, to = Integer.MAX_VALUE) int worldHeight) {
+
+        return new HeightmapImpl(type, minY, worldHeight,
+                new long[HeightmapImpl.packedLength(worldHeight)]);
+    }
+
+    /**
+     * Returns the type of heightmap.
+     *
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @NotNull Type getType();
+
+    /**
+     * Returns the y coordinate of the block above the highest matching block in the specified
+     * column, or the world's min y if the column has no matching blocks.
+     *
+     * @param x The x coordinate within the chunk.
+     * @param z The z coordinate within the chunk.
+     * @return The height.
+     * @throws IndexOutOfBoundsException if x or z are outside the chunk.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int getHeight(@Range(from = 0, to = CHUNK_WIDTH - 1) int x,
+            @Range(from = 0, to = CHUNK_WIDTH - 1) int z);
+
+    /**
+     * Sets the height of the specified column.
+     *
+     * @param x The x coordinate within the chunk.
+     * @param z The z coordinate within the chunk.
+     * @param height The y coordinate of the block above the highest matching block.
+     * @throws IndexOutOfBoundsException if x or z are outside the chunk.
+     * @throws IllegalArgumentException if height is outside the world.
+     * @see #getHeight(int, int)
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    void setHeight(@Range(from = 0, to = CHUNK_WIDTH - 1) int x,
+            @Range(from = 0, to = CHUNK_WIDTH - 1) int z,
+            int height);
+
+    /**
+     * Updates the specified column after the block at the specified position changed.
+     * <p>
+     * Whether a block matches depends on the type of heightmap and the block registry, so the
+     * caller decides. If the highest matching block was removed, the column is searched downwards
+     * with isMatching for the next one.
+     *
+     * @param x The x coordinate within the chunk.
+     * @param y The y coordinate of the block.
+     * @param z The z coordinate within the chunk.
+     * @param matches Whether the new block matches.
+     * @param isMatching Tests whether the block at a y coordinate in the column matches.
+     * @return Whether the height changed.
+     * @throws NullPointerException if isMatching is {@code null}.
+     * @throws IndexOutOfBoundsException if x or z are outside the chunk.
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    boolean update(@Range(from = 0, to = CHUNK_WIDTH - 1) int x,
+            int y,
+            @Range(from = 0, to = CHUNK_WIDTH - 1) int z,
+            boolean matches,
+            @NotNull IntPredicate isMatching);
+
+    /**
+     * Returns the height of every column, indexed by {@code z << 4 | x}.
+     *
+     * @return A new array of 256 heights.
+     * @see #getHeight(int, int)
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new", pure = true)
+    int @NotNull [] getHeights();
+
+    /**
+     * Returns a copy of the packed heights.
+     *
+     * @since 1.0.0
+     */
+    @Contract(value = "-> new", pure = true)
+    long @NotNull [] toLongArray();
+
+    /**
+     * A type of heightmap. The name of the constant is the key of the heightmap in a chunk's
+     * heightmaps compound.
+     *
+     * @author Sparky983
+     * @since 1.0.0
+     */
+    enum Type {
+
+        /**
+         * The highest block that blocks motion or contains a fluid.
+         *
+         * @since 1.0.0
+         */
+        MOTION_BLOCKING,
+
+        /**
+         * The highest block that isn't air.
+         *
+         * @since 1.0.0
+         */
+        WORLD_SURFACE
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.IntPredicate;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class HeightmapImpl implements Heightmap {
+
+    private static final int COLUMNS = CHUNK_WIDTH * CHUNK_WIDTH;
+    private static final int DIVIDE_SHIFT = 16;
+
+    private final Type type;
+    private final int minY;
+    private final int worldHeight;
+    private final long[] data;
+
+    private final int bitsPerEntry;
+    private final long mask;
+    private final int valuesPerLong;
+    // index / valuesPerLong == (index * divideMultiplier) >>> DIVIDE_SHIFT for every column index
+    private final int divideMultiplier;
+
+    @Contract(pure = true)
+    HeightmapImpl(final @NotNull Type type,
+            final int minY,
+            final int worldHeight,
+            final long @NotNull [] data) {
+
+        Preconditions.requireNotNull(type, "type");
+        Preconditions.requireRange(worldHeight, 1, Integer.MAX_VALUE, "worldHeight");
+        Preconditions.requireNotNull(data, "data");
+        Preconditions.requireTrue(data.length == packedLength(worldHeight),
+                "data length must be " + packedLength(worldHeight) + " for a world height of "
+                        + worldHeight);
+
+        this.type = type;
+        this.minY = minY;
+        this.worldHeight = worldHeight;
+        this.data = data;
+
+        this.bitsPerEntry = bitsPerEntry(worldHeight);
+        this.mask = (1L << bitsPerEntry) - 1;
+        this.valuesPerLong = Long.SIZE / bitsPerEntry;
+        this.divideMultiplier = ((1 << DIVIDE_SHIFT) + valuesPerLong - 1) / valuesPerLong;
+    }
+
+    /**
+     * Returns the number of bits needed to store a height from 0 to worldHeight inclusive.
+     */
+    private static int bitsPerEntry(final int worldHeight) {
+
+        return Integer.SIZE - Integer.numberOfLeadingZeros(worldHeight);
+    }
+
+    /**
+     * Returns the number of longs the heights of a chunk are packed into. Entries never span two
+     * longs.
+     */
+    static int packedLength(final int worldHeight) {
+
+        final int valuesPerLong = Long.SIZE / bitsPerEntry(worldHeight);
+        return (COLUMNS + valuesPerLong - 1) / valuesPerLong;
+    }
+
+    private static int index(final int x, final int z) {
+
+        if ((x | z) >>> 4 != 0) {
+            throw new IndexOutOfBoundsException("Column " + x + ", " + z + " is outside the chunk");
+        }
+        return z << 4 | x;
+    }
+
+    @Override
+    public @NotNull Type getType() {
+
+        return type;
+    }
+
+    @Override
+    public int getHeight(final int x, final int z) {
+
+        final int index = index(x, z);
+        final int longIndex = (index * divideMultiplier) >>> DIVIDE_SHIFT;
+        final int shift = (index - longIndex * valuesPerLong) * bitsPerEntry;
+
+        return minY + (int) ((data[longIndex] >>> shift) & mask);
+    }
+
+    @Override
+    public void setHeight(final int x, final int z, final int height) {
+
+        Preconditions.requireRange(height, minY, (long) minY + worldHeight, "height");
+
+        set(index(x, z), height - minY);
+    }
+
+    private void set(final int index, final int value) {
+
+        final int longIndex = (index * divideMultiplier) >>> DIVIDE_SHIFT;
+        final int shift = (index - longIndex * valuesPerLong) * bitsPerEntry;
+
+        data[longIndex] = data[longIndex] & ~(mask << shift) | (long) value << shift;
+    }
+
+    @Override
+    public boolean update(final int x,
+            final int y,
+            final int z,
+            final boolean matches,
+            final @NotNull IntPredicate isMatching) {
+
+        Preconditions.requireNotNull(isMatching, "isMatching");
+
+        final int height = getHeight(x, z);
+
+        if (y < height - 1) {
+            // below the highest block, so it can't change the height
+            return false;
+        }
+
+        if (matches) {
+            if (y >= height) {
+                setHeight(x, z, y + 1);
+                return true;
+            }
+            return false;
+        }
+
+        if (y != height - 1) {
+            return false;
+        }
+
+        for (int blockY = y - 1; blockY >= minY; blockY--) {
+            if (isMatching.test(blockY)) {
+                setHeight(x, z, blockY + 1);
+                return true;
+            }
+        }
+
+        setHeight(x, z, minY);
+        return true;
+    }
+
+    @Override
+    public int @NotNull [] getHeights() {
+
+        final int[] heights = new int[COLUMNS];
+        PackedArrays.unpack(data, bitsPerEntry, heights);
+        for (int i = 0; i < heights.length; i++) {
+            heights[i] += minY;
+        }
+        return heights;
+    }
+
+    @Override
+    public long @NotNull [] toLongArray() {
+
+        return data.clone();
+    }
+}
@@ -94,28 +94,23 @@ public interface Identifier {
 
     /**
      * Parses the identifier string.
+     * <p>
+     * Identifiers are interned, so parsing the same identifier again (with or without the default
+     * namespace) usually returns the same instance. The pool is bounded, so identifiers must still
+     * be compared with {@link Object#equals(Object)}, which checks for the same instance first.
      *
      * @param identifierString The input to parse.
      * @return The parsed identifier.
      * @throws IllegalArgumentException if the identifier string is not valid.
      * @since 1.0.0
      */
-    @SuppressWarnings("PatternValidation") // TODO(Sparky983): IJ bug?
-    @Contract(value = "_ -> new", pure = true)
+    @Contract(pure = true)
     static Identifier parse(
             @Subst(DEFAULT_NAMESPACE + ":zombie") final @NotNull String identifierString) {
 
         Preconditions.requireNotNull(identifierString, "identifierString");
 
-        final int colonPosition = identifierString.indexOf(':');
-
-        if (colonPosition == -1) {
-            // ":" is not in string
-            return of(DEFAULT_NAMESPACE, identifierString);
-        }
-
-        return of(identifierString.substring(0, colonPosition),
-                identifierString.substring(colonPosition + 1));
+        return IdentifierImpl.intern(identifierString);
     }
 
     /**
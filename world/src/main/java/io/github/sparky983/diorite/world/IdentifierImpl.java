@@ -19,19 +19,24 @@ package io.github.sparky983.diorite.world;
 import org.intellij.lang.annotations.Subst;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import io.github.sparky983.diorite.util.Preconditions;
 
 final class IdentifierImpl implements Identifier {
 
-    private static final Pattern COMPILED_NAMESPACE_PATTERN = Pattern.compile(NAMESPACE_PATTERN);
-    private static final Pattern COMPILED_VALUE_PATTERN = Pattern.compile(VALUE_PATTERN);
+    // bounds the pool, so a server sending random identifiers can't grow it forever
+    private static final int MAX_INTERNED = 8192;
+
+    private static final ConcurrentMap<String, Identifier> INTERNED = new ConcurrentHashMap<>();
 
     @Subst(DEFAULT_NAMESPACE)
     private final String namespace;
     @Subst("zombie")
     private final String value;
+    private final int hash;
+    private final String string;
 
     IdentifierImpl(
             final @org.intellij.lang.annotations.Pattern(NAMESPACE_PATTERN) @NotNull String namespace,
@@ -39,13 +44,93 @@ final class IdentifierImpl implements Identifier {
 
         Preconditions.requireNotNull(namespace, "namespace");
         Preconditions.requireNotNull(value, "value");
-        Preconditions.requireTrue(COMPILED_NAMESPACE_PATTERN.matcher(namespace).matches(),
+        Preconditions.requireTrue(isValidNamespace(namespace),
                 "[namespace] must match \"" + NAMESPACE_PATTERN + "\"");
-        Preconditions.requireTrue(COMPILED_VALUE_PATTERN.matcher(value).matches(),
+        Preconditions.requireTrue(isValidValue(value),
                 "[value] must match \"" + VALUE_PATTERN + "\"");
 
         this.namespace = namespace;
         this.value = value;
+        this.hash = 31 * namespace.hashCode() + value.hashCode();
+        this.string = namespace + ":" + value;
+    }
+
+    /**
+     * Returns the canonical identifier for the identifier string, parsing it if it hasn't been
+     * seen before.
+     */
+    static @NotNull Identifier intern(final @NotNull String identifierString) {
+
+        final Identifier interned = INTERNED.get(identifierString);
+        if (interned != null) {
+            return interned;
+        }
+
+        final Identifier identifier = parse(identifierString);
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return identifier;
+        }
+
+        // "zombie" and "minecraft:zombie" resolve to the same instance
+        final Identifier canonical = INTERNED.putIfAbsent(identifier.toString(), identifier);
+        final Identifier result = canonical == null ? identifier : canonical;
+        if (!identifierString.equals(result.toString())) {
+            INTERNED.putIfAbsent(identifierString, result);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("PatternValidation")
+    private static @NotNull Identifier parse(final @NotNull String identifierString) {
+
+        final int colonPosition = identifierString.indexOf(':');
+
+        if (colonPosition == -1) {
+            // ":" is not in string
+            return new IdentifierImpl(DEFAULT_NAMESPACE, identifierString);
+        }
+
+        return new IdentifierImpl(identifierString.substring(0, colonPosition),
+                identifierString.substring(colonPosition + 1));
+    }
+
+    // hand-written versions of NAMESPACE_PATTERN and VALUE_PATTERN, they're on the decode path
+
+    private static boolean isValidNamespace(final @NotNull String namespace) {
+
+        final int length = namespace.length();
+        if (length == 0) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            final char c = namespace.charAt(i);
+            if (!isValidNamespaceChar(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValidValue(final @NotNull String value) {
+
+        final int length = value.length();
+        if (length == 0) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (!isValidNamespaceChar(c) && c != '/' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValidNamespaceChar(final char c) {
+
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
     }
 
     @org.intellij.lang.annotations.Pattern(NAMESPACE_PATTERN)
@@ -65,25 +150,30 @@ final class IdentifierImpl implements Identifier {
     @Override
     public boolean equals(final Object o) {
 
+        if (this == o) {
+            return true;
+        }
+
         if (!(o instanceof IdentifierImpl)) {
             return false;
         }
 
         final IdentifierImpl other = (IdentifierImpl) o;
 
-        return namespace.equals(other.namespace) &&
+        return hash == other.hash &&
+                namespace.equals(other.namespace) &&
                 value.equals(other.value);
     }
 
     @Override
     public int hashCode() {
 
-        return namespace.hashCode() + value.hashCode();
+        return hash;
     }
 
     @Override
     public @NotNull String toString() {
 
-        return namespace + ":" + value;
+        return string;
     }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Canonical instances of light arrays. None of the returned arrays may be written to.
+ */
+final class LightArrays {
+
+    private static final byte[][] UNIFORM = new byte[16][];
+
+    static {
+        for (int level = 0; level < UNIFORM.length; level++) {
+            final byte[] array = new byte[LightStorage.LIGHT_ARRAY_LENGTH];
+            Arrays.fill(array, (byte) (level << 4 | level));
+            UNIFORM[level] = array;
+        }
+    }
+
+    // arrays are only weakly referenced so chunks that are unloaded don't keep them alive
+    private static final Map<Key, Key> INTERNED = new HashMap<>();
+    private static final ReferenceQueue<byte[]> CLEARED = new ReferenceQueue<>();
+
+    private LightArrays() {
+
+    }
+
+    /**
+     * Returns the shared array with the specified level everywhere.
+     */
+    static byte @NotNull [] uniform(final int level) {
+
+        return UNIFORM[level];
+    }
+
+    /**
+     * Returns the canonical array equal to the specified one. If no equal array is in use, a copy
+     * of the specified array becomes canonical, so the caller may still write to its array.
+     */
+    static byte @NotNull [] intern(final byte @NotNull [] array) {
+
+        final byte first = array[0];
+        if ((first >> 4 & 0xF) == (first & 0xF) && isFilledWith(array, first)) {
+            return UNIFORM[first & 0xF];
+        }
+
+        synchronized (INTERNED) {
+            expungeCleared();
+
+            final Key key = new Key(array);
+            final Key interned = INTERNED.get(key);
+            if (interned != null) {
+                final byte[] internedArray = interned.get();
+                if (internedArray != null) {
+                    return internedArray;
+                }
+            }
+
+            final byte[] copy = array.clone();
+            final Key copyKey = new Key(copy);
+            INTERNED.put(copyKey, copyKey);
+            return copy;
+        }
+    }
+
+    private static boolean isFilledWith(final byte @NotNull [] array, final byte value) {
+
+        for (final byte b : array) {
+            if (b != value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void expungeCleared() {
+
+        Object cleared;
+        while ((cleared = CLEARED.poll()) != null) {
+            INTERNED.remove(cleared);
+        }
+    }
+
+    /**
+     * Compares arrays by their contents, but only weakly references the array once interned.
+     */
+    private static final class Key extends WeakReference<byte[]> {
+
+        private final int hash;
+
+        Key(final byte @NotNull [] array) {
+
+            super(array, CLEARED);
+
+            this.hash = Arrays.hashCode(array);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            final Key other = (Key) o;
+            if (hash != other.hash) {
+                return false;
+            }
+
+            final byte[] array = get();
+            // cleared keys are only equal to themselves, so they can still be removed
+            return array != null && Arrays.equals(array, other.get());
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hash;
+        }
+    }
+}
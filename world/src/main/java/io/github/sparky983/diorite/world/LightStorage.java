@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * The sky and block light of a chunk.
+ * <p>
+ * Light is stored per section as the protocol sends it, a 2048 byte array with a 4-bit level per
+ * block, and looked up without unpacking. Arrays with the same level everywhere (the vast
+ * majority, fully lit sky and unlit caves) are replaced by shared instances, and other arrays are
+ * shared between chunks that have identical ones. Arrays are never written to, updates replace
+ * whole sections.
+ * <p>
+ * Light storages are safe to read while they are being updated.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface LightStorage {
+
+    /**
+     * The length of a section's light array.
+     *
+     * @since 1.0.0
+     */
+    int LIGHT_ARRAY_LENGTH = 2048;
+
+    /**
+     * Creates a light storage for a chunk where every section is unlit.
+     * <p>
+     * There is one more light section below and above the world than there are chunk sections.
+     *
+     * @param minY The lowest y coordinate of the world, a multiple of 16.
+     * @param worldHeight The height of the world, a multiple of 16.
+     * @return The light storage.
+     * @throws IllegalArgumentException if minY or worldHeight aren't multiples of 16 or
+     *         worldHeight is less than 16.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    static @NotNull LightStorage create(final int minY,
+            final @Range(from = 16, to = Integer.MAX_VALUE) int worldHeight) {
+
+        return new LightStorageImpl(minY, worldHeight);
+    }
+
+    /**
+     * Returns the sky light level of the specified block, or {@code 0} if the block's section has
+     * no light data.
+     *
+     * @param x The x coordinate within the chunk.
+     * @param y The y coordinate.
+     * @param z The z coordinate within the chunk.
+     * @return The light level.
+     * @throws IndexOutOfBoundsException if the block is outside the chunk's light sections.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = 15) int getSkyLight(@Range(from = 0, to = 15) int x,
+            int y,
+            @Range(from = 0, to = 15) int z);
+
+    /**
+     * Returns the block light level of the specified block, or {@code 0} if the block's section
+     * has no light data.
+     *
+     * @param x The x coordinate within the chunk.
+     * @param y The y coordinate.
+     * @param z The z coordinate within the chunk.
+     * @return The light level.
+     * @throws IndexOutOfBoundsException if the block is outside the chunk's light sections.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Range(from = 0, to = 15) int getBlockLight(@Range(from = 0, to = 15) int x,
+            int y,
+            @Range(from = 0, to = 15) int z);
+
+    /**
+     * Applies light data as it is sent in the update light and chunk data packets.
+     * <p>
+     * Bit {@code n} of a mask is the {@code n}th light section from the bottom. Sections set in a
+     * light mask take the next array of that light type, sections set in an empty mask become
+     * unlit and every other section is left as is. The arrays aren't copied, so they must not be
+     * modified afterwards.
+     *
+     * @param skyLightMask The sections that have sky light arrays.
+     * @param blockLightMask The sections that have block light arrays.
+     * @param emptySkyLightMask The sections with no sky light.
+     * @param emptyBlockLightMask The sections with no block light.
+     * @param skyLightArrays The sky light arrays.
+     * @param blockLightArrays The block light arrays.
+     * @throws NullPointerException if any of the arguments are {@code null}.
+     * @throws IllegalArgumentException if the number of arrays doesn't match the masks, an array
+     *         isn't {@value #LIGHT_ARRAY_LENGTH} bytes long or a mask has a section outside the
+     *         chunk.
+     * @since 1.0.0
+     */
+    @Contract(mutates = "this")
+    void update(long @NotNull [] skyLightMask,
+            long @NotNull [] blockLightMask,
+            long @NotNull [] emptySkyLightMask,
+            long @NotNull [] emptyBlockLightMask,
+            byte @NotNull [] @NotNull [] skyLightArrays,
+            byte @NotNull [] @NotNull [] blockLightArrays);
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.BitSet;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class LightStorageImpl implements LightStorage {
+
+    private final int minSectionY;
+    private final int sectionCount;
+
+    // replaced, never modified, so readers always see a whole update
+    private volatile byte[][] skyLight;
+    private volatile byte[][] blockLight;
+
+    LightStorageImpl(final int minY, final int worldHeight) {
+
+        Preconditions.requireTrue((minY & 15) == 0, "minY must be a multiple of 16");
+        Preconditions.requireTrue((worldHeight & 15) == 0 && worldHeight >= 16,
+                "worldHeight must be a positive multiple of 16");
+
+        this.minSectionY = (minY >> 4) - 1;
+        this.sectionCount = (worldHeight >> 4) + 2;
+
+        final byte[][] unlit = new byte[sectionCount][];
+        for (int i = 0; i < sectionCount; i++) {
+            unlit[i] = LightArrays.uniform(0);
+        }
+        this.skyLight = unlit;
+        this.blockLight = unlit;
+    }
+
+    @Override
+    public int getSkyLight(final int x, final int y, final int z) {
+
+        return get(skyLight, x, y, z);
+    }
+
+    @Override
+    public int getBlockLight(final int x, final int y, final int z) {
+
+        return get(blockLight, x, y, z);
+    }
+
+    private int get(final byte @NotNull [] @NotNull [] sections,
+            final int x,
+            final int y,
+            final int z) {
+
+        final int section = (y >> 4) - minSectionY;
+        if ((x | z) >>> 4 != 0 || section < 0 || section >= sectionCount) {
+            throw new IndexOutOfBoundsException(
+                    "Block " + x + ", " + y + ", " + z + " is outside the chunk");
+        }
+
+        final int index = (y & 15) << 8 | z << 4 | x;
+        // even indices are the low nibble
+        return (sections[section][index >> 1] >> ((index & 1) << 2)) & 0xF;
+    }
+
+    @Override
+    public void update(final long @NotNull [] skyLightMask,
+            final long @NotNull [] blockLightMask,
+            final long @NotNull [] emptySkyLightMask,
+            final long @NotNull [] emptyBlockLightMask,
+            final byte @NotNull [] @NotNull [] skyLightArrays,
+            final byte @NotNull [] @NotNull [] blockLightArrays) {
+
+        Preconditions.requireNotNull(skyLightMask, "skyLightMask");
+        Preconditions.requireNotNull(blockLightMask, "blockLightMask");
+        Preconditions.requireNotNull(emptySkyLightMask, "emptySkyLightMask");
+        Preconditions.requireNotNull(emptyBlockLightMask, "emptyBlockLightMask");
+        Preconditions.requireContainsNoNulls(skyLightArrays, "skyLightArrays");
+        Preconditions.requireContainsNoNulls(blockLightArrays, "blockLightArrays");
+
+        // both are validated before either is published
+        final byte[][] skyLight =
+                apply(this.skyLight, skyLightMask, emptySkyLightMask, skyLightArrays, "sky");
+        final byte[][] blockLight =
+                apply(this.blockLight, blockLightMask, emptyBlockLightMask, blockLightArrays,
+                        "block");
+
+        this.skyLight = skyLight;
+        this.blockLight = blockLight;
+    }
+
+    private byte @NotNull [] @NotNull [] apply(final byte @NotNull [] @NotNull [] current,
+            final long @NotNull [] lightMask,
+            final long @NotNull [] emptyLightMask,
+            final byte @NotNull [] @NotNull [] lightArrays,
+            final @NotNull String lightType) {
+
+        final BitSet lightSections = BitSet.valueOf(lightMask);
+        final BitSet emptySections = BitSet.valueOf(emptyLightMask);
+
+        if (lightSections.isEmpty() && emptySections.isEmpty()) {
+            return current;
+        }
+
+        if (lightSections.length() > sectionCount || emptySections.length() > sectionCount) {
+            throw new IllegalArgumentException(
+                    lightType + " light mask has a section outside the chunk");
+        }
+        if (lightSections.cardinality() != lightArrays.length) {
+            throw new IllegalArgumentException(lightType + " light mask has "
+                    + lightSections.cardinality() + " sections but " + lightArrays.length
+                    + " arrays were sent");
+        }
+
+        // copy-on-write, the previous sections may still be being read
+        final byte[][] updated = current.clone();
+
+        for (int section = emptySections.nextSetBit(0); section >= 0;
+                section = emptySections.nextSetBit(section + 1)) {
+            updated[section] = LightArrays.uniform(0);
+        }
+
+        int array = 0;
+        for (int section = lightSections.nextSetBit(0); section >= 0;
+                section = lightSections.nextSetBit(section + 1)) {
+            final byte[] lightArray = lightArrays[array++];
+            if (lightArray.length != LIGHT_ARRAY_LENGTH) {
+                throw new IllegalArgumentException(
+                        lightType + " light array length must be " + LIGHT_ARRAY_LENGTH);
+            }
+            updated[section] = LightArrays.intern(lightArray);
+        }
+
+        return updated;
+    }
+}
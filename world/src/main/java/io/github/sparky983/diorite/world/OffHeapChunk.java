@@ -0,0 +1,320 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A chunk whose sections are stored in a block of direct memory owned by an
+ * {@link OffHeapChunkStore}.
+ * <p>
+ * The block starts with the offset of each section. A section is its block count as a short, the
+ * offset of its biomes from the start of the section as an int, then its block states and biomes
+ * as written by {@link PalettedContainer#serialize(ByteBuffer, int)}.
+ * <p>
+ * The block is reference counted. The store holds one reference until the chunk is removed or
+ * replaced, and every read holds one while it reads, so the block is only freed for reuse once no
+ * read can still see it. Reading a chunk whose block has been freed throws.
+ */
+final class OffHeapChunk implements Chunk {
+
+    private static final int BIOMES_OFFSET = Short.BYTES;
+    private static final int BLOCK_STATES_OFFSET = BIOMES_OFFSET + Integer.BYTES;
+
+    private final int chunkX;
+    private final int chunkZ;
+    private final int minY;
+    private final int worldHeight;
+    private final ByteBuffer block;
+    private final OffHeapChunkStore store;
+
+    // the store's reference plus one for each read in progress
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    @Contract(pure = true)
+    OffHeapChunk(final int chunkX,
+            final int chunkZ,
+            final int minY,
+            final int worldHeight,
+            final @NotNull ByteBuffer block,
+            final @NotNull OffHeapChunkStore store) {
+
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.minY = minY;
+        this.worldHeight = worldHeight;
+        this.block = block;
+        this.store = store;
+    }
+
+    static int serializedSize(final @NotNull ChunkSectionImpl section) {
+
+        return BLOCK_STATES_OFFSET
+                + section.getBlockStateContainer().serializedSize()
+                + section.getBiomeContainer().serializedSize();
+    }
+
+    static void serialize(final @NotNull ChunkSectionImpl @NotNull [] sections,
+            final @NotNull ByteBuffer block) {
+
+        int offset = sections.length * Integer.BYTES;
+        for (int i = 0; i < sections.length; i++) {
+            final ChunkSectionImpl section = sections[i];
+            final PalettedContainer blockStates = section.getBlockStateContainer();
+
+            block.putInt(i * Integer.BYTES, offset);
+            block.putShort(offset, (short) section.getBlockCount());
+            block.putInt(offset + BIOMES_OFFSET,
+                    BLOCK_STATES_OFFSET + blockStates.serializedSize());
+            blockStates.serialize(block, offset + BLOCK_STATES_OFFSET);
+            section.getBiomeContainer()
+                    .serialize(block, offset + BLOCK_STATES_OFFSET + blockStates.serializedSize());
+
+            offset += serializedSize(section);
+        }
+    }
+
+    /**
+     * Takes a reference to the block for a read.
+     *
+     * @throws IllegalStateException if the block has been freed.
+     */
+    private void acquire() {
+
+        int count;
+        do {
+            count = references.get();
+            if (count == 0) {
+                throw new IllegalStateException("The chunk has been removed from its store");
+            }
+        } while (!references.compareAndSet(count, count + 1));
+    }
+
+    /**
+     * Drops a reference to the block, freeing it if it was the last one. The store drops its own
+     * reference when the chunk is removed or replaced.
+     */
+    void release() {
+
+        if (references.decrementAndGet() == 0) {
+            store.free(block);
+        }
+    }
+
+    @Override
+    public int getChunkX() {
+
+        return chunkX;
+    }
+
+    @Override
+    public int getChunkZ() {
+
+        return chunkZ;
+    }
+
+    @Override
+    public int getMinY() {
+
+        return minY;
+    }
+
+    @Override
+    public int getWorldHeight() {
+
+        return worldHeight;
+    }
+
+    @Override
+    public int getSectionCount() {
+
+        return worldHeight >> 4;
+    }
+
+    @Override
+    public @NotNull ChunkSection getSection(final int index) {
+
+        if (index < 0 || index >= getSectionCount()) {
+            throw new IndexOutOfBoundsException(
+                    "Section " + index + " is out of bounds for length " + getSectionCount());
+        }
+        acquire();
+        try {
+            return new Section(block.getInt(index * Integer.BYTES));
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public int getBlockState(final int x, final int y, final int z) {
+
+        checkBounds(x, y, z);
+        acquire();
+        try {
+            final int offset = sectionOffset(y);
+            return PalettedContainer.get(block, offset + BLOCK_STATES_OFFSET,
+                    ((y - minY) & 15) << 8 | z << 4 | x);
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public int getBiome(final int x, final int y, final int z) {
+
+        checkBounds(x, y, z);
+        acquire();
+        try {
+            final int offset = sectionOffset(y);
+            return PalettedContainer.get(block, offset + block.getInt(offset + BIOMES_OFFSET),
+                    ((y - minY) & 15) >> 2 << 4 | z >> 2 << 2 | x >> 2);
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public byte @NotNull [] encode() {
+
+        final ChunkSectionImpl[] sections = new ChunkSectionImpl[getSectionCount()];
+        acquire();
+        try {
+            for (int i = 0; i < sections.length; i++) {
+                final int offset = block.getInt(i * Integer.BYTES);
+                sections[i] = new ChunkSectionImpl(block.getShort(offset),
+                        PalettedContainer.deserialize(block, offset + BLOCK_STATES_OFFSET,
+                                PalettedContainer.Strategy.BLOCK_STATES),
+                        PalettedContainer.deserialize(block,
+                                offset + block.getInt(offset + BIOMES_OFFSET),
+                                PalettedContainer.Strategy.BIOMES));
+            }
+        } finally {
+            release();
+        }
+        return ChunkImpl.encode(sections);
+    }
+
+    private void checkBounds(final int x, final int y, final int z) {
+
+        if ((x | z) >>> 4 != 0 || y < minY || y - minY >= worldHeight) {
+            throw new IndexOutOfBoundsException(
+                    "Block " + x + ", " + y + ", " + z + " is outside the chunk");
+        }
+    }
+
+    /**
+     * Returns the offset of the section containing the specified y. The caller must hold a
+     * reference.
+     */
+    private int sectionOffset(final int y) {
+
+        return block.getInt(((y - minY) >> 4) * Integer.BYTES);
+    }
+
+    private final class Section implements ChunkSection {
+
+        private final int offset;
+
+        @Contract(pure = true)
+        Section(final int offset) {
+
+            this.offset = offset;
+        }
+
+        @Override
+        public int getBlockCount() {
+
+            acquire();
+            try {
+                return block.getShort(offset);
+            } finally {
+                release();
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+
+            return getBlockCount() == 0;
+        }
+
+        @Override
+        public int getBlockState(final int x, final int y, final int z) {
+
+            if ((x | y | z) >>> 4 != 0) {
+                throw new IndexOutOfBoundsException(
+                        "Block " + x + ", " + y + ", " + z + " is outside the section");
+            }
+            acquire();
+            try {
+                return PalettedContainer.get(block, offset + BLOCK_STATES_OFFSET,
+                        y << 8 | z << 4 | x);
+            } finally {
+                release();
+            }
+        }
+
+        @Override
+        public int getBiome(final int x, final int y, final int z) {
+
+            if ((x | y | z) >>> 2 != 0) {
+                throw new IndexOutOfBoundsException(
+                        "Biome cell " + x + ", " + y + ", " + z + " is outside the section");
+            }
+            acquire();
+            try {
+                return PalettedContainer.get(block, offset + block.getInt(offset + BIOMES_OFFSET),
+                        y << 4 | z << 2 | x);
+            } finally {
+                release();
+            }
+        }
+
+        @Override
+        public int @NotNull [] getBlockStates() {
+
+            final int[] blockStates = new int[SECTION_SIZE * SECTION_SIZE * SECTION_SIZE];
+            acquire();
+            try {
+                PalettedContainer.deserialize(block, offset + BLOCK_STATES_OFFSET,
+                        PalettedContainer.Strategy.BLOCK_STATES).unpack(blockStates);
+            } finally {
+                release();
+            }
+            return blockStates;
+        }
+
+        @Override
+        public int @NotNull [] getBiomes() {
+
+            final int[] biomes = new int[BIOME_SIZE * BIOME_SIZE * BIOME_SIZE];
+            acquire();
+            try {
+                PalettedContainer.deserialize(block, offset + block.getInt(offset + BIOMES_OFFSET),
+                        PalettedContainer.Strategy.BIOMES).unpack(biomes);
+            } finally {
+                release();
+            }
+            return biomes;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class OffHeapChunkStore implements ChunkStore {
+
+    private final Map<Long, OffHeapChunk> chunks = new ConcurrentHashMap<>();
+    private final SlabAllocator allocator;
+
+    private volatile boolean closed;
+
+    @Contract(pure = true)
+    OffHeapChunkStore(final int slabSize) {
+
+        Preconditions.requireRange(slabSize, 4096, Integer.MAX_VALUE, "slabSize");
+
+        this.allocator = new SlabAllocator(slabSize);
+    }
+
+    @Override
+    public void put(final @NotNull Chunk chunk) {
+
+        Preconditions.requireNotNull(chunk, "chunk");
+
+        if (closed) {
+            throw new IllegalStateException("The chunk store has been closed");
+        }
+
+        final ChunkSectionImpl[] sections = new ChunkSectionImpl[chunk.getSectionCount()];
+        int size = sections.length * Integer.BYTES;
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = ChunkSectionImpl.from(chunk.getSection(i));
+            size += OffHeapChunk.serializedSize(sections[i]);
+        }
+
+        // only swapping the chunk in holds the store's lock, the block is written beforehand
+        final ByteBuffer block = allocator.allocate(size);
+        OffHeapChunk.serialize(sections, block);
+        final OffHeapChunk offHeapChunk = new OffHeapChunk(chunk.getChunkX(), chunk.getChunkZ(),
+                chunk.getMinY(), chunk.getWorldHeight(), block, this);
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("The chunk store has been closed");
+            }
+
+            final OffHeapChunk previous = chunks.put(key(chunk), offHeapChunk);
+            if (previous != null) {
+                previous.release();
+            }
+        }
+    }
+
+    private static long key(final @NotNull Chunk chunk) {
+
+        return OnHeapChunkStore.key(chunk.getChunkX(), chunk.getChunkZ());
+    }
+
+    /**
+     * Frees a chunk's block once its last reference is dropped. Blocks freed after the store was
+     * closed are ignored since the allocator has already dropped its slabs.
+     */
+    synchronized void free(final @NotNull ByteBuffer block) {
+
+        if (!closed) {
+            allocator.free(block);
+        }
+    }
+
+    @Override
+    public @NotNull Optional<Chunk> getChunk(final int chunkX, final int chunkZ) {
+
+        return Optional.ofNullable(chunks.get(OnHeapChunkStore.key(chunkX, chunkZ)));
+    }
+
+    @Override
+    public synchronized boolean remove(final int chunkX, final int chunkZ) {
+
+        final OffHeapChunk chunk = chunks.remove(OnHeapChunkStore.key(chunkX, chunkZ));
+        if (chunk == null) {
+            return false;
+        }
+        chunk.release();
+        return true;
+    }
+
+    @Override
+    public int size() {
+
+        return chunks.size();
+    }
+
+    @Override
+    public long getOffHeapBytes() {
+
+        return allocator.getReservedBytes();
+    }
+
+    @Override
+    public synchronized void close() {
+
+        closed = true;
+        for (final OffHeapChunk chunk : chunks.values()) {
+            chunk.release();
+        }
+        chunks.clear();
+        allocator.clear();
+    }
+}
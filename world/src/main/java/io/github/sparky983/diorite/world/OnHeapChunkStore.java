@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class OnHeapChunkStore implements ChunkStore {
+
+    private final Map<Long, Chunk> chunks = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+
+    @Contract(pure = true)
+    static long key(final int chunkX, final int chunkZ) {
+
+        return (long) chunkX << 32 | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public void put(final @NotNull Chunk chunk) {
+
+        Preconditions.requireNotNull(chunk, "chunk");
+
+        if (closed) {
+            throw new IllegalStateException("The chunk store has been closed");
+        }
+        chunks.put(key(chunk.getChunkX(), chunk.getChunkZ()), chunk);
+    }
+
+    @Override
+    public @NotNull Optional<Chunk> getChunk(final int chunkX, final int chunkZ) {
+
+        return Optional.ofNullable(chunks.get(key(chunkX, chunkZ)));
+    }
+
+    @Override
+    public boolean remove(final int chunkX, final int chunkZ) {
+
+        return chunks.remove(key(chunkX, chunkZ)) != null;
+    }
+
+    @Override
+    public int size() {
+
+        return chunks.size();
+    }
+
+    @Override
+    public long getOffHeapBytes() {
+
+        return 0;
+    }
+
+    @Override
+    public void close() {
+
+        closed = true;
+        chunks.clear();
+    }
+}
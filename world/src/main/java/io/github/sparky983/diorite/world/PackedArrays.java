@@ -0,0 +1,324 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+/**
+ * Utilities for the bit-packed arrays used by chunk sections and heightmaps.
+ * <p>
+ * Entries are packed from the least significant bit of each long, and never span two longs, so
+ * the unused high bits of each long are padding.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public final class PackedArrays {
+
+    private PackedArrays() {
+
+    }
+
+    /**
+     * Returns the number of longs the specified number of entries are packed into.
+     *
+     * @param bitsPerEntry The number of bits per entry.
+     * @param size The number of entries.
+     * @return The number of longs.
+     * @throws IllegalArgumentException if bitsPerEntry is not between 1 and 64, or size is
+     *         negative.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    public static int packedLength(final @Range(from = 1, to = Long.SIZE) int bitsPerEntry,
+            final @Range(from = 0, to = Integer.MAX_VALUE) int size) {
+
+        Preconditions.requireRange(bitsPerEntry, 1, Long.SIZE, "bitsPerEntry");
+        Preconditions.requireRange(size, 0, Integer.MAX_VALUE, "size");
+
+        final int valuesPerLong = Long.SIZE / bitsPerEntry;
+        return (int) (((long) size + valuesPerLong - 1) / valuesPerLong);
+    }
+
+    /**
+     * Unpacks entries into the destination, filling it.
+     *
+     * @param packed The packed entries.
+     * @param bitsPerEntry The number of bits per entry.
+     * @param destination The array to unpack the entries into.
+     * @throws NullPointerException if packed or destination are {@code null}.
+     * @throws IllegalArgumentException if bitsPerEntry is not between 1 and 32, or packed is too
+     *         short to fill destination.
+     * @since 1.0.0
+     */
+    @Contract(mutates = "param3")
+    public static void unpack(final long @NotNull [] packed,
+            final @Range(from = 1, to = Integer.SIZE) int bitsPerEntry,
+            final int @NotNull [] destination) {
+
+        Preconditions.requireNotNull(packed, "packed");
+        Preconditions.requireRange(bitsPerEntry, 1, Integer.SIZE, "bitsPerEntry");
+        Preconditions.requireNotNull(destination, "destination");
+        requirePackedLength(packed.length, bitsPerEntry, destination.length);
+
+        // each call passes a constant, so once inlined the JIT compiles a loop for each width with
+        // the shifts, mask and entries per long folded in and the inner loop fully unrolled
+        switch (bitsPerEntry) {
+            case 1:
+                unpackInts(packed, 1, destination);
+                break;
+            case 2:
+                unpackInts(packed, 2, destination);
+                break;
+            case 3:
+                unpackInts(packed, 3, destination);
+                break;
+            case 4:
+                unpackInts(packed, 4, destination);
+                break;
+            case 5:
+                unpackInts(packed, 5, destination);
+                break;
+            case 6:
+                unpackInts(packed, 6, destination);
+                break;
+            case 7:
+                unpackInts(packed, 7, destination);
+                break;
+            case 8:
+                unpackInts(packed, 8, destination);
+                break;
+            case 9:
+                unpackInts(packed, 9, destination);
+                break;
+            case 10:
+                unpackInts(packed, 10, destination);
+                break;
+            case 11:
+                unpackInts(packed, 11, destination);
+                break;
+            case 12:
+                unpackInts(packed, 12, destination);
+                break;
+            case 13:
+                unpackInts(packed, 13, destination);
+                break;
+            case 14:
+                unpackInts(packed, 14, destination);
+                break;
+            case 15:
+                unpackInts(packed, 15, destination);
+                break;
+            case 16:
+                unpackInts(packed, 16, destination);
+                break;
+            default:
+                unpackInts(packed, bitsPerEntry, destination);
+                break;
+        }
+    }
+
+    /**
+     * Unpacks entries into the destination, filling it. Entries of 16 bits should be read with
+     * {@link Short#toUnsignedInt(short)}.
+     *
+     * @param packed The packed entries.
+     * @param bitsPerEntry The number of bits per entry.
+     * @param destination The array to unpack the entries into.
+     * @throws NullPointerException if packed or destination are {@code null}.
+     * @throws IllegalArgumentException if bitsPerEntry is not between 1 and 16, or packed is too
+     *         short to fill destination.
+     * @since 1.0.0
+     */
+    @Contract(mutates = "param3")
+    public static void unpack(final long @NotNull [] packed,
+            final @Range(from = 1, to = Short.SIZE) int bitsPerEntry,
+            final short @NotNull [] destination) {
+
+        Preconditions.requireNotNull(packed, "packed");
+        Preconditions.requireRange(bitsPerEntry, 1, Short.SIZE, "bitsPerEntry");
+        Preconditions.requireNotNull(destination, "destination");
+        requirePackedLength(packed.length, bitsPerEntry, destination.length);
+
+        switch (bitsPerEntry) {
+            case 1:
+                unpackShorts(packed, 1, destination);
+                break;
+            case 2:
+                unpackShorts(packed, 2, destination);
+                break;
+            case 3:
+                unpackShorts(packed, 3, destination);
+                break;
+            case 4:
+                unpackShorts(packed, 4, destination);
+                break;
+            case 5:
+                unpackShorts(packed, 5, destination);
+                break;
+            case 6:
+                unpackShorts(packed, 6, destination);
+                break;
+            case 7:
+                unpackShorts(packed, 7, destination);
+                break;
+            case 8:
+                unpackShorts(packed, 8, destination);
+                break;
+            default:
+                unpackShorts(packed, bitsPerEntry, destination);
+                break;
+        }
+    }
+
+    /**
+     * Reads packed entries from the buffer and unpacks them into the destination, filling it.
+     * <p>
+     * The longs are read in bulk from the buffer's position, in big-endian order regardless of the
+     * buffer's order, and the position is moved past them.
+     *
+     * @param buffer The buffer.
+     * @param bitsPerEntry The number of bits per entry.
+     * @param destination The array to unpack the entries into.
+     * @throws NullPointerException if buffer or destination are {@code null}.
+     * @throws IllegalArgumentException if bitsPerEntry is not between 1 and 32.
+     * @throws java.nio.BufferUnderflowException if there aren't enough longs left in the buffer.
+     * @since 1.0.0
+     */
+    @Contract(mutates = "param1, param3")
+    public static void unpack(final @NotNull ByteBuffer buffer,
+            final @Range(from = 1, to = Integer.SIZE) int bitsPerEntry,
+            final int @NotNull [] destination) {
+
+        Preconditions.requireNotNull(buffer, "buffer");
+        Preconditions.requireNotNull(destination, "destination");
+
+        final long[] packed = new long[packedLength(bitsPerEntry, destination.length)];
+        // a big-endian long view of a heap buffer copies with a byte swap per long, rather than
+        // assembling each long from 8 separate reads
+        buffer.duplicate()
+                .order(ByteOrder.BIG_ENDIAN)
+                .asLongBuffer()
+                .get(packed);
+        buffer.position(buffer.position() + packed.length * Long.BYTES);
+
+        unpack(packed, bitsPerEntry, destination);
+    }
+
+    /**
+     * Packs entries into longs.
+     *
+     * @param values The entries, each of which must fit in bitsPerEntry bits.
+     * @param bitsPerEntry The number of bits per entry.
+     * @return The packed entries.
+     * @throws NullPointerException if values is {@code null}.
+     * @throws IllegalArgumentException if bitsPerEntry is not between 1 and 32.
+     * @since 1.0.0
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    public static long @NotNull [] pack(final int @NotNull [] values,
+            final @Range(from = 1, to = Integer.SIZE) int bitsPerEntry) {
+
+        Preconditions.requireNotNull(values, "values");
+        Preconditions.requireRange(bitsPerEntry, 1, Integer.SIZE, "bitsPerEntry");
+
+        final long[] packed = new long[packedLength(bitsPerEntry, values.length)];
+        final int valuesPerLong = Long.SIZE / bitsPerEntry;
+        final long mask = (1L << bitsPerEntry) - 1;
+
+        int index = 0;
+        for (int i = 0; i < packed.length; i++) {
+            long value = 0;
+            final int end = Math.min(values.length, index + valuesPerLong);
+            for (int shift = 0; index < end; index++, shift += bitsPerEntry) {
+                value |= (values[index] & mask) << shift;
+            }
+            packed[i] = value;
+        }
+        return packed;
+    }
+
+    private static void requirePackedLength(final int length,
+            final int bitsPerEntry,
+            final int size) {
+
+        final int packedLength = packedLength(bitsPerEntry, size);
+        if (length < packedLength) {
+            throw new IllegalArgumentException(size + " entries of " + bitsPerEntry
+                    + " bits need " + packedLength + " longs, but there are only " + length);
+        }
+    }
+
+    private static void unpackInts(final long @NotNull [] packed,
+            final int bitsPerEntry,
+            final int @NotNull [] destination) {
+
+        final int valuesPerLong = Long.SIZE / bitsPerEntry;
+        final long mask = (1L << bitsPerEntry) - 1;
+        final int fullLongs = destination.length / valuesPerLong;
+
+        int index = 0;
+        for (int i = 0; i < fullLongs; i++) {
+            long value = packed[i];
+            for (int j = 0; j < valuesPerLong; j++) {
+                destination[index++] = (int) (value & mask);
+                value >>>= bitsPerEntry;
+            }
+        }
+
+        if (index < destination.length) {
+            long value = packed[fullLongs];
+            while (index < destination.length) {
+                destination[index++] = (int) (value & mask);
+                value >>>= bitsPerEntry;
+            }
+        }
+    }
+
+    private static void unpackShorts(final long @NotNull [] packed,
+            final int bitsPerEntry,
+            final short @NotNull [] destination) {
+
+        final int valuesPerLong = Long.SIZE / bitsPerEntry;
+        final long mask = (1L << bitsPerEntry) - 1;
+        final int fullLongs = destination.length / valuesPerLong;
+
+        int index = 0;
+        for (int i = 0; i < fullLongs; i++) {
+            long value = packed[i];
+            for (int j = 0; j < valuesPerLong; j++) {
+                destination[index++] = (short) (value & mask);
+                value >>>= bitsPerEntry;
+            }
+        }
+
+        if (index < destination.length) {
+            long value = packed[fullLongs];
+            while (index < destination.length) {
+                destination[index++] = (short) (value & mask);
+                value >>>= bitsPerEntry;
+            }
+        }
+    }
+}
@@ -0,0 +1,511 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A paletted container as the protocol sends it: a palette, and the indices into it packed into
+ * longs that entries never span. Entries are looked up without unpacking.
+ */
+final class PalettedContainer {
+
+    private static final int SEGMENT_BITS = 0x7F;
+    private static final int CONTINUE_BIT = 0x80;
+    private static final int INITIAL_TABLE_SIZE = 64;
+
+    private final int value;
+    private final int[] palette;
+    private final long[] data;
+    private final int bitsPerEntry;
+    private final long mask;
+    private final int valuesPerLong;
+
+    private PalettedContainer(final int value,
+            final int[] palette,
+            final long[] data,
+            final int bitsPerEntry) {
+
+        this.value = value;
+        this.palette = palette;
+        this.data = data;
+        this.bitsPerEntry = bitsPerEntry;
+        this.mask = (1L << bitsPerEntry) - 1;
+        this.valuesPerLong = bitsPerEntry == 0 ? 0 : Long.SIZE / bitsPerEntry;
+    }
+
+    /**
+     * Reads a container, leaving the buffer at the end of it.
+     *
+     * @throws IllegalArgumentException if the container is malformed.
+     */
+    static @NotNull PalettedContainer read(final @NotNull ByteBuffer buffer,
+            final @NotNull Strategy strategy) {
+
+        try {
+            final int bitsPerEntry = buffer.get() & 0xFF;
+
+            if (bitsPerEntry == 0) {
+                final int value = readVarInt(buffer);
+                // the data of a single valued container is empty, but is still sent
+                final int dataLength = checkDataLength(readVarInt(buffer), 0, strategy);
+                buffer.position(buffer.position() + dataLength * Long.BYTES);
+                return new PalettedContainer(value, null, null, 0);
+            }
+
+            final int[] palette;
+            final int effectiveBitsPerEntry;
+            if (bitsPerEntry <= strategy.maxIndirectBits) {
+                final int paletteLength = readVarInt(buffer);
+                if (paletteLength < 0 || paletteLength > buffer.remaining()) {
+                    throw new IllegalArgumentException(
+                            "Palette length " + paletteLength + " is out of bounds");
+                }
+                palette = new int[paletteLength];
+                for (int i = 0; i < paletteLength; i++) {
+                    palette[i] = readVarInt(buffer);
+                }
+                effectiveBitsPerEntry = Math.max(bitsPerEntry, strategy.minIndirectBits);
+            } else {
+                palette = null;
+                effectiveBitsPerEntry = bitsPerEntry;
+            }
+
+            if (effectiveBitsPerEntry > Integer.SIZE) {
+                throw new IllegalArgumentException(bitsPerEntry + " bits per entry is too many");
+            }
+
+            final int dataLength =
+                    checkDataLength(readVarInt(buffer), effectiveBitsPerEntry, strategy);
+            final long[] data = new long[dataLength];
+            buffer.asLongBuffer().get(data);
+            buffer.position(buffer.position() + dataLength * Long.BYTES);
+
+            return new PalettedContainer(0, palette, data, effectiveBitsPerEntry);
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Paletted container ends early", e);
+        }
+    }
+
+    /**
+     * Skips over a container without reading its palette or data.
+     *
+     * @throws IllegalArgumentException if the container is malformed.
+     */
+    static void skip(final @NotNull ByteBuffer buffer, final @NotNull Strategy strategy) {
+
+        try {
+            final int bitsPerEntry = buffer.get() & 0xFF;
+
+            if (bitsPerEntry == 0) {
+                readVarInt(buffer);
+            } else if (bitsPerEntry <= strategy.maxIndirectBits) {
+                final int paletteLength = readVarInt(buffer);
+                if (paletteLength < 0 || paletteLength > buffer.remaining()) {
+                    throw new IllegalArgumentException(
+                            "Palette length " + paletteLength + " is out of bounds");
+                }
+                for (int i = 0; i < paletteLength; i++) {
+                    readVarInt(buffer);
+                }
+            }
+
+            final int dataLength = readVarInt(buffer);
+            if (dataLength < 0 || dataLength > buffer.remaining() / Long.BYTES) {
+                throw new IllegalArgumentException(
+                        "Data length " + dataLength + " is out of bounds");
+            }
+            buffer.position(buffer.position() + dataLength * Long.BYTES);
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Paletted container ends early", e);
+        }
+    }
+
+    private static int checkDataLength(final int dataLength,
+            final int bitsPerEntry,
+            final @NotNull Strategy strategy) {
+
+        final int expected;
+        if (bitsPerEntry == 0) {
+            // vanilla sends none, but any length is skipped over
+            expected = dataLength;
+        } else {
+            final int valuesPerLong = Long.SIZE / bitsPerEntry;
+            expected = (strategy.size + valuesPerLong - 1) / valuesPerLong;
+        }
+
+        if (dataLength != expected || dataLength < 0) {
+            throw new IllegalArgumentException("Data length " + dataLength + " should be "
+                    + expected + " for " + bitsPerEntry + " bits per entry");
+        }
+        return dataLength;
+    }
+
+    /**
+     * Creates a container holding the specified entries, with the smallest palette that fits
+     * them.
+     */
+    static @NotNull PalettedContainer of(final int @NotNull [] values,
+            final @NotNull Strategy strategy) {
+
+        // an open addressing table from value to palette index + 1, which avoids boxing every
+        // entry when whole regions are loaded. Palettes are usually small, so it starts small
+        int[] keys = new int[INITIAL_TABLE_SIZE];
+        int[] slots = new int[INITIAL_TABLE_SIZE];
+        final int[] distinctValues = new int[values.length];
+        final int[] indices = new int[values.length];
+        int distinct = 0;
+        int allBits = 0;
+
+        int last = values[0];
+        int lastIndex = -1;
+        for (int i = 0; i < values.length; i++) {
+            final int value = values[i];
+            // neighbouring blocks are usually the same, so the last lookup is reused
+            if (value != last || lastIndex == -1) {
+                int slot = findSlot(keys, slots, value);
+                if (slots[slot] == 0) {
+                    if ((distinct + 1) * 2 > keys.length) {
+                        keys = new int[keys.length * 2];
+                        slots = new int[keys.length];
+                        for (int j = 0; j < distinct; j++) {
+                            final int rehashed = findSlot(keys, slots, distinctValues[j]);
+                            keys[rehashed] = distinctValues[j];
+                            slots[rehashed] = j + 1;
+                        }
+                        slot = findSlot(keys, slots, value);
+                    }
+                    keys[slot] = value;
+                    slots[slot] = distinct + 1;
+                    distinctValues[distinct++] = value;
+                    allBits |= value;
+                }
+                last = value;
+                lastIndex = slots[slot] - 1;
+            }
+            indices[i] = lastIndex;
+        }
+
+        if (distinct == 1) {
+            return new PalettedContainer(values[0], null, null, 0);
+        }
+
+        final int paletteBits = Integer.SIZE - Integer.numberOfLeadingZeros(distinct - 1);
+        final int[] palette;
+        final int bitsPerEntry;
+        if (paletteBits <= strategy.maxIndirectBits) {
+            palette = Arrays.copyOf(distinctValues, distinct);
+            bitsPerEntry = Math.max(paletteBits, strategy.minIndirectBits);
+        } else {
+            palette = null;
+            // ids too large for the registry's width still round trip, they just can't be sent
+            bitsPerEntry = Math.max(strategy.directBits,
+                    Integer.SIZE - Integer.numberOfLeadingZeros(allBits));
+        }
+
+        final int[] entries = palette == null ? values : indices;
+
+        return new PalettedContainer(0, palette, PackedArrays.pack(entries, bitsPerEntry),
+                bitsPerEntry);
+    }
+
+    private static int findSlot(final int @NotNull [] keys,
+            final int @NotNull [] slots,
+            final int value) {
+
+        final int mask = keys.length - 1;
+        int slot = (value * 0x9E3779B9) >>> 16 & mask;
+        while (slots[slot] != 0 && keys[slot] != value) {
+            slot = slot + 1 & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the number of bytes {@link #write(ByteBuffer)} writes.
+     */
+    @Contract(pure = true)
+    int encodedSize() {
+
+        if (bitsPerEntry == 0) {
+            return 1 + varIntSize(value) + 1;
+        }
+
+        int size = 1;
+        if (palette != null) {
+            size += varIntSize(palette.length);
+            for (final int entry : palette) {
+                size += varIntSize(entry);
+            }
+        }
+        return size + varIntSize(data.length) + data.length * Long.BYTES;
+    }
+
+    /**
+     * Writes the container as the protocol sends it.
+     */
+    void write(final @NotNull ByteBuffer buffer) {
+
+        buffer.put((byte) bitsPerEntry);
+
+        if (bitsPerEntry == 0) {
+            writeVarInt(buffer, value);
+            writeVarInt(buffer, 0);
+            return;
+        }
+
+        if (palette != null) {
+            writeVarInt(buffer, palette.length);
+            for (final int entry : palette) {
+                writeVarInt(buffer, entry);
+            }
+        }
+        writeVarInt(buffer, data.length);
+        for (final long packed : data) {
+            buffer.putLong(packed);
+        }
+    }
+
+    /**
+     * Returns the number of bytes {@link #serialize(ByteBuffer, int)} writes.
+     */
+    @Contract(pure = true)
+    int serializedSize() {
+
+        if (bitsPerEntry == 0) {
+            return 1 + Integer.BYTES;
+        }
+        final int paletteLength = palette == null ? 0 : palette.length;
+        return 1 + Integer.BYTES + paletteLength * Integer.BYTES + data.length * Long.BYTES;
+    }
+
+    /**
+     * Writes the container to the buffer at the specified offset, in a fixed-width form that
+     * {@link #get(ByteBuffer, int, int)} can read entries out of directly. The buffer's position
+     * isn't changed.
+     * <p>
+     * The layout is the bits per entry as a byte, followed by either the single value, or the
+     * palette length ({@code -1} if direct), the palette and the packed data.
+     */
+    void serialize(final @NotNull ByteBuffer buffer, final int offset) {
+
+        buffer.put(offset, (byte) bitsPerEntry);
+        if (bitsPerEntry == 0) {
+            buffer.putInt(offset + 1, value);
+            return;
+        }
+
+        int position = offset + 1;
+        if (palette == null) {
+            buffer.putInt(position, -1);
+            position += Integer.BYTES;
+        } else {
+            buffer.putInt(position, palette.length);
+            position += Integer.BYTES;
+            for (final int entry : palette) {
+                buffer.putInt(position, entry);
+                position += Integer.BYTES;
+            }
+        }
+        for (final long packed : data) {
+            buffer.putLong(position, packed);
+            position += Long.BYTES;
+        }
+    }
+
+    /**
+     * Reads the container written at the specified offset by
+     * {@link #serialize(ByteBuffer, int)}.
+     */
+    static @NotNull PalettedContainer deserialize(final @NotNull ByteBuffer buffer,
+            final int offset,
+            final @NotNull Strategy strategy) {
+
+        final int bitsPerEntry = buffer.get(offset);
+        if (bitsPerEntry == 0) {
+            return new PalettedContainer(buffer.getInt(offset + 1), null, null, 0);
+        }
+
+        final int paletteLength = buffer.getInt(offset + 1);
+        final int paletteOffset = offset + 1 + Integer.BYTES;
+        final int[] palette;
+        final int dataOffset;
+        if (paletteLength == -1) {
+            palette = null;
+            dataOffset = paletteOffset;
+        } else {
+            palette = new int[paletteLength];
+            for (int i = 0; i < paletteLength; i++) {
+                palette[i] = buffer.getInt(paletteOffset + i * Integer.BYTES);
+            }
+            dataOffset = paletteOffset + paletteLength * Integer.BYTES;
+        }
+
+        final long[] data = new long[PackedArrays.packedLength(bitsPerEntry, strategy.size)];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = buffer.getLong(dataOffset + i * Long.BYTES);
+        }
+
+        return new PalettedContainer(0, palette, data, bitsPerEntry);
+    }
+
+    /**
+     * Returns the entry at the specified index of the container written at the specified offset
+     * by {@link #serialize(ByteBuffer, int)}, without reading the rest of it.
+     *
+     * @throws IndexOutOfBoundsException if the entry isn't in the palette.
+     */
+    static int get(final @NotNull ByteBuffer buffer, final int offset, final int index) {
+
+        final int bitsPerEntry = buffer.get(offset);
+        if (bitsPerEntry == 0) {
+            return buffer.getInt(offset + 1);
+        }
+
+        final int paletteLength = buffer.getInt(offset + 1);
+        final int paletteOffset = offset + 1 + Integer.BYTES;
+        final int dataOffset = paletteOffset + Math.max(paletteLength, 0) * Integer.BYTES;
+
+        final int valuesPerLong = Long.SIZE / bitsPerEntry;
+        final int longIndex = index / valuesPerLong;
+        final int shift = (index - longIndex * valuesPerLong) * bitsPerEntry;
+        final int id = (int) ((buffer.getLong(dataOffset + longIndex * Long.BYTES) >>> shift)
+                & ((1L << bitsPerEntry) - 1));
+
+        if (paletteLength == -1) {
+            return id;
+        }
+        if (id >= paletteLength) {
+            throw new IndexOutOfBoundsException(
+                    "Palette index " + id + " is out of bounds for length " + paletteLength);
+        }
+        return buffer.getInt(paletteOffset + id * Integer.BYTES);
+    }
+
+    private static int varIntSize(final int value) {
+
+        // 1 byte per 7 bits, and at least 1 byte for 0
+        return (Integer.SIZE - Integer.numberOfLeadingZeros(value) + 6) / 7 + (value == 0 ? 1 : 0);
+    }
+
+    private static void writeVarInt(final @NotNull ByteBuffer buffer, int value) {
+
+        while ((value & ~SEGMENT_BITS) != 0) {
+            buffer.put((byte) ((value & SEGMENT_BITS) | CONTINUE_BIT));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int readVarInt(final @NotNull ByteBuffer buffer) {
+
+        int value = 0;
+        int position = 0;
+
+        while (true) {
+            final byte currentByte = buffer.get();
+            value |= (currentByte & SEGMENT_BITS) << position;
+
+            if ((currentByte & CONTINUE_BIT) == 0) {
+                return value;
+            }
+
+            position += 7;
+
+            if (position >= Integer.SIZE) {
+                throw new IllegalArgumentException("VarInt is too big");
+            }
+        }
+    }
+
+    /**
+     * Returns the entry at the specified index.
+     *
+     * @throws IndexOutOfBoundsException if the entry isn't in the palette.
+     */
+    @Contract(pure = true)
+    int get(final int index) {
+
+        if (bitsPerEntry == 0) {
+            return value;
+        }
+
+        final int longIndex = index / valuesPerLong;
+        final int shift = (index - longIndex * valuesPerLong) * bitsPerEntry;
+        final int id = (int) ((data[longIndex] >>> shift) & mask);
+
+        return palette == null ? id : palette[id];
+    }
+
+    /**
+     * Unpacks every entry into the destination, which must be the strategy's size.
+     *
+     * @throws IndexOutOfBoundsException if an entry isn't in the palette.
+     */
+    void unpack(final int @NotNull [] destination) {
+
+        if (bitsPerEntry == 0) {
+            Arrays.fill(destination, value);
+            return;
+        }
+
+        PackedArrays.unpack(data, bitsPerEntry, destination);
+
+        if (palette != null) {
+            for (int i = 0; i < destination.length; i++) {
+                destination[i] = palette[destination[i]];
+            }
+        }
+    }
+
+    /**
+     * Returns whether every entry is the same.
+     */
+    @Contract(pure = true)
+    boolean isSingleValued() {
+
+        return bitsPerEntry == 0;
+    }
+
+    enum Strategy {
+
+        // the direct widths are those of the vanilla 1.18.2 block state and biome registries
+        BLOCK_STATES(16 * 16 * 16, 4, 8, 15),
+        BIOMES(4 * 4 * 4, 1, 3, 6);
+
+        private final int size;
+        private final int minIndirectBits;
+        private final int maxIndirectBits;
+        private final int directBits;
+
+        Strategy(final int size,
+                final int minIndirectBits,
+                final int maxIndirectBits,
+                final int directBits) {
+
+            this.size = size;
+            this.minIndirectBits = minIndirectBits;
+            this.maxIndirectBits = maxIndirectBits;
+            this.directBits = directBits;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * An Anvil region file, which holds the chunks of a 32x32 chunk area of a world.
+ * <p>
+ * Region files are memory-mapped. The chunk location table is read straight from the mapping, and
+ * chunks are inflated as their streams are read, so finding and opening a chunk only costs a copy
+ * of its compressed bytes. Chunks larger than the format allows are stored in a separate
+ * {@code .mcc} file next to the region file, as vanilla does.
+ * <p>
+ * A chunk stream reads the chunk as it was when the stream was opened, so the chunk may be written
+ * or removed while the stream is open. Region files are safe to use from multiple threads.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface RegionFile extends Closeable {
+
+    /**
+     * The width of a region along the x and z axes in chunks.
+     *
+     * @since 1.0.0
+     */
+    int REGION_WIDTH = 32;
+
+    /**
+     * Opens a region file for reading and writing, creating it if it doesn't exist.
+     *
+     * @param path The path of the region file.
+     * @return The region file.
+     * @throws NullPointerException if path is {@code null}.
+     * @throws IOException if the file couldn't be opened or its header is truncated.
+     * @since 1.0.0
+     */
+    static @NotNull RegionFile open(final @NotNull Path path) throws IOException {
+
+        return new RegionFileImpl(path, false);
+    }
+
+    /**
+     * Opens a region file for reading.
+     *
+     * @param path The path of the region file.
+     * @return The region file.
+     * @throws NullPointerException if path is {@code null}.
+     * @throws IOException if the file couldn't be opened or its header is truncated.
+     * @since 1.0.0
+     */
+    static @NotNull RegionFile openReadOnly(final @NotNull Path path) throws IOException {
+
+        return new RegionFileImpl(path, true);
+    }
+
+    /**
+     * Returns the name of the region file that holds the specified chunk, for example
+     * {@code r.0.-1.mca}.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @return The file name.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    static @NotNull String getFileName(final int chunkX, final int chunkZ) {
+
+        return "r." + (chunkX >> 5) + "." + (chunkZ >> 5) + ".mca";
+    }
+
+    /**
+     * Returns whether the region file holds the specified chunk. Only the chunk's position within
+     * the region is used.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @return {@code true} if the chunk is stored, otherwise {@code false}.
+     * @throws IllegalStateException if the region file has been closed.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    boolean hasChunk(int chunkX, int chunkZ);
+
+    /**
+     * Opens a stream of the specified chunk's uncompressed NBT. Only the chunk's position within
+     * the region is used.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @return The stream, or an empty optional if the chunk isn't stored.
+     * @throws IOException if the chunk's entry is corrupt, its compression is unknown, or its
+     *         external file couldn't be opened.
+     * @throws IllegalStateException if the region file has been closed.
+     * @since 1.0.0
+     */
+    @NotNull Optional<InputStream> readChunk(int chunkX, int chunkZ) throws IOException;
+
+    /**
+     * Returns when the specified chunk was last written, in seconds since the epoch, or {@code 0}
+     * if it isn't stored.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @return The timestamp.
+     * @throws IllegalStateException if the region file has been closed.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    int getTimestamp(int chunkX, int chunkZ);
+
+    /**
+     * Compresses and writes the specified chunk, replacing any chunk already stored in its place.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @param data The chunk's uncompressed NBT.
+     * @throws NullPointerException if data is {@code null}.
+     * @throws IOException if the chunk couldn't be written.
+     * @throws IllegalStateException if the region file is read-only or has been closed.
+     * @since 1.0.0
+     */
+    void writeChunk(int chunkX, int chunkZ, byte @NotNull [] data) throws IOException;
+
+    /**
+     * Removes the specified chunk.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @return {@code true} if a chunk was removed, otherwise {@code false}.
+     * @throws IOException if the chunk's external file couldn't be deleted.
+     * @throws IllegalStateException if the region file is read-only or has been closed.
+     * @since 1.0.0
+     */
+    boolean removeChunk(int chunkX, int chunkZ) throws IOException;
+
+    /**
+     * Writes any changes to the storage device.
+     *
+     * @throws IllegalStateException if the region file has been closed.
+     * @since 1.0.0
+     */
+    void flush();
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class RegionFileImpl implements RegionFile {
+
+    private static final int SECTOR_SIZE = 4096;
+    private static final int HEADER_SECTORS = 2;
+    private static final int CHUNKS = REGION_WIDTH * REGION_WIDTH;
+    private static final int MAX_SECTORS_PER_CHUNK = 0xFF;
+    // the length and compression type
+    private static final int CHUNK_HEADER_SIZE = Integer.BYTES + 1;
+
+    private static final byte GZIP = 1;
+    private static final byte ZLIB = 2;
+    private static final byte UNCOMPRESSED = 3;
+    private static final int EXTERNAL = 0x80;
+
+    private final Path path;
+    private final boolean readOnly;
+    private final FileChannel channel;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet usedSectors = new BitSet();
+
+    private MappedByteBuffer mapped;
+    private IntBuffer locations;
+    private IntBuffer timestamps;
+    private int sectorCount;
+    private boolean closed;
+
+    RegionFileImpl(final @NotNull Path path, final boolean readOnly) throws IOException {
+
+        Preconditions.requireNotNull(path, "path");
+
+        this.path = path;
+        this.readOnly = readOnly;
+        this.channel = readOnly
+                ? FileChannel.open(path, StandardOpenOption.READ)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.CREATE);
+
+        try {
+            final long size = channel.size();
+            if (size > 0 && size < HEADER_SECTORS * SECTOR_SIZE) {
+                throw new IOException("Region file " + path + " has a truncated header");
+            }
+            if (size == 0 && readOnly) {
+                // an empty file has no chunks, but can't be given a header
+                map(ByteBuffer.allocate(HEADER_SECTORS * SECTOR_SIZE), HEADER_SECTORS);
+            } else {
+                final int sectors = (int) Math.max(HEADER_SECTORS,
+                        (size + SECTOR_SIZE - 1) / SECTOR_SIZE);
+                remap(sectors);
+            }
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        usedSectors.set(0, HEADER_SECTORS);
+        for (int i = 0; i < CHUNKS; i++) {
+            final int location = locations.get(i);
+            final int offset = location >>> 8;
+            final int sectors = location & MAX_SECTORS_PER_CHUNK;
+            if (offset >= HEADER_SECTORS && offset + sectors <= sectorCount) {
+                usedSectors.set(offset, offset + sectors);
+            }
+        }
+    }
+
+    private void remap(final int sectors) throws IOException {
+
+        final MappedByteBuffer mapped = channel.map(
+                readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE,
+                0,
+                readOnly ? channel.size() : (long) sectors * SECTOR_SIZE);
+        this.mapped = mapped;
+        map(mapped, sectors);
+    }
+
+    private void map(final @NotNull ByteBuffer buffer, final int sectors) {
+
+        // views of the mapping, so the tables are never copied
+        this.locations = buffer.duplicate()
+                .limit(SECTOR_SIZE)
+                .slice()
+                .asIntBuffer();
+        this.timestamps = buffer.duplicate()
+                .position(SECTOR_SIZE)
+                .limit(HEADER_SECTORS * SECTOR_SIZE)
+                .slice()
+                .asIntBuffer();
+        this.sectorCount = sectors;
+    }
+
+    private static int index(final int chunkX, final int chunkZ) {
+
+        return (chunkX & (REGION_WIDTH - 1)) + (chunkZ & (REGION_WIDTH - 1)) * REGION_WIDTH;
+    }
+
+    private @NotNull Path externalPath(final int chunkX, final int chunkZ) {
+
+        return path.resolveSibling("c." + chunkX + "." + chunkZ + ".mcc");
+    }
+
+    private void checkOpen() {
+
+        if (closed) {
+            throw new IllegalStateException("The region file has been closed");
+        }
+    }
+
+    private void checkWritable() {
+
+        checkOpen();
+        if (readOnly) {
+            throw new IllegalStateException("The region file is read-only");
+        }
+    }
+
+    @Override
+    public boolean hasChunk(final int chunkX, final int chunkZ) {
+
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            return locations.get(index(chunkX, chunkZ)) != 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public @NotNull Optional<InputStream> readChunk(final int chunkX, final int chunkZ)
+            throws IOException {
+
+        final byte[] data;
+        final int compression;
+
+        lock.readLock().lock();
+        try {
+            checkOpen();
+
+            final int location = locations.get(index(chunkX, chunkZ));
+            if (location == 0) {
+                return Optional.empty();
+            }
+
+            final long start = (long) (location >>> 8) * SECTOR_SIZE;
+            final int sectors = location & MAX_SECTORS_PER_CHUNK;
+            final ByteBuffer buffer = mapped == null ? null : mapped.duplicate();
+            if (buffer == null || sectors == 0 || start + CHUNK_HEADER_SIZE > buffer.limit()) {
+                throw new IOException("Chunk " + chunkX + ", " + chunkZ
+                        + " is outside the region file");
+            }
+
+            final int length = buffer.getInt((int) start);
+            compression = buffer.get((int) start + Integer.BYTES) & 0xFF;
+            if (length < 1 || length > sectors * SECTOR_SIZE - Integer.BYTES
+                    || start + Integer.BYTES + length > buffer.limit()) {
+                throw new IOException("Chunk " + chunkX + ", " + chunkZ + " has an invalid length "
+                        + length);
+            }
+
+            // copied under the lock, a later write may reuse the chunk's sectors
+            data = new byte[length - 1];
+            buffer.position((int) start + CHUNK_HEADER_SIZE).get(data);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        final InputStream compressed = (compression & EXTERNAL) != 0
+                ? Files.newInputStream(externalPath(chunkX, chunkZ))
+                : new ByteArrayInputStream(data);
+
+        switch (compression & ~EXTERNAL) {
+            case GZIP:
+                return Optional.of(new GZIPInputStream(compressed));
+            case ZLIB:
+                return Optional.of(new InflaterInputStream(compressed));
+            case UNCOMPRESSED:
+                return Optional.of(compressed);
+            default:
+                compressed.close();
+                throw new IOException("Chunk " + chunkX + ", " + chunkZ
+                        + " has unknown compression type " + compression);
+        }
+    }
+
+    @Override
+    public int getTimestamp(final int chunkX, final int chunkZ) {
+
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            return timestamps.get(index(chunkX, chunkZ));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void writeChunk(final int chunkX, final int chunkZ, final byte @NotNull [] data)
+            throws IOException {
+
+        Preconditions.requireNotNull(data, "data");
+        checkWritable();
+
+        // compressed before taking the lock, so writes of different chunks only contend for the
+        // copy into the mapping
+        final ByteArrayOutputStream compressedStream = new ByteArrayOutputStream(data.length / 4);
+        try (final DeflaterOutputStream deflaterStream =
+                     new DeflaterOutputStream(compressedStream)) {
+            deflaterStream.write(data);
+        }
+        final byte[] compressed = compressedStream.toByteArray();
+
+        final boolean external =
+                sectorsFor(compressed.length) > MAX_SECTORS_PER_CHUNK;
+        if (external) {
+            // replaced atomically, so open streams of the old file keep reading it
+            final Path externalPath = externalPath(chunkX, chunkZ);
+            final Path temporaryPath = Files.createTempFile(
+                    externalPath.toAbsolutePath().getParent(), externalPath.getFileName().toString(),
+                    ".tmp");
+            Files.write(temporaryPath, compressed);
+            Files.move(temporaryPath, externalPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        final boolean wasExternal;
+        lock.writeLock().lock();
+        try {
+            checkWritable();
+
+            final int index = index(chunkX, chunkZ);
+            final int previous = locations.get(index);
+
+            // allocated before the old sectors are freed, so the old chunk stays intact until the
+            // table points to the new one
+            final int sectors = external ? 1 : sectorsFor(compressed.length);
+            final int offset = allocate(sectors);
+
+            final ByteBuffer buffer = mapped.duplicate();
+            buffer.position(offset * SECTOR_SIZE);
+            if (external) {
+                buffer.putInt(1).put((byte) (ZLIB | EXTERNAL));
+            } else {
+                buffer.putInt(compressed.length + 1).put(ZLIB).put(compressed);
+            }
+
+            // the chunk is written before the table points to it
+            locations.put(index, offset << 8 | sectors);
+            timestamps.put(index, (int) (System.currentTimeMillis() / 1000));
+            wasExternal = free(previous);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (wasExternal && !external) {
+            Files.deleteIfExists(externalPath(chunkX, chunkZ));
+        }
+    }
+
+    private static int sectorsFor(final int compressedLength) {
+
+        return (CHUNK_HEADER_SIZE + compressedLength + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    }
+
+    /**
+     * Frees the sectors at the specified location, returning whether the chunk was external.
+     */
+    private boolean free(final int location) {
+
+        if (location == 0) {
+            return false;
+        }
+
+        final int offset = location >>> 8;
+        final int sectors = location & MAX_SECTORS_PER_CHUNK;
+        if (offset >= HEADER_SECTORS && offset + sectors <= sectorCount) {
+            final boolean external = (mapped.get(offset * SECTOR_SIZE + Integer.BYTES)
+                    & EXTERNAL) != 0;
+            usedSectors.clear(offset, offset + sectors);
+            return external;
+        }
+        return false;
+    }
+
+    /**
+     * Finds the first run of free sectors that fits, growing the file if there isn't one.
+     */
+    private int allocate(final int sectors) throws IOException {
+
+        int offset = usedSectors.nextClearBit(HEADER_SECTORS);
+        while (true) {
+            final int nextUsed = usedSectors.nextSetBit(offset);
+            if (nextUsed == -1 || nextUsed - offset >= sectors) {
+                break;
+            }
+            offset = usedSectors.nextClearBit(nextUsed);
+        }
+
+        if (offset + sectors > sectorCount) {
+            // grown by a quarter at a time, so appending many chunks doesn't remap for each one
+            remap(Math.max(offset + sectors, sectorCount + sectorCount / 4));
+        }
+
+        usedSectors.set(offset, offset + sectors);
+        return offset;
+    }
+
+    @Override
+    public boolean removeChunk(final int chunkX, final int chunkZ) throws IOException {
+
+        final boolean wasExternal;
+        lock.writeLock().lock();
+        try {
+            checkWritable();
+
+            final int index = index(chunkX, chunkZ);
+            final int location = locations.get(index);
+            if (location == 0) {
+                return false;
+            }
+
+            wasExternal = free(location);
+            locations.put(index, 0);
+            timestamps.put(index, 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (wasExternal) {
+            Files.deleteIfExists(externalPath(chunkX, chunkZ));
+        }
+        return true;
+    }
+
+    @Override
+    public void flush() {
+
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            if (!readOnly) {
+                mapped.force();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (!readOnly) {
+                mapped.force();
+            }
+            closed = true;
+            // the mapping itself is released once it is garbage collected
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * The region files of a world's {@code region} directory, opened as chunks in them are accessed
+ * and kept open until the storage is closed.
+ * <p>
+ * Region storages are safe to use from multiple threads, so large areas can be loaded by reading
+ * and decoding chunks in parallel.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ * @see RegionFile
+ */
+public interface RegionStorage extends Closeable {
+
+    /**
+     * Opens a directory of region files for reading and writing, creating it if it doesn't exist.
+     *
+     * @param directory The directory.
+     * @return The region storage.
+     * @throws NullPointerException if directory is {@code null}.
+     * @throws IOException if the directory couldn't be created.
+     * @since 1.0.0
+     */
+    static @NotNull RegionStorage open(final @NotNull Path directory) throws IOException {
+
+        return new RegionStorageImpl(directory, false);
+    }
+
+    /**
+     * Opens a directory of region files for reading.
+     *
+     * @param directory The directory.
+     * @return The region storage.
+     * @throws NullPointerException if directory is {@code null}.
+     * @throws IOException if an io exception occurred.
+     * @since 1.0.0
+     */
+    static @NotNull RegionStorage openReadOnly(final @NotNull Path directory) throws IOException {
+
+        return new RegionStorageImpl(directory, true);
+    }
+
+    /**
+     * Opens a stream of the specified chunk's uncompressed NBT.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @return The stream, or an empty optional if the chunk isn't stored.
+     * @throws IOException if the chunk's region file couldn't be opened or the chunk couldn't be
+     *         read.
+     * @throws IllegalStateException if the storage has been closed.
+     * @see RegionFile#readChunk(int, int)
+     * @since 1.0.0
+     */
+    @NotNull Optional<InputStream> readChunk(int chunkX, int chunkZ) throws IOException;
+
+    /**
+     * Compresses and writes the specified chunk, replacing any chunk already stored in its place.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @param data The chunk's uncompressed NBT.
+     * @throws NullPointerException if data is {@code null}.
+     * @throws IOException if the chunk's region file couldn't be opened or the chunk couldn't be
+     *         written.
+     * @throws IllegalStateException if the storage is read-only or has been closed.
+     * @since 1.0.0
+     */
+    void writeChunk(int chunkX, int chunkZ, byte @NotNull [] data) throws IOException;
+
+    /**
+     * Removes the specified chunk.
+     *
+     * @param chunkX The chunk's x coordinate.
+     * @param chunkZ The chunk's z coordinate.
+     * @return {@code true} if a chunk was removed, otherwise {@code false}.
+     * @throws IOException if the chunk's region file couldn't be opened or the chunk couldn't be
+     *         removed.
+     * @throws IllegalStateException if the storage is read-only or has been closed.
+     * @since 1.0.0
+     */
+    boolean removeChunk(int chunkX, int chunkZ) throws IOException;
+
+    /**
+     * Writes any changes to every open region file to the storage device.
+     *
+     * @throws IllegalStateException if the storage has been closed.
+     * @since 1.0.0
+     */
+    void flush();
+}
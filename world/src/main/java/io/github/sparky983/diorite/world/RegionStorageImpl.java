@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class RegionStorageImpl implements RegionStorage {
+
+    private final Path directory;
+    private final boolean readOnly;
+    private final Map<Long, RegionFile> regionFiles = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+
+    RegionStorageImpl(final @NotNull Path directory, final boolean readOnly) throws IOException {
+
+        Preconditions.requireNotNull(directory, "directory");
+
+        this.directory = directory;
+        this.readOnly = readOnly;
+
+        if (!readOnly) {
+            Files.createDirectories(directory);
+        }
+    }
+
+    /**
+     * Returns the region file holding the specified chunk, opening it if needed, or {@code null}
+     * if the storage is read-only and the file doesn't exist.
+     */
+    private @Nullable RegionFile getRegionFile(final int chunkX, final int chunkZ)
+            throws IOException {
+
+        if (closed) {
+            throw new IllegalStateException("The region storage has been closed");
+        }
+
+        final long key = (long) (chunkX >> 5) << 32 | ((chunkZ >> 5) & 0xFFFFFFFFL);
+        final RegionFile regionFile = regionFiles.get(key);
+        if (regionFile != null) {
+            return regionFile;
+        }
+
+        final Path path = directory.resolve(RegionFile.getFileName(chunkX, chunkZ));
+        if (readOnly && !Files.exists(path)) {
+            return null;
+        }
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("The region storage has been closed");
+            }
+            // opened under the lock, so a region file is never opened twice
+            final RegionFile opened = regionFiles.get(key);
+            if (opened != null) {
+                return opened;
+            }
+            final RegionFile created = readOnly
+                    ? RegionFile.openReadOnly(path)
+                    : RegionFile.open(path);
+            regionFiles.put(key, created);
+            return created;
+        }
+    }
+
+    @Override
+    public @NotNull Optional<InputStream> readChunk(final int chunkX, final int chunkZ)
+            throws IOException {
+
+        final RegionFile regionFile = getRegionFile(chunkX, chunkZ);
+        if (regionFile == null) {
+            return Optional.empty();
+        }
+        return regionFile.readChunk(chunkX, chunkZ);
+    }
+
+    @Override
+    public void writeChunk(final int chunkX, final int chunkZ, final byte @NotNull [] data)
+            throws IOException {
+
+        Preconditions.requireNotNull(data, "data");
+
+        if (readOnly) {
+            throw new IllegalStateException("The region storage is read-only");
+        }
+        getRegionFile(chunkX, chunkZ).writeChunk(chunkX, chunkZ, data);
+    }
+
+    @Override
+    public boolean removeChunk(final int chunkX, final int chunkZ) throws IOException {
+
+        if (readOnly) {
+            throw new IllegalStateException("The region storage is read-only");
+        }
+        return getRegionFile(chunkX, chunkZ).removeChunk(chunkX, chunkZ);
+    }
+
+    @Override
+    public void flush() {
+
+        if (closed) {
+            throw new IllegalStateException("The region storage has been closed");
+        }
+        for (final RegionFile regionFile : regionFiles.values()) {
+            regionFile.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        IOException exception = null;
+        for (final RegionFile regionFile : regionFiles.values()) {
+            try {
+                regionFile.close();
+            } catch (final IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        regionFiles.clear();
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out blocks of direct memory carved from large slabs.
+ * <p>
+ * Block sizes are rounded up to a size class, with four classes per power of two so no more than
+ * a fifth of a block is wasted, and freed blocks are kept on a free list for their class to be
+ * reused. Slabs are never returned to the system until the allocator is closed. Blocks larger
+ * than a slab get a direct buffer of their own, which is released by the garbage collector once
+ * freed.
+ */
+final class SlabAllocator {
+
+    private static final int MIN_BLOCK_SIZE = 64;
+
+    private final int slabSize;
+    private final Map<Integer, ArrayDeque<ByteBuffer>> freeBlocks = new HashMap<>();
+
+    private ByteBuffer slab;
+    private long reservedBytes;
+    private long allocatedBytes;
+
+    @Contract(pure = true)
+    SlabAllocator(final int slabSize) {
+
+        this.slabSize = slabSize;
+    }
+
+    /**
+     * Returns the size class the specified size is rounded up to.
+     */
+    static int sizeClass(final int size) {
+
+        if (size <= MIN_BLOCK_SIZE) {
+            return MIN_BLOCK_SIZE;
+        }
+        final int step = Integer.highestOneBit(size - 1) >> 2;
+        return (size + step - 1) & -step;
+    }
+
+    /**
+     * Allocates a zeroed or previously freed block of at least the specified size. The block's
+     * capacity is its size class.
+     */
+    synchronized @NotNull ByteBuffer allocate(final int size) {
+
+        final int sizeClass = sizeClass(size);
+
+        if (sizeClass > slabSize) {
+            reservedBytes += sizeClass;
+            allocatedBytes += sizeClass;
+            return ByteBuffer.allocateDirect(sizeClass);
+        }
+
+        final ArrayDeque<ByteBuffer> free = freeBlocks.get(sizeClass);
+        if (free != null && !free.isEmpty()) {
+            allocatedBytes += sizeClass;
+            return free.pop();
+        }
+
+        if (slab == null || slab.remaining() < sizeClass) {
+            // the rest of the old slab is too small for this block, but is kept for smaller ones
+            if (slab != null) {
+                freeRemainder();
+            }
+            slab = ByteBuffer.allocateDirect(slabSize);
+            reservedBytes += slabSize;
+        }
+
+        final ByteBuffer block = slab.duplicate();
+        block.limit(block.position() + sizeClass);
+        slab.position(slab.position() + sizeClass);
+        allocatedBytes += sizeClass;
+        return block.slice();
+    }
+
+    private void freeRemainder() {
+
+        while (slab.remaining() >= MIN_BLOCK_SIZE) {
+            // the largest size class that fits, which is never more than the remainder
+            int sizeClass = sizeClass(slab.remaining());
+            while (sizeClass > slab.remaining()) {
+                sizeClass = sizeClass(sizeClass - (Integer.highestOneBit(sizeClass - 1) >> 2));
+            }
+
+            final ByteBuffer block = slab.duplicate();
+            block.limit(block.position() + sizeClass);
+            slab.position(slab.position() + sizeClass);
+            freeBlocks.computeIfAbsent(sizeClass, (ignored) -> new ArrayDeque<>())
+                    .push(block.slice());
+        }
+    }
+
+    /**
+     * Frees a block returned by {@link #allocate(int)}. The block must not be used afterwards.
+     */
+    synchronized void free(final @NotNull ByteBuffer block) {
+
+        final int sizeClass = block.capacity();
+        allocatedBytes -= sizeClass;
+
+        if (sizeClass > slabSize) {
+            reservedBytes -= sizeClass;
+            return;
+        }
+        freeBlocks.computeIfAbsent(sizeClass, (ignored) -> new ArrayDeque<>()).push(block);
+    }
+
+    /**
+     * Returns the number of bytes of direct memory reserved by the allocator.
+     */
+    synchronized long getReservedBytes() {
+
+        return reservedBytes;
+    }
+
+    /**
+     * Returns the number of bytes in blocks that haven't been freed.
+     */
+    synchronized long getAllocatedBytes() {
+
+        return allocatedBytes;
+    }
+
+    /**
+     * Drops every slab and free list. No block may be used afterwards.
+     */
+    synchronized void clear() {
+
+        freeBlocks.clear();
+        slab = null;
+        reservedBytes = 0;
+        allocatedBytes = 0;
+    }
+}
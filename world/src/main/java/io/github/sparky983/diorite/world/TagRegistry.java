@@ -0,0 +1,146 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The tags the server has sent, grouped by the registry their entries belong to.
+ * <p>
+ * Each tag's entries are stored as a bitset over the registry's id space, so membership is a
+ * single bit test. Tags too sparse for a bitset to be smaller than their entries are stored as a
+ * sorted array instead. Resolving a {@link Tag} once with
+ * {@link #getTag(Identifier, Identifier)} and keeping it skips the lookups in tight loops. The tags
+ * of each id are indexed too.
+ *
+ * @author Sparky983
+ * @since 1.0.0
+ */
+public interface TagRegistry {
+
+    /**
+     * The highest id a tag may contain. The largest vanilla registries have a few thousand
+     * entries.
+     *
+     * @since 1.0.0
+     */
+    int MAX_ID = 0xFFFF;
+
+    /**
+     * Creates a tag registry from each registry's tags and their entries.
+     *
+     * @param tags The entries of each tag, by registry then tag name.
+     * @return The tag registry.
+     * @throws NullPointerException if tags or any of its keys or values are {@code null}.
+     * @throws IllegalArgumentException if an entry is negative or greater than {@link #MAX_ID}.
+     * @since 1.0.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    static @NotNull TagRegistry of(
+            final @NotNull Map<@NotNull Identifier, ? extends @NotNull Map<@NotNull Identifier,
+                    int @NotNull []>> tags) {
+
+        return new TagRegistryImpl(tags);
+    }
+
+    /**
+     * Returns the tag with the specified name.
+     *
+     * @param registry The registry the tag's entries belong to, {@code minecraft:block} for
+     *         example.
+     * @param name The name of the tag.
+     * @return The tag, or an empty optional if there is no such tag.
+     * @throws NullPointerException if registry or name are {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @NotNull Optional<Tag> getTag(@NotNull Identifier registry, @NotNull Identifier name);
+
+    /**
+     * Returns whether the tag with the specified name contains the specified id.
+     *
+     * @param registry The registry the tag's entries belong to.
+     * @param name The name of the tag.
+     * @param id The id.
+     * @return Whether the tag contains the id, {@code false} if there is no such tag.
+     * @throws NullPointerException if registry or name are {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    boolean contains(@NotNull Identifier registry, @NotNull Identifier name, int id);
+
+    /**
+     * Returns the names of the tags in the specified registry that contain the specified id.
+     *
+     * @param registry The registry.
+     * @param id The id.
+     * @return The names of the tags.
+     * @throws NullPointerException if registry is {@code null}.
+     * @since 1.0.0
+     */
+    @Contract(pure = true)
+    @Unmodifiable @NotNull Set<@NotNull Identifier> getTags(@NotNull Identifier registry, int id);
+
+    /**
+     * A tag, a named set of ids from a registry.
+     *
+     * @author Sparky983
+     * @since 1.0.0
+     */
+    interface Tag {
+
+        /**
+         * Returns the registry the tag's entries belong to.
+         *
+         * @since 1.0.0
+         */
+        @Contract(pure = true)
+        @NotNull Identifier getRegistry();
+
+        /**
+         * Returns the name.
+         *
+         * @since 1.0.0
+         */
+        @Contract(pure = true)
+        @NotNull Identifier getName();
+
+        /**
+         * Returns whether the tag contains the specified id.
+         *
+         * @param id The id.
+         * @return Whether the tag contains the id.
+         * @since 1.0.0
+         */
+        @Contract(pure = true)
+        boolean contains(int id);
+
+        /**
+         * Returns the number of ids in the tag.
+         *
+         * @since 1.0.0
+         */
+        @Contract(pure = true)
+        int size();
+    }
+}
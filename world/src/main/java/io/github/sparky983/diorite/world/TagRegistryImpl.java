@@ -0,0 +1,211 @@
+/*
+ * Copyright 2022 Sparky
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite.world;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import io.github.sparky983.diorite.util.Preconditions;
+
+final class TagRegistryImpl implements TagRegistry {
+
+    private final Map<Identifier, Registry> registries;
+
+    TagRegistryImpl(final @NotNull Map<@NotNull Identifier,
+            ? extends @NotNull Map<@NotNull Identifier, int @NotNull []>> tags) {
+
+        Preconditions.requireNotNull(tags, "tags");
+
+        final Map<Identifier, Registry> registries = new HashMap<>();
+        tags.forEach((registry, registryTags) -> {
+            Preconditions.requireNotNull(registry, "registry");
+            Preconditions.requireNotNull(registryTags, "tags of " + registry);
+            registries.put(registry, new Registry(registry, registryTags));
+        });
+        this.registries = registries;
+    }
+
+    @Override
+    public @NotNull Optional<Tag> getTag(final @NotNull Identifier registry,
+            final @NotNull Identifier name) {
+
+        Preconditions.requireNotNull(registry, "registry");
+        Preconditions.requireNotNull(name, "name");
+
+        final Registry tags = registries.get(registry);
+        if (tags == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(tags.tags.get(name));
+    }
+
+    @Override
+    public boolean contains(final @NotNull Identifier registry,
+            final @NotNull Identifier name,
+            final int id) {
+
+        Preconditions.requireNotNull(registry, "registry");
+        Preconditions.requireNotNull(name, "name");
+
+        final Registry tags = registries.get(registry);
+        if (tags == null) {
+            return false;
+        }
+
+        final TagImpl tag = tags.tags.get(name);
+        return tag != null && tag.contains(id);
+    }
+
+    @Override
+    public @NotNull Set<@NotNull Identifier> getTags(final @NotNull Identifier registry,
+            final int id) {
+
+        Preconditions.requireNotNull(registry, "registry");
+
+        final Registry tags = registries.get(registry);
+        if (tags == null) {
+            return Set.of();
+        }
+        final int index = Arrays.binarySearch(tags.ids, id);
+        return index < 0 ? Set.of() : tags.tagsByIndex.get(index);
+    }
+
+    private static final class Registry {
+
+        private final Map<Identifier, TagImpl> tags;
+        // every id in a tag in ascending order, so the index only grows with the entries
+        private final int[] ids;
+        // the tags of each id, ids in the same tags share one set
+        private final List<Set<Identifier>> tagsByIndex;
+
+        Registry(final @NotNull Identifier registry,
+                final @NotNull Map<@NotNull Identifier, int @NotNull []> registryTags) {
+
+            final Map<Identifier, TagImpl> tags = new HashMap<>();
+            final Map<Integer, List<Identifier>> tagsById = new HashMap<>();
+
+            registryTags.forEach((name, entries) -> {
+                Preconditions.requireNotNull(name, "name");
+                Preconditions.requireNotNull(entries, "entries of " + name);
+
+                final BitSet ids = new BitSet();
+                for (final int id : entries) {
+                    if (id < 0) {
+                        throw new IllegalArgumentException(name + " has a negative entry");
+                    }
+                    if (id > MAX_ID) {
+                        throw new IllegalArgumentException(
+                                name + " has an entry greater than " + MAX_ID + ": " + id);
+                    }
+                    if (ids.get(id)) {
+                        continue;
+                    }
+                    ids.set(id);
+                    tagsById.computeIfAbsent(id, (key) -> new ArrayList<>(1)).add(name);
+                }
+                tags.put(name, new TagImpl(registry, name, ids));
+            });
+            this.tags = tags;
+
+            this.ids = tagsById.keySet()
+                    .stream()
+                    .mapToInt(Integer::intValue)
+                    .sorted()
+                    .toArray();
+            final Map<List<Identifier>, Set<Identifier>> sharedSets = new HashMap<>();
+            final List<Set<Identifier>> tagsByIndex = new ArrayList<>(ids.length);
+            for (final int id : ids) {
+                tagsByIndex.add(sharedSets.computeIfAbsent(tagsById.get(id), Set::copyOf));
+            }
+            this.tagsByIndex = tagsByIndex;
+        }
+    }
+
+    private static final class TagImpl implements Tag {
+
+        private final Identifier registry;
+        private final Identifier name;
+        // exactly one of these is set, a bitset unless it would take more than a long per id
+        private final long @Nullable [] bits;
+        private final int @Nullable [] sortedIds;
+        private final int size;
+
+        TagImpl(final @NotNull Identifier registry,
+                final @NotNull Identifier name,
+                final @NotNull BitSet ids) {
+
+            this.registry = registry;
+            this.name = name;
+            this.size = ids.cardinality();
+            final int words = (ids.length() + Long.SIZE - 1) / Long.SIZE;
+            if (words <= size) {
+                this.bits = ids.toLongArray();
+                this.sortedIds = null;
+            } else {
+                this.bits = null;
+                this.sortedIds = ids.stream().toArray();
+            }
+        }
+
+        @Override
+        public @NotNull Identifier getRegistry() {
+
+            return registry;
+        }
+
+        @Override
+        public @NotNull Identifier getName() {
+
+            return name;
+        }
+
+        @Override
+        public boolean contains(final int id) {
+
+            if (bits == null) {
+                return Arrays.binarySearch(sortedIds, id) >= 0;
+            }
+            final int word = id >>> 6;
+            // a negative id has its top bit set, so its word is always out of range
+            return word < bits.length && (bits[word] & 1L << id) != 0;
+        }
+
+        @Override
+        public int size() {
+
+            return size;
+        }
+
+        @Override
+        public @NotNull String toString() {
+
+            return "Tag{registry=" + registry + ", name=" + name + ", ids="
+                    + Arrays.toString(bits == null
+                    ? sortedIds
+                    : BitSet.valueOf(bits).stream().toArray()) + "}";
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.github.sparky983.diorite.world.Chunk;
+import io.github.sparky983.diorite.world.ChunkDecoder;
+
+class ChunkDecoderTest {
+
+    private static final int MIN_Y = -64;
+    private static final int WORLD_HEIGHT = 384;
+    private static final int SECTIONS = WORLD_HEIGHT / 16;
+
+    private static ExecutorService executor;
+
+    @BeforeAll
+    static void setUp() {
+
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the expected block state, which is always in the palette of section {@code i}.
+     */
+    private static int blockState(final int section, final int index) {
+
+        return section * 100 + (index * 7 + section) % 20;
+    }
+
+    private static int biome(final int section, final int index) {
+
+        return section + index % 3;
+    }
+
+    private static byte[] chunkData(final boolean singleValued) {
+
+        try (final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+             final DataOutputStream out = new DataOutputStream(bytes)) {
+            for (int section = 0; section < SECTIONS; section++) {
+                out.writeShort(section == 0 ? 0 : 4096);
+
+                if (singleValued) {
+                    out.writeByte(0);
+                    writeVarInt(out, section);
+                    writeVarInt(out, 0);
+                } else {
+                    // 5 bits per entry: 12 entries per long, the last 4 bits of each are unused
+                    out.writeByte(5);
+                    writeVarInt(out, 20);
+                    for (int i = 0; i < 20; i++) {
+                        writeVarInt(out, section * 100 + i);
+                    }
+                    writeVarInt(out, 342);
+                    for (int l = 0; l < 342; l++) {
+                        long value = 0;
+                        for (int j = 0; j < 12 && l * 12 + j < 4096; j++) {
+                            value |= (long) ((l * 12 + j) * 7 + section) % 20 << j * 5;
+                        }
+                        out.writeLong(value);
+                    }
+                }
+
+                // 2 bits per entry: 32 entries per long
+                out.writeByte(2);
+                writeVarInt(out, 3);
+                for (int i = 0; i < 3; i++) {
+                    writeVarInt(out, section + i);
+                }
+                writeVarInt(out, 2);
+                for (int l = 0; l < 2; l++) {
+                    long value = 0;
+                    for (int j = 0; j < 32; j++) {
+                        value |= (long) ((l * 32 + j) % 3) << j * 2;
+                    }
+                    out.writeLong(value);
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeVarInt(final DataOutputStream out, int value) throws IOException {
+
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static void assertChunk(final Chunk chunk) {
+
+        assertEquals(3, chunk.getChunkX());
+        assertEquals(-2, chunk.getChunkZ());
+        assertEquals(SECTIONS, chunk.getSectionCount());
+        assertTrue(chunk.getSection(0).isEmpty());
+
+        for (int section = 0; section < SECTIONS; section++) {
+            final int[] blockStates = chunk.getSection(section).getBlockStates();
+            for (int index = 0; index < 4096; index++) {
+                assertEquals(blockState(section, index), blockStates[index]);
+                final int x = index & 15;
+                final int z = (index >> 4) & 15;
+                final int y = MIN_Y + section * 16 + (index >> 8);
+                assertEquals(blockState(section, index), chunk.getBlockState(x, y, z));
+            }
+            for (int index = 0; index < 64; index++) {
+                assertEquals(biome(section, index), chunk.getSection(section)
+                        .getBiome(index & 3, index >> 4, (index >> 2) & 3));
+            }
+        }
+    }
+
+    @Test
+    void decode_DecodesIndirectPalettes_WhenSequential() {
+
+        final ByteBuffer data = ByteBuffer.wrap(chunkData(false));
+
+        assertChunk(ChunkDecoder.sequential().decode(3, -2, MIN_Y, WORLD_HEIGHT, data));
+        assertEquals(0, data.position());
+    }
+
+    @Test
+    void decode_DecodesIndirectPalettes_WhenParallel() {
+
+        final byte[] data = chunkData(false);
+        assertTrue(data.length >= ChunkDecoder.PARALLEL_THRESHOLD);
+
+        assertChunk(ChunkDecoder.parallel(executor)
+                .decode(3, -2, MIN_Y, WORLD_HEIGHT, ByteBuffer.wrap(data)));
+    }
+
+    @Test
+    void decodeAsync_CompletesWithChunk() {
+
+        final Chunk chunk = ChunkDecoder.parallel(executor)
+                .decodeAsync(3, -2, MIN_Y, WORLD_HEIGHT, ByteBuffer.wrap(chunkData(false)))
+                .join();
+
+        assertChunk(chunk);
+    }
+
+    @Test
+    void decode_DecodesSingleValuedPalettes() {
+
+        final Chunk chunk = ChunkDecoder.parallel(executor)
+                .decode(0, 0, MIN_Y, WORLD_HEIGHT, ByteBuffer.wrap(chunkData(true)));
+
+        assertEquals(SECTIONS, chunk.getSectionCount());
+        assertEquals(5, chunk.getBlockState(15, MIN_Y + 5 * 16 + 15, 0));
+        assertEquals(SECTIONS - 1, chunk.getBlockState(0, MIN_Y + WORLD_HEIGHT - 1, 0));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> chunk.getBlockState(0, MIN_Y + WORLD_HEIGHT, 0));
+    }
+
+    @Test
+    void decode_Throws_WhenDataEndsEarly() {
+
+        final byte[] data = chunkData(false);
+        final ByteBuffer truncated = ByteBuffer.wrap(data, 0, data.length - 100);
+
+        assertThrows(IllegalArgumentException.class, () -> ChunkDecoder.sequential()
+                .decode(0, 0, MIN_Y, WORLD_HEIGHT, truncated));
+        assertThrows(IllegalArgumentException.class, () -> ChunkDecoder.parallel(executor)
+                .decode(0, 0, MIN_Y, WORLD_HEIGHT, truncated));
+    }
+
+    @Test
+    void decodeAsync_CompletesExceptionally_WhenDataEndsEarly() {
+
+        final byte[] data = chunkData(false);
+        final ByteBuffer truncated = ByteBuffer.wrap(data, 0, data.length - 100);
+
+        final CompletionException e = assertThrows(CompletionException.class,
+                () -> ChunkDecoder.parallel(executor)
+                        .decodeAsync(0, 0, MIN_Y, WORLD_HEIGHT, truncated)
+                        .join());
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void decodeAsync_CompletesExceptionally_WhenSequentialAndDataEndsEarly() {
+
+        final byte[] data = chunkData(false);
+        final ByteBuffer truncated = ByteBuffer.wrap(data, 0, data.length - 100);
+
+        final CompletableFuture<Chunk> future = ChunkDecoder.sequential()
+                .decodeAsync(0, 0, MIN_Y, WORLD_HEIGHT, truncated);
+
+        assertTrue(future.isCompletedExceptionally());
+        final CompletionException e = assertThrows(CompletionException.class, future::join);
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void decode_Throws_WhenWorldHeightIsNotAMultipleOf16() {
+
+        assertThrows(IllegalArgumentException.class, () -> ChunkDecoder.sequential()
+                .decode(0, 0, MIN_Y, 100, ByteBuffer.wrap(chunkData(true))));
+    }
+}
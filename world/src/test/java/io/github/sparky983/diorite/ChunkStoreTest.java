@@ -0,0 +1,380 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import io.github.sparky983.diorite.world.Chunk;
+import io.github.sparky983.diorite.world.ChunkDecoder;
+import io.github.sparky983.diorite.world.ChunkSection;
+import io.github.sparky983.diorite.world.ChunkStore;
+
+class ChunkStoreTest {
+
+    private static final int MIN_Y = -64;
+    private static final int WORLD_HEIGHT = 384;
+    private static final int SECTIONS = WORLD_HEIGHT / 16;
+
+    /**
+     * Decodes a chunk where even sections are a single block state and odd sections have a 4-bit
+     * palette.
+     */
+    private static Chunk chunk(final int chunkX, final int chunkZ) {
+
+        try (final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+             final DataOutputStream out = new DataOutputStream(bytes)) {
+            for (int section = 0; section < SECTIONS; section++) {
+                out.writeShort(4096);
+
+                if (section % 2 == 0) {
+                    out.writeByte(0);
+                    out.writeByte(section + chunkX);
+                    out.writeByte(0);
+                } else {
+                    out.writeByte(4);
+                    out.writeByte(16);
+                    for (int i = 0; i < 16; i++) {
+                        out.writeByte(section + i);
+                    }
+                    out.writeByte(0x80);
+                    out.writeByte(0x02); // 256 longs
+                    for (int l = 0; l < 256; l++) {
+                        out.writeLong(0xFEDCBA9876543210L + l + chunkZ);
+                    }
+                }
+
+                out.writeByte(0);
+                out.writeByte(section);
+                out.writeByte(0);
+            }
+            out.flush();
+            return ChunkDecoder.sequential().decode(chunkX, chunkZ, MIN_Y, WORLD_HEIGHT,
+                    ByteBuffer.wrap(bytes.toByteArray()));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void assertSameBlocks(final Chunk expected, final Chunk actual) {
+
+        assertEquals(expected.getChunkX(), actual.getChunkX());
+        assertEquals(expected.getChunkZ(), actual.getChunkZ());
+        assertEquals(expected.getSectionCount(), actual.getSectionCount());
+
+        for (int section = 0; section < expected.getSectionCount(); section++) {
+            assertArrayEquals(expected.getSection(section).getBlockStates(),
+                    actual.getSection(section).getBlockStates());
+            assertArrayEquals(expected.getSection(section).getBiomes(),
+                    actual.getSection(section).getBiomes());
+        }
+        for (int y = MIN_Y; y < MIN_Y + WORLD_HEIGHT; y += 7) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    assertEquals(expected.getBlockState(x, y, z), actual.getBlockState(x, y, z));
+                    assertEquals(expected.getBiome(x, y, z), actual.getBiome(x, y, z));
+                }
+            }
+        }
+    }
+
+    @Test
+    void getChunk_ReturnsSameBlocks_WhenOffHeap() {
+
+        final Chunk chunk = chunk(4, -9);
+
+        try (final ChunkStore store = ChunkStore.offHeap()) {
+            store.put(chunk);
+
+            assertSameBlocks(chunk, store.getChunk(4, -9).orElseThrow());
+            assertTrue(store.getChunk(-9, 4).isEmpty());
+            assertTrue(store.getOffHeapBytes() > 0);
+        }
+    }
+
+    @Test
+    void put_ReencodesOtherSectionImplementations() {
+
+        final Chunk chunk = chunk(0, 0);
+
+        try (final ChunkStore first = ChunkStore.offHeap();
+             final ChunkStore second = ChunkStore.offHeap()) {
+            first.put(chunk);
+            // the first store's chunk is backed by its own memory, so it is copied
+            second.put(first.getChunk(0, 0).orElseThrow());
+            first.remove(0, 0);
+
+            assertSameBlocks(chunk, second.getChunk(0, 0).orElseThrow());
+        }
+    }
+
+    @Test
+    void put_StoresDirectPalettes() {
+
+        final ChunkSection section = new ChunkSection() {
+            @Override
+            public int getBlockCount() {
+
+                return 4096;
+            }
+
+            @Override
+            public boolean isEmpty() {
+
+                return false;
+            }
+
+            @Override
+            public int getBlockState(final int x, final int y, final int z) {
+
+                return (y << 8 | z << 4 | x) * 5;
+            }
+
+            @Override
+            public int getBiome(final int x, final int y, final int z) {
+
+                return 0;
+            }
+
+            @Override
+            public int[] getBlockStates() {
+
+                final int[] blockStates = new int[4096];
+                for (int i = 0; i < blockStates.length; i++) {
+                    blockStates[i] = i * 5;
+                }
+                return blockStates;
+            }
+
+            @Override
+            public int[] getBiomes() {
+
+                return new int[64];
+            }
+        };
+        final Chunk chunk = chunk(1, 1);
+        final Chunk custom = new Chunk() {
+            @Override
+            public int getChunkX() {
+
+                return 1;
+            }
+
+            @Override
+            public int getChunkZ() {
+
+                return 1;
+            }
+
+            @Override
+            public int getMinY() {
+
+                return MIN_Y;
+            }
+
+            @Override
+            public int getWorldHeight() {
+
+                return WORLD_HEIGHT;
+            }
+
+            @Override
+            public int getSectionCount() {
+
+                return SECTIONS;
+            }
+
+            @Override
+            public ChunkSection getSection(final int index) {
+
+                return index == 3 ? section : chunk.getSection(index);
+            }
+
+            @Override
+            public int getBlockState(final int x, final int y, final int z) {
+
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int getBiome(final int x, final int y, final int z) {
+
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public byte[] encode() {
+
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        try (final ChunkStore store = ChunkStore.offHeap()) {
+            store.put(custom);
+            final Chunk stored = store.getChunk(1, 1).orElseThrow();
+
+            assertArrayEquals(section.getBlockStates(), stored.getSection(3).getBlockStates());
+            assertEquals(20475, stored.getBlockState(15, MIN_Y + 3 * 16 + 15, 15));
+            assertArrayEquals(chunk.getSection(4).getBlockStates(),
+                    stored.getSection(4).getBlockStates());
+        }
+    }
+
+    @Test
+    void remove_FreesMemoryForReuse() {
+
+        try (final ChunkStore store = ChunkStore.offHeap(64 * 1024)) {
+            for (int i = 0; i < 16; i++) {
+                store.put(chunk(i, 0));
+            }
+            final long reserved = store.getOffHeapBytes();
+
+            for (int round = 0; round < 10; round++) {
+                for (int i = 0; i < 16; i++) {
+                    assertTrue(store.remove(i, 0));
+                    store.put(chunk(i, 0));
+                }
+            }
+
+            assertEquals(16, store.size());
+            assertEquals(reserved, store.getOffHeapBytes());
+            assertFalse(store.remove(100, 100));
+        }
+    }
+
+    @Test
+    void getBlockState_Throws_WhenChunkWasRemoved() {
+
+        try (final ChunkStore store = ChunkStore.offHeap()) {
+            store.put(chunk(0, 0));
+            final Chunk chunk = store.getChunk(0, 0).orElseThrow();
+
+            store.remove(0, 0);
+
+            assertThrows(IllegalStateException.class, () -> chunk.getBlockState(0, 0, 0));
+            assertTrue(store.getChunk(0, 0).isEmpty());
+        }
+    }
+
+    @Test
+    void put_FreesReplacedChunk() {
+
+        try (final ChunkStore store = ChunkStore.offHeap(64 * 1024)) {
+            store.put(chunk(0, 0));
+            final Chunk replaced = store.getChunk(0, 0).orElseThrow();
+            final long reserved = store.getOffHeapBytes();
+
+            for (int round = 0; round < 100; round++) {
+                store.put(chunk(0, 0));
+            }
+
+            assertThrows(IllegalStateException.class, () -> replaced.getBlockState(0, 0, 0));
+            assertThrows(IllegalStateException.class, () -> replaced.getSection(0));
+            assertEquals(reserved, store.getOffHeapBytes());
+            assertSameBlocks(chunk(0, 0), store.getChunk(0, 0).orElseThrow());
+        }
+    }
+
+    @Test
+    void getBlockStates_NeverReadsAnotherChunk_WhenReplacedConcurrently() throws Exception {
+
+        final Chunk other = chunk(1, 1);
+        // both chunks are stored at 0, 0 but their blocks differ
+        final Chunk[] expected = {
+                chunk(0, 0),
+                Chunk.of(0, 0, MIN_Y, WORLD_HEIGHT, IntStream.range(0, SECTIONS)
+                        .mapToObj(other::getSection)
+                        .collect(Collectors.toList()))
+        };
+        final int[][] blockStates = {
+                expected[0].getSection(1).getBlockStates(),
+                expected[1].getSection(1).getBlockStates()
+        };
+
+        try (final ChunkStore store = ChunkStore.offHeap(64 * 1024)) {
+            store.put(expected[0]);
+            final AtomicBoolean running = new AtomicBoolean(true);
+            final Thread writer = new Thread(() -> {
+                int round = 0;
+                while (running.get()) {
+                    store.put(expected[++round & 1]);
+                }
+            });
+            writer.start();
+
+            try {
+                final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+                while (System.nanoTime() < deadline) {
+                    final Chunk chunk = store.getChunk(0, 0).orElseThrow();
+                    final ChunkSection section;
+                    final int[] read;
+                    try {
+                        section = chunk.getSection(1);
+                        read = section.getBlockStates();
+                    } catch (final IllegalStateException e) {
+                        continue; // replaced before the read started
+                    }
+                    assertTrue(Arrays.equals(blockStates[0], read)
+                            || Arrays.equals(blockStates[1], read));
+                }
+            } finally {
+                running.set(false);
+                writer.join();
+            }
+        }
+    }
+
+    @Test
+    void put_Throws_WhenClosed() {
+
+        final ChunkStore store = ChunkStore.offHeap();
+        store.close();
+
+        assertThrows(IllegalStateException.class, () -> store.put(chunk(0, 0)));
+    }
+
+    @Test
+    void getChunk_ReturnsSameChunk_WhenOnHeap() {
+
+        final Chunk chunk = chunk(2, 3);
+
+        try (final ChunkStore store = ChunkStore.onHeap()) {
+            store.put(chunk);
+
+            assertEquals(chunk, store.getChunk(2, 3).orElseThrow());
+            assertEquals(0, store.getOffHeapBytes());
+            assertTrue(store.remove(2, 3));
+            assertEquals(0, store.size());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+
+import io.github.sparky983.diorite.world.Heightmap;
+
+class HeightmapTest {
+
+    private static final int MIN_Y = -64;
+    private static final int WORLD_HEIGHT = 384;
+
+    static List<Integer> provideWorldHeights() {
+
+        return List.of(1, 15, 16, 255, 256, 384, 4064);
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideWorldHeights")
+    void getHeight_ReturnsSetHeight_ForEveryColumn(final int worldHeight) {
+
+        final Heightmap heightmap = Heightmap.empty(Heightmap.Type.WORLD_SURFACE, 0, worldHeight);
+
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                heightmap.setHeight(x, z, (x * 31 + z * 17) % (worldHeight + 1));
+            }
+        }
+
+        final int[] heights = heightmap.getHeights();
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                assertEquals((x * 31 + z * 17) % (worldHeight + 1), heightmap.getHeight(x, z));
+                assertEquals(heightmap.getHeight(x, z), heights[z << 4 | x]);
+            }
+        }
+    }
+
+    @Test
+    void of_UsesProtocolLayout() {
+
+        // 9 bits per entry, 7 entries per long and the top bit left unused
+        final long[] data = new long[37];
+        data[0] = 5L | 6L << 9 | 7L << 54;
+        data[36] = 200L << 27;
+
+        final Heightmap heightmap = Heightmap.of(Heightmap.Type.MOTION_BLOCKING, MIN_Y,
+                WORLD_HEIGHT, data);
+
+        assertEquals(MIN_Y + 5, heightmap.getHeight(0, 0));
+        assertEquals(MIN_Y + 6, heightmap.getHeight(1, 0));
+        assertEquals(MIN_Y + 7, heightmap.getHeight(6, 0));
+        assertEquals(MIN_Y + 200, heightmap.getHeight(15, 15));
+        assertArrayEquals(data, heightmap.toLongArray());
+    }
+
+    @Test
+    void of_ThrowsIllegalArgumentException_WhenLengthIsWrong() {
+
+        assertThrows(IllegalArgumentException.class,
+                () -> Heightmap.of(Heightmap.Type.MOTION_BLOCKING, MIN_Y, WORLD_HEIGHT,
+                        new long[36]));
+    }
+
+    @Test
+    void getHeight_ThrowsIndexOutOfBoundsException_WhenOutsideChunk() {
+
+        final Heightmap heightmap = Heightmap.empty(Heightmap.Type.WORLD_SURFACE, MIN_Y,
+                WORLD_HEIGHT);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> heightmap.getHeight(16, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> heightmap.getHeight(0, -1));
+    }
+
+    @Test
+    void update_RaisesHeight_WhenMatchingBlockIsPlacedAbove() {
+
+        final Heightmap heightmap = Heightmap.empty(Heightmap.Type.WORLD_SURFACE, MIN_Y,
+                WORLD_HEIGHT);
+
+        assertTrue(heightmap.update(3, 70, 4, true, y -> false));
+        assertEquals(71, heightmap.getHeight(3, 4));
+        assertFalse(heightmap.update(3, 20, 4, true, y -> false));
+        assertEquals(71, heightmap.getHeight(3, 4));
+    }
+
+    @Test
+    void update_SearchesDownwards_WhenHighestBlockIsRemoved() {
+
+        final Heightmap heightmap = Heightmap.empty(Heightmap.Type.WORLD_SURFACE, MIN_Y,
+                WORLD_HEIGHT);
+        heightmap.setHeight(3, 4, 71);
+
+        assertTrue(heightmap.update(3, 70, 4, false, y -> y == 12));
+        assertEquals(13, heightmap.getHeight(3, 4));
+        assertTrue(heightmap.update(3, 12, 4, false, y -> false));
+        assertEquals(MIN_Y, heightmap.getHeight(3, 4));
+    }
+}
@@ -17,8 +17,10 @@
 package io.github.sparky983.diorite;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -39,7 +41,8 @@ class IdentifierTest {
 
     static List<String> provideUnparsableIdentifiers() {
 
-        return List.of("diorite=:player", "diorite/:player", "diorite:player=");
+        return List.of("diorite=:player", "diorite/:player", "diorite:player=", "Diorite:player",
+                "diorite:", ":player", "");
     }
 
     static List<Arguments> provideEncodedIdentifiers() {
@@ -78,4 +81,25 @@ class IdentifierTest {
 
         assertEquals(result, encodedIdentifier);
     }
+
+    @Test
+    void parse_ReturnsSameInstance_WhenParsedAgain() {
+
+        final Identifier identifier = Identifier.parse("diorite:interned");
+
+        assertSame(identifier, Identifier.parse("diorite:interned"));
+    }
+
+    @Test
+    void parse_ReturnsSameInstance_WhenDefaultNamespaceIsImplicit() {
+
+        assertSame(Identifier.parse("minecraft:creeper"), Identifier.parse("creeper"));
+    }
+
+    @Test
+    void hashCode_IsEqual_WhenIdentifiersAreEqual() {
+
+        assertEquals(Identifier.of("diorite", "player").hashCode(),
+                Identifier.parse("diorite:player").hashCode());
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import io.github.sparky983.diorite.world.LightStorage;
+
+class LightStorageTest {
+
+    private static final int MIN_Y = -64;
+    private static final int WORLD_HEIGHT = 384;
+    private static final long[] NONE = new long[0];
+
+    private static byte[] filled(final int level) {
+
+        final byte[] array = new byte[LightStorage.LIGHT_ARRAY_LENGTH];
+        Arrays.fill(array, (byte) (level << 4 | level));
+        return array;
+    }
+
+    @Test
+    void getSkyLight_ReadsNibbles() {
+
+        final LightStorage lightStorage = LightStorage.create(MIN_Y, WORLD_HEIGHT);
+        final byte[] array = new byte[LightStorage.LIGHT_ARRAY_LENGTH];
+        // x = 0 and x = 1 at y = 0, z = 0 of the section share the first byte
+        array[0] = (byte) (0x7 | 0x9 << 4);
+        // x = 3, y = 2, z = 1
+        array[(2 << 8 | 1 << 4 | 3) >> 1] = (byte) (0xC << 4);
+
+        // section 1 is the lowest section of the world, y -64 to -49
+        lightStorage.update(new long[]{0b10}, NONE, NONE, NONE, new byte[][]{array}, new byte[0][]);
+
+        assertEquals(7, lightStorage.getSkyLight(0, -64, 0));
+        assertEquals(9, lightStorage.getSkyLight(1, -64, 0));
+        assertEquals(12, lightStorage.getSkyLight(3, -62, 1));
+        assertEquals(0, lightStorage.getSkyLight(3, -62, 2));
+        assertEquals(0, lightStorage.getBlockLight(0, -64, 0));
+    }
+
+    @Test
+    void update_KeepsOtherSections_WhenNotInMasks() {
+
+        final LightStorage lightStorage = LightStorage.create(MIN_Y, WORLD_HEIGHT);
+
+        lightStorage.update(new long[]{0b1100}, NONE, NONE, NONE,
+                new byte[][]{filled(15), filled(4)}, new byte[0][]);
+        lightStorage.update(NONE, NONE, new long[]{0b100}, NONE, new byte[0][], new byte[0][]);
+
+        assertEquals(0, lightStorage.getSkyLight(5, -48, 5));
+        assertEquals(4, lightStorage.getSkyLight(5, -32, 5));
+    }
+
+    @Test
+    void update_KeepsLight_WhenSentArrayIsModified() {
+
+        final LightStorage lightStorage = LightStorage.create(MIN_Y, WORLD_HEIGHT);
+        final byte[] array = filled(6);
+        array[0] = 0;
+
+        lightStorage.update(new long[]{0b10}, NONE, NONE, NONE, new byte[][]{array}, new byte[0][]);
+        Arrays.fill(array, (byte) 0);
+
+        assertEquals(6, lightStorage.getSkyLight(5, -60, 5));
+    }
+
+    @Test
+    void update_ThrowsIllegalArgumentException_WhenArrayCountDoesNotMatchMask() {
+
+        final LightStorage lightStorage = LightStorage.create(MIN_Y, WORLD_HEIGHT);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> lightStorage.update(new long[]{0b11}, NONE, NONE, NONE,
+                        new byte[][]{filled(15)}, new byte[0][]));
+    }
+
+    @Test
+    void getBlockLight_ThrowsIndexOutOfBoundsException_WhenOutsideLightSections() {
+
+        final LightStorage lightStorage = LightStorage.create(MIN_Y, WORLD_HEIGHT);
+
+        assertEquals(0, lightStorage.getBlockLight(0, MIN_Y - 16, 0));
+        assertEquals(0, lightStorage.getBlockLight(0, MIN_Y + WORLD_HEIGHT + 15, 0));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> lightStorage.getBlockLight(0, MIN_Y - 17, 0));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> lightStorage.getBlockLight(0, MIN_Y + WORLD_HEIGHT + 16, 0));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import io.github.sparky983.diorite.world.PackedArrays;
+
+class PackedArraysTest {
+
+    static List<Integer> provideBitsPerEntry() {
+
+        return IntStream.rangeClosed(1, 32).boxed().collect(Collectors.toList());
+    }
+
+    private static long[] randomPacked(final int bitsPerEntry, final int size) {
+
+        final Random random = new Random(bitsPerEntry);
+        final long[] packed = new long[PackedArrays.packedLength(bitsPerEntry, size)];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = random.nextLong();
+        }
+        return packed;
+    }
+
+    private static int naive(final long[] packed, final int bitsPerEntry, final int index) {
+
+        final int valuesPerLong = 64 / bitsPerEntry;
+        final int shift = (index % valuesPerLong) * bitsPerEntry;
+        return (int) ((packed[index / valuesPerLong] >>> shift) & ((1L << bitsPerEntry) - 1));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideBitsPerEntry")
+    void unpack_MatchesNaiveLoop_ForInts(final int bitsPerEntry) {
+
+        // 4096 isn't a multiple of most widths' entries per long, so the last long is partial
+        final long[] packed = randomPacked(bitsPerEntry, 4096);
+        final int[] unpacked = new int[4096];
+
+        PackedArrays.unpack(packed, bitsPerEntry, unpacked);
+
+        for (int i = 0; i < unpacked.length; i++) {
+            assertEquals(naive(packed, bitsPerEntry, i), unpacked[i]);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideBitsPerEntry")
+    void unpack_MatchesNaiveLoop_ForShorts(final int bitsPerEntry) {
+
+        if (bitsPerEntry > 16) {
+            return;
+        }
+
+        final long[] packed = randomPacked(bitsPerEntry, 256);
+        final short[] unpacked = new short[256];
+
+        PackedArrays.unpack(packed, bitsPerEntry, unpacked);
+
+        for (int i = 0; i < unpacked.length; i++) {
+            assertEquals(naive(packed, bitsPerEntry, i), Short.toUnsignedInt(unpacked[i]));
+        }
+    }
+
+    @Test
+    void unpack_ReadsBigEndianLongs_FromBuffer() {
+
+        final long[] packed = randomPacked(5, 4096);
+        final ByteBuffer buffer = ByteBuffer.allocate(packed.length * Long.BYTES + 1);
+        buffer.put((byte) 0x7F);
+        for (final long value : packed) {
+            buffer.putLong(value);
+        }
+        buffer.flip().get();
+
+        final int[] expected = new int[4096];
+        final int[] actual = new int[4096];
+        PackedArrays.unpack(packed, 5, expected);
+        PackedArrays.unpack(buffer, 5, actual);
+
+        assertArrayEquals(expected, actual);
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void unpack_Throws_WhenPackedIsTooShort() {
+
+        assertThrows(IllegalArgumentException.class,
+                () -> PackedArrays.unpack(new long[341], 5, new int[4096]));
+    }
+
+    @Test
+    void packedLength_DoesNotSpanLongs() {
+
+        assertEquals(342, PackedArrays.packedLength(5, 4096));
+        assertEquals(256, PackedArrays.packedLength(4, 4096));
+        assertEquals(37, PackedArrays.packedLength(9, 256));
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import io.github.sparky983.diorite.world.RegionFile;
+import io.github.sparky983.diorite.world.RegionStorage;
+
+class RegionFileTest {
+
+    private static final int SECTOR_SIZE = 4096;
+
+    private static byte[] randomBytes(final int length, final long seed) {
+
+        final byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] read(final RegionFile regionFile, final int chunkX, final int chunkZ)
+            throws IOException {
+
+        try (final InputStream inputStream = regionFile.readChunk(chunkX, chunkZ).orElseThrow()) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static void delete(final Path directory) throws IOException {
+
+        try (final Stream<Path> paths = Files.walk(directory)) {
+            final Path[] sorted = paths.sorted(Comparator.reverseOrder()).toArray(Path[]::new);
+            for (final Path path : sorted) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void testFileName() {
+
+        assertEquals("r.0.0.mca", RegionFile.getFileName(31, 0));
+        assertEquals("r.-1.1.mca", RegionFile.getFileName(-1, 32));
+    }
+
+    @Test
+    void testWriteThenRead() throws IOException {
+
+        final Path directory = Files.createTempDirectory("region");
+        try {
+            final Path path = directory.resolve(RegionFile.getFileName(0, 0));
+            final byte[] first = new byte[10_000];
+            final byte[] second = randomBytes(5_000, 1);
+
+            try (final RegionFile regionFile = RegionFile.open(path)) {
+                assertFalse(regionFile.hasChunk(0, 0));
+                assertTrue(regionFile.readChunk(0, 0).isEmpty());
+
+                regionFile.writeChunk(0, 0, first);
+                regionFile.writeChunk(31, 31, second);
+
+                assertTrue(regionFile.hasChunk(0, 0));
+                assertTrue(regionFile.getTimestamp(31, 31) > 0);
+                assertArrayEquals(first, read(regionFile, 0, 0));
+                assertArrayEquals(second, read(regionFile, 31, 31));
+            }
+
+            try (final RegionFile regionFile = RegionFile.openReadOnly(path)) {
+                assertArrayEquals(first, read(regionFile, 0, 0));
+                assertArrayEquals(second, read(regionFile, 31, 31));
+                assertFalse(regionFile.hasChunk(1, 0));
+                assertThrows(IllegalStateException.class,
+                        () -> regionFile.writeChunk(1, 0, first));
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void testOverwriteAndRemoveReuseSectors() throws IOException {
+
+        final Path directory = Files.createTempDirectory("region");
+        try {
+            final Path path = directory.resolve(RegionFile.getFileName(0, 0));
+
+            try (final RegionFile regionFile = RegionFile.open(path)) {
+                regionFile.writeChunk(0, 0, randomBytes(3 * SECTOR_SIZE, 1));
+                regionFile.writeChunk(1, 0, randomBytes(3 * SECTOR_SIZE, 2));
+                regionFile.flush();
+                final long size = Files.size(path);
+
+                assertTrue(regionFile.removeChunk(1, 0));
+                assertFalse(regionFile.removeChunk(1, 0));
+                assertFalse(regionFile.hasChunk(1, 0));
+                // the old sectors are only freed once the replacement is written
+                final byte[] replacement = randomBytes(2 * SECTOR_SIZE, 3);
+                regionFile.writeChunk(0, 0, replacement);
+
+                regionFile.writeChunk(2, 0, randomBytes(3 * SECTOR_SIZE, 4));
+                regionFile.flush();
+
+                assertEquals(size, Files.size(path));
+                assertArrayEquals(replacement, read(regionFile, 0, 0));
+                assertArrayEquals(randomBytes(3 * SECTOR_SIZE, 4), read(regionFile, 2, 0));
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void testStreamReadsChunkAsItWasWhenOpened() throws IOException {
+
+        final Path directory = Files.createTempDirectory("region");
+        try {
+            final byte[] first = randomBytes(3 * SECTOR_SIZE, 1);
+            final byte[] large = randomBytes(256 * SECTOR_SIZE, 2);
+
+            try (final RegionFile regionFile =
+                         RegionFile.open(directory.resolve(RegionFile.getFileName(0, 0)))) {
+                regionFile.writeChunk(0, 0, first);
+                regionFile.writeChunk(1, 0, large);
+
+                try (final InputStream firstStream = regionFile.readChunk(0, 0).orElseThrow();
+                     final InputStream largeStream = regionFile.readChunk(1, 0).orElseThrow()) {
+                    assertTrue(regionFile.removeChunk(0, 0));
+                    // reuses the removed chunk's sectors
+                    regionFile.writeChunk(2, 0, randomBytes(3 * SECTOR_SIZE, 3));
+                    regionFile.writeChunk(1, 0, randomBytes(256 * SECTOR_SIZE, 4));
+
+                    assertArrayEquals(first, firstStream.readAllBytes());
+                    assertArrayEquals(large, largeStream.readAllBytes());
+                }
+                assertArrayEquals(randomBytes(256 * SECTOR_SIZE, 4), read(regionFile, 1, 0));
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void testLargeChunksAreStoredExternally() throws IOException {
+
+        final Path directory = Files.createTempDirectory("region");
+        try {
+            // random bytes don't compress, so this needs more than 255 sectors
+            final byte[] large = randomBytes(256 * SECTOR_SIZE, 1);
+
+            try (final RegionFile regionFile =
+                         RegionFile.open(directory.resolve(RegionFile.getFileName(0, 0)))) {
+                regionFile.writeChunk(3, 4, large);
+
+                assertTrue(Files.exists(directory.resolve("c.3.4.mcc")));
+                assertArrayEquals(large, read(regionFile, 3, 4));
+
+                regionFile.writeChunk(3, 4, new byte[100]);
+                assertFalse(Files.exists(directory.resolve("c.3.4.mcc")));
+                assertArrayEquals(new byte[100], read(regionFile, 3, 4));
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void testStorage() throws IOException {
+
+        final Path directory = Files.createTempDirectory("region");
+        try {
+            final byte[] data = randomBytes(1_000, 1);
+
+            try (final RegionStorage storage = RegionStorage.open(directory)) {
+                storage.writeChunk(-1, 40, data);
+            }
+            assertTrue(Files.exists(directory.resolve("r.-1.1.mca")));
+
+            try (final RegionStorage storage = RegionStorage.openReadOnly(directory)) {
+                try (final InputStream inputStream = storage.readChunk(-1, 40).orElseThrow()) {
+                    assertArrayEquals(data, inputStream.readAllBytes());
+                }
+                assertTrue(storage.readChunk(100, 100).isEmpty());
+                assertFalse(Files.exists(directory.resolve("r.3.3.mca")));
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022 Sparky983
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.sparky983.diorite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import io.github.sparky983.diorite.world.Identifier;
+import io.github.sparky983.diorite.world.TagRegistry;
+
+class TagRegistryTest {
+
+    private static final Identifier BLOCK = Identifier.of("block");
+    private static final Identifier ITEM = Identifier.of("item");
+    private static final Identifier LOGS = Identifier.of("logs");
+    private static final Identifier PLANKS = Identifier.of("planks");
+    private static final Identifier FLOWERS = Identifier.of("flowers");
+
+    private static TagRegistry createRegistry() {
+
+        return TagRegistry.of(Map.of(
+                BLOCK, Map.of(
+                        LOGS, new int[]{1, 2, 3, 200},
+                        PLANKS, new int[]{3, 4},
+                        FLOWERS, new int[]{5, 6}),
+                ITEM, Map.of(
+                        LOGS, new int[]{100})));
+    }
+
+    @Test
+    void contains_ReturnsWhetherTagHasId() {
+
+        final TagRegistry tagRegistry = createRegistry();
+
+        assertTrue(tagRegistry.contains(BLOCK, LOGS, 1));
+        assertTrue(tagRegistry.contains(BLOCK, LOGS, 200));
+        assertFalse(tagRegistry.contains(BLOCK, LOGS, 4));
+        assertFalse(tagRegistry.contains(BLOCK, LOGS, 100));
+        assertTrue(tagRegistry.contains(ITEM, LOGS, 100));
+    }
+
+    @Test
+    void contains_OutOfRangeIds_ReturnsFalse() {
+
+        final TagRegistry.Tag tag = createRegistry().getTag(BLOCK, LOGS).orElseThrow();
+
+        assertFalse(tag.contains(-1));
+        assertFalse(tag.contains(Integer.MIN_VALUE));
+        assertFalse(tag.contains(201));
+        assertFalse(tag.contains(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void contains_UnknownTag_ReturnsFalse() {
+
+        final TagRegistry tagRegistry = createRegistry();
+
+        assertFalse(tagRegistry.contains(ITEM, PLANKS, 3));
+        assertFalse(tagRegistry.contains(Identifier.of("fluid"), LOGS, 1));
+        assertTrue(tagRegistry.getTag(ITEM, FLOWERS).isEmpty());
+    }
+
+    @Test
+    void getTag_ReturnsTag() {
+
+        final TagRegistry.Tag tag = createRegistry().getTag(BLOCK, LOGS).orElseThrow();
+
+        assertEquals(BLOCK, tag.getRegistry());
+        assertEquals(LOGS, tag.getName());
+        assertEquals(4, tag.size());
+    }
+
+    @Test
+    void getTags_ReturnsTagsContainingId() {
+
+        final TagRegistry tagRegistry = createRegistry();
+
+        assertEquals(Set.of(LOGS, PLANKS), tagRegistry.getTags(BLOCK, 3));
+        assertEquals(Set.of(LOGS), tagRegistry.getTags(BLOCK, 1));
+        assertEquals(Set.of(), tagRegistry.getTags(BLOCK, 7));
+        assertEquals(Set.of(), tagRegistry.getTags(BLOCK, -1));
+        assertEquals(Set.of(), tagRegistry.getTags(ITEM, 1));
+    }
+
+    @Test
+    void getTags_IdsInSameTags_ShareSet() {
+
+        final TagRegistry tagRegistry = createRegistry();
+
+        assertSame(tagRegistry.getTags(BLOCK, 1), tagRegistry.getTags(BLOCK, 2));
+        assertSame(tagRegistry.getTags(BLOCK, 5), tagRegistry.getTags(BLOCK, 6));
+    }
+
+    @Test
+    void of_NegativeEntry_Throws() {
+
+        final Map<Identifier, Map<Identifier, int[]>> tags =
+                Map.of(BLOCK, Map.of(LOGS, new int[]{1, -1}));
+
+        assertThrows(IllegalArgumentException.class, () -> TagRegistry.of(tags));
+    }
+
+    @Test
+    void of_EntryAboveMaxId_Throws() {
+
+        final Map<Identifier, Map<Identifier, int[]>> tags =
+                Map.of(BLOCK, Map.of(LOGS, new int[]{1, TagRegistry.MAX_ID + 1}));
+
+        assertThrows(IllegalArgumentException.class, () -> TagRegistry.of(tags));
+    }
+
+    @Test
+    void contains_EntryAtMaxId_ReturnsTrue() {
+
+        final TagRegistry tagRegistry =
+                TagRegistry.of(Map.of(BLOCK, Map.of(LOGS, new int[]{TagRegistry.MAX_ID})));
+
+        assertTrue(tagRegistry.contains(BLOCK, LOGS, TagRegistry.MAX_ID));
+        assertFalse(tagRegistry.contains(BLOCK, LOGS, 0));
+        assertEquals(Set.of(LOGS), tagRegistry.getTags(BLOCK, TagRegistry.MAX_ID));
+    }
+}